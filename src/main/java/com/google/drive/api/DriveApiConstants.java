@@ -1,5 +1,7 @@
 package com.google.drive.api;
 
+import java.util.List;
+
 public final class DriveApiConstants {
 	
 	private DriveApiConstants() {
@@ -14,22 +16,119 @@ public final class DriveApiConstants {
 		
 		public static final String CLIENT_SECRET = "/client_secret.json";
 		public static final String APPLICATION_NAME_PROP = "${google.api.app_name}";
+		public static final String ROOT_URL_PROP = "${google.api.root_url:}";
 		public static final String CREDENTIALS_PATH = "${google.api.credentials_path:}";
+		public static final String CREDENTIALS_REFRESH_MARGIN_SECONDS_PROP = "${google.api.credentials.refresh_margin_seconds:300}";
+		public static final String CREDENTIALS_REFRESH_JITTER_SECONDS_PROP = "${google.api.credentials.refresh_jitter_seconds:60}";
+		public static final Long DEFAULT_CREDENTIALS_REFRESH_MARGIN_SECONDS = 300L;
+		public static final Long DEFAULT_CREDENTIALS_REFRESH_JITTER_SECONDS = 60L;
+		public static final Long CREDENTIALS_REFRESH_RETRY_DELAY_SECONDS = 30L;
+		public static final String BEARER_TOKEN_PREFIX = "Bearer ";
+		public static final String FOLDER_CACHE_MAX_SIZE_PROP = "${google.api.folder_cache.max_size:10000}";
+		public static final String FOLDER_CACHE_TTL_SECONDS_PROP = "${google.api.folder_cache.ttl_seconds:3600}";
+		public static final Integer DEFAULT_FOLDER_CACHE_MAX_SIZE = 10000;
+		public static final Long DEFAULT_FOLDER_CACHE_TTL_SECONDS = 3600L;
+		public static final String DOWNLOAD_CHUNK_SIZE_PROP = "${google.api.download.chunk_size:8388608}";
+		public static final String DOWNLOAD_PARALLELISM_PROP = "${google.api.download.parallelism:4}";
+		public static final String DOWNLOAD_MAX_CHUNK_RETRIES_PROP = "${google.api.download.max_chunk_retries:3}";
+		public static final Long DEFAULT_DOWNLOAD_CHUNK_SIZE = 8388608L;
+		public static final Integer DEFAULT_DOWNLOAD_PARALLELISM = 4;
+		public static final Integer DEFAULT_DOWNLOAD_MAX_CHUNK_RETRIES = 3;
+		public static final Long DEFAULT_DOWNLOAD_RETRY_DELAY_MILLIS = 200L;
+		public static final String UPLOAD_RESUMABLE_THRESHOLD_PROP = "${google.api.upload.resumable_threshold:5242880}";
+		public static final String UPLOAD_CHUNK_SIZE_PROP = "${google.api.upload.chunk_size:8388608}";
+		public static final String UPLOAD_MAX_RETRIES_PROP = "${google.api.upload.max_retries:3}";
+		public static final String UPLOAD_JOURNAL_PATH_PROP = "${google.api.upload.journal_path:}";
+		public static final Long DEFAULT_UPLOAD_RESUMABLE_THRESHOLD = 5242880L;
+		public static final Integer DEFAULT_UPLOAD_CHUNK_SIZE = 8388608;
+		public static final Integer DEFAULT_UPLOAD_MAX_RETRIES = 3;
+		public static final Long DEFAULT_UPLOAD_RETRY_DELAY_MILLIS = 200L;
+		public static final String DEFAULT_UPLOAD_JOURNAL_DIRECTORY = "google-drive-lib-upload-journal";
+		public static final Long UPLOAD_SESSION_TTL_DAYS = 7L;
+		public static final String UPLOAD_PATH = "upload/";
+		public static final String UPLOAD_FILES_RESOURCE = "files";
+		public static final String BATCH_PARALLELISM_PROP = "${google.api.batch.parallelism:4}";
+		public static final Integer DEFAULT_BATCH_PARALLELISM = 4;
+		public static final String ASYNC_TIMEOUT_MILLIS_PROP = "${google.api.async.timeout_millis:0}";
+		public static final String ASYNC_EXECUTOR_BEAN = "googleDriveAsyncExecutor";
+		public static final String TREE_WALK_PARALLELISM_PROP = "${google.api.tree_walk.parallelism:8}";
+		public static final String TREE_WALK_PARENTS_PER_QUERY_PROP = "${google.api.tree_walk.parents_per_query:20}";
+		public static final Integer DEFAULT_TREE_WALK_PARALLELISM = 8;
+		public static final Integer DEFAULT_TREE_WALK_PARENTS_PER_QUERY = 20;
+		public static final String SYNC_PARALLELISM_PROP = "${google.api.sync.parallelism:4}";
+		public static final Integer DEFAULT_SYNC_PARALLELISM = 4;
+		public static final String INDEX_ENABLED_PROPERTY = "google.api.index.enabled";
+		public static final String INDEX_POLL_INTERVAL_SECONDS_PROP = "${google.api.index.poll_interval_seconds:30}";
+		public static final String INDEX_MAX_STALENESS_SECONDS_PROP = "${google.api.index.max_staleness_seconds:120}";
+		public static final Long DEFAULT_INDEX_POLL_INTERVAL_SECONDS = 30L;
+		public static final Long DEFAULT_INDEX_MAX_STALENESS_SECONDS = 120L;
+		public static final String DOWNLOAD_CACHE_PATH_PROP = "${google.api.download_cache.path:}";
+		public static final String DOWNLOAD_CACHE_MAX_BYTES_PROP = "${google.api.download_cache.max_bytes:0}";
+		public static final String DEFAULT_DOWNLOAD_CACHE_DIRECTORY = "google-drive-lib-download-cache";
+		public static final Long DEFAULT_DOWNLOAD_CACHE_MAX_BYTES = 0L;
+		public static final String RATE_LIMIT_REQUESTS_PER_SECOND_PROP = "${google.api.rate_limit.requests_per_second:200}";
+		public static final String RATE_LIMIT_BURST_PROP = "${google.api.rate_limit.burst:50}";
+		public static final String RATE_LIMIT_MIN_CONCURRENCY_PROP = "${google.api.rate_limit.min_concurrency:1}";
+		public static final String RATE_LIMIT_MAX_CONCURRENCY_PROP = "${google.api.rate_limit.max_concurrency:32}";
+		public static final Double DEFAULT_RATE_LIMIT_REQUESTS_PER_SECOND = 200d;
+		public static final Integer DEFAULT_RATE_LIMIT_BURST = 50;
+		public static final Integer DEFAULT_RATE_LIMIT_MIN_CONCURRENCY = 1;
+		public static final Integer DEFAULT_RATE_LIMIT_MAX_CONCURRENCY = 32;
+		public static final String RETRY_MAX_RETRIES_PROP = "${google.api.retry.max_retries:5}";
+		public static final String RETRY_INITIAL_DELAY_MILLIS_PROP = "${google.api.retry.initial_delay_millis:500}";
+		public static final String RETRY_MAX_DELAY_MILLIS_PROP = "${google.api.retry.max_delay_millis:32000}";
+		public static final String RETRY_MULTIPLIER_PROP = "${google.api.retry.multiplier:2}";
+		public static final String RETRY_MAX_ELAPSED_MILLIS_PROP = "${google.api.retry.max_elapsed_millis:120000}";
+		public static final Integer DEFAULT_RETRY_MAX_RETRIES = 5;
+		public static final Long DEFAULT_RETRY_INITIAL_DELAY_MILLIS = 500L;
+		public static final Long DEFAULT_RETRY_MAX_DELAY_MILLIS = 32000L;
+		public static final Double DEFAULT_RETRY_MULTIPLIER = 2d;
+		public static final Long DEFAULT_RETRY_MAX_ELAPSED_MILLIS = 120000L;
+		public static final String TRANSPORT_PROPERTIES_PREFIX = "google.api.transport";
+		public static final Integer DEFAULT_TRANSPORT_MAX_CONNECTIONS = 64;
+		public static final Integer DEFAULT_TRANSPORT_MAX_CONNECTIONS_PER_ROUTE = 32;
+		public static final Long DEFAULT_TRANSPORT_CONNECT_TIMEOUT_MILLIS = 20000L;
+		public static final Long DEFAULT_TRANSPORT_READ_TIMEOUT_MILLIS = 20000L;
+		public static final Long DEFAULT_TRANSPORT_IDLE_TIMEOUT_MILLIS = 30000L;
+		public static final List<String> RATE_LIMIT_REASONS = List.of("rateLimitExceeded", "userRateLimitExceeded");
+		public static final String BATCH_PATH_PREFIX = "/batch/";
 		public static final String FOLDER_MIME_TYPE = "application/vnd.google-apps.folder";
 		public static final String ID_FIELD_BASE = "id";
 		public static final String FILE_FIELDS = "id, name, parents, createdTime";
+		public static final String DOWNLOAD_FILE_FIELDS = "id, size, md5Checksum";
+		public static final String CACHE_FILE_FIELDS = "id, size, md5Checksum, version";
+		public static final String CACHE_VERSION_PREFIX = "v";
+		public static final String MD5_ALGORITHM = "MD5";
+		public static final String SHA256_ALGORITHM = "SHA-256";
+		public static final Integer TOO_MANY_REQUESTS_STATUS_CODE = 429;
+		public static final Integer GONE_STATUS_CODE = 410;
 		public static final String FILE_QUERY_IN_FOLDER = "mimeType!='application/vnd.google-apps.folder' and name='%s' and '%s' in parents";
 		public static final String FILES_QUERY_IN_FOLDER = "mimeType!='application/vnd.google-apps.folder' and '%s' in parents";
 		public static final String FILES_QUERY_IN_FOLDER_FILENAME_FILTER = "mimeType!='application/vnd.google-apps.folder' and '%s' in parents and name contains '%s'";
 		public static final String FOLDER_QUERY_NAME = "mimeType='application/vnd.google-apps.folder' and name='%s'";
 		public static final String FOLDER_QUERY_PARENT = " and '%s' in parents";
+		public static final String TREE_QUERY = "(%s) and trashed=false";
+		public static final String PARENT_QUERY_CLAUSE = "'%s' in parents";
+		public static final String OR_QUERY_SEPARATOR = " or ";
+		public static final String TREE_QUERY_FIELDS = "nextPageToken, files(id, name, parents, createdTime, mimeType)";
+		public static final String SYNC_FILE_FIELDS = "id, name, parents, mimeType, size, md5Checksum, modifiedTime";
+		public static final String SYNC_QUERY_FIELDS = "nextPageToken, files(" + SYNC_FILE_FIELDS + ")";
+		public static final String INDEX_FILE_FIELDS = "id, name, parents, mimeType, size, md5Checksum, createdTime, modifiedTime, trashed";
+		public static final String INDEX_QUERY = "trashed=false";
+		public static final String INDEX_QUERY_FIELDS = "nextPageToken, files(" + INDEX_FILE_FIELDS + ")";
+		public static final String INDEX_CHANGES_FIELDS = "nextPageToken, newStartPageToken, changes(fileId, removed, file(" + INDEX_FILE_FIELDS + "))";
 		public static final String DRIVE_SPACES = "drive";
+		public static final String GENERATE_IDS_TYPE = "files";
+		public static final String GENERATED_IDS_FIELDS = "ids";
+		public static final Integer MAX_BATCH_SIZE = 100;
+		public static final String DOWNLOAD_TEMP_FILE_SUFFIX = ".part";
 		public static final String DRIVE_BASE_EXPORT_URL = "https://drive.google.com/uc?export=view&id=";
-		public static final String FOLDER_QUERY_FIELDS = "nextPageToken, files(" + FILE_FIELDS + ")";
+		public static final String FOLDER_ID_QUERY_FIELDS = "files(id)";
 		public static final String ANYONE_PERMISSION_TYPE = "anyone";
 		public static final String READER_PERMISSION_TOLE = "reader";
 		public static final Integer DEFAULT_PAGE_SIZE = 20;
 		public static final Integer MAX_PAGE_SIZE = 100;
+		public static final Integer STREAM_PAGE_SIZE = 1000;
 	}
 
 	public static final class MSGERROR {
@@ -40,7 +139,14 @@ public final class DriveApiConstants {
 		
 		public static final String DRIVE_GENERAL_ERROR = "Error while performing action in google drive service";
 		public static final String DRIVE_UPLOAD_ERROR = "Error while performing upload action in google drive service, upload result null";
+		public static final String DRIVE_UPLOAD_SESSION_ERROR = "Error while performing upload action in google drive service, no resumable session uri received";
+		public static final String DRIVE_DOWNLOAD_CHECKSUM_ERROR = "Error while performing download action in google drive service, md5 checksum mismatch";
+		public static final String DRIVE_DOWNLOAD_INCOMPLETE_RANGE_ERROR = "Error while performing download action in google drive service, incomplete byte range received";
+		public static final String DRIVE_BATCH_CALL_MISSING_ERROR = "Error while performing batch action in google drive service, no response received for call";
+		public static final String DRIVE_SYNC_CONFLICT_ERROR = "Error while performing sync action in google drive service, a file and a folder share the same path";
+		public static final String DRIVE_SYNC_MISSING_FOLDER_ERROR = "Error while performing sync action in google drive service, parent folder missing";
 		public static final String GOOGLE_OAUTH2_ERROR = "Error while getting access token for google api connection to initialize service.";
+		public static final String GOOGLE_TRANSPORT_ERROR = "Error while creating the http transport for google api connection to initialize service.";
 	}
 
 }
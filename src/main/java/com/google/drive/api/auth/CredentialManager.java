@@ -0,0 +1,228 @@
+package com.google.drive.api.auth;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.DriveApiConstants.MSGERROR;
+import com.google.drive.api.util.SingleFlight;
+
+/**
+ * Manager of the OAuth2 access token used by Google Drive requests. The token is refreshed by a background
+ * thread ahead of its expiration (refresh margin minus a random jitter, so that many instances do not
+ * refresh at once) and requests read it with a single volatile load. A synchronous refresh only happens
+ * when there is no valid token or Google Drive answers {@code 401}, and concurrent refreshes of the same
+ * stale token are coalesced into a single call.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class CredentialManager implements HttpRequestInitializer, HttpExecuteInterceptor, HttpUnsuccessfulResponseHandler, AutoCloseable {
+
+	private static final String NO_TOKEN = "";
+
+	private final GoogleCredentials credentials;
+	private final Duration refreshMargin;
+	private final Duration refreshJitter;
+	private final ScheduledExecutorService scheduler;
+	private final SingleFlight<String, AccessToken> refreshFlights = new SingleFlight<>();
+	private volatile AccessToken accessToken;
+	private ScheduledFuture<?> scheduledRefresh;
+
+	/**
+	 * Constructor with the Google credentials, using the default refresh margin and jitter.
+	 *
+	 * @param credentials
+	 */
+	public CredentialManager(GoogleCredentials credentials) {
+		this(credentials, Duration.ofSeconds(GOOGLEAPI.DEFAULT_CREDENTIALS_REFRESH_MARGIN_SECONDS),
+				Duration.ofSeconds(GOOGLEAPI.DEFAULT_CREDENTIALS_REFRESH_JITTER_SECONDS));
+	}
+
+	/**
+	 * Constructor with the Google credentials, how long before expiration the token is refreshed and the
+	 * maximum random time subtracted from it.
+	 *
+	 * @param credentials
+	 * @param refreshMargin
+	 * @param refreshJitter
+	 */
+	public CredentialManager(GoogleCredentials credentials, Duration refreshMargin, Duration refreshJitter) {
+		if (refreshMargin.isNegative() || refreshJitter.isNegative()) {
+			throw new IllegalArgumentException("Invalid credential refresh settings");
+		}
+
+		this.credentials = credentials;
+		this.refreshMargin = refreshMargin;
+		this.refreshJitter = refreshJitter;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+				.name("google-drive-token-refresher")
+				.daemon()
+				.factory());
+
+		AccessToken currentToken = credentials.getAccessToken();
+
+		if (currentToken != null && !this.isExpired(currentToken)) {
+			this.accessToken = currentToken;
+			this.scheduleRefresh(currentToken);
+		}
+	}
+
+	/**
+	 * Return the current access token value, refreshing it synchronously only if there is no valid token.
+	 *
+	 * @return access token value
+	 * @throws IOException
+	 */
+	public String getAccessToken() throws IOException {
+		AccessToken currentToken = this.accessToken;
+
+		if (currentToken == null || this.isExpired(currentToken)) {
+			currentToken = this.forceRefresh(currentToken == null ? NO_TOKEN : currentToken.getTokenValue());
+		}
+
+		return currentToken.getTokenValue();
+	}
+
+	/**
+	 * Refresh a token rejected by Google Drive. If it was already replaced by a valid token, the new token is
+	 * returned without refreshing again.
+	 *
+	 * @param staleToken
+	 * @return {@link AccessToken}
+	 * @throws IOException
+	 */
+	public AccessToken forceRefresh(String staleToken) throws IOException {
+		AccessToken currentToken = this.accessToken;
+
+		if (currentToken != null && !currentToken.getTokenValue().equals(staleToken) && !this.isExpired(currentToken)) {
+			return currentToken;
+		}
+
+		return this.refreshFlights.execute(staleToken, this::refresh);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void initialize(HttpRequest request) {
+		request.setInterceptor(this);
+		request.setUnsuccessfulResponseHandler(this);
+	}
+
+	/**
+	 * Set the current access token as the request authorization.
+	 */
+	@Override
+	public void intercept(HttpRequest request) throws IOException {
+		request.getHeaders().setAuthorization(GOOGLEAPI.BEARER_TOKEN_PREFIX + this.getAccessToken());
+	}
+
+	/**
+	 * Refresh the token that was rejected with {@code 401} and retry the request once a new token is in place.
+	 */
+	@Override
+	public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry) throws IOException {
+		if (!supportsRetry || response.getStatusCode() != HttpStatusCodes.STATUS_CODE_UNAUTHORIZED) {
+			return false;
+		}
+
+		String authorization = request.getHeaders().getAuthorization();
+		String staleToken = authorization != null && authorization.startsWith(GOOGLEAPI.BEARER_TOKEN_PREFIX)
+				? authorization.substring(GOOGLEAPI.BEARER_TOKEN_PREFIX.length())
+				: NO_TOKEN;
+
+		return !this.forceRefresh(staleToken).getTokenValue().equals(staleToken);
+	}
+
+	/**
+	 * Stop the background refresh.
+	 */
+	@Override
+	public void close() {
+		this.scheduler.shutdownNow();
+	}
+
+	private AccessToken refresh() throws IOException {
+		AccessToken refreshedToken = this.credentials.refreshAccessToken();
+
+		if (refreshedToken == null || refreshedToken.getTokenValue() == null) {
+			throw new IOException(MSGERROR.GOOGLE_OAUTH2_ERROR);
+		}
+
+		this.accessToken = refreshedToken;
+		this.scheduleRefresh(refreshedToken);
+
+		return refreshedToken;
+	}
+
+	/**
+	 * Schedule the background refresh of a token ahead of its expiration. Tokens living shorter than the
+	 * refresh margin are refreshed at half their remaining lifetime.
+	 *
+	 * @param token
+	 */
+	private synchronized void scheduleRefresh(AccessToken token) {
+		if (token.getExpirationTime() == null || this.scheduler.isShutdown()) {
+			return;
+		}
+
+		long remainingMillis = token.getExpirationTime().getTime() - System.currentTimeMillis();
+		long jitterMillis = this.refreshJitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(this.refreshJitter.toMillis() + 1);
+		long delayMillis = remainingMillis - this.refreshMargin.toMillis() - jitterMillis;
+
+		if (delayMillis <= 0) {
+			delayMillis = Math.max(0, remainingMillis / 2);
+		}
+
+		this.schedule(token, delayMillis);
+	}
+
+	private synchronized void schedule(AccessToken token, long delayMillis) {
+		if (this.scheduledRefresh != null) {
+			this.scheduledRefresh.cancel(false);
+		}
+
+		this.scheduledRefresh = this.scheduler.schedule(() -> this.refreshInBackground(token), delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Refresh a token from the background thread. On failure the current token is kept and the refresh is
+	 * retried later, while the token is still valid.
+	 *
+	 * @param token
+	 */
+	private void refreshInBackground(AccessToken token) {
+		try {
+			this.forceRefresh(token.getTokenValue());
+
+		} catch (IOException | RuntimeException e) {
+			long remainingMillis = token.getExpirationTime().getTime() - System.currentTimeMillis();
+			long retryMillis = Math.min(TimeUnit.SECONDS.toMillis(GOOGLEAPI.CREDENTIALS_REFRESH_RETRY_DELAY_SECONDS), remainingMillis / 2);
+
+			if (retryMillis > 0) {
+				this.schedule(token, retryMillis);
+			}
+		}
+	}
+
+	private boolean isExpired(AccessToken token) {
+		return token.getExpirationTime() != null && !token.getExpirationTime().toInstant().isAfter(Instant.now());
+	}
+
+}
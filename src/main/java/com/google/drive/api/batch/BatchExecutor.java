@@ -0,0 +1,210 @@
+package com.google.drive.api.batch;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.services.json.AbstractGoogleJsonClientRequest;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.drive.Drive;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.DriveApiConstants.MSGERROR;
+import com.google.drive.api.domain.DriveBatchResult;
+
+/**
+ * Engine running one Google Drive call per file id through batch requests of up to
+ * {@link GOOGLEAPI#MAX_BATCH_SIZE} calls, sending up to parallelism batches concurrently. Every call gets its
+ * own result or error, and a batch failing as a whole marks each of its calls as failed without affecting
+ * the other batches.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class BatchExecutor {
+
+	private final int parallelism;
+
+	/**
+	 * Default constructor.
+	 */
+	public BatchExecutor() {
+		this(GOOGLEAPI.DEFAULT_BATCH_PARALLELISM);
+	}
+
+	/**
+	 * Constructor with the number of batches sent concurrently.
+	 *
+	 * @param parallelism
+	 */
+	public BatchExecutor(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Invalid batch settings");
+		}
+
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Execute a call for every file id, returning their results in the same order as fileIds.
+	 *
+	 * @param <R> response type
+	 * @param <T> result type
+	 * @param driveService
+	 * @param fileIds
+	 * @param call request built for a file id
+	 * @param mapper conversion of a successful response into a result
+	 * @return results, in the same order as fileIds
+	 * @throws IOException
+	 */
+	public <R, T> List<DriveBatchResult<T>> execute(Drive driveService, List<String> fileIds, BatchCall<R> call, Function<R, T> mapper)
+			throws IOException {
+		@SuppressWarnings("unchecked")
+		DriveBatchResult<T>[] results = new DriveBatchResult[fileIds.size()];
+		int batchCount = (fileIds.size() + GOOGLEAPI.MAX_BATCH_SIZE - 1) / GOOGLEAPI.MAX_BATCH_SIZE;
+		AtomicInteger nextBatch = new AtomicInteger();
+		List<Future<Void>> workers = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < Math.min(this.parallelism, batchCount); i++) {
+				workers.add(executor.submit(() -> {
+					for (int batch = nextBatch.getAndIncrement(); batch < batchCount; batch = nextBatch.getAndIncrement()) {
+						int firstCall = batch * GOOGLEAPI.MAX_BATCH_SIZE;
+						int lastCall = Math.min(firstCall + GOOGLEAPI.MAX_BATCH_SIZE, fileIds.size());
+
+						this.executeBatch(driveService, fileIds, firstCall, lastCall, call, mapper, results);
+					}
+
+					return null;
+				}));
+			}
+
+			for (Future<Void> worker : workers) {
+				this.await(worker, executor);
+			}
+		}
+
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Send the calls of fileIds from firstCall (inclusive) to lastCall (exclusive) as a single batch request.
+	 */
+	private <R, T> void executeBatch(Drive driveService, List<String> fileIds, int firstCall, int lastCall, BatchCall<R> call,
+			Function<R, T> mapper, DriveBatchResult<T>[] results) throws IOException {
+		// the batch request itself goes through the request initializer of the client, as its calls do
+		BatchRequest batch = driveService.batch(driveService.getRequestFactory().getInitializer());
+
+		for (int i = firstCall; i < lastCall; i++) {
+			int callIndex = i;
+			String fileId = fileIds.get(i);
+
+			call.request(fileId).queue(batch, new JsonBatchCallback<R>() {
+
+				@Override
+				public void onSuccess(R response, HttpHeaders responseHeaders) {
+					results[callIndex] = DriveBatchResult.<T>builder()
+							.fileId(fileId)
+							.result(mapper.apply(response))
+							.build();
+				}
+
+				@Override
+				public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+					results[callIndex] = DriveBatchResult.<T>builder()
+							.fileId(fileId)
+							.errorCode(error.getCode())
+							.errorMessage(error.getMessage())
+							.build();
+				}
+			});
+		}
+
+		Integer errorCode = null;
+		String errorMessage = MSGERROR.DRIVE_BATCH_CALL_MISSING_ERROR;
+
+		try {
+			batch.execute();
+
+		} catch (InterruptedIOException e) {
+			throw e;
+
+		} catch (IOException e) {
+			errorCode = e instanceof HttpResponseException responseException ? responseException.getStatusCode() : null;
+			errorMessage = String.valueOf(e.getMessage());
+		}
+
+		for (int i = firstCall; i < lastCall; i++) {
+			if (results[i] == null) {
+				results[i] = DriveBatchResult.<T>builder()
+						.fileId(fileIds.get(i))
+						.errorCode(errorCode)
+						.errorMessage(errorMessage)
+						.build();
+			}
+		}
+	}
+
+	/**
+	 * Wait for a batch worker, cancelling the remaining workers if it failed.
+	 *
+	 * @param worker
+	 * @param executor
+	 * @throws IOException
+	 */
+	private void await(Future<Void> worker, ExecutorService executor) throws IOException {
+		try {
+			worker.get();
+
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+
+		} catch (ExecutionException e) {
+			executor.shutdownNow();
+
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * Google Drive request built for a file id.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 * @param <R> response type
+	 */
+	@FunctionalInterface
+	public interface BatchCall<R> {
+
+		/**
+		 * Build the request for a file id.
+		 *
+		 * @param fileId
+		 * @return request
+		 * @throws IOException
+		 */
+		AbstractGoogleJsonClientRequest<R> request(String fileId) throws IOException;
+	}
+
+}
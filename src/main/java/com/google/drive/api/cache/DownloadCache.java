@@ -0,0 +1,401 @@
+package com.google.drive.api.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.util.SingleFlight;
+
+/**
+ * On-disk cache of downloaded file contents, keyed by file id and content version (md5 checksum, or Google
+ * Drive version number when there is no checksum), so that a changed file is never served from a stale copy.
+ * The total size of the cached contents is bounded, the least recently used contents being evicted first,
+ * and only the latest version of each file is kept. Cached contents are read through memory mapping.
+ * Concurrent misses of the same content share a single download. Reads served from the cache are counted
+ * as hits and reads downloading the content as misses.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class DownloadCache {
+
+	private static final Pattern ENTRY_FILE_NAME = Pattern.compile("([A-Za-z0-9_-]+)\\.([0-9a-f]{32}|v[0-9]+)");
+	private static final String ENTRY_SEPARATOR = ".";
+
+	private final Path directory;
+	private final long maxBytes;
+	private final Map<String, CachedContent> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final SingleFlight<String, CachedContent> downloads = new SingleFlight<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private long totalBytes;
+	private boolean loaded;
+
+	/**
+	 * Default constructor, a disabled cache.
+	 */
+	public DownloadCache() {
+		this(Path.of(System.getProperty("java.io.tmpdir"), GOOGLEAPI.DEFAULT_DOWNLOAD_CACHE_DIRECTORY), GOOGLEAPI.DEFAULT_DOWNLOAD_CACHE_MAX_BYTES);
+	}
+
+	/**
+	 * Constructor with the cache directory and the maximum total size of the cached contents. A maxBytes lower
+	 * than one disables the cache.
+	 *
+	 * @param directory
+	 * @param maxBytes
+	 */
+	public DownloadCache(Path directory, long maxBytes) {
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Verify if the cache is enabled.
+	 *
+	 * @return true if enabled false otherwise
+	 */
+	public boolean isEnabled() {
+		return this.maxBytes > 0;
+	}
+
+	/**
+	 * Verify if a content of a given size may be cached: the cache is enabled and the content fits both the
+	 * cache and a single memory mapping.
+	 *
+	 * @param size
+	 * @return true if cacheable false otherwise
+	 */
+	public boolean isCacheable(long size) {
+		return this.isEnabled() && size >= 0 && size <= this.maxBytes && size <= Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Return the content of a file version, downloading it into the cache on a miss. The returned buffer is a
+	 * read-only memory mapping of the cached content, which stays readable even if the content is evicted
+	 * afterwards.
+	 *
+	 * @param fileId
+	 * @param version
+	 * @param download download of the file content, on a miss
+	 * @return {@link ByteBuffer} content
+	 * @throws IOException
+	 */
+	public ByteBuffer read(String fileId, String version, ContentDownload download) throws IOException {
+		synchronized (this) {
+			this.load();
+
+			CachedContent cachedContent = this.findCached(fileId, version);
+
+			if (cachedContent != null) {
+				this.hits.increment();
+				return this.map(cachedContent.path());
+			}
+		}
+
+		this.misses.increment();
+
+		// a download that ended after the lookup above may have cached the content already
+		CachedContent downloadedContent = this.downloads.execute(this.entryFileName(fileId, version), () -> {
+			synchronized (this) {
+				CachedContent cachedContent = this.findCached(fileId, version);
+
+				if (cachedContent != null) {
+					return cachedContent;
+				}
+			}
+
+			return this.download(fileId, version, download);
+		});
+
+		synchronized (this) {
+			return this.map(downloadedContent.path());
+		}
+	}
+
+	/**
+	 * Remove the cached content of a file, if any.
+	 *
+	 * @param fileId
+	 */
+	public synchronized void invalidate(String fileId) {
+		this.remove(fileId);
+	}
+
+	/**
+	 * Return the total size of the cached contents.
+	 *
+	 * @return cached bytes
+	 */
+	public synchronized long size() {
+		return this.totalBytes;
+	}
+
+	/**
+	 * Return the number of cached contents.
+	 *
+	 * @return cached contents
+	 */
+	public synchronized int count() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Return the number of reads served from the cache.
+	 *
+	 * @return hits
+	 */
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Return the number of reads downloading the content, including the ones sharing a download.
+	 *
+	 * @return misses
+	 */
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Return the cached content of a file version, if registered and still present on disk, marking it as
+	 * recently used.
+	 *
+	 * @param fileId
+	 * @param version
+	 * @return {@link CachedContent}, or null when not cached
+	 */
+	private CachedContent findCached(String fileId, String version) {
+		CachedContent cachedContent = this.entries.get(fileId);
+
+		if (cachedContent == null || !cachedContent.version().equals(version) || !Files.exists(cachedContent.path())) {
+			return null;
+		}
+
+		this.touch(cachedContent.path());
+
+		return cachedContent;
+	}
+
+	/**
+	 * Download a file version into a temporary file of the cache directory, then register it as the cached
+	 * content of the file, replacing any previous version and evicting the least recently used contents
+	 * beyond the size limit.
+	 *
+	 * @param fileId
+	 * @param version
+	 * @param download
+	 * @return {@link CachedContent}
+	 * @throws IOException
+	 */
+	private CachedContent download(String fileId, String version, ContentDownload download) throws IOException {
+		Files.createDirectories(this.directory);
+		Path temporaryFile = Files.createTempFile(this.directory, fileId, GOOGLEAPI.DOWNLOAD_TEMP_FILE_SUFFIX);
+
+		try {
+			try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+				download.execute(outputStream);
+			}
+
+			Path entryFile = this.directory.resolve(this.entryFileName(fileId, version));
+			CachedContent cachedContent = new CachedContent(version, entryFile, Files.size(temporaryFile));
+
+			synchronized (this) {
+				// the previous content may live at the same path, when the same version is downloaded again
+				this.remove(fileId, entryFile);
+
+				try {
+					Files.move(temporaryFile, entryFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(temporaryFile, entryFile, StandardCopyOption.REPLACE_EXISTING);
+				}
+
+				this.entries.put(fileId, cachedContent);
+				this.totalBytes += cachedContent.size();
+				this.evict(fileId);
+			}
+
+			return cachedContent;
+
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	/**
+	 * Register the contents left in the cache directory by a previous run, least recently used first, and
+	 * delete unfinished downloads.
+	 *
+	 * @throws IOException
+	 */
+	private void load() throws IOException {
+		if (this.loaded) {
+			return;
+		}
+
+		this.loaded = true;
+
+		if (!Files.isDirectory(this.directory)) {
+			return;
+		}
+
+		List<Path> entryFiles = new ArrayList<>();
+
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+			for (Path file : files) {
+				if (file.getFileName().toString().endsWith(GOOGLEAPI.DOWNLOAD_TEMP_FILE_SUFFIX)) {
+					Files.deleteIfExists(file);
+
+				} else if (ENTRY_FILE_NAME.matcher(file.getFileName().toString()).matches()) {
+					entryFiles.add(file);
+				}
+			}
+		}
+
+		entryFiles.sort(Comparator.comparing(this::lastModifiedTime));
+
+		for (Path entryFile : entryFiles) {
+			Matcher matcher = ENTRY_FILE_NAME.matcher(entryFile.getFileName().toString());
+			matcher.matches();
+
+			this.remove(matcher.group(1));
+
+			CachedContent cachedContent = new CachedContent(matcher.group(2), entryFile, Files.size(entryFile));
+			this.entries.put(matcher.group(1), cachedContent);
+			this.totalBytes += cachedContent.size();
+		}
+
+		this.evict(null);
+	}
+
+	/**
+	 * Evict the least recently used contents until the size limit is met, keeping a given file.
+	 *
+	 * @param keptFileId
+	 */
+	private void evict(String keptFileId) {
+		Iterator<Map.Entry<String, CachedContent>> iterator = this.entries.entrySet().iterator();
+
+		while (this.totalBytes > this.maxBytes && iterator.hasNext()) {
+			Map.Entry<String, CachedContent> entry = iterator.next();
+
+			if (!entry.getKey().equals(keptFileId)) {
+				iterator.remove();
+				this.totalBytes -= entry.getValue().size();
+				this.deleteQuietly(entry.getValue().path());
+			}
+		}
+	}
+
+	private void remove(String fileId) {
+		this.remove(fileId, null);
+	}
+
+	/**
+	 * Remove the cached content of a file, if any, deleting its file unless it is a kept file about to be
+	 * replaced.
+	 *
+	 * @param fileId
+	 * @param keptFile
+	 */
+	private void remove(String fileId, Path keptFile) {
+		CachedContent cachedContent = this.entries.remove(fileId);
+
+		if (cachedContent != null) {
+			this.totalBytes -= cachedContent.size();
+
+			if (!cachedContent.path().equals(keptFile)) {
+				this.deleteQuietly(cachedContent.path());
+			}
+		}
+	}
+
+	private ByteBuffer map(Path entryFile) throws IOException {
+		try (FileChannel channel = FileChannel.open(entryFile, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	/**
+	 * Update the modification time of a cached content, so that the recency order survives a restart.
+	 */
+	private void touch(Path entryFile) {
+		try {
+			Files.setLastModifiedTime(entryFile, FileTime.fromMillis(System.currentTimeMillis()));
+
+		} catch (IOException e) {
+			// the recency order is only lost across restarts
+		}
+	}
+
+	private FileTime lastModifiedTime(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+
+		} catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+
+		} catch (IOException e) {
+			// the file may still be open on some file systems, it is replaced by the next download
+		}
+	}
+
+	private String entryFileName(String fileId, String version) {
+		return fileId + ENTRY_SEPARATOR + version;
+	}
+
+	/**
+	 * Download of a file content.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	@FunctionalInterface
+	public interface ContentDownload {
+
+		/**
+		 * Write the file content to an output stream.
+		 *
+		 * @param outputStream
+		 * @throws IOException
+		 */
+		void execute(OutputStream outputStream) throws IOException;
+	}
+
+	/**
+	 * Cached content of a file version.
+	 *
+	 * @param version
+	 * @param path
+	 * @param size
+	 */
+	private record CachedContent(String version, Path path, long size) {
+	}
+
+}
@@ -0,0 +1,336 @@
+package com.google.drive.api.cache;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+
+/**
+ * Bounded cache of folder hierarchies resolved to Google Drive folder ids. Hierarchies are kept in a trie
+ * keyed by folder name, holding the resolved folder id at each node, so a lookup may resume from the deepest
+ * cached ancestor of a hierarchy. Entries expire after a fixed time to live and the least recently used
+ * entries are evicted once the maximum size is reached. Lookups are counted as hits when the whole hierarchy
+ * is cached and as misses otherwise.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class FolderIdCache {
+
+	private final int maxSize;
+	private final long ttlNanos;
+	private final Node root = new Node(null, null);
+	private final Node lruHead = new Node(null, null);
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private int size;
+
+	/**
+	 * Default constructor.
+	 */
+	public FolderIdCache() {
+		this(GOOGLEAPI.DEFAULT_FOLDER_CACHE_MAX_SIZE, Duration.ofSeconds(GOOGLEAPI.DEFAULT_FOLDER_CACHE_TTL_SECONDS));
+	}
+
+	/**
+	 * Constructor with size and time to live limits. A maxSize lower than one disables the cache.
+	 *
+	 * @param maxSize
+	 * @param ttl
+	 */
+	public FolderIdCache(int maxSize, Duration ttl) {
+		this.maxSize = maxSize;
+		this.ttlNanos = ttl.toNanos();
+		this.lruHead.previous = this.lruHead;
+		this.lruHead.next = this.lruHead;
+	}
+
+	/**
+	 * Return the cached folder id for a folder hierarchy, if present and not expired.
+	 *
+	 * @param folderHierarchy
+	 * @return {@link Optional<String>} folder id
+	 */
+	public synchronized Optional<String> get(List<String> folderHierarchy) {
+		return this.getDeepestAncestor(folderHierarchy)
+				.filter(ancestor -> ancestor.depth() == folderHierarchy.size())
+				.map(CachedAncestor::folderId);
+	}
+
+	/**
+	 * Return the deepest cached folder of a folder hierarchy (the hierarchy itself included) along with its
+	 * depth, so that resolution may resume from the next folder name.
+	 *
+	 * @param folderHierarchy
+	 * @return {@link Optional<CachedAncestor>} deepest cached ancestor
+	 */
+	public synchronized Optional<CachedAncestor> getDeepestAncestor(List<String> folderHierarchy) {
+		CachedAncestor deepestAncestor = this.findDeepestAncestor(folderHierarchy);
+
+		if (deepestAncestor != null && deepestAncestor.depth() == folderHierarchy.size()) {
+			this.hits.increment();
+
+		} else {
+			this.misses.increment();
+		}
+
+		return Optional.ofNullable(deepestAncestor);
+	}
+
+	/**
+	 * Return the cached folder id for a folder hierarchy, if present and not expired, without counting the
+	 * lookup as a hit or a miss. Meant for lookups repeated while resolving a hierarchy already looked up.
+	 *
+	 * @param folderHierarchy
+	 * @return {@link Optional<String>} folder id
+	 */
+	public synchronized Optional<String> peek(List<String> folderHierarchy) {
+		return Optional.ofNullable(this.findDeepestAncestor(folderHierarchy))
+				.filter(ancestor -> ancestor.depth() == folderHierarchy.size())
+				.map(CachedAncestor::folderId);
+	}
+
+	/**
+	 * Find the deepest cached folder of a folder hierarchy, removing expired nodes met on the way.
+	 *
+	 * @param folderHierarchy
+	 * @return deepest cached ancestor, or null when none is cached
+	 */
+	private CachedAncestor findDeepestAncestor(List<String> folderHierarchy) {
+		CachedAncestor deepestAncestor = null;
+		Node node = this.root;
+
+		for (int depth = 1; depth <= folderHierarchy.size(); depth++) {
+			node = node.children.get(folderHierarchy.get(depth - 1));
+
+			if (node == null) {
+				break;
+			}
+
+			if (node.folderId == null) {
+				continue;
+			}
+
+			if (node.isExpired()) {
+				this.remove(node);
+				break;
+			}
+
+			this.touch(node);
+			deepestAncestor = new CachedAncestor(depth, node.folderId);
+		}
+
+		return deepestAncestor;
+	}
+
+	/**
+	 * Cache the folder id of a folder hierarchy.
+	 *
+	 * @param folderHierarchy
+	 * @param folderId
+	 */
+	public synchronized void put(List<String> folderHierarchy, String folderId) {
+		if (!this.isEnabled() || folderId == null || folderHierarchy.isEmpty()) {
+			return;
+		}
+
+		Node node = this.root;
+
+		for (String folderName : folderHierarchy) {
+			Node parent = node;
+			node = parent.children.computeIfAbsent(folderName, name -> new Node(parent, name));
+		}
+
+		if (node.folderId == null) {
+			this.size++;
+		}
+
+		node.folderId = folderId;
+		node.expiresAt = System.nanoTime() + this.ttlNanos;
+		this.touch(node);
+
+		while (this.size > this.maxSize) {
+			this.evict(this.lruHead.previous);
+		}
+	}
+
+	/**
+	 * Remove a folder hierarchy and every hierarchy nested under it from the cache.
+	 *
+	 * @param folderHierarchy
+	 */
+	public synchronized void invalidate(List<String> folderHierarchy) {
+		Node node = this.root;
+
+		for (String folderName : folderHierarchy) {
+			node = node.children.get(folderName);
+
+			if (node == null) {
+				return;
+			}
+		}
+
+		if (node == this.root) {
+			this.clear();
+
+		} else {
+			this.remove(node);
+		}
+	}
+
+	/**
+	 * Remove all entries from the cache.
+	 */
+	public synchronized void clear() {
+		this.root.children.clear();
+		this.lruHead.previous = this.lruHead;
+		this.lruHead.next = this.lruHead;
+		this.size = 0;
+	}
+
+	/**
+	 * Return the number of cached folder ids, expired ones included.
+	 *
+	 * @return size
+	 */
+	public synchronized int size() {
+		return this.size;
+	}
+
+	/**
+	 * Return the number of lookups that found the whole folder hierarchy.
+	 *
+	 * @return hits
+	 */
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Return the number of lookups that did not find the whole folder hierarchy, even if an ancestor was found.
+	 *
+	 * @return misses
+	 */
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Verify if the cache is able to hold any entry.
+	 *
+	 * @return true if cache is enabled false otherwise
+	 */
+	public boolean isEnabled() {
+		return this.maxSize > 0;
+	}
+
+	/**
+	 * Move a node to the head of the least recently used list.
+	 *
+	 * @param node
+	 */
+	private void touch(Node node) {
+		if (node.next != null) {
+			node.previous.next = node.next;
+			node.next.previous = node.previous;
+		}
+
+		node.next = this.lruHead.next;
+		node.previous = this.lruHead;
+		this.lruHead.next.previous = node;
+		this.lruHead.next = node;
+	}
+
+	/**
+	 * Clear the folder id of the least recently used node, pruning nodes left without folder id and children.
+	 *
+	 * @param node
+	 */
+	private void evict(Node node) {
+		this.unlink(node);
+
+		while (node != this.root && node.folderId == null && node.children.isEmpty()) {
+			node.parent.children.remove(node.segment);
+			node = node.parent;
+		}
+	}
+
+	/**
+	 * Detach a node and its whole subtree from the trie.
+	 *
+	 * @param node
+	 */
+	private void remove(Node node) {
+		node.parent.children.remove(node.segment);
+
+		Deque<Node> pending = new ArrayDeque<>();
+		pending.push(node);
+
+		while (!pending.isEmpty()) {
+			Node current = pending.pop();
+			this.unlink(current);
+			current.children.values().forEach(pending::push);
+		}
+	}
+
+	/**
+	 * Clear the folder id of a node and remove it from the least recently used list.
+	 *
+	 * @param node
+	 */
+	private void unlink(Node node) {
+		if (node.folderId != null) {
+			node.folderId = null;
+			this.size--;
+		}
+
+		if (node.next != null) {
+			node.previous.next = node.next;
+			node.next.previous = node.previous;
+			node.previous = null;
+			node.next = null;
+		}
+	}
+
+	/**
+	 * Deepest cached folder of a folder hierarchy.
+	 *
+	 * @param depth number of folder names of the hierarchy resolved by this folder
+	 * @param folderId
+	 */
+	public record CachedAncestor(int depth, String folderId) {
+	}
+
+	/**
+	 * Trie node for a single folder name, linked to the least recently used list while it holds a folder id.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	private static final class Node {
+
+		private final Node parent;
+		private final String segment;
+		private final Map<String, Node> children = new HashMap<>();
+		private String folderId;
+		private long expiresAt;
+		private Node previous;
+		private Node next;
+
+		private Node(Node parent, String segment) {
+			this.parent = parent;
+			this.segment = segment;
+		}
+
+		private boolean isExpired() {
+			return System.nanoTime() - this.expiresAt > 0;
+		}
+	}
+
+}
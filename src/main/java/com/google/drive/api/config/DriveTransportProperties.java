@@ -0,0 +1,138 @@
+package com.google.drive.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.transport.TransportType;
+
+/**
+ * Settings of the HTTP transport sending the Google Drive requests, bound from the
+ * {@code google.api.transport} properties. The connection pool settings apply to the pooled transports
+ * only, the timeouts to every transport.
+ *
+ * @author leonardo.ramos
+ *
+ */
+@ConfigurationProperties(prefix = GOOGLEAPI.TRANSPORT_PROPERTIES_PREFIX)
+public class DriveTransportProperties {
+
+	private TransportType type = TransportType.NET_HTTP;
+	private int maxConnections = GOOGLEAPI.DEFAULT_TRANSPORT_MAX_CONNECTIONS;
+	private int maxConnectionsPerRoute = GOOGLEAPI.DEFAULT_TRANSPORT_MAX_CONNECTIONS_PER_ROUTE;
+	private Duration connectTimeout = Duration.ofMillis(GOOGLEAPI.DEFAULT_TRANSPORT_CONNECT_TIMEOUT_MILLIS);
+	private Duration readTimeout = Duration.ofMillis(GOOGLEAPI.DEFAULT_TRANSPORT_READ_TIMEOUT_MILLIS);
+	private Duration idleTimeout = Duration.ofMillis(GOOGLEAPI.DEFAULT_TRANSPORT_IDLE_TIMEOUT_MILLIS);
+
+	/**
+	 * Return the HTTP client sending the requests.
+	 *
+	 * @return {@link TransportType}
+	 */
+	public TransportType getType() {
+		return this.type;
+	}
+
+	/**
+	 * Set the HTTP client sending the requests.
+	 *
+	 * @param type
+	 */
+	public void setType(TransportType type) {
+		this.type = type;
+	}
+
+	/**
+	 * Return the maximum number of connections, or of requests in flight over multiplexed connections.
+	 *
+	 * @return max connections
+	 */
+	public int getMaxConnections() {
+		return this.maxConnections;
+	}
+
+	/**
+	 * Set the maximum number of connections, or of requests in flight over multiplexed connections.
+	 *
+	 * @param maxConnections
+	 */
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	/**
+	 * Return the maximum number of connections, or of requests in flight over multiplexed connections, to a
+	 * single host.
+	 *
+	 * @return max connections per route
+	 */
+	public int getMaxConnectionsPerRoute() {
+		return this.maxConnectionsPerRoute;
+	}
+
+	/**
+	 * Set the maximum number of connections, or of requests in flight over multiplexed connections, to a
+	 * single host.
+	 *
+	 * @param maxConnectionsPerRoute
+	 */
+	public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+	}
+
+	/**
+	 * Return the timeout to establish a connection, zero for none.
+	 *
+	 * @return {@link Duration} connect timeout
+	 */
+	public Duration getConnectTimeout() {
+		return this.connectTimeout;
+	}
+
+	/**
+	 * Set the timeout to establish a connection, zero for none.
+	 *
+	 * @param connectTimeout
+	 */
+	public void setConnectTimeout(Duration connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	/**
+	 * Return the timeout to wait for a response, zero for none.
+	 *
+	 * @return {@link Duration} read timeout
+	 */
+	public Duration getReadTimeout() {
+		return this.readTimeout;
+	}
+
+	/**
+	 * Set the timeout to wait for a response, zero for none.
+	 *
+	 * @param readTimeout
+	 */
+	public void setReadTimeout(Duration readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+
+	/**
+	 * Return the time after which an idle pooled connection is closed. Only applied by the Apache transport.
+	 *
+	 * @return {@link Duration} idle timeout
+	 */
+	public Duration getIdleTimeout() {
+		return this.idleTimeout;
+	}
+
+	/**
+	 * Set the time after which an idle pooled connection is closed. Only applied by the Apache transport.
+	 *
+	 * @param idleTimeout
+	 */
+	public void setIdleTimeout(Duration idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+}
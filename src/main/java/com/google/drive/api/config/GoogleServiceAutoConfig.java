@@ -5,25 +5,59 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.drive.Drive;
-import com.google.auth.http.HttpCredentialsAdapter;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.drive.api.DriveApiConstants;
 import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
 import com.google.drive.api.DriveApiConstants.MSGERROR;
+import com.google.drive.api.auth.CredentialManager;
+import com.google.drive.api.batch.BatchExecutor;
+import com.google.drive.api.cache.DownloadCache;
+import com.google.drive.api.cache.FolderIdCache;
+import com.google.drive.api.download.RangedDownloader;
+import com.google.drive.api.ratelimit.AdaptiveRateLimiter;
+import com.google.drive.api.ratelimit.RateLimitingRequestInitializer;
+import com.google.drive.api.retry.RetryPolicy;
+import com.google.drive.api.retry.RetryingRequestInitializer;
+import com.google.drive.api.upload.ResumableUploader;
+import com.google.drive.api.upload.UploadJournal;
 import com.google.drive.api.exception.GoogleApiSecurityException;
+import com.google.drive.api.index.MetadataIndex;
+import com.google.drive.api.metrics.DriveComponentMetrics;
+import com.google.drive.api.metrics.DriveMetrics;
+import com.google.drive.api.metrics.DriveTracing;
+import com.google.drive.api.metrics.MeteringRequestInitializer;
+import com.google.drive.api.service.AsyncGoogleDriveService;
+import com.google.drive.api.service.GoogleDriveService;
 import com.google.drive.api.service.GoogleService;
+import com.google.drive.api.service.impl.AsyncGoogleDriveServiceImpl;
+import com.google.drive.api.sync.DirectorySynchronizer;
+import com.google.drive.api.transport.HttpTransportFactory;
+import com.google.drive.api.transport.TimeoutRequestInitializer;
+import com.google.drive.api.util.ContentTypeDetector;
+import com.google.drive.api.walk.TreeWalker;
 
 import io.micrometer.common.util.StringUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 
 /**
  * Configuration class to manage Google service {@code Spring} {@code beans}.
@@ -32,6 +66,7 @@ import io.micrometer.common.util.StringUtils;
  * 
  */
 @Configuration
+@EnableConfigurationProperties(DriveTransportProperties.class)
 public class GoogleServiceAutoConfig {
 
 	/**
@@ -74,26 +109,341 @@ public class GoogleServiceAutoConfig {
 	}
 	
 	/**
-	 * Return a {@link Drive} bean.
+	 * Return a {@link CredentialManager} bean, refreshing the access token in the background.
 	 * 
 	 * @param googleCredentials
-	 * @param applicationName
-	 * @return {@link Drive}
+	 * @param refreshMarginSeconds
+	 * @param refreshJitterSeconds
+	 * @return {@link CredentialManager}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public CredentialManager credentialManager(GoogleCredentials googleCredentials,
+			@Value(GOOGLEAPI.CREDENTIALS_REFRESH_MARGIN_SECONDS_PROP) long refreshMarginSeconds,
+			@Value(GOOGLEAPI.CREDENTIALS_REFRESH_JITTER_SECONDS_PROP) long refreshJitterSeconds) {
+		return new CredentialManager(googleCredentials, Duration.ofSeconds(refreshMarginSeconds), Duration.ofSeconds(refreshJitterSeconds));
+	}
+	
+	/**
+	 * Return an {@link AdaptiveRateLimiter} bean, shared by every Google Drive request.
+	 * 
+	 * @param requestsPerSecond
+	 * @param burst
+	 * @param minConcurrency
+	 * @param maxConcurrency
+	 * @return {@link AdaptiveRateLimiter}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public AdaptiveRateLimiter rateLimiter(@Value(GOOGLEAPI.RATE_LIMIT_REQUESTS_PER_SECOND_PROP) double requestsPerSecond,
+			@Value(GOOGLEAPI.RATE_LIMIT_BURST_PROP) int burst,
+			@Value(GOOGLEAPI.RATE_LIMIT_MIN_CONCURRENCY_PROP) int minConcurrency,
+			@Value(GOOGLEAPI.RATE_LIMIT_MAX_CONCURRENCY_PROP) int maxConcurrency) {
+		return new AdaptiveRateLimiter(requestsPerSecond, burst, minConcurrency, maxConcurrency);
+	}
+	
+	/**
+	 * Return a {@link RetryPolicy} bean, shared by every Google Drive request.
+	 * 
+	 * @param maxRetries
+	 * @param initialDelayMillis
+	 * @param maxDelayMillis
+	 * @param multiplier
+	 * @param maxElapsedMillis
+	 * @return {@link RetryPolicy}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public RetryPolicy retryPolicy(@Value(GOOGLEAPI.RETRY_MAX_RETRIES_PROP) int maxRetries,
+			@Value(GOOGLEAPI.RETRY_INITIAL_DELAY_MILLIS_PROP) long initialDelayMillis,
+			@Value(GOOGLEAPI.RETRY_MAX_DELAY_MILLIS_PROP) long maxDelayMillis,
+			@Value(GOOGLEAPI.RETRY_MULTIPLIER_PROP) double multiplier,
+			@Value(GOOGLEAPI.RETRY_MAX_ELAPSED_MILLIS_PROP) long maxElapsedMillis) {
+		return new RetryPolicy(maxRetries, Duration.ofMillis(initialDelayMillis), Duration.ofMillis(maxDelayMillis), multiplier, 
+				Duration.ofMillis(maxElapsedMillis));
+	}
+	
+	/**
+	 * Return the {@link HttpTransport} bean sending the Google Drive requests, selected and tuned by the
+	 * {@code google.api.transport} properties.
+	 * 
+	 * @param transportProperties
+	 * @return {@link HttpTransport}
 	 * @throws GoogleApiSecurityException
 	 */
 	@Bean
 	@ConditionalOnMissingBean
-	public Drive driveService(GoogleCredentials googleCredentials,
-			@Value(DriveApiConstants.GOOGLEAPI.APPLICATION_NAME_PROP) String applicationName) throws GoogleApiSecurityException {
+	public HttpTransport driveHttpTransport(DriveTransportProperties transportProperties) throws GoogleApiSecurityException {
 		try {
-			return new Drive.Builder(GoogleNetHttpTransport.newTrustedTransport(), 
-					GsonFactory.getDefaultInstance(), new HttpCredentialsAdapter(googleCredentials))
-			        .setApplicationName(applicationName)
-			        .build();
+			return HttpTransportFactory.create(transportProperties);
 			
 		} catch (GeneralSecurityException | IOException e) {
-			throw new GoogleApiSecurityException(MSGERROR.GOOGLE_OAUTH2_ERROR, e);
-		} 
+			throw new GoogleApiSecurityException(MSGERROR.GOOGLE_TRANSPORT_ERROR, e);
+		}
+	}
+	
+	/**
+	 * Return a {@link DriveMetrics} bean recording into the {@link MeterRegistry} bean, along with the meters
+	 * of the caches, retries and rate limiter. Without a {@link MeterRegistry} bean the metrics are disabled.
+	 * 
+	 * @param meterRegistry
+	 * @param folderIdCache
+	 * @param downloadCache
+	 * @param retryPolicy
+	 * @param rateLimiter
+	 * @return {@link DriveMetrics}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public DriveMetrics driveMetrics(ObjectProvider<MeterRegistry> meterRegistry, FolderIdCache folderIdCache, DownloadCache downloadCache, 
+			RetryPolicy retryPolicy, AdaptiveRateLimiter rateLimiter) {
+		MeterRegistry registry = meterRegistry.getIfAvailable();
+		
+		if (registry == null) {
+			return new DriveMetrics();
+		}
+		
+		new DriveComponentMetrics(folderIdCache, downloadCache, retryPolicy, rateLimiter).bindTo(registry);
+		
+		return new DriveMetrics(registry);
+	}
+	
+	/**
+	 * Return a {@link DriveTracing} bean observing through the {@link ObservationRegistry} bean, whose handlers
+	 * export the observations as spans. Without an {@link ObservationRegistry} bean the tracing is disabled.
+	 * 
+	 * @param observationRegistry
+	 * @return {@link DriveTracing}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public DriveTracing driveTracing(ObjectProvider<ObservationRegistry> observationRegistry) {
+		return new DriveTracing(observationRegistry.getIfAvailable());
+	}
+	
+	/**
+	 * Return a {@link Drive} bean sending its requests through the {@link HttpTransport} with the configured
+	 * timeouts, authorizing them with the access token of the {@link CredentialManager}, recording them in the
+	 * {@link DriveMetrics} and observing them through the {@link DriveTracing} when enabled, pacing them with
+	 * the {@link AdaptiveRateLimiter} and retrying transient failures with the {@link RetryPolicy}. A root url,
+	 * such as the one of a Drive emulator, replaces the Google Drive endpoint when set.
+	 * 
+	 * @param httpTransport
+	 * @param transportProperties
+	 * @param credentialManager
+	 * @param rateLimiter
+	 * @param retryPolicy
+	 * @param driveMetrics
+	 * @param driveTracing
+	 * @param applicationName
+	 * @param rootUrl
+	 * @return {@link Drive}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public Drive driveService(HttpTransport httpTransport, DriveTransportProperties transportProperties, CredentialManager credentialManager, 
+			AdaptiveRateLimiter rateLimiter, RetryPolicy retryPolicy, DriveMetrics driveMetrics,
+			DriveTracing driveTracing, @Value(DriveApiConstants.GOOGLEAPI.APPLICATION_NAME_PROP) String applicationName,
+			@Value(GOOGLEAPI.ROOT_URL_PROP) String rootUrl) {
+		HttpRequestInitializer requestInitializer = new TimeoutRequestInitializer(credentialManager, 
+				transportProperties.getConnectTimeout(), transportProperties.getReadTimeout());
+		
+		if (driveMetrics.isEnabled() || driveTracing.isEnabled()) {
+			requestInitializer = new MeteringRequestInitializer(requestInitializer, driveMetrics, driveTracing);
+		}
+		
+		Drive.Builder driveBuilder = new Drive.Builder(httpTransport, 
+				GsonFactory.getDefaultInstance(), 
+				new RetryingRequestInitializer(new RateLimitingRequestInitializer(requestInitializer, rateLimiter), retryPolicy))
+		        .setApplicationName(applicationName);
+		
+		if (StringUtils.isNotBlank(rootUrl)) {
+			driveBuilder.setRootUrl(rootUrl);
+		}
+		
+		return driveBuilder.build();
+	}
+	
+	/**
+	 * Return a {@link FolderIdCache} bean.
+	 * 
+	 * @param maxSize
+	 * @param ttlSeconds
+	 * @return {@link FolderIdCache}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public FolderIdCache folderIdCache(@Value(GOOGLEAPI.FOLDER_CACHE_MAX_SIZE_PROP) int maxSize,
+			@Value(GOOGLEAPI.FOLDER_CACHE_TTL_SECONDS_PROP) long ttlSeconds) {
+		return new FolderIdCache(maxSize, Duration.ofSeconds(ttlSeconds));
+	}
+	
+	/**
+	 * Return a {@link RangedDownloader} bean.
+	 * 
+	 * @param chunkSize
+	 * @param parallelism
+	 * @param maxChunkRetries
+	 * @return {@link RangedDownloader}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public RangedDownloader rangedDownloader(@Value(GOOGLEAPI.DOWNLOAD_CHUNK_SIZE_PROP) long chunkSize,
+			@Value(GOOGLEAPI.DOWNLOAD_PARALLELISM_PROP) int parallelism,
+			@Value(GOOGLEAPI.DOWNLOAD_MAX_CHUNK_RETRIES_PROP) int maxChunkRetries) {
+		return new RangedDownloader(chunkSize, parallelism, maxChunkRetries);
+	}
+	
+	/**
+	 * Return an {@link UploadJournal} bean.
+	 * 
+	 * @param journalPath
+	 * @return {@link UploadJournal}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public UploadJournal uploadJournal(@Value(GOOGLEAPI.UPLOAD_JOURNAL_PATH_PROP) String journalPath) {
+		if (StringUtils.isBlank(journalPath)) {
+			return new UploadJournal();
+		}
+		
+		return new UploadJournal(Path.of(journalPath));
+	}
+	
+	/**
+	 * Return a {@link ResumableUploader} bean.
+	 * 
+	 * @param resumableThreshold
+	 * @param chunkSize
+	 * @param maxRetries
+	 * @param uploadJournal
+	 * @return {@link ResumableUploader}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public ResumableUploader resumableUploader(@Value(GOOGLEAPI.UPLOAD_RESUMABLE_THRESHOLD_PROP) long resumableThreshold,
+			@Value(GOOGLEAPI.UPLOAD_CHUNK_SIZE_PROP) int chunkSize,
+			@Value(GOOGLEAPI.UPLOAD_MAX_RETRIES_PROP) int maxRetries,
+			UploadJournal uploadJournal) {
+		return new ResumableUploader(resumableThreshold, chunkSize, maxRetries, uploadJournal);
+	}
+	
+	/**
+	 * Return a {@link ContentTypeDetector} bean, shared by every upload.
+	 * 
+	 * @return {@link ContentTypeDetector}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public ContentTypeDetector contentTypeDetector() {
+		return new ContentTypeDetector();
+	}
+	
+	/**
+	 * Return a {@link BatchExecutor} bean.
+	 * 
+	 * @param parallelism
+	 * @return {@link BatchExecutor}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public BatchExecutor batchExecutor(@Value(GOOGLEAPI.BATCH_PARALLELISM_PROP) int parallelism) {
+		return new BatchExecutor(parallelism);
+	}
+	
+	/**
+	 * Return the {@link ExecutorService} running asynchronous Google Drive calls, one virtual thread per call.
+	 * Declare a bean with the same name to run them elsewhere.
+	 * 
+	 * @return {@link ExecutorService}
+	 */
+	@Bean(name = GOOGLEAPI.ASYNC_EXECUTOR_BEAN)
+	@ConditionalOnMissingBean(name = GOOGLEAPI.ASYNC_EXECUTOR_BEAN)
+	public ExecutorService googleDriveAsyncExecutor() {
+		return Executors.newVirtualThreadPerTaskExecutor();
+	}
+	
+	/**
+	 * Return an {@link AsyncGoogleDriveService} bean.
+	 * 
+	 * @param googleDriveService
+	 * @param executor
+	 * @param timeoutMillis
+	 * @return {@link AsyncGoogleDriveService}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public AsyncGoogleDriveService asyncGoogleDriveService(GoogleDriveService googleDriveService,
+			@Qualifier(GOOGLEAPI.ASYNC_EXECUTOR_BEAN) ExecutorService executor,
+			@Value(GOOGLEAPI.ASYNC_TIMEOUT_MILLIS_PROP) long timeoutMillis) {
+		return new AsyncGoogleDriveServiceImpl(googleDriveService, executor, Duration.ofMillis(timeoutMillis));
+	}
+	
+	/**
+	 * Return a {@link TreeWalker} bean.
+	 * 
+	 * @param parallelism
+	 * @param parentsPerQuery
+	 * @return {@link TreeWalker}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public TreeWalker treeWalker(@Value(GOOGLEAPI.TREE_WALK_PARALLELISM_PROP) int parallelism,
+			@Value(GOOGLEAPI.TREE_WALK_PARENTS_PER_QUERY_PROP) int parentsPerQuery) {
+		return new TreeWalker(parallelism, parentsPerQuery);
+	}
+	
+	/**
+	 * Return a {@link DirectorySynchronizer} bean.
+	 * 
+	 * @param treeWalker
+	 * @param parallelism
+	 * @return {@link DirectorySynchronizer}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public DirectorySynchronizer directorySynchronizer(TreeWalker treeWalker, @Value(GOOGLEAPI.SYNC_PARALLELISM_PROP) int parallelism) {
+		return new DirectorySynchronizer(treeWalker, parallelism);
+	}
+	
+	/**
+	 * Return a {@link MetadataIndex} bean, started in the background, when enabled with the
+	 * {@code google.api.index.enabled} property.
+	 * 
+	 * @param driveService
+	 * @param pollIntervalSeconds
+	 * @param maxStalenessSeconds
+	 * @return {@link MetadataIndex}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(name = GOOGLEAPI.INDEX_ENABLED_PROPERTY, havingValue = "true")
+	public MetadataIndex metadataIndex(Drive driveService, 
+			@Value(GOOGLEAPI.INDEX_POLL_INTERVAL_SECONDS_PROP) long pollIntervalSeconds,
+			@Value(GOOGLEAPI.INDEX_MAX_STALENESS_SECONDS_PROP) long maxStalenessSeconds) {
+		MetadataIndex metadataIndex = new MetadataIndex(driveService, Duration.ofSeconds(pollIntervalSeconds), 
+				Duration.ofSeconds(maxStalenessSeconds));
+		metadataIndex.start();
+		
+		return metadataIndex;
+	}
+	
+	/**
+	 * Return a {@link DownloadCache} bean, disabled unless {@code google.api.download_cache.max_bytes} is set.
+	 * 
+	 * @param cachePath
+	 * @param maxBytes
+	 * @return {@link DownloadCache}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public DownloadCache downloadCache(@Value(GOOGLEAPI.DOWNLOAD_CACHE_PATH_PROP) String cachePath,
+			@Value(GOOGLEAPI.DOWNLOAD_CACHE_MAX_BYTES_PROP) long maxBytes) {
+		if (StringUtils.isBlank(cachePath)) {
+			return new DownloadCache(Path.of(System.getProperty("java.io.tmpdir"), GOOGLEAPI.DEFAULT_DOWNLOAD_CACHE_DIRECTORY), maxBytes);
+		}
+		
+		return new DownloadCache(Path.of(cachePath), maxBytes);
 	}
 	
-}
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+package com.google.drive.api.domain;
+
+/**
+ * Entity responsible to represent the outcome of a single call of a bulk Google Drive operation: the file it
+ * refers to and either its result or the error Google Drive answered with.
+ * 
+ * @author leonardo.ramos
+ *
+ * @param <T> result type
+ */
+public class DriveBatchResult<T> {
+	
+	private String fileId;
+	private T result;
+	private Integer errorCode;
+	private String errorMessage;
+	
+	/**
+	 * Default constructor.
+	 */
+	public DriveBatchResult() {}
+	
+	/**
+	 * Builder constructor.
+	 * 
+	 * @param builder
+	 */
+	public DriveBatchResult(DriveBatchResultBuilder<T> driveBatchResultBuilder) {
+		this.fileId = driveBatchResultBuilder.fileId;
+		this.result = driveBatchResultBuilder.result;
+		this.errorCode = driveBatchResultBuilder.errorCode;
+		this.errorMessage = driveBatchResultBuilder.errorMessage;
+	}
+	
+	/**
+	 * Verify if the call succeeded.
+	 * 
+	 * @return true if no error was answered false otherwise
+	 */
+	public boolean isSuccessful() {
+		return this.errorCode == null && this.errorMessage == null;
+	}
+
+	/**
+	 * Return the fileId.
+	 * 
+	 * @return fileId
+	 */
+	public String getFileId() {
+		return fileId;
+	}
+
+	/**
+	 * Set the fileId.
+	 * 
+	 * @param fileId
+	 */
+	public void setFileId(String fileId) {
+		this.fileId = fileId;
+	}
+
+	/**
+	 * Return the result.
+	 * 
+	 * @return result
+	 */
+	public T getResult() {
+		return result;
+	}
+
+	/**
+	 * Set the result.
+	 * 
+	 * @param result
+	 */
+	public void setResult(T result) {
+		this.result = result;
+	}
+
+	/**
+	 * Return the errorCode.
+	 * 
+	 * @return errorCode
+	 */
+	public Integer getErrorCode() {
+		return errorCode;
+	}
+
+	/**
+	 * Set the errorCode.
+	 * 
+	 * @param errorCode
+	 */
+	public void setErrorCode(Integer errorCode) {
+		this.errorCode = errorCode;
+	}
+
+	/**
+	 * Return the errorMessage.
+	 * 
+	 * @return errorMessage
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * Set the errorMessage.
+	 * 
+	 * @param errorMessage
+	 */
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	/**
+	 * Builder pattern to build an instance of {@link DriveBatchResultBuilder}.
+	 * 
+	 * @return {@link DriveBatchResultBuilder}
+	 */
+	public static <T> DriveBatchResultBuilder<T> builder() {
+		return new DriveBatchResultBuilder<>();
+	} 
+	
+	/**
+	 * Builder pattern inner class to build a new instance of {@link DriveBatchResult}.
+	 * 
+	 * @author leonardo.ramos
+	 *
+	 * @param <T> result type
+	 */
+	public static class DriveBatchResultBuilder<T> {
+		
+		private String fileId;
+		private T result;
+		private Integer errorCode;
+		private String errorMessage;
+		
+		/**
+		 * Set the fileId to builder.
+		 * 
+		 * @param fileId
+		 * @return {@link DriveBatchResultBuilder}
+		 */
+		public DriveBatchResultBuilder<T> fileId(String fileId) {
+			this.fileId = fileId;
+			return this;
+		}
+		
+		/**
+		 * Set the result to builder.
+		 * 
+		 * @param result
+		 * @return {@link DriveBatchResultBuilder}
+		 */
+		public DriveBatchResultBuilder<T> result(T result) {
+			this.result = result;
+			return this;
+		}
+		
+		/**
+		 * Set the errorCode to builder.
+		 * 
+		 * @param errorCode
+		 * @return {@link DriveBatchResultBuilder}
+		 */
+		public DriveBatchResultBuilder<T> errorCode(Integer errorCode) {
+			this.errorCode = errorCode;
+			return this;
+		}
+		
+		/**
+		 * Set the errorMessage to builder.
+		 * 
+		 * @param errorMessage
+		 * @return {@link DriveBatchResultBuilder}
+		 */
+		public DriveBatchResultBuilder<T> errorMessage(String errorMessage) {
+			this.errorMessage = errorMessage;
+			return this;
+		}
+		
+		/**
+		 * Build an instance of {@link DriveBatchResult}.
+		 * 
+		 * @return {@link DriveBatchResult}
+		 */
+		public DriveBatchResult<T> build() {
+			return new DriveBatchResult<>(this);
+		}
+	}
+
+	/**
+	 * DriveBatchResult toString.
+	 *
+	 * @return toString
+	 */
+	@Override
+	public String toString() {
+		return "DriveBatchResult [fileId=" + fileId + ", result=" + result + ", errorCode=" + errorCode + ", errorMessage=" 
+				+ errorMessage + "]";
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.google.drive.api.domain;
 
 import java.util.Calendar;
+import java.util.List;
 
 import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
 
@@ -16,6 +17,11 @@ public class DriveFile {
 	private String fileName;
 	private String urlExport;
 	private Calendar uploadDate;
+	private List<String> parentIds;
+	private String mimeType;
+	private Long size;
+	private String md5Checksum;
+	private Calendar modifiedDate;
 	
 	/**
 	 * Default constructor.
@@ -32,6 +38,11 @@ public class DriveFile {
 
 		this.fileName = driveFileBuilder.fileName;
 		this.uploadDate = driveFileBuilder.uploadDate;
+		this.parentIds = driveFileBuilder.parentIds;
+		this.mimeType = driveFileBuilder.mimeType;
+		this.size = driveFileBuilder.size;
+		this.md5Checksum = driveFileBuilder.md5Checksum;
+		this.modifiedDate = driveFileBuilder.modifiedDate;
 	}
 	
 	/**
@@ -98,6 +109,96 @@ public class DriveFile {
 		this.uploadDate = uploadDate;
 	}
 
+	/**
+	 * Return the parentIds, only when requested with {@link DriveFileField#PARENTS}.
+	 * 
+	 * @return parentIds
+	 */
+	public List<String> getParentIds() {
+		return parentIds;
+	}
+
+	/**
+	 * Set the parentIds.
+	 * 
+	 * @param parentIds
+	 */
+	public void setParentIds(List<String> parentIds) {
+		this.parentIds = parentIds;
+	}
+
+	/**
+	 * Return the mimeType, only when requested with {@link DriveFileField#MIME_TYPE}.
+	 * 
+	 * @return mimeType
+	 */
+	public String getMimeType() {
+		return mimeType;
+	}
+
+	/**
+	 * Set the mimeType.
+	 * 
+	 * @param mimeType
+	 */
+	public void setMimeType(String mimeType) {
+		this.mimeType = mimeType;
+	}
+
+	/**
+	 * Return the size in bytes, only when requested with {@link DriveFileField#SIZE} and null for Google Workspace documents.
+	 * 
+	 * @return size
+	 */
+	public Long getSize() {
+		return size;
+	}
+
+	/**
+	 * Set the size.
+	 * 
+	 * @param size
+	 */
+	public void setSize(Long size) {
+		this.size = size;
+	}
+
+	/**
+	 * Return the md5Checksum, only when requested with {@link DriveFileField#MD5_CHECKSUM} and null for Google Workspace documents.
+	 * 
+	 * @return md5Checksum
+	 */
+	public String getMd5Checksum() {
+		return md5Checksum;
+	}
+
+	/**
+	 * Set the md5Checksum.
+	 * 
+	 * @param md5Checksum
+	 */
+	public void setMd5Checksum(String md5Checksum) {
+		this.md5Checksum = md5Checksum;
+	}
+
+	/**
+	 * Return the modifiedDate, only when requested with {@link DriveFileField#MODIFIED_TIME}.
+	 * 
+	 * @return modifiedDate
+	 */
+	public Calendar getModifiedDate() {
+		return modifiedDate;
+	}
+
+	/**
+	 * Set the modifiedDate.
+	 * 
+	 * @param modifiedDate
+	 */
+	public void setModifiedDate(Calendar modifiedDate) {
+		this.modifiedDate = modifiedDate;
+	}
+
 	/**
 	 * Builder pattern to build an instance of {@link DriveFileBuilder}.
 	 * 
@@ -118,6 +219,11 @@ public class DriveFile {
 		private String fileId;
 		private String fileName;
 		private Calendar uploadDate;
+		private List<String> parentIds;
+		private String mimeType;
+		private Long size;
+		private String md5Checksum;
+		private Calendar modifiedDate;
 		
 		/**
 		 * Set the fileId to builder.
@@ -152,6 +258,61 @@ public class DriveFile {
 			return this;
 		}
 		
+		/**
+		 * Set the parentIds to builder.
+		 * 
+		 * @param parentIds
+		 * @return {@link DriveFileBuilder}
+		 */
+		public DriveFileBuilder parentIds(List<String> parentIds) {
+			this.parentIds = parentIds;
+			return this;
+		}
+		
+		/**
+		 * Set the mimeType to builder.
+		 * 
+		 * @param mimeType
+		 * @return {@link DriveFileBuilder}
+		 */
+		public DriveFileBuilder mimeType(String mimeType) {
+			this.mimeType = mimeType;
+			return this;
+		}
+		
+		/**
+		 * Set the size to builder.
+		 * 
+		 * @param size
+		 * @return {@link DriveFileBuilder}
+		 */
+		public DriveFileBuilder size(Long size) {
+			this.size = size;
+			return this;
+		}
+		
+		/**
+		 * Set the md5Checksum to builder.
+		 * 
+		 * @param md5Checksum
+		 * @return {@link DriveFileBuilder}
+		 */
+		public DriveFileBuilder md5Checksum(String md5Checksum) {
+			this.md5Checksum = md5Checksum;
+			return this;
+		}
+		
+		/**
+		 * Set the modifiedDate to builder.
+		 * 
+		 * @param modifiedDate
+		 * @return {@link DriveFileBuilder}
+		 */
+		public DriveFileBuilder modifiedDate(Calendar modifiedDate) {
+			this.modifiedDate = modifiedDate;
+			return this;
+		}
+		
 		/**
 		 * Build an instance of {@link DriveFile}.
 		 * 
@@ -169,7 +330,8 @@ public class DriveFile {
 	 */
 	@Override
 	public String toString() {
-		return "DriveFile [fileId=" + fileId + ", fileName=" + fileName + ", uploadDate=" + uploadDate + "]";
+		return "DriveFile [fileId=" + fileId + ", fileName=" + fileName + ", uploadDate=" + uploadDate + ", parentIds=" + parentIds 
+				+ ", mimeType=" + mimeType + ", size=" + size + ", md5Checksum=" + md5Checksum + ", modifiedDate=" + modifiedDate + "]";
 	}
 	
 }
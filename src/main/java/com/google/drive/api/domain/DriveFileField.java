@@ -0,0 +1,102 @@
+package com.google.drive.api.domain;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Field of a Google Drive file that may be requested on a {@link DriveFile}. Lookups and listings only ask
+ * Google Drive for the requested fields (a partial response), so that callers needing only ids do not pay to
+ * transfer and parse names and dates, and callers needing checksums or sizes do not need a second request.
+ * The id is always requested.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public enum DriveFileField {
+
+	/**
+	 * File id.
+	 */
+	ID("id"),
+
+	/**
+	 * File name.
+	 */
+	NAME("name"),
+
+	/**
+	 * Ids of the parent folders.
+	 */
+	PARENTS("parents"),
+
+	/**
+	 * MIME type.
+	 */
+	MIME_TYPE("mimeType"),
+
+	/**
+	 * Size in bytes, absent for Google Workspace documents.
+	 */
+	SIZE("size"),
+
+	/**
+	 * MD5 checksum of the content, absent for Google Workspace documents.
+	 */
+	MD5_CHECKSUM("md5Checksum"),
+
+	/**
+	 * Creation time.
+	 */
+	CREATED_TIME("createdTime"),
+
+	/**
+	 * Last modification time.
+	 */
+	MODIFIED_TIME("modifiedTime");
+
+	/**
+	 * Fields of a {@link DriveFile} when none are requested: id, name, parents and creation time.
+	 */
+	public static final Set<DriveFileField> DEFAULT = Collections.unmodifiableSet(EnumSet.of(ID, NAME, PARENTS, CREATED_TIME));
+
+	private final String fieldName;
+
+	DriveFileField(String fieldName) {
+		this.fieldName = fieldName;
+	}
+
+	/**
+	 * Return the name of the field in the Google Drive API.
+	 *
+	 * @return field name
+	 */
+	public String getFieldName() {
+		return this.fieldName;
+	}
+
+	/**
+	 * Return the partial response field mask of a file with the given fields, the id always included.
+	 *
+	 * @param fields
+	 * @return field mask, such as {@code id, name}
+	 */
+	public static String fileFieldMask(Set<DriveFileField> fields) {
+		EnumSet<DriveFileField> maskFields = EnumSet.of(ID);
+		maskFields.addAll(fields);
+
+		return maskFields.stream().map(DriveFileField::getFieldName).collect(Collectors.joining(", "));
+	}
+
+	/**
+	 * Return the partial response field mask of a page of files with the given fields.
+	 *
+	 * @param fields
+	 * @return field mask, such as {@code nextPageToken, files(id, name)}
+	 */
+	public static String listFieldMask(Set<DriveFileField> fields) {
+		return "nextPageToken, files(" + fileFieldMask(fields) + ")";
+	}
+
+}
@@ -0,0 +1,336 @@
+package com.google.drive.api.domain;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entity responsible to represent the outcome of a local directory synchronization into a Google Drive folder:
+ * the paths, relative to the synchronized directory, of the folders created, the files uploaded, updated or
+ * deleted, and of those that failed along with their error message. A dry run report lists the planned
+ * actions without any of them being performed.
+ * 
+ * @author leonardo.ramos
+ *
+ */
+public class DriveSyncReport {
+	
+	private boolean dryRun;
+	private List<String> createdFolders;
+	private List<String> uploadedFiles;
+	private List<String> updatedFiles;
+	private List<String> deletedFiles;
+	private int unchangedFiles;
+	private long transferredBytes;
+	private Map<String, String> failures;
+	
+	/**
+	 * Default constructor.
+	 */
+	public DriveSyncReport() {}
+	
+	/**
+	 * Builder constructor.
+	 * 
+	 * @param builder
+	 */
+	public DriveSyncReport(DriveSyncReportBuilder driveSyncReportBuilder) {
+		this.dryRun = driveSyncReportBuilder.dryRun;
+		this.createdFolders = driveSyncReportBuilder.createdFolders;
+		this.uploadedFiles = driveSyncReportBuilder.uploadedFiles;
+		this.updatedFiles = driveSyncReportBuilder.updatedFiles;
+		this.deletedFiles = driveSyncReportBuilder.deletedFiles;
+		this.unchangedFiles = driveSyncReportBuilder.unchangedFiles;
+		this.transferredBytes = driveSyncReportBuilder.transferredBytes;
+		this.failures = driveSyncReportBuilder.failures;
+	}
+	
+	/**
+	 * Verify if every planned action succeeded.
+	 * 
+	 * @return true if no failure was reported false otherwise
+	 */
+	public boolean isSuccessful() {
+		return this.failures == null || this.failures.isEmpty();
+	}
+
+	/**
+	 * Return the dryRun.
+	 * 
+	 * @return dryRun
+	 */
+	public boolean isDryRun() {
+		return dryRun;
+	}
+
+	/**
+	 * Set the dryRun.
+	 * 
+	 * @param dryRun
+	 */
+	public void setDryRun(boolean dryRun) {
+		this.dryRun = dryRun;
+	}
+
+	/**
+	 * Return the createdFolders.
+	 * 
+	 * @return createdFolders
+	 */
+	public List<String> getCreatedFolders() {
+		return createdFolders;
+	}
+
+	/**
+	 * Set the createdFolders.
+	 * 
+	 * @param createdFolders
+	 */
+	public void setCreatedFolders(List<String> createdFolders) {
+		this.createdFolders = createdFolders;
+	}
+
+	/**
+	 * Return the uploadedFiles.
+	 * 
+	 * @return uploadedFiles
+	 */
+	public List<String> getUploadedFiles() {
+		return uploadedFiles;
+	}
+
+	/**
+	 * Set the uploadedFiles.
+	 * 
+	 * @param uploadedFiles
+	 */
+	public void setUploadedFiles(List<String> uploadedFiles) {
+		this.uploadedFiles = uploadedFiles;
+	}
+
+	/**
+	 * Return the updatedFiles.
+	 * 
+	 * @return updatedFiles
+	 */
+	public List<String> getUpdatedFiles() {
+		return updatedFiles;
+	}
+
+	/**
+	 * Set the updatedFiles.
+	 * 
+	 * @param updatedFiles
+	 */
+	public void setUpdatedFiles(List<String> updatedFiles) {
+		this.updatedFiles = updatedFiles;
+	}
+
+	/**
+	 * Return the deletedFiles.
+	 * 
+	 * @return deletedFiles
+	 */
+	public List<String> getDeletedFiles() {
+		return deletedFiles;
+	}
+
+	/**
+	 * Set the deletedFiles.
+	 * 
+	 * @param deletedFiles
+	 */
+	public void setDeletedFiles(List<String> deletedFiles) {
+		this.deletedFiles = deletedFiles;
+	}
+
+	/**
+	 * Return the unchangedFiles.
+	 * 
+	 * @return unchangedFiles
+	 */
+	public int getUnchangedFiles() {
+		return unchangedFiles;
+	}
+
+	/**
+	 * Set the unchangedFiles.
+	 * 
+	 * @param unchangedFiles
+	 */
+	public void setUnchangedFiles(int unchangedFiles) {
+		this.unchangedFiles = unchangedFiles;
+	}
+
+	/**
+	 * Return the transferredBytes.
+	 * 
+	 * @return transferredBytes
+	 */
+	public long getTransferredBytes() {
+		return transferredBytes;
+	}
+
+	/**
+	 * Set the transferredBytes.
+	 * 
+	 * @param transferredBytes
+	 */
+	public void setTransferredBytes(long transferredBytes) {
+		this.transferredBytes = transferredBytes;
+	}
+
+	/**
+	 * Return the failures.
+	 * 
+	 * @return failures
+	 */
+	public Map<String, String> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Set the failures.
+	 * 
+	 * @param failures
+	 */
+	public void setFailures(Map<String, String> failures) {
+		this.failures = failures;
+	}
+
+	/**
+	 * Builder pattern to build an instance of {@link DriveSyncReportBuilder}.
+	 * 
+	 * @return {@link DriveSyncReportBuilder}
+	 */
+	public static DriveSyncReportBuilder builder() {
+		return new DriveSyncReportBuilder();
+	} 
+	
+	/**
+	 * Builder pattern inner class to build a new instance of {@link DriveSyncReport}.
+	 * 
+	 * @author leonardo.ramos
+	 *
+	 */
+	public static class DriveSyncReportBuilder {
+		
+		private boolean dryRun;
+		private List<String> createdFolders;
+		private List<String> uploadedFiles;
+		private List<String> updatedFiles;
+		private List<String> deletedFiles;
+		private int unchangedFiles;
+		private long transferredBytes;
+		private Map<String, String> failures;
+		
+		/**
+		 * Set the dryRun to builder.
+		 * 
+		 * @param dryRun
+		 * @return {@link DriveSyncReportBuilder}
+		 */
+		public DriveSyncReportBuilder dryRun(boolean dryRun) {
+			this.dryRun = dryRun;
+			return this;
+		}
+		
+		/**
+		 * Set the createdFolders to builder.
+		 * 
+		 * @param createdFolders
+		 * @return {@link DriveSyncReportBuilder}
+		 */
+		public DriveSyncReportBuilder createdFolders(List<String> createdFolders) {
+			this.createdFolders = createdFolders;
+			return this;
+		}
+		
+		/**
+		 * Set the uploadedFiles to builder.
+		 * 
+		 * @param uploadedFiles
+		 * @return {@link DriveSyncReportBuilder}
+		 */
+		public DriveSyncReportBuilder uploadedFiles(List<String> uploadedFiles) {
+			this.uploadedFiles = uploadedFiles;
+			return this;
+		}
+		
+		/**
+		 * Set the updatedFiles to builder.
+		 * 
+		 * @param updatedFiles
+		 * @return {@link DriveSyncReportBuilder}
+		 */
+		public DriveSyncReportBuilder updatedFiles(List<String> updatedFiles) {
+			this.updatedFiles = updatedFiles;
+			return this;
+		}
+		
+		/**
+		 * Set the deletedFiles to builder.
+		 * 
+		 * @param deletedFiles
+		 * @return {@link DriveSyncReportBuilder}
+		 */
+		public DriveSyncReportBuilder deletedFiles(List<String> deletedFiles) {
+			this.deletedFiles = deletedFiles;
+			return this;
+		}
+		
+		/**
+		 * Set the unchangedFiles to builder.
+		 * 
+		 * @param unchangedFiles
+		 * @return {@link DriveSyncReportBuilder}
+		 */
+		public DriveSyncReportBuilder unchangedFiles(int unchangedFiles) {
+			this.unchangedFiles = unchangedFiles;
+			return this;
+		}
+		
+		/**
+		 * Set the transferredBytes to builder.
+		 * 
+		 * @param transferredBytes
+		 * @return {@link DriveSyncReportBuilder}
+		 */
+		public DriveSyncReportBuilder transferredBytes(long transferredBytes) {
+			this.transferredBytes = transferredBytes;
+			return this;
+		}
+		
+		/**
+		 * Set the failures to builder.
+		 * 
+		 * @param failures
+		 * @return {@link DriveSyncReportBuilder}
+		 */
+		public DriveSyncReportBuilder failures(Map<String, String> failures) {
+			this.failures = failures;
+			return this;
+		}
+		
+		/**
+		 * Build an instance of {@link DriveSyncReport}.
+		 * 
+		 * @return {@link DriveSyncReport}
+		 */
+		public DriveSyncReport build() {
+			return new DriveSyncReport(this);
+		}
+	}
+
+	/**
+	 * DriveSyncReport toString.
+	 *
+	 * @return toString
+	 */
+	@Override
+	public String toString() {
+		return "DriveSyncReport [dryRun=" + dryRun + ", createdFolders=" + createdFolders + ", uploadedFiles=" + uploadedFiles 
+				+ ", updatedFiles=" + updatedFiles + ", deletedFiles=" + deletedFiles + ", unchangedFiles=" + unchangedFiles 
+				+ ", transferredBytes=" + transferredBytes + ", failures=" + failures + "]";
+	}
+
+}
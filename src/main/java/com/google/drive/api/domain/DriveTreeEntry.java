@@ -0,0 +1,175 @@
+package com.google.drive.api.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity responsible to represent a file or folder found while walking a Google Drive folder tree, with its
+ * path relative to the folder the walk started from.
+ * 
+ * @author leonardo.ramos
+ *
+ */
+public class DriveTreeEntry {
+	
+	private DriveFile driveFile;
+	private List<String> path;
+	private boolean folder;
+	
+	/**
+	 * Default constructor.
+	 */
+	public DriveTreeEntry() {}
+	
+	/**
+	 * Builder constructor.
+	 * 
+	 * @param builder
+	 */
+	public DriveTreeEntry(DriveTreeEntryBuilder driveTreeEntryBuilder) {
+		this.driveFile = driveTreeEntryBuilder.driveFile;
+		this.path = driveTreeEntryBuilder.path;
+		this.folder = driveTreeEntryBuilder.folder;
+	}
+	
+	/**
+	 * Return the path relative to the walked folder, joined with {@code /}.
+	 * 
+	 * @return relative path
+	 */
+	public String getRelativePath() {
+		return String.join("/", this.getPath());
+	}
+
+	/**
+	 * Return the driveFile.
+	 * 
+	 * @return driveFile
+	 */
+	public DriveFile getDriveFile() {
+		return driveFile;
+	}
+
+	/**
+	 * Set the driveFile.
+	 * 
+	 * @param driveFile
+	 */
+	public void setDriveFile(DriveFile driveFile) {
+		this.driveFile = driveFile;
+	}
+
+	/**
+	 * Return the path: names of the folders from the walked folder down to this entry, followed by its name.
+	 * 
+	 * @return path
+	 */
+	public List<String> getPath() {
+		if (path == null) {
+			path = new ArrayList<>();
+		}
+		return path;
+	}
+
+	/**
+	 * Set the path.
+	 * 
+	 * @param path
+	 */
+	public void setPath(List<String> path) {
+		this.path = path;
+	}
+
+	/**
+	 * Return the folder.
+	 * 
+	 * @return true if this entry is a folder false otherwise
+	 */
+	public boolean isFolder() {
+		return folder;
+	}
+
+	/**
+	 * Set the folder.
+	 * 
+	 * @param folder
+	 */
+	public void setFolder(boolean folder) {
+		this.folder = folder;
+	}
+
+	/**
+	 * Builder pattern to build an instance of {@link DriveTreeEntryBuilder}.
+	 * 
+	 * @return {@link DriveTreeEntryBuilder}
+	 */
+	public static DriveTreeEntryBuilder builder() {
+		return new DriveTreeEntryBuilder();
+	} 
+	
+	/**
+	 * Builder pattern inner class to build a new instance of {@link DriveTreeEntry}.
+	 * 
+	 * @author leonardo.ramos
+	 *
+	 */
+	public static class DriveTreeEntryBuilder {
+		
+		private DriveFile driveFile;
+		private List<String> path;
+		private boolean folder;
+		
+		/**
+		 * Set the driveFile to builder.
+		 * 
+		 * @param driveFile
+		 * @return {@link DriveTreeEntryBuilder}
+		 */
+		public DriveTreeEntryBuilder driveFile(DriveFile driveFile) {
+			this.driveFile = driveFile;
+			return this;
+		}
+		
+		/**
+		 * Set the path to builder.
+		 * 
+		 * @param path
+		 * @return {@link DriveTreeEntryBuilder}
+		 */
+		public DriveTreeEntryBuilder path(List<String> path) {
+			this.path = path;
+			return this;
+		}
+		
+		/**
+		 * Set the folder to builder.
+		 * 
+		 * @param folder
+		 * @return {@link DriveTreeEntryBuilder}
+		 */
+		public DriveTreeEntryBuilder folder(boolean folder) {
+			this.folder = folder;
+			return this;
+		}
+		
+		/**
+		 * Build an instance of {@link DriveTreeEntry}.
+		 * 
+		 * @return {@link DriveTreeEntry}
+		 */
+		public DriveTreeEntry build() {
+			return new DriveTreeEntry(this);
+		}
+	}
+
+	/**
+	 * DriveTreeEntry toString.
+	 *
+	 * @return toString
+	 */
+	@Override
+	public String toString() {
+		return "DriveTreeEntry [driveFile=" + driveFile + ", path=" + path + ", folder=" + folder + "]";
+	}
+
+}
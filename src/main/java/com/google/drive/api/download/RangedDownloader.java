@@ -0,0 +1,315 @@
+package com.google.drive.api.download;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.api.client.googleapis.media.MediaHttpDownloader;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.DriveApiConstants.MSGERROR;
+
+/**
+ * Download engine splitting a Google Drive file into byte ranges that are fetched concurrently with HTTP
+ * {@code Range} requests and written at their offsets of a {@link FileChannel}. Each range is retried on
+ * its own, resuming from the last byte written, and the whole file is verified against its md5 checksum
+ * once every range is written.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class RangedDownloader {
+
+	private static final int DIGEST_BUFFER_SIZE = 1024 * 1024;
+
+	private final long chunkSize;
+	private final int parallelism;
+	private final int maxChunkRetries;
+
+	/**
+	 * Default constructor.
+	 */
+	public RangedDownloader() {
+		this(GOOGLEAPI.DEFAULT_DOWNLOAD_CHUNK_SIZE, GOOGLEAPI.DEFAULT_DOWNLOAD_PARALLELISM, GOOGLEAPI.DEFAULT_DOWNLOAD_MAX_CHUNK_RETRIES);
+	}
+
+	/**
+	 * Constructor with range size (in bytes), number of ranges fetched concurrently and retries per range.
+	 *
+	 * @param chunkSize
+	 * @param parallelism
+	 * @param maxChunkRetries
+	 */
+	public RangedDownloader(long chunkSize, int parallelism, int maxChunkRetries) {
+		if (chunkSize < 1 || parallelism < 1 || maxChunkRetries < 0) {
+			throw new IllegalArgumentException("Invalid ranged download settings");
+		}
+
+		this.chunkSize = chunkSize;
+		this.parallelism = parallelism;
+		this.maxChunkRetries = maxChunkRetries;
+	}
+
+	/**
+	 * Download a file for given fileId into a channel, which must be open for both reading and writing.
+	 * Files without a known size, such as Google Workspace documents, are downloaded in a single stream.
+	 *
+	 * @param driveService
+	 * @param fileId
+	 * @param channel
+	 * @throws IOException
+	 */
+	public void download(Drive driveService, String fileId, FileChannel channel) throws IOException {
+		File file = driveService.files().get(fileId)
+				.setFields(GOOGLEAPI.DOWNLOAD_FILE_FIELDS)
+				.execute();
+
+		if (file.getSize() == null) {
+			driveService.files().get(fileId).executeMediaAndDownloadTo(new ChannelOutputStream(channel, 0));
+			return;
+		}
+
+		channel.truncate(file.getSize());
+
+		List<Chunk> chunks = this.splitChunks(file.getSize());
+		this.downloadChunks(driveService, fileId, channel, chunks);
+
+		if (file.getMd5Checksum() != null && !file.getMd5Checksum().equalsIgnoreCase(this.md5Checksum(channel, file.getSize()))) {
+			throw new IOException(MSGERROR.DRIVE_DOWNLOAD_CHECKSUM_ERROR);
+		}
+	}
+
+	/**
+	 * Split a file size into consecutive ranges of at most chunkSize bytes.
+	 *
+	 * @param size
+	 * @return ranges
+	 */
+	private List<Chunk> splitChunks(long size) {
+		List<Chunk> chunks = new ArrayList<>();
+
+		for (long firstByte = 0; firstByte < size; firstByte += this.chunkSize) {
+			chunks.add(new Chunk(firstByte, Math.min(firstByte + this.chunkSize, size) - 1));
+		}
+
+		return chunks;
+	}
+
+	/**
+	 * Download every range with up to parallelism workers, each one taking the next pending range until none
+	 * is left. The first range failure cancels the whole download.
+	 *
+	 * @param driveService
+	 * @param fileId
+	 * @param channel
+	 * @param chunks
+	 * @throws IOException
+	 */
+	private void downloadChunks(Drive driveService, String fileId, FileChannel channel, List<Chunk> chunks) throws IOException {
+		AtomicInteger nextChunk = new AtomicInteger();
+		List<Future<Void>> workers = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < Math.min(this.parallelism, chunks.size()); i++) {
+				workers.add(executor.submit(() -> {
+					for (int chunk = nextChunk.getAndIncrement(); chunk < chunks.size(); chunk = nextChunk.getAndIncrement()) {
+						this.downloadChunk(driveService, fileId, channel, chunks.get(chunk));
+					}
+
+					return null;
+				}));
+			}
+
+			for (Future<Void> worker : workers) {
+				this.await(worker, executor);
+			}
+		}
+	}
+
+	/**
+	 * Wait for a range worker, cancelling the remaining workers if it failed.
+	 *
+	 * @param worker
+	 * @param executor
+	 * @throws IOException
+	 */
+	private void await(Future<Void> worker, ExecutorService executor) throws IOException {
+		try {
+			worker.get();
+
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+
+		} catch (ExecutionException e) {
+			executor.shutdownNow();
+
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * Download a single range, retrying from the last byte written when the transfer fails.
+	 *
+	 * @param driveService
+	 * @param fileId
+	 * @param channel
+	 * @param chunk
+	 * @throws IOException
+	 */
+	private void downloadChunk(Drive driveService, String fileId, FileChannel channel, Chunk chunk) throws IOException {
+		ChannelOutputStream outputStream = new ChannelOutputStream(channel, chunk.firstByte());
+
+		for (int attempt = 0; outputStream.getPosition() <= chunk.lastByte(); attempt++) {
+			try {
+				Drive.Files.Get request = driveService.files().get(fileId);
+				request.getMediaHttpDownloader()
+						.setChunkSize(MediaHttpDownloader.MAXIMUM_CHUNK_SIZE)
+						.setContentRange(outputStream.getPosition(), chunk.lastByte());
+				request.executeMediaAndDownloadTo(outputStream);
+
+				if (outputStream.getPosition() <= chunk.lastByte()) {
+					throw new IOException(MSGERROR.DRIVE_DOWNLOAD_INCOMPLETE_RANGE_ERROR);
+				}
+
+			} catch (IOException e) {
+				if (attempt >= this.maxChunkRetries || !this.isRetryable(e)) {
+					throw e;
+				}
+
+				this.sleep(GOOGLEAPI.DEFAULT_DOWNLOAD_RETRY_DELAY_MILLIS * (attempt + 1));
+			}
+		}
+	}
+
+	/**
+	 * Verify if a failed range transfer may succeed when retried: any I/O failure, except for client errors
+	 * other than rate limiting.
+	 *
+	 * @param e
+	 * @return true if retryable false otherwise
+	 */
+	private boolean isRetryable(IOException e) {
+		if (e instanceof InterruptedIOException) {
+			return false;
+		}
+
+		if (e instanceof HttpResponseException responseException) {
+			int statusCode = responseException.getStatusCode();
+			return statusCode == GOOGLEAPI.TOO_MANY_REQUESTS_STATUS_CODE || statusCode >= HttpStatusCodes.STATUS_CODE_SERVER_ERROR;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Compute the hexadecimal md5 checksum of the first size bytes of a channel.
+	 *
+	 * @param channel
+	 * @param size
+	 * @return md5 checksum
+	 * @throws IOException
+	 */
+	private String md5Checksum(FileChannel channel, long size) throws IOException {
+		try {
+			MessageDigest digest = MessageDigest.getInstance(GOOGLEAPI.MD5_ALGORITHM);
+			ByteBuffer buffer = ByteBuffer.allocate(DIGEST_BUFFER_SIZE);
+
+			for (long position = 0; position < size; ) {
+				int read = channel.read(buffer.clear(), position);
+
+				if (read < 0) {
+					break;
+				}
+
+				digest.update(buffer.flip());
+				position += read;
+			}
+
+			return HexFormat.of().formatHex(digest.digest());
+
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void sleep(long millis) throws InterruptedIOException {
+		try {
+			Thread.sleep(millis);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Inclusive byte range of a file.
+	 *
+	 * @param firstByte
+	 * @param lastByte
+	 */
+	private record Chunk(long firstByte, long lastByte) {
+	}
+
+	/**
+	 * Output stream writing at an advancing position of a channel, leaving the channel position untouched so
+	 * that many streams may write to the same channel concurrently.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	private static final class ChannelOutputStream extends OutputStream {
+
+		private final FileChannel channel;
+		private long position;
+
+		private ChannelOutputStream(FileChannel channel, long position) {
+			this.channel = channel;
+			this.position = position;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+
+			while (buffer.hasRemaining()) {
+				this.position += this.channel.write(buffer, this.position);
+			}
+		}
+
+		private long getPosition() {
+			return this.position;
+		}
+	}
+
+}
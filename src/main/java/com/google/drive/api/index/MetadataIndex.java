@@ -0,0 +1,318 @@
+package com.google.drive.api.index;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.ChangeList;
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.util.PrefetchingPageIterator.Page;
+
+/**
+ * Local index of the metadata of every Google Drive file (id, name, parents, mimeType, size, md5 checksum and
+ * creation time), answering lookups by name and folder listings without calling Google Drive. The index is
+ * seeded by a full scan and kept current by a background thread polling {@code changes.list} from the start
+ * page token saved by the previous poll. It only answers while its last successful synchronization is
+ * within the maximum staleness; callers fall back to Google Drive otherwise.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class MetadataIndex implements AutoCloseable {
+
+	private static final String INDEX_PAGE_TOKEN_PREFIX = "index:";
+	private static final Comparator<File> FILE_ORDER = Comparator.comparing(File::getName, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(File::getId);
+
+	private final Drive driveService;
+	private final Duration pollInterval;
+	private final Duration maxStaleness;
+	private final ScheduledExecutorService scheduler;
+	private volatile Map<String, File> files = new ConcurrentHashMap<>();
+	private volatile Map<String, Set<String>> children = new ConcurrentHashMap<>();
+	private volatile String startPageToken;
+	private volatile Instant lastSyncedAt;
+	private ScheduledFuture<?> scheduledPoll;
+
+	/**
+	 * Constructor with the Google Drive client, using the default poll interval and maximum staleness.
+	 *
+	 * @param driveService
+	 */
+	public MetadataIndex(Drive driveService) {
+		this(driveService, Duration.ofSeconds(GOOGLEAPI.DEFAULT_INDEX_POLL_INTERVAL_SECONDS),
+				Duration.ofSeconds(GOOGLEAPI.DEFAULT_INDEX_MAX_STALENESS_SECONDS));
+	}
+
+	/**
+	 * Constructor with the Google Drive client, the delay between two polls of the changes and how old the
+	 * last synchronization may be for the index to answer.
+	 *
+	 * @param driveService
+	 * @param pollInterval
+	 * @param maxStaleness
+	 */
+	public MetadataIndex(Drive driveService, Duration pollInterval, Duration maxStaleness) {
+		if (pollInterval.isNegative() || pollInterval.isZero() || maxStaleness.isNegative()) {
+			throw new IllegalArgumentException("Invalid metadata index settings");
+		}
+
+		this.driveService = driveService;
+		this.pollInterval = pollInterval;
+		this.maxStaleness = maxStaleness;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+				.name("google-drive-metadata-index")
+				.daemon()
+				.factory());
+	}
+
+	/**
+	 * Start seeding the index in the background, then polling the changes every poll interval. Failed polls
+	 * are retried on the next interval, the index answering until it becomes too stale.
+	 */
+	public synchronized void start() {
+		if (this.scheduledPoll == null) {
+			this.scheduledPoll = this.scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, this.pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Synchronize the index now: a full scan if it was never seeded or its start page token expired, the
+	 * changes since the last synchronization otherwise.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void refresh() throws IOException {
+		Instant syncStartedAt = Instant.now();
+
+		if (this.startPageToken == null) {
+			this.seed();
+
+		} else {
+			try {
+				this.pollChanges();
+
+			} catch (HttpResponseException e) {
+				if (e.getStatusCode() != HttpStatusCodes.STATUS_CODE_NOT_FOUND && e.getStatusCode() != GOOGLEAPI.GONE_STATUS_CODE) {
+					throw e;
+				}
+
+				this.seed();
+			}
+		}
+
+		this.lastSyncedAt = syncStartedAt;
+	}
+
+	/**
+	 * Verify if the index may answer: it was synchronized within the maximum staleness.
+	 *
+	 * @return true if fresh false otherwise
+	 */
+	public boolean isFresh() {
+		Instant syncedAt = this.lastSyncedAt;
+		return syncedAt != null && !syncedAt.plus(this.maxStaleness).isBefore(Instant.now());
+	}
+
+	/**
+	 * Return a file (not a folder) of a folder with a given name.
+	 *
+	 * @param folderId
+	 * @param fileName
+	 * @return {@link Optional<File>} file
+	 */
+	public Optional<File> findFile(String folderId, String fileName) {
+		return this.childFiles(folderId)
+				.filter(file -> Objects.equals(fileName, file.getName()))
+				.min(FILE_ORDER);
+	}
+
+	/**
+	 * Return a page of the files (not folders) of a folder, optionally only those whose name contains a
+	 * filter, ordered by name. Page tokens returned by the index are only understood by the index.
+	 *
+	 * @param folderId
+	 * @param fileNameFilter name filter, null for every file
+	 * @param pageSize page size, null for the default Google Drive page size
+	 * @param pageToken index page token, null for the first page
+	 * @return {@link Page} of files
+	 */
+	public Page<File> listFiles(String folderId, String fileNameFilter, Integer pageSize, String pageToken) {
+		List<File> folderFiles = this.childFiles(folderId)
+				.filter(file -> fileNameFilter == null || (file.getName() != null && file.getName().contains(fileNameFilter)))
+				.sorted(FILE_ORDER)
+				.toList();
+
+		int firstFile = this.isIndexPageToken(pageToken) ? Integer.parseInt(pageToken.substring(INDEX_PAGE_TOKEN_PREFIX.length())) : 0;
+		int lastFile = Math.min(folderFiles.size(), firstFile + (pageSize != null ? pageSize : GOOGLEAPI.DEFAULT_PAGE_SIZE));
+
+		return new Page<>(folderFiles.subList(Math.min(firstFile, lastFile), lastFile),
+				lastFile < folderFiles.size() ? INDEX_PAGE_TOKEN_PREFIX + lastFile : null);
+	}
+
+	/**
+	 * Verify if a page token was returned by the index.
+	 *
+	 * @param pageToken
+	 * @return true if index page token false otherwise
+	 */
+	public boolean isIndexPageToken(String pageToken) {
+		return pageToken != null && pageToken.startsWith(INDEX_PAGE_TOKEN_PREFIX);
+	}
+
+	/**
+	 * Record a file created or changed through this library, so that it is visible before the next poll.
+	 *
+	 * @param file
+	 */
+	public void record(File file) {
+		if (file != null && file.getId() != null) {
+			this.put(this.files, this.children, file);
+		}
+	}
+
+	/**
+	 * Forget a file deleted through this library, so that it is gone before the next poll.
+	 *
+	 * @param fileId
+	 */
+	public void forget(String fileId) {
+		this.remove(this.files, this.children, fileId);
+	}
+
+	/**
+	 * Return the number of indexed files and folders.
+	 *
+	 * @return index size
+	 */
+	public int size() {
+		return this.files.size();
+	}
+
+	/**
+	 * Stop polling the changes.
+	 */
+	@Override
+	public void close() {
+		this.scheduler.shutdownNow();
+	}
+
+	/**
+	 * Scan every file into new maps, swapped in once complete. The start page token is taken before the scan
+	 * so that changes made during the scan are applied by the next poll.
+	 *
+	 * @throws IOException
+	 */
+	private void seed() throws IOException {
+		String seedPageToken = this.driveService.changes().getStartPageToken().execute().getStartPageToken();
+
+		Map<String, File> seededFiles = new ConcurrentHashMap<>();
+		Map<String, Set<String>> seededChildren = new ConcurrentHashMap<>();
+		String pageToken = null;
+
+		do {
+			FileList result = this.driveService.files().list()
+					.setQ(GOOGLEAPI.INDEX_QUERY)
+					.setSpaces(GOOGLEAPI.DRIVE_SPACES)
+					.setFields(GOOGLEAPI.INDEX_QUERY_FIELDS)
+					.setPageSize(GOOGLEAPI.STREAM_PAGE_SIZE)
+					.setPageToken(pageToken)
+					.execute();
+
+			Optional.ofNullable(result.getFiles()).orElse(List.of()).forEach(file -> this.put(seededFiles, seededChildren, file));
+			pageToken = result.getNextPageToken();
+
+		} while (pageToken != null && !pageToken.isEmpty());
+
+		this.files = seededFiles;
+		this.children = seededChildren;
+		this.startPageToken = seedPageToken;
+	}
+
+	/**
+	 * Apply every change since the saved start page token, saving the position reached after each page.
+	 *
+	 * @throws IOException
+	 */
+	private void pollChanges() throws IOException {
+		String pageToken = this.startPageToken;
+
+		while (pageToken != null) {
+			ChangeList result = this.driveService.changes().list(pageToken)
+					.setSpaces(GOOGLEAPI.DRIVE_SPACES)
+					.setFields(GOOGLEAPI.INDEX_CHANGES_FIELDS)
+					.setPageSize(GOOGLEAPI.STREAM_PAGE_SIZE)
+					.execute();
+
+			for (Change change : Optional.ofNullable(result.getChanges()).orElse(List.of())) {
+				if (Boolean.TRUE.equals(change.getRemoved()) || change.getFile() == null || Boolean.TRUE.equals(change.getFile().getTrashed())) {
+					this.remove(this.files, this.children, change.getFileId());
+
+				} else {
+					this.put(this.files, this.children, change.getFile());
+				}
+			}
+
+			pageToken = result.getNextPageToken();
+			this.startPageToken = result.getNewStartPageToken() != null ? result.getNewStartPageToken() : pageToken;
+		}
+	}
+
+	private void refreshQuietly() {
+		try {
+			this.refresh();
+
+		} catch (IOException | RuntimeException e) {
+			// keep answering from the current index until it becomes stale, retrying on the next poll
+		}
+	}
+
+	private Stream<File> childFiles(String folderId) {
+		Map<String, File> indexedFiles = this.files;
+
+		return this.children.getOrDefault(folderId, Set.of()).stream()
+				.map(indexedFiles::get)
+				.filter(Objects::nonNull)
+				.filter(file -> !GOOGLEAPI.FOLDER_MIME_TYPE.equals(file.getMimeType()));
+	}
+
+	private void put(Map<String, File> indexFiles, Map<String, Set<String>> indexChildren, File file) {
+		synchronized (indexChildren) {
+			this.remove(indexFiles, indexChildren, file.getId());
+
+			indexFiles.put(file.getId(), file);
+			Optional.ofNullable(file.getParents()).orElse(List.of())
+					.forEach(parentId -> indexChildren.computeIfAbsent(parentId, key -> ConcurrentHashMap.newKeySet()).add(file.getId()));
+		}
+	}
+
+	private void remove(Map<String, File> indexFiles, Map<String, Set<String>> indexChildren, String fileId) {
+		synchronized (indexChildren) {
+			File removedFile = indexFiles.remove(fileId);
+
+			if (removedFile != null && removedFile.getParents() != null) {
+				removedFile.getParents().forEach(parentId -> Optional.ofNullable(indexChildren.get(parentId))
+						.ifPresent(siblings -> siblings.remove(fileId)));
+			}
+		}
+	}
+
+}
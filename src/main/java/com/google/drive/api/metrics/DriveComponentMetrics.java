@@ -0,0 +1,100 @@
+package com.google.drive.api.metrics;
+
+import java.util.function.ToDoubleFunction;
+
+import com.google.drive.api.cache.DownloadCache;
+import com.google.drive.api.cache.FolderIdCache;
+import com.google.drive.api.ratelimit.AdaptiveRateLimiter;
+import com.google.drive.api.retry.RetryPolicy;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Binder of the meters reading the counters the library components already keep: hits and misses of the
+ * folder id and download caches, retries of the {@link RetryPolicy} and the state of the
+ * {@link AdaptiveRateLimiter}. Meters read the components when published, adding nothing to the requests.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class DriveComponentMetrics implements MeterBinder {
+
+	private final FolderIdCache folderIdCache;
+	private final DownloadCache downloadCache;
+	private final RetryPolicy retryPolicy;
+	private final AdaptiveRateLimiter rateLimiter;
+
+	/**
+	 * Constructor with the components to bind.
+	 *
+	 * @param folderIdCache
+	 * @param downloadCache
+	 * @param retryPolicy
+	 * @param rateLimiter
+	 */
+	public DriveComponentMetrics(FolderIdCache folderIdCache, DownloadCache downloadCache, RetryPolicy retryPolicy, AdaptiveRateLimiter rateLimiter) {
+		this.folderIdCache = folderIdCache;
+		this.downloadCache = downloadCache;
+		this.retryPolicy = retryPolicy;
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.bindCache(registry, "folder", this.folderIdCache, FolderIdCache::getHits, FolderIdCache::getMisses);
+		Gauge.builder("google.drive.cache.size", this.folderIdCache, FolderIdCache::size)
+				.description("Cached entries")
+				.tag("cache", "folder")
+				.register(registry);
+
+		this.bindCache(registry, "download", this.downloadCache, DownloadCache::getHits, DownloadCache::getMisses);
+		Gauge.builder("google.drive.cache.size", this.downloadCache, DownloadCache::count)
+				.description("Cached entries")
+				.tag("cache", "download")
+				.register(registry);
+		Gauge.builder("google.drive.cache.bytes", this.downloadCache, DownloadCache::size)
+				.description("Total size of the cached contents")
+				.baseUnit("bytes")
+				.tag("cache", "download")
+				.register(registry);
+
+		FunctionCounter.builder("google.drive.retries", this.retryPolicy, RetryPolicy::getRetries)
+				.description("Retries of transient Google Drive failures")
+				.register(registry);
+		FunctionCounter.builder("google.drive.retries.delay", this.retryPolicy, retryPolicy -> retryPolicy.getRetryDelay().toMillis() / 1000.0)
+				.description("Total delay waited before retries")
+				.baseUnit("seconds")
+				.register(registry);
+		FunctionCounter.builder("google.drive.retries.exhausted", this.retryPolicy, RetryPolicy::getExhaustedRetries)
+				.description("Transient failures given up on, their retries or time having run out")
+				.register(registry);
+
+		Gauge.builder("google.drive.rate_limit.concurrency_limit", this.rateLimiter, AdaptiveRateLimiter::getConcurrencyLimit)
+				.description("Current limit of Google Drive requests in flight")
+				.register(registry);
+		Gauge.builder("google.drive.rate_limit.in_flight", this.rateLimiter, AdaptiveRateLimiter::getInFlightRequests)
+				.description("Google Drive requests in flight")
+				.register(registry);
+		Gauge.builder("google.drive.rate_limit.tokens", this.rateLimiter, AdaptiveRateLimiter::getAvailableTokens)
+				.description("Tokens left in the bucket, negative when requests are waiting for tokens")
+				.register(registry);
+	}
+
+	private <C> void bindCache(MeterRegistry registry, String cache, C component, ToDoubleFunction<C> hits, ToDoubleFunction<C> misses) {
+		FunctionCounter.builder("google.drive.cache.gets", component, hits)
+				.description("Cache lookups")
+				.tags("cache", cache, "result", "hit")
+				.register(registry);
+		FunctionCounter.builder("google.drive.cache.gets", component, misses)
+				.description("Cache lookups")
+				.tags("cache", cache, "result", "miss")
+				.register(registry);
+	}
+
+}
@@ -0,0 +1,254 @@
+package com.google.drive.api.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.google.api.client.http.HttpResponseException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+
+/**
+ * Micrometer metrics of the Google Drive operations. Each public operation of the service is timed, tagged
+ * with its outcome and the HTTP status of its failure, and the number of Google Drive requests it sent is
+ * summarized. Each request is timed, tagged with its API method and HTTP status, along with the bytes it
+ * uploaded or downloaded, and the credentials refresh and folder resolution phases get their own timer.
+ * Operations nested in another one, and requests sent by threads started during an operation, count as part
+ * of the outer operation. Without a {@link MeterRegistry} nothing is recorded and operations run as they are.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class DriveMetrics {
+
+	/**
+	 * Phase refreshing the access token before an operation.
+	 */
+	public static final String CREDENTIALS_PHASE = "credentials";
+
+	/**
+	 * Phase resolving a folder hierarchy to a folder id, creating missing folders.
+	 */
+	public static final String FOLDER_RESOLUTION_PHASE = "folder_resolution";
+
+	static final String OPERATION_TIMER = "google.drive.operation";
+	static final String OPERATION_REQUESTS_SUMMARY = "google.drive.operation.requests";
+	static final String PHASE_TIMER = "google.drive.operation.phase";
+	static final String REQUEST_TIMER = "google.drive.requests";
+	static final String TRANSFER_SUMMARY = "google.drive.transfer";
+
+	private static final String SUCCESS = "SUCCESS";
+	private static final String ERROR = "ERROR";
+	private static final String NONE = "none";
+	private static final String IO_ERROR = "IO_ERROR";
+
+	private final MeterRegistry meterRegistry;
+	private final InheritableThreadLocal<OperationContext> currentOperation = new InheritableThreadLocal<>();
+
+	/**
+	 * Default constructor, disabled metrics.
+	 */
+	public DriveMetrics() {
+		this(null);
+	}
+
+	/**
+	 * Constructor with the registry of the meters, null to disable the metrics.
+	 *
+	 * @param meterRegistry
+	 */
+	public DriveMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Verify if metrics are recorded.
+	 *
+	 * @return true if enabled false otherwise
+	 */
+	public boolean isEnabled() {
+		return this.meterRegistry != null;
+	}
+
+	/**
+	 * Run a public operation, timing it and summarizing the number of requests it sent unless it runs inside
+	 * another operation. Operations returning a lazy stream are timed until the stream is returned.
+	 *
+	 * @param operation operation name
+	 * @param call
+	 * @return call result
+	 */
+	public <T> T recordOperation(String operation, Supplier<T> call) {
+		if (!this.isEnabled() || this.isInsideOperation()) {
+			return call.get();
+		}
+
+		OperationContext context = new OperationContext();
+		this.currentOperation.set(context);
+		long startNanos = System.nanoTime();
+		Throwable failure = null;
+
+		try {
+			return call.get();
+
+		} catch (RuntimeException | Error e) {
+			failure = e;
+			throw e;
+
+		} finally {
+			context.close();
+			this.currentOperation.remove();
+
+			Timer.builder(OPERATION_TIMER)
+					.description("Google Drive operations")
+					.tags("operation", operation, "outcome", failure == null ? SUCCESS : ERROR, "status", this.statusOf(failure),
+							"exception", failure == null ? NONE : failure.getClass().getSimpleName())
+					.register(this.meterRegistry)
+					.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+			DistributionSummary.builder(OPERATION_REQUESTS_SUMMARY)
+					.description("Google Drive requests sent by an operation, retries and calls inside batch requests included")
+					.tag("operation", operation)
+					.register(this.meterRegistry)
+					.record(context.requests.get());
+		}
+	}
+
+	/**
+	 * Run a phase of an operation, timing it.
+	 *
+	 * @param phase phase name, such as {@link #FOLDER_RESOLUTION_PHASE}
+	 * @param call
+	 * @return call result
+	 * @throws IOException
+	 */
+	public <T> T recordPhase(String phase, Call<T> call) throws IOException {
+		if (!this.isEnabled()) {
+			return call.execute();
+		}
+
+		long startNanos = System.nanoTime();
+
+		try {
+			return call.execute();
+
+		} finally {
+			Timer.builder(PHASE_TIMER)
+					.description("Phases of the Google Drive operations")
+					.tag("phase", phase)
+					.register(this.meterRegistry)
+					.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Count a request, or an attempt of it, sent by the current operation, if any.
+	 */
+	public void countRequest() {
+		OperationContext context = this.currentOperation.get();
+
+		if (context != null && !context.closed) {
+			context.requests.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Time a request attempt.
+	 *
+	 * @param api API method, such as {@code files.list}
+	 * @param method HTTP method
+	 * @param statusCode response status code, null when no response was received
+	 * @param durationNanos
+	 */
+	public void recordRequest(String api, String method, Integer statusCode, long durationNanos) {
+		if (!this.isEnabled()) {
+			return;
+		}
+
+		Timer.builder(REQUEST_TIMER)
+				.description("Google Drive requests, each attempt timed on its own")
+				.tags("api", api, "method", method, "status", statusCode == null ? IO_ERROR : String.valueOf(statusCode),
+						"outcome", statusCode == null ? Outcome.UNKNOWN.name() : Outcome.forStatus(statusCode).name())
+				.register(this.meterRegistry)
+				.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Record the bytes uploaded or downloaded by a request.
+	 *
+	 * @param api API method, such as {@code files.download}
+	 * @param direction {@code upload} or {@code download}
+	 * @param bytes
+	 */
+	public void recordTransfer(String api, String direction, long bytes) {
+		if (!this.isEnabled()) {
+			return;
+		}
+
+		DistributionSummary.builder(TRANSFER_SUMMARY)
+				.description("Bytes uploaded or downloaded by a Google Drive request")
+				.baseUnit("bytes")
+				.tags("api", api, "direction", direction)
+				.register(this.meterRegistry)
+				.record(bytes);
+	}
+
+	private boolean isInsideOperation() {
+		OperationContext context = this.currentOperation.get();
+
+		return context != null && !context.closed;
+	}
+
+	/**
+	 * Return the HTTP status of the Google Drive response that failed an operation, if any.
+	 */
+	private String statusOf(Throwable failure) {
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			if (cause instanceof HttpResponseException httpResponseException) {
+				return String.valueOf(httpResponseException.getStatusCode());
+			}
+		}
+
+		return NONE;
+	}
+
+	/**
+	 * Requests sent by an operation, inherited by the threads it starts.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	private static final class OperationContext {
+
+		private final AtomicInteger requests = new AtomicInteger();
+		private volatile boolean closed;
+
+		private void close() {
+			this.closed = true;
+		}
+	}
+
+	/**
+	 * Phase of an operation.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	@FunctionalInterface
+	public interface Call<T> {
+
+		/**
+		 * Run the phase.
+		 *
+		 * @return phase result
+		 * @throws IOException
+		 */
+		T execute() throws IOException;
+
+	}
+
+}
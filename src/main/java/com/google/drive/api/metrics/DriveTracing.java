@@ -0,0 +1,258 @@
+package com.google.drive.api.metrics;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.MultipartContent;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Micrometer observations of the Google Drive operations, exported as spans when a tracing bridge (such as
+ * Micrometer Tracing with OpenTelemetry) handles them. Each public operation of the service is observed, with
+ * the credentials refresh, the folder resolution and every Google Drive request attempt as its children, so
+ * that the round trips behind an operation show up in its trace. Requests sent by threads started during an
+ * operation are children of it as well. Without an {@link ObservationRegistry} nothing is observed.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class DriveTracing {
+
+	/**
+	 * Number of folders in the hierarchy being resolved.
+	 */
+	public static final String FOLDER_DEPTH = "google.drive.folder.depth";
+
+	/**
+	 * Attempt of a request, 0 for its first one.
+	 */
+	public static final String RETRY_ATTEMPT = "google.drive.retry.attempt";
+
+	/**
+	 * Page size asked by a list request.
+	 */
+	public static final String PAGE_SIZE = "google.drive.page.size";
+
+	/**
+	 * Number of calls inside a batch request.
+	 */
+	public static final String BATCH_SIZE = "google.drive.batch.size";
+
+	/**
+	 * Bytes sent in the body of a request.
+	 */
+	public static final String REQUEST_BYTES = "google.drive.request.bytes";
+
+	/**
+	 * Bytes of the body of a response, when known.
+	 */
+	public static final String RESPONSE_BYTES = "google.drive.response.bytes";
+
+	static final String OPERATION_OBSERVATION = "google.drive.operation";
+	static final String PHASE_OBSERVATION = "google.drive.operation.phase";
+	static final String REQUEST_OBSERVATION = "google.drive.request";
+
+	private static final String BATCH_API = "batch";
+	private static final String IO_ERROR = "IO_ERROR";
+
+	private final ObservationRegistry observationRegistry;
+	private final InheritableThreadLocal<OperationScope> currentOperation = new InheritableThreadLocal<>();
+
+	/**
+	 * Default constructor, disabled tracing.
+	 */
+	public DriveTracing() {
+		this(null);
+	}
+
+	/**
+	 * Constructor with the registry of the observations, null to disable the tracing.
+	 *
+	 * @param observationRegistry
+	 */
+	public DriveTracing(ObservationRegistry observationRegistry) {
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Verify if observations are made.
+	 *
+	 * @return true if enabled false otherwise
+	 */
+	public boolean isEnabled() {
+		return this.observationRegistry != null && !this.observationRegistry.isNoop();
+	}
+
+	/**
+	 * Run a public operation inside its observation, a child of the operation it runs inside, if any.
+	 * Operations returning a lazy stream are observed until the stream is returned.
+	 *
+	 * @param operation operation name
+	 * @param call
+	 * @return call result
+	 */
+	public <T> T observeOperation(String operation, Supplier<T> call) {
+		if (!this.isEnabled()) {
+			return call.get();
+		}
+
+		Observation observation = this.createObservation(OPERATION_OBSERVATION, operation)
+				.lowCardinalityKeyValue("operation", operation);
+		OperationScope previous = this.currentOperation.get();
+		OperationScope operationScope = new OperationScope(observation);
+		this.currentOperation.set(operationScope);
+		observation.start();
+
+		try (Observation.Scope scope = observation.openScope()) {
+			return call.get();
+
+		} catch (RuntimeException | Error e) {
+			observation.error(e);
+			throw e;
+
+		} finally {
+			operationScope.close();
+			this.currentOperation.set(previous);
+			observation.stop();
+		}
+	}
+
+	/**
+	 * Run a phase of an operation inside its observation.
+	 *
+	 * @param phase phase name, such as {@link DriveMetrics#FOLDER_RESOLUTION_PHASE}
+	 * @param call
+	 * @return call result
+	 * @throws IOException
+	 */
+	public <T> T observePhase(String phase, DriveMetrics.Call<T> call) throws IOException {
+		if (!this.isEnabled()) {
+			return call.execute();
+		}
+
+		Observation observation = this.createObservation(PHASE_OBSERVATION, phase)
+				.lowCardinalityKeyValue("phase", phase)
+				.start();
+
+		try (Observation.Scope scope = observation.openScope()) {
+			return call.execute();
+
+		} catch (IOException | RuntimeException | Error e) {
+			observation.error(e);
+			throw e;
+
+		} finally {
+			observation.stop();
+		}
+	}
+
+	/**
+	 * Add an attribute to the observation in scope, if any.
+	 *
+	 * @param key attribute key, such as {@link #FOLDER_DEPTH}
+	 * @param value
+	 */
+	public void tag(String key, Object value) {
+		Observation observation = this.isEnabled() ? this.observationRegistry.getCurrentObservation() : null;
+
+		if (observation != null) {
+			observation.highCardinalityKeyValue(key, String.valueOf(value));
+		}
+	}
+
+	/**
+	 * Start the observation of a request attempt, tagged with its page size or number of batched calls.
+	 *
+	 * @param api API method, such as {@code files.list}
+	 * @param request
+	 * @param attempt attempt of the request, 0 for its first one
+	 * @return started observation, null when disabled
+	 */
+	Observation startRequest(String api, HttpRequest request, int attempt) {
+		if (!this.isEnabled()) {
+			return null;
+		}
+
+		Observation observation = this.createObservation(REQUEST_OBSERVATION, api)
+				.lowCardinalityKeyValue("api", api)
+				.lowCardinalityKeyValue("method", request.getRequestMethod())
+				.highCardinalityKeyValue(RETRY_ATTEMPT, String.valueOf(attempt));
+
+		Object pageSize = request.getUrl().getFirst("pageSize");
+
+		if (pageSize != null) {
+			observation.highCardinalityKeyValue(PAGE_SIZE, pageSize.toString());
+		}
+
+		if (BATCH_API.equals(api) && request.getContent() instanceof MultipartContent multipartContent) {
+			observation.highCardinalityKeyValue(BATCH_SIZE, String.valueOf(multipartContent.getParts().size()));
+		}
+
+		return observation.start();
+	}
+
+	/**
+	 * Stop the observation of a request attempt with its response, null when it failed without one.
+	 *
+	 * @param observation observation started for the attempt, null when disabled
+	 * @param response
+	 * @param requestBytes bytes sent in the request body
+	 * @param responseBytes bytes of the response body, null if unknown
+	 */
+	void stopRequest(Observation observation, HttpResponse response, long requestBytes, Long responseBytes) {
+		if (observation == null) {
+			return;
+		}
+
+		if (requestBytes > 0) {
+			observation.highCardinalityKeyValue(REQUEST_BYTES, String.valueOf(requestBytes));
+		}
+
+		if (responseBytes != null) {
+			observation.highCardinalityKeyValue(RESPONSE_BYTES, String.valueOf(responseBytes));
+		}
+
+		observation.lowCardinalityKeyValue("status", response == null ? IO_ERROR : String.valueOf(response.getStatusCode()));
+		observation.stop();
+	}
+
+	/**
+	 * Create an observation, child of the observation in scope or else of the operation running on the thread
+	 * that started the current one.
+	 */
+	private Observation createObservation(String name, String contextualName) {
+		Observation observation = Observation.createNotStarted(name, this.observationRegistry).contextualName(contextualName);
+		OperationScope operationScope = this.currentOperation.get();
+
+		if (this.observationRegistry.getCurrentObservation() == null && operationScope != null && !operationScope.closed) {
+			observation.parentObservation(operationScope.observation);
+		}
+
+		return observation;
+	}
+
+	/**
+	 * Observation of an operation, inherited by the threads it starts.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	private static final class OperationScope {
+
+		private final Observation observation;
+		private volatile boolean closed;
+
+		private OperationScope(Observation observation) {
+			this.observation = observation;
+		}
+
+		private void close() {
+			this.closed = true;
+		}
+	}
+
+}
@@ -0,0 +1,299 @@
+package com.google.drive.api.metrics;
+
+import java.io.IOException;
+import java.util.Set;
+
+import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpIOExceptionHandler;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseInterceptor;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.api.client.http.MultipartContent;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+
+import io.micrometer.observation.Observation;
+
+/**
+ * Request initializer recording every attempt of a Google Drive request in {@link DriveMetrics}: the attempt
+ * is timed from when it is sent until its response (or failure) arrives, tagged with the API method derived
+ * from its URL, and the bytes of upload bodies and downloaded contents are summarized. Calls inside a batch
+ * request are only counted as requests of the current operation, the batch request itself being timed. Each
+ * attempt is also observed through {@link DriveTracing}, as a child of the operation sending it. The
+ * interceptor and handlers set by a delegate initializer keep running around the metrics.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class MeteringRequestInitializer implements HttpRequestInitializer {
+
+	/**
+	 * Batch request being sent by the current thread, if any.
+	 */
+	private static final ThreadLocal<MeteredRequest> CURRENT_BATCH = new ThreadLocal<>();
+
+	private static final Set<String> CUSTOM_METHODS = Set.of("generateIds", "startPageToken", "emptyTrash", "watch");
+	private static final String API_VERSION_PATH = "/v3/";
+	private static final String UPLOAD_PATH_PREFIX = "/upload/";
+	private static final String DOWNLOAD_PATH_PREFIX = "/download/";
+
+	private final HttpRequestInitializer delegate;
+	private final DriveMetrics driveMetrics;
+	private final DriveTracing driveTracing;
+
+	/**
+	 * Constructor with the delegate initializer, which may be null, and the metrics.
+	 *
+	 * @param delegate
+	 * @param driveMetrics
+	 */
+	public MeteringRequestInitializer(HttpRequestInitializer delegate, DriveMetrics driveMetrics) {
+		this(delegate, driveMetrics, new DriveTracing());
+	}
+
+	/**
+	 * Constructor with the delegate initializer, which may be null, the metrics and the tracing.
+	 *
+	 * @param delegate
+	 * @param driveMetrics
+	 * @param driveTracing
+	 */
+	public MeteringRequestInitializer(HttpRequestInitializer delegate, DriveMetrics driveMetrics, DriveTracing driveTracing) {
+		this.delegate = delegate;
+		this.driveMetrics = driveMetrics;
+		this.driveTracing = driveTracing;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void initialize(HttpRequest request) throws IOException {
+		if (this.delegate != null) {
+			this.delegate.initialize(request);
+		}
+
+		MeteredRequest meteredRequest = new MeteredRequest(request);
+		request.setInterceptor(meteredRequest);
+		request.setUnsuccessfulResponseHandler(meteredRequest);
+		request.setIOExceptionHandler(meteredRequest);
+		request.setResponseInterceptor(meteredRequest);
+	}
+
+	/**
+	 * Return the API method of a request, such as {@code files.list}, {@code files.download} or
+	 * {@code permissions.create}, derived from its HTTP method and URL path.
+	 *
+	 * @param request
+	 * @return API method
+	 */
+	static String apiMethod(HttpRequest request) {
+		String path = request.getUrl().getRawPath();
+
+		if (path.startsWith(GOOGLEAPI.BATCH_PATH_PREFIX)) {
+			return "batch";
+		}
+
+		int versionIndex = path.indexOf(API_VERSION_PATH);
+
+		if (versionIndex < 0) {
+			return "unknown";
+		}
+
+		String[] segments = path.substring(versionIndex + API_VERSION_PATH.length()).split("/");
+		String resource = segments[segments.length % 2 == 0 ? segments.length - 2 : segments.length - 1];
+		String method = request.getRequestMethod();
+
+		if (path.startsWith(UPLOAD_PATH_PREFIX)) {
+			return resource + ".upload";
+		}
+
+		if (segments.length == 2 && CUSTOM_METHODS.contains(segments[1])) {
+			return resource + "." + segments[1];
+		}
+
+		if (segments.length % 2 == 1) {
+			return resource + ("POST".equals(method) ? ".create" : ".list");
+		}
+
+		if (path.startsWith(DOWNLOAD_PATH_PREFIX) || "media".equals(request.getUrl().getFirst("alt"))) {
+			return resource + ".download";
+		}
+
+		return resource + switch (method) {
+			case "DELETE" -> ".delete";
+			case "PATCH", "PUT" -> ".update";
+			default -> ".get";
+		};
+	}
+
+	/**
+	 * Return the length of a request body, adding up the known lengths of the parts of a multipart body, whose
+	 * own length is unknown when one of its parts cannot be sent again, as a media stream.
+	 *
+	 * @param content
+	 * @return content length, 0 if unknown
+	 * @throws IOException
+	 */
+	static long contentLength(HttpContent content) throws IOException {
+		if (content == null) {
+			return 0;
+		}
+
+		if (content instanceof MultipartContent multipartContent) {
+			long length = 0;
+
+			for (MultipartContent.Part part : multipartContent.getParts()) {
+				length += contentLength(part.getContent());
+			}
+
+			return length;
+		}
+
+		return Math.max(content.getLength(), 0);
+	}
+
+	/**
+	 * Metrics hooks of a single request, chaining the hooks previously set on it.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	private final class MeteredRequest implements HttpExecuteInterceptor, HttpUnsuccessfulResponseHandler, HttpIOExceptionHandler,
+			HttpResponseInterceptor {
+
+		private final HttpRequest request;
+		private final HttpExecuteInterceptor interceptor;
+		private final HttpUnsuccessfulResponseHandler unsuccessfulResponseHandler;
+		private final HttpIOExceptionHandler ioExceptionHandler;
+		private final HttpResponseInterceptor responseInterceptor;
+		private String api;
+		private boolean inFlight;
+		private long sentAtNanos;
+		private int attempts;
+		private Observation observation;
+
+		private MeteredRequest(HttpRequest request) {
+			this.request = request;
+			this.interceptor = request.getInterceptor();
+			this.unsuccessfulResponseHandler = request.getUnsuccessfulResponseHandler();
+			this.ioExceptionHandler = request.getIOExceptionHandler();
+			this.responseInterceptor = request.getResponseInterceptor();
+		}
+
+		/**
+		 * Count every attempt and start timing it, unless sent inside a batch request. The API method is
+		 * derived here, the request method and URL being final once the request is sent.
+		 */
+		@Override
+		public void intercept(HttpRequest request) throws IOException {
+			MeteringRequestInitializer.this.driveMetrics.countRequest();
+
+			if (!this.isInsideBatch()) {
+				this.api = apiMethod(request);
+				this.inFlight = true;
+				this.sentAtNanos = System.nanoTime();
+				this.observation = MeteringRequestInitializer.this.driveTracing.startRequest(this.api, request, this.attempts++);
+
+				if (this.isBatch()) {
+					CURRENT_BATCH.set(this);
+				}
+			}
+
+			try {
+				if (this.interceptor != null) {
+					this.interceptor.intercept(request);
+				}
+
+			} catch (IOException | RuntimeException e) {
+				this.stop(null);
+				throw e;
+			}
+		}
+
+		@Override
+		public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry) throws IOException {
+			this.stop(response);
+
+			return this.unsuccessfulResponseHandler != null && this.unsuccessfulResponseHandler.handleResponse(request, response, supportsRetry);
+		}
+
+		@Override
+		public boolean handleIOException(HttpRequest request, boolean supportsRetry) throws IOException {
+			this.stop(null);
+
+			return this.ioExceptionHandler != null && this.ioExceptionHandler.handleIOException(request, supportsRetry);
+		}
+
+		@Override
+		public void interceptResponse(HttpResponse response) throws IOException {
+			this.stop(response);
+
+			if (this.responseInterceptor != null) {
+				this.responseInterceptor.interceptResponse(response);
+			}
+		}
+
+		/**
+		 * Verify if this request is a call inside a batch request being sent by the current thread, whose
+		 * interceptor runs the interceptors of its calls.
+		 */
+		private boolean isInsideBatch() {
+			MeteredRequest currentBatch = CURRENT_BATCH.get();
+
+			if (currentBatch == null || currentBatch == this) {
+				return false;
+			}
+
+			if (currentBatch.inFlight) {
+				return true;
+			}
+
+			CURRENT_BATCH.remove();
+			return false;
+		}
+
+		private boolean isBatch() {
+			return this.request.getUrl().getRawPath().startsWith(GOOGLEAPI.BATCH_PATH_PREFIX);
+		}
+
+		/**
+		 * Stop timing the attempt in flight, if any, with its response, null when it failed without one.
+		 */
+		private void stop(HttpResponse response) throws IOException {
+			if (!this.inFlight) {
+				return;
+			}
+
+			this.inFlight = false;
+
+			if (CURRENT_BATCH.get() == this) {
+				CURRENT_BATCH.remove();
+			}
+
+			DriveMetrics driveMetrics = MeteringRequestInitializer.this.driveMetrics;
+			driveMetrics.recordRequest(this.api, this.request.getRequestMethod(), response == null ? null : response.getStatusCode(),
+					System.nanoTime() - this.sentAtNanos);
+
+			long sentBytes = contentLength(this.request.getContent());
+			Long receivedBytes = response == null ? null : response.getHeaders().getContentLength();
+			MeteringRequestInitializer.this.driveTracing.stopRequest(this.observation, response, sentBytes, receivedBytes);
+			this.observation = null;
+
+			if (response == null) {
+				return;
+			}
+
+			if (sentBytes > 0 && this.request.getUrl().getRawPath().startsWith(UPLOAD_PATH_PREFIX)) {
+				driveMetrics.recordTransfer(this.api, "upload", sentBytes);
+			}
+
+			if (receivedBytes != null && this.api.endsWith(".download") && response.isSuccessStatusCode()) {
+				driveMetrics.recordTransfer(this.api, "download", receivedBytes);
+			}
+		}
+	}
+
+}
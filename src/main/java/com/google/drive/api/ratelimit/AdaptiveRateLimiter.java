@@ -0,0 +1,332 @@
+package com.google.drive.api.ratelimit;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+
+/**
+ * Client side limiter of the requests sent to Google Drive, combining a token bucket sized to the
+ * configured quota (requests per second, with a burst allowance) with an AIMD (additive increase,
+ * multiplicative decrease) limit of the requests in flight. Every successful request raises the
+ * concurrency limit by roughly one per limit requests, up to the maximum, while a rate limit response
+ * halves it, down to the minimum, and drops any burst left in the bucket. Only one decrease applies per
+ * congestion event: requests sent before the last decrease do not decrease it again.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class AdaptiveRateLimiter {
+
+	private static final double DECREASE_FACTOR = 0.5;
+	private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+	private final double requestsPerSecond;
+	private final double burst;
+	private final int minConcurrency;
+	private final int maxConcurrency;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition permitReleased = this.lock.newCondition();
+	private double storedTokens;
+	private long refilledAtNanos;
+	private double concurrencyLimit;
+	private int inFlightRequests;
+	private long lastDecreaseNanos;
+
+	/**
+	 * Default constructor.
+	 */
+	public AdaptiveRateLimiter() {
+		this(GOOGLEAPI.DEFAULT_RATE_LIMIT_REQUESTS_PER_SECOND, GOOGLEAPI.DEFAULT_RATE_LIMIT_BURST,
+				GOOGLEAPI.DEFAULT_RATE_LIMIT_MIN_CONCURRENCY, GOOGLEAPI.DEFAULT_RATE_LIMIT_MAX_CONCURRENCY);
+	}
+
+	/**
+	 * Constructor with the quota (requests per second, lower than or equal to zero for no rate limit), the
+	 * number of requests that may be sent at once after an idle period and the bounds of the concurrency
+	 * limit, which starts at its maximum.
+	 *
+	 * @param requestsPerSecond
+	 * @param burst
+	 * @param minConcurrency
+	 * @param maxConcurrency
+	 */
+	public AdaptiveRateLimiter(double requestsPerSecond, int burst, int minConcurrency, int maxConcurrency) {
+		if (burst < 1 || minConcurrency < 1 || maxConcurrency < minConcurrency) {
+			throw new IllegalArgumentException("Invalid rate limit settings");
+		}
+
+		this.requestsPerSecond = requestsPerSecond;
+		this.burst = burst;
+		this.minConcurrency = minConcurrency;
+		this.maxConcurrency = maxConcurrency;
+		this.storedTokens = burst;
+		this.refilledAtNanos = System.nanoTime();
+		this.concurrencyLimit = maxConcurrency;
+		this.lastDecreaseNanos = this.refilledAtNanos;
+	}
+
+	/**
+	 * Wait for a free concurrency slot and a token, then return the permit of a request about to be sent. The
+	 * permit must be released once the request completes.
+	 *
+	 * @return {@link Permit}
+	 * @throws InterruptedIOException
+	 */
+	public Permit acquire() throws InterruptedIOException {
+		long waitNanos;
+
+		this.lock.lock();
+
+		try {
+			while (this.inFlightRequests >= (int) this.concurrencyLimit) {
+				this.permitReleased.await();
+			}
+
+			this.inFlightRequests++;
+			waitNanos = this.reserveToken();
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+
+		} finally {
+			this.lock.unlock();
+		}
+
+		Permit permit = new Permit(System.nanoTime() + waitNanos);
+
+		try {
+			this.sleep(waitNanos);
+
+		} catch (InterruptedIOException e) {
+			this.release(permit, Outcome.FAILURE);
+			throw e;
+		}
+
+		return permit;
+	}
+
+	/**
+	 * Wait for a token only, for a request sent as part of another request already holding a concurrency
+	 * slot, such as a call inside a batch request.
+	 *
+	 * @throws InterruptedIOException
+	 */
+	public void acquireToken() throws InterruptedIOException {
+		long waitNanos;
+
+		this.lock.lock();
+
+		try {
+			waitNanos = this.reserveToken();
+
+		} finally {
+			this.lock.unlock();
+		}
+
+		this.sleep(waitNanos);
+	}
+
+	/**
+	 * Release the concurrency slot of a completed request, adjusting the concurrency limit to its outcome.
+	 *
+	 * @param permit
+	 * @param outcome
+	 */
+	public void release(Permit permit, Outcome outcome) {
+		this.lock.lock();
+
+		try {
+			this.inFlightRequests--;
+
+			if (outcome == Outcome.SUCCESS) {
+				this.concurrencyLimit = Math.min(this.maxConcurrency, this.concurrencyLimit + 1 / this.concurrencyLimit);
+
+			} else if (outcome == Outcome.RATE_LIMITED) {
+				this.decrease(permit.sentAtNanos());
+			}
+
+			this.permitReleased.signalAll();
+
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Record a rate limit response to a request sent at a given time without a permit of its own, such as a
+	 * call inside a batch request.
+	 *
+	 * @param sentAtNanos {@link System#nanoTime()} when the request was sent
+	 */
+	public void onRateLimited(long sentAtNanos) {
+		this.lock.lock();
+
+		try {
+			this.decrease(sentAtNanos);
+			this.permitReleased.signalAll();
+
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the number of requests that may be sent right now without waiting for a concurrency slot.
+	 *
+	 * @return available permits
+	 */
+	public int getAvailablePermits() {
+		this.lock.lock();
+
+		try {
+			return Math.max(0, (int) this.concurrencyLimit - this.inFlightRequests);
+
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the current limit of requests in flight.
+	 *
+	 * @return concurrency limit
+	 */
+	public int getConcurrencyLimit() {
+		this.lock.lock();
+
+		try {
+			return (int) this.concurrencyLimit;
+
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the number of requests in flight.
+	 *
+	 * @return requests in flight
+	 */
+	public int getInFlightRequests() {
+		this.lock.lock();
+
+		try {
+			return this.inFlightRequests;
+
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the number of tokens left in the bucket, negative when requests are waiting for tokens.
+	 *
+	 * @return available tokens
+	 */
+	public double getAvailableTokens() {
+		this.lock.lock();
+
+		try {
+			this.refill();
+			return this.storedTokens;
+
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Take a token from the bucket, going into debt when it is empty so that waiting requests are served in
+	 * order, and return how long the caller must wait for its token.
+	 *
+	 * @return wait time in nanoseconds
+	 */
+	private long reserveToken() {
+		if (this.requestsPerSecond <= 0) {
+			return 0;
+		}
+
+		this.refill();
+		this.storedTokens--;
+
+		return this.storedTokens >= 0 ? 0 : (long) (-this.storedTokens * NANOS_PER_SECOND / this.requestsPerSecond);
+	}
+
+	private void refill() {
+		long now = System.nanoTime();
+
+		if (this.requestsPerSecond > 0) {
+			this.storedTokens = Math.min(this.burst, this.storedTokens + (now - this.refilledAtNanos) * this.requestsPerSecond / NANOS_PER_SECOND);
+		}
+
+		this.refilledAtNanos = now;
+	}
+
+	/**
+	 * Halve the concurrency limit and drop the burst left in the bucket, unless the rate limited request was
+	 * sent before the last decrease.
+	 *
+	 * @param sentAtNanos
+	 */
+	private void decrease(long sentAtNanos) {
+		if (sentAtNanos - this.lastDecreaseNanos < 0) {
+			return;
+		}
+
+		this.concurrencyLimit = Math.max(this.minConcurrency, this.concurrencyLimit * DECREASE_FACTOR);
+		this.lastDecreaseNanos = System.nanoTime();
+		this.refill();
+		this.storedTokens = Math.min(this.storedTokens, 0);
+	}
+
+	private void sleep(long nanos) throws InterruptedIOException {
+		if (nanos <= 0) {
+			return;
+		}
+
+		try {
+			Thread.sleep(Duration.ofNanos(nanos));
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Outcome of a request.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	public enum Outcome {
+
+		/**
+		 * Successful response.
+		 */
+		SUCCESS,
+
+		/**
+		 * Rate limit response ({@code 429}, or {@code 403} with a rate limit reason).
+		 */
+		RATE_LIMITED,
+
+		/**
+		 * Any other error response or I/O failure, leaving the concurrency limit untouched.
+		 */
+		FAILURE
+	}
+
+	/**
+	 * Permit of a request in flight.
+	 *
+	 * @param sentAtNanos {@link System#nanoTime()} when the request was allowed to be sent
+	 */
+	public record Permit(long sentAtNanos) {
+	}
+
+}
@@ -0,0 +1,196 @@
+package com.google.drive.api.ratelimit;
+
+import java.io.IOException;
+
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpIOExceptionHandler;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseInterceptor;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.ratelimit.AdaptiveRateLimiter.Outcome;
+import com.google.drive.api.ratelimit.AdaptiveRateLimiter.Permit;
+import com.google.drive.api.util.DriveErrorResponses;
+
+/**
+ * Request initializer passing every Google Drive request through an {@link AdaptiveRateLimiter}: each
+ * attempt waits for a permit before being sent and releases it once its response (or failure) arrives,
+ * reporting {@code 429} and {@code 403} rate limit responses. The interceptor and handlers set by a
+ * delegate initializer, such as the {@code CredentialManager}, keep running around the limiter.
+ * Calls inside a batch request only take a token, the batch request itself holding the concurrency slot.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class RateLimitingRequestInitializer implements HttpRequestInitializer {
+
+	/**
+	 * Request holding a permit on the current thread, if any.
+	 */
+	private static final ThreadLocal<ThrottledRequest> CURRENT_REQUEST = new ThreadLocal<>();
+
+	private final HttpRequestInitializer delegate;
+	private final AdaptiveRateLimiter rateLimiter;
+
+	/**
+	 * Constructor with the delegate initializer, which may be null, and the rate limiter.
+	 *
+	 * @param delegate
+	 * @param rateLimiter
+	 */
+	public RateLimitingRequestInitializer(HttpRequestInitializer delegate, AdaptiveRateLimiter rateLimiter) {
+		this.delegate = delegate;
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void initialize(HttpRequest request) throws IOException {
+		if (this.delegate != null) {
+			this.delegate.initialize(request);
+		}
+
+		ThrottledRequest throttledRequest = new ThrottledRequest(request);
+		request.setInterceptor(throttledRequest);
+		request.setUnsuccessfulResponseHandler(throttledRequest);
+		request.setIOExceptionHandler(throttledRequest);
+		request.setResponseInterceptor(throttledRequest);
+	}
+
+	/**
+	 * Return the rate limiter.
+	 *
+	 * @return {@link AdaptiveRateLimiter}
+	 */
+	public AdaptiveRateLimiter getRateLimiter() {
+		return this.rateLimiter;
+	}
+
+	/**
+	 * Rate limiting hooks of a single request, chaining the hooks previously set on it.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	private final class ThrottledRequest implements HttpExecuteInterceptor, HttpUnsuccessfulResponseHandler, HttpIOExceptionHandler,
+			HttpResponseInterceptor {
+
+		private final HttpRequest request;
+		private final HttpExecuteInterceptor interceptor;
+		private final HttpUnsuccessfulResponseHandler unsuccessfulResponseHandler;
+		private final HttpIOExceptionHandler ioExceptionHandler;
+		private final HttpResponseInterceptor responseInterceptor;
+		private Permit permit;
+		private long sentAtNanos;
+
+		private ThrottledRequest(HttpRequest request) {
+			this.request = request;
+			this.interceptor = request.getInterceptor();
+			this.unsuccessfulResponseHandler = request.getUnsuccessfulResponseHandler();
+			this.ioExceptionHandler = request.getIOExceptionHandler();
+			this.responseInterceptor = request.getResponseInterceptor();
+		}
+
+		/**
+		 * Wait for a permit before every attempt, or only for a token when sent inside a batch request.
+		 */
+		@Override
+		public void intercept(HttpRequest request) throws IOException {
+			this.release(Outcome.FAILURE);
+
+			if (this.isInsideBatch()) {
+				RateLimitingRequestInitializer.this.rateLimiter.acquireToken();
+				this.sentAtNanos = System.nanoTime();
+
+			} else {
+				this.permit = RateLimitingRequestInitializer.this.rateLimiter.acquire();
+				this.sentAtNanos = this.permit.sentAtNanos();
+				CURRENT_REQUEST.set(this);
+			}
+
+			try {
+				if (this.interceptor != null) {
+					this.interceptor.intercept(request);
+				}
+
+			} catch (IOException | RuntimeException e) {
+				this.release(Outcome.FAILURE);
+				throw e;
+			}
+		}
+
+		@Override
+		public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry) throws IOException {
+			if (DriveErrorResponses.isRateLimited(response)) {
+				if (this.permit == null) {
+					RateLimitingRequestInitializer.this.rateLimiter.onRateLimited(this.sentAtNanos);
+				}
+
+				this.release(Outcome.RATE_LIMITED);
+
+			} else {
+				this.release(Outcome.FAILURE);
+			}
+
+			return this.unsuccessfulResponseHandler != null && this.unsuccessfulResponseHandler.handleResponse(request, response, supportsRetry);
+		}
+
+		@Override
+		public boolean handleIOException(HttpRequest request, boolean supportsRetry) throws IOException {
+			this.release(Outcome.FAILURE);
+
+			return this.ioExceptionHandler != null && this.ioExceptionHandler.handleIOException(request, supportsRetry);
+		}
+
+		@Override
+		public void interceptResponse(HttpResponse response) throws IOException {
+			this.release(response.isSuccessStatusCode() ? Outcome.SUCCESS : Outcome.FAILURE);
+
+			if (this.responseInterceptor != null) {
+				this.responseInterceptor.interceptResponse(response);
+			}
+		}
+
+		/**
+		 * Verify if this request is a call inside a batch request being sent by the current thread, whose
+		 * interceptor runs the interceptors of its calls while holding its own permit.
+		 */
+		private boolean isInsideBatch() {
+			ThrottledRequest currentRequest = CURRENT_REQUEST.get();
+
+			if (currentRequest == null || currentRequest == this) {
+				return false;
+			}
+
+			if (currentRequest.permit != null && currentRequest.isBatch()) {
+				return true;
+			}
+
+			// a permit left by a request that failed before being sent
+			currentRequest.release(Outcome.FAILURE);
+			return false;
+		}
+
+		private boolean isBatch() {
+			return this.request.getUrl().getRawPath().startsWith(GOOGLEAPI.BATCH_PATH_PREFIX);
+		}
+
+		private void release(Outcome outcome) {
+			if (this.permit == null) {
+				return;
+			}
+
+			RateLimitingRequestInitializer.this.rateLimiter.release(this.permit, outcome);
+			this.permit = null;
+
+			if (CURRENT_REQUEST.get() == this) {
+				CURRENT_REQUEST.remove();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.google.drive.api.retry;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+
+/**
+ * Retry policy of Google Drive requests: exponential backoff with full jitter (a random delay between zero
+ * and {@code min(maxDelay, initialDelay * multiplier ^ retry)}, spreading the retries of concurrent clients),
+ * bounded by a number of retries and a maximum time elapsed since the request was built. The retries,
+ * their total delay and the failures left after retries ran out are counted.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class RetryPolicy {
+
+	private static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(408, 500, 502, 503, 504);
+
+	private final int maxRetries;
+	private final Duration initialDelay;
+	private final Duration maxDelay;
+	private final double multiplier;
+	private final Duration maxElapsedTime;
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder retryDelayMillis = new LongAdder();
+	private final LongAdder exhaustedRetries = new LongAdder();
+
+	/**
+	 * Default constructor.
+	 */
+	public RetryPolicy() {
+		this(GOOGLEAPI.DEFAULT_RETRY_MAX_RETRIES, Duration.ofMillis(GOOGLEAPI.DEFAULT_RETRY_INITIAL_DELAY_MILLIS),
+				Duration.ofMillis(GOOGLEAPI.DEFAULT_RETRY_MAX_DELAY_MILLIS), GOOGLEAPI.DEFAULT_RETRY_MULTIPLIER,
+				Duration.ofMillis(GOOGLEAPI.DEFAULT_RETRY_MAX_ELAPSED_MILLIS));
+	}
+
+	/**
+	 * Constructor with the maximum number of retries, the backoff settings and the maximum time elapsed
+	 * before giving up.
+	 *
+	 * @param maxRetries
+	 * @param initialDelay
+	 * @param maxDelay
+	 * @param multiplier
+	 * @param maxElapsedTime
+	 */
+	public RetryPolicy(int maxRetries, Duration initialDelay, Duration maxDelay, double multiplier, Duration maxElapsedTime) {
+		if (maxRetries < 0 || initialDelay.isNegative() || maxDelay.compareTo(initialDelay) < 0 || multiplier < 1 || maxElapsedTime.isNegative()) {
+			throw new IllegalArgumentException("Invalid retry settings");
+		}
+
+		this.maxRetries = maxRetries;
+		this.initialDelay = initialDelay;
+		this.maxDelay = maxDelay;
+		this.multiplier = multiplier;
+		this.maxElapsedTime = maxElapsedTime;
+	}
+
+	/**
+	 * Return the delay before a retry, drawn with full jitter.
+	 *
+	 * @param retry number of retries already made
+	 * @return {@link Duration} delay
+	 */
+	public Duration backoff(int retry) {
+		double ceilingMillis = Math.min(this.maxDelay.toMillis(), this.initialDelay.toMillis() * Math.pow(this.multiplier, retry));
+
+		return Duration.ofMillis(ThreadLocalRandom.current().nextLong((long) ceilingMillis + 1));
+	}
+
+	/**
+	 * Verify if a response status code denotes a transient failure.
+	 *
+	 * @param statusCode
+	 * @return true if retryable false otherwise
+	 */
+	public boolean isRetryableStatus(int statusCode) {
+		return RETRYABLE_STATUS_CODES.contains(statusCode);
+	}
+
+	/**
+	 * Return the maximum number of retries.
+	 *
+	 * @return max retries
+	 */
+	public int getMaxRetries() {
+		return this.maxRetries;
+	}
+
+	/**
+	 * Return the maximum delay before a retry.
+	 *
+	 * @return {@link Duration} max delay
+	 */
+	public Duration getMaxDelay() {
+		return this.maxDelay;
+	}
+
+	/**
+	 * Return the maximum time elapsed since a request was built after which it is no longer retried.
+	 *
+	 * @return {@link Duration} max elapsed time
+	 */
+	public Duration getMaxElapsedTime() {
+		return this.maxElapsedTime;
+	}
+
+	/**
+	 * Return the number of retries made.
+	 *
+	 * @return retries
+	 */
+	public long getRetries() {
+		return this.retries.sum();
+	}
+
+	/**
+	 * Return the total delay waited before retries.
+	 *
+	 * @return {@link Duration} retry delay
+	 */
+	public Duration getRetryDelay() {
+		return Duration.ofMillis(this.retryDelayMillis.sum());
+	}
+
+	/**
+	 * Return the number of retryable failures given up on, their retries or time having run out.
+	 *
+	 * @return exhausted retries
+	 */
+	public long getExhaustedRetries() {
+		return this.exhaustedRetries.sum();
+	}
+
+	void recordRetry(Duration delay) {
+		this.retries.increment();
+		this.retryDelayMillis.add(delay.toMillis());
+	}
+
+	void recordExhausted() {
+		this.exhaustedRetries.increment();
+	}
+
+}
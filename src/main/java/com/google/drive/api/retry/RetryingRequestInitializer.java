@@ -0,0 +1,218 @@
+package com.google.drive.api.retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpIOExceptionHandler;
+import com.google.api.client.http.HttpMethods;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.api.client.http.MultipartContent;
+import com.google.api.client.http.json.JsonHttpContent;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.util.DriveErrorResponses;
+
+/**
+ * Request initializer retrying Google Drive requests that failed with a transient error ({@code 408},
+ * {@code 5xx}, rate limit responses or I/O failures) after a backoff of its {@link RetryPolicy}. Only
+ * idempotent requests are retried after a failure that may have happened once the request was processed:
+ * reads, deletions and updates, resumable session starts and creations of files with a pre-generated id,
+ * which Google Drive never duplicates. Other creations are only retried after a rate limit response, as
+ * Google Drive rejected them before doing anything. The handlers set by a delegate initializer run first,
+ * and a retry they ask for (such as after an access token refresh) happens right away.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class RetryingRequestInitializer implements HttpRequestInitializer {
+
+	private static final String METHOD_OVERRIDE_HEADER = "X-HTTP-Method-Override";
+	private static final String UPLOAD_TYPE_PARAM = "uploadType";
+	private static final String RESUMABLE_UPLOAD_TYPE = "resumable";
+	private static final Set<String> IDEMPOTENT_METHODS = Set.of(HttpMethods.GET, HttpMethods.HEAD, HttpMethods.DELETE, HttpMethods.PUT,
+			HttpMethods.PATCH, HttpMethods.OPTIONS);
+
+	private final HttpRequestInitializer delegate;
+	private final RetryPolicy retryPolicy;
+
+	/**
+	 * Constructor with the delegate initializer, which may be null, and the retry policy.
+	 *
+	 * @param delegate
+	 * @param retryPolicy
+	 */
+	public RetryingRequestInitializer(HttpRequestInitializer delegate, RetryPolicy retryPolicy) {
+		this.delegate = delegate;
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void initialize(HttpRequest request) throws IOException {
+		if (this.delegate != null) {
+			this.delegate.initialize(request);
+		}
+
+		RetryingRequest retryingRequest = new RetryingRequest(request);
+		request.setUnsuccessfulResponseHandler(retryingRequest);
+		request.setIOExceptionHandler(retryingRequest);
+		request.setNumberOfRetries(Math.max(request.getNumberOfRetries(), this.retryPolicy.getMaxRetries()));
+	}
+
+	/**
+	 * Return the retry policy.
+	 *
+	 * @return {@link RetryPolicy}
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return this.retryPolicy;
+	}
+
+	/**
+	 * Verify if a request may be sent again without side effects beyond those of its first attempt. Methods
+	 * overridden by a header, such as {@code PATCH} sent as {@code POST}, are judged by their actual method.
+	 *
+	 * @param request
+	 * @return true if idempotent false otherwise
+	 */
+	private boolean isIdempotent(HttpRequest request) {
+		String method = request.getHeaders().getFirstHeaderStringValue(METHOD_OVERRIDE_HEADER);
+		method = (method != null ? method : request.getRequestMethod()).toUpperCase(Locale.ROOT);
+
+		if (IDEMPOTENT_METHODS.contains(method)) {
+			return true;
+		}
+
+		return HttpMethods.POST.equals(method)
+				&& (RESUMABLE_UPLOAD_TYPE.equals(request.getUrl().getFirst(UPLOAD_TYPE_PARAM))
+						|| this.hasPreGeneratedId(request.getContent()));
+	}
+
+	/**
+	 * Verify if a request body is the metadata of a file with a pre-generated id, alone or as the first part
+	 * of a multipart upload.
+	 *
+	 * @param content
+	 * @return true if the created file has an id false otherwise
+	 */
+	private boolean hasPreGeneratedId(HttpContent content) {
+		if (content instanceof MultipartContent multipartContent && !multipartContent.getParts().isEmpty()) {
+			return this.hasPreGeneratedId(multipartContent.getParts().iterator().next().getContent());
+		}
+
+		return content instanceof JsonHttpContent jsonContent
+				&& jsonContent.getData() instanceof Map<?, ?> metadata
+				&& metadata.get(GOOGLEAPI.ID_FIELD_BASE) != null;
+	}
+
+	/**
+	 * Retry hooks of a single request, chaining the hooks previously set on it.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	private final class RetryingRequest implements HttpUnsuccessfulResponseHandler, HttpIOExceptionHandler {
+
+		private final HttpUnsuccessfulResponseHandler unsuccessfulResponseHandler;
+		private final HttpIOExceptionHandler ioExceptionHandler;
+		private final long startNanos = System.nanoTime();
+		private int retries;
+
+		private RetryingRequest(HttpRequest request) {
+			this.unsuccessfulResponseHandler = request.getUnsuccessfulResponseHandler();
+			this.ioExceptionHandler = request.getIOExceptionHandler();
+		}
+
+		@Override
+		public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry) throws IOException {
+			if (this.unsuccessfulResponseHandler != null && this.unsuccessfulResponseHandler.handleResponse(request, response, supportsRetry)) {
+				return true;
+			}
+
+			if (!supportsRetry) {
+				return false;
+			}
+
+			boolean rateLimited = DriveErrorResponses.isRateLimited(response);
+
+			if (!rateLimited && !(RetryingRequestInitializer.this.retryPolicy.isRetryableStatus(response.getStatusCode())
+					&& RetryingRequestInitializer.this.isIdempotent(request))) {
+				return false;
+			}
+
+			return this.backOff(this.retryAfter(response));
+		}
+
+		@Override
+		public boolean handleIOException(HttpRequest request, boolean supportsRetry) throws IOException {
+			if (this.ioExceptionHandler != null && this.ioExceptionHandler.handleIOException(request, supportsRetry)) {
+				return true;
+			}
+
+			if (!supportsRetry || Thread.currentThread().isInterrupted() || !RetryingRequestInitializer.this.isIdempotent(request)) {
+				return false;
+			}
+
+			return this.backOff(Duration.ZERO);
+		}
+
+		/**
+		 * Wait before a retry, unless the retries or the time allowed have run out.
+		 *
+		 * @param minDelay delay asked for by Google Drive, if any
+		 * @return true if the request should be retried false otherwise
+		 */
+		private boolean backOff(Duration minDelay) {
+			RetryPolicy retryPolicy = RetryingRequestInitializer.this.retryPolicy;
+			Duration delay = retryPolicy.backoff(this.retries);
+
+			if (minDelay.compareTo(delay) > 0) {
+				delay = minDelay.compareTo(retryPolicy.getMaxDelay()) > 0 ? retryPolicy.getMaxDelay() : minDelay;
+			}
+
+			Duration elapsed = Duration.ofNanos(System.nanoTime() - this.startNanos);
+
+			if (this.retries >= retryPolicy.getMaxRetries() || elapsed.plus(delay).compareTo(retryPolicy.getMaxElapsedTime()) > 0) {
+				retryPolicy.recordExhausted();
+				return false;
+			}
+
+			try {
+				Thread.sleep(delay);
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+
+			this.retries++;
+			retryPolicy.recordRetry(delay);
+
+			return true;
+		}
+
+		/**
+		 * Return the delay asked for by the {@code Retry-After} header of a response, in seconds.
+		 */
+		private Duration retryAfter(HttpResponse response) {
+			String retryAfter = response.getHeaders().getRetryAfter();
+
+			try {
+				return retryAfter == null ? Duration.ZERO : Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+
+			} catch (NumberFormatException e) {
+				// an http date, left to the backoff
+				return Duration.ZERO;
+			}
+		}
+	}
+
+}
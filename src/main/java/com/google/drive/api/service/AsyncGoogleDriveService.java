@@ -0,0 +1,308 @@
+package com.google.drive.api.service;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.domain.DriveBatchResult;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.domain.DriveFileField;
+import com.google.drive.api.domain.DriveFileList;
+import com.google.drive.api.domain.DriveSyncReport;
+
+/**
+ * Asynchronous variant of {@link GoogleDriveService}, running every operation on an executor and returning a
+ * {@link CompletableFuture}. Cancelling a returned future interrupts the call running it, and calls not
+ * completed within the service timeout fail with a {@link java.util.concurrent.TimeoutException}. The lazily
+ * listed streams of {@link GoogleDriveService#streamFolderFiles} and {@link GoogleDriveService#walkTree} have
+ * no variant here, since they already hand every page to the caller as soon as it is listed.
+ * 
+ * @author leonardo.ramos
+ *
+ */
+public interface AsyncGoogleDriveService {
+
+	/**
+	 * Return a view of this service applying a timeout to every call, zero meaning no timeout.
+	 * 
+	 * @param timeout
+	 * @return {@link AsyncGoogleDriveService}
+	 */
+	AsyncGoogleDriveService withTimeout(Duration timeout);
+
+	/**
+	 * Delete a file with given fileId.
+	 * 
+	 * @param fileId
+	 * @return {@link CompletableFuture} completed once the file is deleted
+	 */
+	CompletableFuture<Void> deleteFile(String fileId);
+
+	/**
+	 * Delete files with given fileIds through batch requests.
+	 * 
+	 * @param fileIds
+	 * @return {@link CompletableFuture} of the result of each deletion
+	 */
+	CompletableFuture<List<DriveBatchResult<Void>>> deleteFiles(Collection<String> fileIds);
+
+	/**
+	 * Retrieve the metadata of files with given fileIds through batch requests.
+	 * 
+	 * @param fileIds
+	 * @return {@link CompletableFuture} of the metadata of each file
+	 */
+	CompletableFuture<List<DriveBatchResult<DriveFile>>> getFilesMetadata(Collection<String> fileIds);
+
+	/**
+	 * Retrieve the requested fields of files with given fileIds through batch requests.
+	 * 
+	 * @param fileIds
+	 * @param fields
+	 * @return {@link CompletableFuture} of the metadata of each file
+	 */
+	CompletableFuture<List<DriveBatchResult<DriveFile>>> getFilesMetadata(Collection<String> fileIds, Set<DriveFileField> fields);
+
+	/**
+	 * Query for a file using its folder tree and its file name.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @return {@link CompletableFuture} of the file retrieved
+	 */
+	CompletableFuture<Optional<DriveFile>> getFileByNameAndParentFolder(List<String> folderHierarchy, String fileName);
+
+	/**
+	 * Query for the requested fields of a file using its folder tree and its file name.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @param fields
+	 * @return {@link CompletableFuture} of the file retrieved
+	 */
+	CompletableFuture<Optional<DriveFile>> getFileByNameAndParentFolder(List<String> folderHierarchy, String fileName, Set<DriveFileField> fields);
+
+	/**
+	 * Download a file for given fileId.
+	 * 
+	 * @param fileId
+	 * @return {@link CompletableFuture} of the file content
+	 */
+	CompletableFuture<byte[]> downloadFile(String fileId);
+
+	/**
+	 * Download a file for given fileId, writing its content to an output stream.
+	 * 
+	 * @param fileId
+	 * @param outputStream
+	 * @return {@link CompletableFuture} completed once the content is written
+	 */
+	CompletableFuture<Void> downloadFile(String fileId, OutputStream outputStream);
+
+	/**
+	 * Download a file for given fileId, writing its content to a channel.
+	 * 
+	 * @param fileId
+	 * @param channel
+	 * @return {@link CompletableFuture} completed once the content is written
+	 */
+	CompletableFuture<Void> downloadFile(String fileId, WritableByteChannel channel);
+
+	/**
+	 * Download a file for given fileId into a target path.
+	 * 
+	 * @param fileId
+	 * @param target
+	 * @return {@link CompletableFuture} of the target path
+	 */
+	CompletableFuture<Path> downloadFile(String fileId, Path target);
+
+	/**
+	 * Download a file for given fileId into a target path, fetching byte ranges concurrently.
+	 * 
+	 * @param fileId
+	 * @param target
+	 * @return {@link CompletableFuture} of the target path
+	 */
+	CompletableFuture<Path> downloadFileInRanges(String fileId, Path target);
+
+	/**
+	 * Upload a file to a folder tree as not public.
+	 * 
+	 * @param folderHierarchy
+	 * @param file
+	 * @return {@link CompletableFuture} of the uploaded file
+	 */
+	CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, java.io.File file);
+
+	/**
+	 * Upload a file to a folder tree.
+	 * 
+	 * @param folderHierarchy
+	 * @param file
+	 * @param isPublic
+	 * @return {@link CompletableFuture} of the uploaded file
+	 */
+	CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, java.io.File file, boolean isPublic);
+
+	/**
+	 * Upload a file to a folder tree with a given mime type, detected from the file when null.
+	 * 
+	 * @param folderHierarchy
+	 * @param file
+	 * @param mimeType
+	 * @param isPublic
+	 * @return {@link CompletableFuture} of the uploaded file
+	 */
+	CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, Path file, String mimeType, boolean isPublic);
+
+	/**
+	 * Upload content read from a stream to a folder tree. A negative length means the length is unknown.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @param content
+	 * @param length
+	 * @param mimeType
+	 * @param isPublic
+	 * @return {@link CompletableFuture} of the uploaded file
+	 */
+	CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, String fileName, InputStream content, long length, 
+			String mimeType, boolean isPublic);
+
+	/**
+	 * Upload content held in memory to a folder tree.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @param content
+	 * @param mimeType
+	 * @param isPublic
+	 * @return {@link CompletableFuture} of the uploaded file
+	 */
+	CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, String fileName, byte[] content, String mimeType, 
+			boolean isPublic);
+
+	/**
+	 * Upload the remaining bytes of a buffer to a folder tree. The buffer position is left untouched.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @param content
+	 * @param mimeType
+	 * @param isPublic
+	 * @return {@link CompletableFuture} of the uploaded file
+	 */
+	CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, String fileName, ByteBuffer content, String mimeType, 
+			boolean isPublic);
+
+	/**
+	 * Update permission for a Google Drive file to public.
+	 * 
+	 * @param file
+	 * @return {@link CompletableFuture} completed once the permission is created
+	 */
+	CompletableFuture<Void> setPublicPermission(File file);
+
+	/**
+	 * Update permission for Google Drive files to public through batch requests.
+	 * 
+	 * @param fileIds
+	 * @return {@link CompletableFuture} of the created permission id of each file
+	 */
+	CompletableFuture<List<DriveBatchResult<String>>> setPublicPermissions(Collection<String> fileIds);
+
+	/**
+	 * List the first page of files of a given folder tree, with the default page size.
+	 * 
+	 * @param folderHierarchy
+	 * @return {@link CompletableFuture} of the files page
+	 */
+	CompletableFuture<DriveFileList> getFolderFiles(List<String> folderHierarchy);
+
+	/**
+	 * List files of a given folder tree.
+	 * 
+	 * @param folderHierarchy
+	 * @param pageSize
+	 * @param pageToken
+	 * @return {@link CompletableFuture} of the files page
+	 */
+	CompletableFuture<DriveFileList> getFolderFiles(List<String> folderHierarchy, Integer pageSize, String pageToken);
+
+	/**
+	 * List the requested fields of the files of a given folder tree.
+	 * 
+	 * @param folderHierarchy
+	 * @param pageSize
+	 * @param pageToken
+	 * @param fields
+	 * @return {@link CompletableFuture} of the files page
+	 */
+	CompletableFuture<DriveFileList> getFolderFiles(List<String> folderHierarchy, Integer pageSize, String pageToken, Set<DriveFileField> fields);
+
+	/**
+	 * List the first page of files of a given folder tree whose name contains a filter, with the default page
+	 * size.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileNameFilter
+	 * @return {@link CompletableFuture} of the files page
+	 */
+	CompletableFuture<DriveFileList> getFolderFilesByFileNameFilter(List<String> folderHierarchy, String fileNameFilter);
+
+	/**
+	 * List files of a given folder tree whose name contains a filter.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileNameFilter
+	 * @param pageSize
+	 * @param pageToken
+	 * @return {@link CompletableFuture} of the files page
+	 */
+	CompletableFuture<DriveFileList> getFolderFilesByFileNameFilter(List<String> folderHierarchy, String fileNameFilter, Integer pageSize, 
+			String pageToken);
+
+	/**
+	 * List the requested fields of the files of a given folder tree whose name contains a filter.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileNameFilter
+	 * @param pageSize
+	 * @param pageToken
+	 * @param fields
+	 * @return {@link CompletableFuture} of the files page
+	 */
+	CompletableFuture<DriveFileList> getFolderFilesByFileNameFilter(List<String> folderHierarchy, String fileNameFilter, Integer pageSize, 
+			String pageToken, Set<DriveFileField> fields);
+
+	/**
+	 * Synchronize a local directory into a given folder tree, transferring only new and changed files.
+	 * 
+	 * @param localDirectory
+	 * @param folderHierarchy
+	 * @param deleteOrphans whether remote files and folders missing locally are deleted
+	 * @param dryRun whether the actions are only planned and reported
+	 * @return {@link CompletableFuture} of the synchronization report
+	 */
+	CompletableFuture<DriveSyncReport> syncDirectory(Path localDirectory, List<String> folderHierarchy, boolean deleteOrphans, boolean dryRun);
+
+	/**
+	 * Resolve the folder ids of many folder trees, creating missing folders.
+	 * 
+	 * @param folderHierarchies
+	 * @return {@link CompletableFuture} of the folder id of each folder tree
+	 */
+	CompletableFuture<Map<List<String>, String>> getFolderIds(Collection<List<String>> folderHierarchies);
+
+}
@@ -1,14 +1,30 @@
 package com.google.drive.api.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import com.google.api.services.drive.model.File;
 import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.domain.DriveBatchResult;
 import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.domain.DriveFileField;
 import com.google.drive.api.domain.DriveFileList;
+import com.google.drive.api.domain.DriveSyncReport;
+import com.google.drive.api.domain.DriveTreeEntry;
 import com.google.drive.api.exception.GoogleApiException;
 import com.google.drive.api.exception.GoogleApiGeneralErrorException;
+import com.google.drive.api.util.ByteBufferInputStream;
 
 /**
  * Interface with basic methods and operations regarding Google Drive files.
@@ -18,6 +34,31 @@ import com.google.drive.api.exception.GoogleApiGeneralErrorException;
  */
 public interface GoogleDriveService extends GoogleService {
 
+	/**
+	 * Run a public operation. Implementations may override it to measure their operations, this one only
+	 * runs it.
+	 * 
+	 * @param operation operation name
+	 * @param call
+	 * @return call result
+	 */
+	default <T> T instrument(String operation, Supplier<T> call) {
+		return call.get();
+	}
+	
+	/**
+	 * Run a public operation without result through {@link #instrument(String, Supplier)}.
+	 * 
+	 * @param operation operation name
+	 * @param call
+	 */
+	default void instrument(String operation, Runnable call) {
+		this.instrument(operation, () -> {
+			call.run();
+			return null;
+		});
+	}
+
 	/**
 	 * Refresh credentials before deleting a file with given fileId.
 	 * 
@@ -25,8 +66,10 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiException
 	 */
 	default void deleteFile(String fileId) throws GoogleApiException {
-		this.refreshCredentials();
-		this.doDeleteFile(fileId);
+		this.instrument("deleteFile", () -> {
+			this.refreshCredentials();
+			this.doDeleteFile(fileId);
+		});
 	}
 	
 	/**
@@ -36,6 +79,80 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiException
 	 */
 	void doDeleteFile(String fileId) throws GoogleApiException;
+	
+	/**
+	 * Refresh credentials before deleting files with given fileIds.
+	 * 
+	 * @param fileIds
+	 * @return {@link List<DriveBatchResult>} result of each deletion, in the same order as fileIds
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default List<DriveBatchResult<Void>> deleteFiles(Collection<String> fileIds) throws GoogleApiGeneralErrorException {
+		return this.instrument("deleteFiles", () -> {
+			this.refreshCredentials();
+			return this.doDeleteFiles(fileIds);
+		});
+	}
+	
+	/**
+	 * Delete files with given fileIds through batch requests, each deletion getting its own result or error.
+	 * 
+	 * @param fileIds
+	 * @return {@link List<DriveBatchResult>} result of each deletion, in the same order as fileIds
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	List<DriveBatchResult<Void>> doDeleteFiles(Collection<String> fileIds) throws GoogleApiGeneralErrorException;
+	
+	/**
+	 * Refresh credentials before retrieving the metadata of files with given fileIds.
+	 * 
+	 * @param fileIds
+	 * @return {@link List<DriveBatchResult>} metadata of each file, in the same order as fileIds
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default List<DriveBatchResult<DriveFile>> getFilesMetadata(Collection<String> fileIds) throws GoogleApiGeneralErrorException {
+		return this.instrument("getFilesMetadata", () -> {
+			this.refreshCredentials();
+			return this.doGetFilesMetadata(fileIds);
+		});
+	}
+	
+	/**
+	 * Retrieve the metadata of files with given fileIds through batch requests, each file getting its own
+	 * result or error.
+	 * 
+	 * @param fileIds
+	 * @return {@link List<DriveBatchResult>} metadata of each file, in the same order as fileIds
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	List<DriveBatchResult<DriveFile>> doGetFilesMetadata(Collection<String> fileIds) throws GoogleApiGeneralErrorException;
+	
+	/**
+	 * Refresh credentials before retrieving the requested fields of files with given fileIds.
+	 * 
+	 * @param fileIds
+	 * @param fields
+	 * @return {@link List<DriveBatchResult>} metadata of each file, in the same order as fileIds
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default List<DriveBatchResult<DriveFile>> getFilesMetadata(Collection<String> fileIds, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException {
+		return this.instrument("getFilesMetadata", () -> {
+			this.refreshCredentials();
+			return this.doGetFilesMetadata(fileIds, fields);
+		});
+	}
+	
+	/**
+	 * Retrieve the requested fields of files with given fileIds through batch requests, each file getting its
+	 * own result or error. Only the requested fields are transferred and set on the returned files.
+	 * 
+	 * @param fileIds
+	 * @param fields
+	 * @return {@link List<DriveBatchResult>} metadata of each file, in the same order as fileIds
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	List<DriveBatchResult<DriveFile>> doGetFilesMetadata(Collection<String> fileIds, Set<DriveFileField> fields) throws GoogleApiGeneralErrorException;
 
 	/**
 	 * Refresh credentials before querying for a file using its folder tree and its file name.
@@ -46,8 +163,10 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiGeneralErrorException
 	 */
 	default Optional<DriveFile> getFileByNameAndParentFolder(List<String> folderHierarchy, String fileName) throws GoogleApiGeneralErrorException {
-		this.refreshCredentials();
-		return this.doGetFileByNameAndParentFolder(folderHierarchy, fileName);
+		return this.instrument("getFileByNameAndParentFolder", () -> {
+			this.refreshCredentials();
+			return this.doGetFileByNameAndParentFolder(folderHierarchy, fileName);
+		});
 	}
 	
 	/**
@@ -59,6 +178,37 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiGeneralErrorException
 	 */
 	Optional<DriveFile> doGetFileByNameAndParentFolder(List<String> folderHierarchy, String fileName) throws GoogleApiGeneralErrorException;
+	
+	/**
+	 * Refresh credentials before querying for the requested fields of a file using its folder tree and its
+	 * file name.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @param fields
+	 * @return {@link Optional<DriveFile>} file retrieved
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default Optional<DriveFile> getFileByNameAndParentFolder(List<String> folderHierarchy, String fileName, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException {
+		return this.instrument("getFileByNameAndParentFolder", () -> {
+			this.refreshCredentials();
+			return this.doGetFileByNameAndParentFolder(folderHierarchy, fileName, fields);
+		});
+	}
+	
+	/**
+	 * Query for the requested fields of a file using its folder tree and its file name. Only the requested
+	 * fields are transferred and set on the returned file.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @param fields
+	 * @return {@link Optional<DriveFile>} file retrieved
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	Optional<DriveFile> doGetFileByNameAndParentFolder(List<String> folderHierarchy, String fileName, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException;
 
 	/**
 	 * Refresh credentials before downloading file bytes for given fileId.
@@ -68,8 +218,10 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiException
 	 */
 	default byte[] downloadFile(String fileId) throws GoogleApiException {
-		this.refreshCredentials();
-		return this.doDownloadFile(fileId);
+		return this.instrument("downloadFile", () -> {
+			this.refreshCredentials();
+			return this.doDownloadFile(fileId);
+		});
 	}
 	
 	/**
@@ -80,6 +232,107 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiException
 	 */
 	byte[] doDownloadFile(String fileId) throws GoogleApiException;
+	
+	/**
+	 * Refresh credentials before streaming file bytes for given fileId to an output stream.
+	 * 
+	 * @param fileId
+	 * @param outputStream
+	 * @throws GoogleApiException
+	 */
+	default void downloadFile(String fileId, OutputStream outputStream) throws GoogleApiException {
+		this.instrument("downloadFile", () -> {
+			this.refreshCredentials();
+			this.doDownloadFile(fileId, outputStream);
+		});
+	}
+	
+	/**
+	 * Stream file bytes for given fileId to an output stream, without buffering the whole file in memory.
+	 * The output stream is not closed.
+	 * 
+	 * @param fileId
+	 * @param outputStream
+	 * @throws GoogleApiException
+	 */
+	void doDownloadFile(String fileId, OutputStream outputStream) throws GoogleApiException;
+	
+	/**
+	 * Refresh credentials before streaming file bytes for given fileId to a channel.
+	 * 
+	 * @param fileId
+	 * @param channel
+	 * @throws GoogleApiException
+	 */
+	default void downloadFile(String fileId, WritableByteChannel channel) throws GoogleApiException {
+		this.instrument("downloadFile", () -> {
+			this.refreshCredentials();
+			this.doDownloadFile(fileId, channel);
+		});
+	}
+	
+	/**
+	 * Stream file bytes for given fileId to a channel, without buffering the whole file in memory. The
+	 * channel is not closed.
+	 * 
+	 * @param fileId
+	 * @param channel
+	 * @throws GoogleApiException
+	 */
+	void doDownloadFile(String fileId, WritableByteChannel channel) throws GoogleApiException;
+	
+	/**
+	 * Refresh credentials before downloading file for given fileId to a target path.
+	 * 
+	 * @param fileId
+	 * @param target
+	 * @return target path
+	 * @throws GoogleApiException
+	 */
+	default Path downloadFile(String fileId, Path target) throws GoogleApiException {
+		return this.instrument("downloadFile", () -> {
+			this.refreshCredentials();
+			return this.doDownloadFile(fileId, target);
+		});
+	}
+	
+	/**
+	 * Download file for given fileId to a target path. File bytes are streamed to a temporary file next to
+	 * the target, which is then moved over the target, so the target is never left partially written.
+	 * 
+	 * @param fileId
+	 * @param target
+	 * @return target path
+	 * @throws GoogleApiException
+	 */
+	Path doDownloadFile(String fileId, Path target) throws GoogleApiException;
+	
+	/**
+	 * Refresh credentials before downloading file for given fileId to a target path in concurrent byte ranges.
+	 * 
+	 * @param fileId
+	 * @param target
+	 * @return target path
+	 * @throws GoogleApiException
+	 */
+	default Path downloadFileInRanges(String fileId, Path target) throws GoogleApiException {
+		return this.instrument("downloadFileInRanges", () -> {
+			this.refreshCredentials();
+			return this.doDownloadFileInRanges(fileId, target);
+		});
+	}
+	
+	/**
+	 * Download file for given fileId to a target path, fetching its byte ranges concurrently over many
+	 * connections and verifying the result against the file md5 checksum. As with
+	 * {@link #doDownloadFile(String, Path)} the target is only replaced once the whole file is downloaded.
+	 * 
+	 * @param fileId
+	 * @param target
+	 * @return target path
+	 * @throws GoogleApiException
+	 */
+	Path doDownloadFileInRanges(String fileId, Path target) throws GoogleApiException;
 
 	/**
 	 * Refresh credentials before uploading a file for a specific folder tree as not public.
@@ -90,8 +343,10 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiException
 	 */
 	default DriveFile uploadFileToFolder(List<String> folderHierarchy, java.io.File file) throws GoogleApiException {
-		this.refreshCredentials();
-		return this.doUploadFileToFolder(folderHierarchy, file, false);
+		return this.instrument("uploadFileToFolder", () -> {
+			this.refreshCredentials();
+			return this.doUploadFileToFolder(folderHierarchy, file, false);
+		});
 	}
 	
 	
@@ -105,8 +360,10 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiException
 	 */
 	default DriveFile uploadFileToFolder(List<String> folderHierarchy, java.io.File file, boolean isPublic) throws GoogleApiException {
-		this.refreshCredentials();
-		return this.doUploadFileToFolder(folderHierarchy, file, isPublic);
+		return this.instrument("uploadFileToFolder", () -> {
+			this.refreshCredentials();
+			return this.doUploadFileToFolder(folderHierarchy, file, isPublic);
+		});
 	}
 	
 	/**
@@ -120,6 +377,113 @@ public interface GoogleDriveService extends GoogleService {
 	 */
 	DriveFile doUploadFileToFolder(List<String> folderHierarchy, java.io.File file, boolean isPublic) throws GoogleApiGeneralErrorException;
 	
+	/**
+	 * Refresh credentials before uploading a file for a specific folder tree from a path. The mime type is
+	 * detected from the file when not given.
+	 * 
+	 * @param folderHierarchy
+	 * @param file
+	 * @param mimeType
+	 * @param isPublic
+	 * @return {@link DriveFile}
+	 * @throws GoogleApiException
+	 */
+	default DriveFile uploadFileToFolder(List<String> folderHierarchy, Path file, String mimeType, boolean isPublic) throws GoogleApiException {
+		return this.instrument("uploadFileToFolder", () -> {
+			this.refreshCredentials();
+			return this.doUploadFileToFolder(folderHierarchy, file, mimeType, isPublic);
+		});
+	}
+	
+	/**
+	 * Upload a file for a specific folder tree from a path. The mime type is detected from the file when
+	 * not given.
+	 * 
+	 * @param folderHierarchy
+	 * @param file
+	 * @param mimeType
+	 * @param isPublic
+	 * @return {@link DriveFile}
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	DriveFile doUploadFileToFolder(List<String> folderHierarchy, Path file, String mimeType, boolean isPublic) throws GoogleApiGeneralErrorException;
+	
+	/**
+	 * Refresh credentials before uploading a file content read from a stream for a specific folder tree.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @param content
+	 * @param length content length, negative if unknown
+	 * @param mimeType
+	 * @param isPublic
+	 * @return {@link DriveFile}
+	 * @throws GoogleApiException
+	 */
+	default DriveFile uploadFileToFolder(List<String> folderHierarchy, String fileName, InputStream content, long length, String mimeType, 
+			boolean isPublic) throws GoogleApiException {
+		return this.instrument("uploadFileToFolder", () -> {
+			this.refreshCredentials();
+			return this.doUploadFileToFolder(folderHierarchy, fileName, content, length, mimeType, isPublic);
+		});
+	}
+	
+	/**
+	 * Refresh credentials before uploading a file content held in memory for a specific folder tree.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @param content
+	 * @param mimeType
+	 * @param isPublic
+	 * @return {@link DriveFile}
+	 * @throws GoogleApiException
+	 */
+	default DriveFile uploadFileToFolder(List<String> folderHierarchy, String fileName, byte[] content, String mimeType, 
+			boolean isPublic) throws GoogleApiException {
+		return this.instrument("uploadFileToFolder", () -> {
+			this.refreshCredentials();
+			return this.doUploadFileToFolder(folderHierarchy, fileName, new ByteArrayInputStream(content), content.length, mimeType, isPublic);
+		});
+	}
+	
+	/**
+	 * Refresh credentials before uploading the remaining bytes of a buffer as a file content for a specific
+	 * folder tree. The buffer position is left untouched.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @param content
+	 * @param mimeType
+	 * @param isPublic
+	 * @return {@link DriveFile}
+	 * @throws GoogleApiException
+	 */
+	default DriveFile uploadFileToFolder(List<String> folderHierarchy, String fileName, ByteBuffer content, String mimeType, 
+			boolean isPublic) throws GoogleApiException {
+		return this.instrument("uploadFileToFolder", () -> {
+			this.refreshCredentials();
+			return this.doUploadFileToFolder(folderHierarchy, fileName, new ByteBufferInputStream(content.duplicate()), content.remaining(), 
+					mimeType, isPublic);
+		});
+	}
+	
+	/**
+	 * Upload a file content read from a stream for a specific folder tree, without staging it on disk. The
+	 * mime type is detected from the first bytes of the content when not given. The stream is not closed.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileName
+	 * @param content
+	 * @param length content length, negative if unknown
+	 * @param mimeType
+	 * @param isPublic
+	 * @return {@link DriveFile}
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	DriveFile doUploadFileToFolder(List<String> folderHierarchy, String fileName, InputStream content, long length, String mimeType, 
+			boolean isPublic) throws GoogleApiGeneralErrorException;
+	
 	/**
 	 * Refresh credentials before updating permission for a Google Drive file to public.
 	 * 
@@ -127,8 +491,10 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiGeneralErrorException
 	 */
 	default void setPublicPermission(File file) throws GoogleApiGeneralErrorException {
-		this.refreshCredentials();
-		this.doSetPublicPermission(file);
+		this.instrument("setPublicPermission", () -> {
+			this.refreshCredentials();
+			this.doSetPublicPermission(file);
+		});
 	}
 	
 	/**
@@ -139,6 +505,30 @@ public interface GoogleDriveService extends GoogleService {
 	 */
 	void doSetPublicPermission(File file) throws GoogleApiGeneralErrorException;
 	
+	/**
+	 * Refresh credentials before updating permission for Google Drive files to public.
+	 * 
+	 * @param fileIds
+	 * @return {@link List<DriveBatchResult>} created permission id of each file, in the same order as fileIds
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default List<DriveBatchResult<String>> setPublicPermissions(Collection<String> fileIds) throws GoogleApiGeneralErrorException {
+		return this.instrument("setPublicPermissions", () -> {
+			this.refreshCredentials();
+			return this.doSetPublicPermissions(fileIds);
+		});
+	}
+	
+	/**
+	 * Update permission for Google Drive files to public through batch requests, each file getting its own
+	 * result or error.
+	 * 
+	 * @param fileIds
+	 * @return {@link List<DriveBatchResult>} created permission id of each file, in the same order as fileIds
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	List<DriveBatchResult<String>> doSetPublicPermissions(Collection<String> fileIds) throws GoogleApiGeneralErrorException;
+	
 	/**
 	 * Refresh credentials before listing files of a given folder tree.
 	 * 
@@ -147,8 +537,10 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiGeneralErrorException
 	 */
 	default DriveFileList getFolderFiles(List<String> folderStructure) throws GoogleApiGeneralErrorException {
-		this.refreshCredentials();
-		return this.doGetFolderFiles(folderStructure, GOOGLEAPI.DEFAULT_PAGE_SIZE, null);
+		return this.instrument("getFolderFiles", () -> {
+			this.refreshCredentials();
+			return this.doGetFolderFiles(folderStructure, GOOGLEAPI.DEFAULT_PAGE_SIZE, null);
+		});
 	}
 	
 	
@@ -162,12 +554,12 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiGeneralErrorException
 	 */
 	default DriveFileList getFolderFiles(List<String> folderStructure, Integer pageSize, String pageToken) throws GoogleApiGeneralErrorException {
-		this.refreshCredentials();
-		
-		pageSize = Optional.ofNullable(pageSize).orElse(GOOGLEAPI.DEFAULT_PAGE_SIZE);
-		pageToken = Optional.ofNullable(pageToken).orElse(null);
+		int limitedPageSize = Math.min(Optional.ofNullable(pageSize).orElse(GOOGLEAPI.DEFAULT_PAGE_SIZE), GOOGLEAPI.MAX_PAGE_SIZE);
 		
-		return this.doGetFolderFiles(folderStructure, pageSize <= GOOGLEAPI.MAX_PAGE_SIZE ? pageSize : GOOGLEAPI.MAX_PAGE_SIZE, pageToken);
+		return this.instrument("getFolderFiles", () -> {
+			this.refreshCredentials();
+			return this.doGetFolderFiles(folderStructure, limitedPageSize, pageToken);
+		});
 	}
 
 	/**
@@ -180,6 +572,40 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiGeneralErrorException
 	 */
 	DriveFileList doGetFolderFiles(List<String> folderStructure, Integer pageSize, String pageToken) throws GoogleApiGeneralErrorException;
+	
+	/**
+	 * Refresh credentials before listing the requested fields of the files of a given folder tree.
+	 * 
+	 * @param folderStructure
+	 * @param pageSize
+	 * @param pageToken
+	 * @param fields
+	 * @return {@link DriveFileList}
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default DriveFileList getFolderFiles(List<String> folderStructure, Integer pageSize, String pageToken, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException {
+		int limitedPageSize = Math.min(Optional.ofNullable(pageSize).orElse(GOOGLEAPI.DEFAULT_PAGE_SIZE), GOOGLEAPI.MAX_PAGE_SIZE);
+		
+		return this.instrument("getFolderFiles", () -> {
+			this.refreshCredentials();
+			return this.doGetFolderFiles(folderStructure, limitedPageSize, pageToken, fields);
+		});
+	}
+	
+	/**
+	 * List the requested fields of the files of a given folder tree. Only the requested fields are transferred
+	 * and set on the returned files.
+	 * 
+	 * @param folderStructure
+	 * @param pageSize
+	 * @param pageToken
+	 * @param fields
+	 * @return {@link DriveFileList}
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	DriveFileList doGetFolderFiles(List<String> folderStructure, Integer pageSize, String pageToken, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException;
 
 	/**
 	 * Refresh credentials before listing files of a given folder tree by fileName filter.
@@ -190,8 +616,10 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiGeneralErrorException
 	 */
 	default DriveFileList getFolderFilesByFileNameFilter(List<String> folderStructure, String fileNameFilter) throws GoogleApiGeneralErrorException {
-		this.refreshCredentials();
-		return this.getFolderFilesByFileNameFilter(folderStructure, fileNameFilter, GOOGLEAPI.DEFAULT_PAGE_SIZE, null);
+		return this.instrument("getFolderFilesByFileNameFilter", () -> {
+			this.refreshCredentials();
+			return this.getFolderFilesByFileNameFilter(folderStructure, fileNameFilter, GOOGLEAPI.DEFAULT_PAGE_SIZE, null);
+		});
 	}
 	
 	/**
@@ -205,8 +633,12 @@ public interface GoogleDriveService extends GoogleService {
 	 * @throws GoogleApiGeneralErrorException
 	 */
 	default DriveFileList getFolderFilesByFileNameFilter(List<String> folderStructure, String fileNameFilter, Integer pageSize, String pageToken) throws GoogleApiGeneralErrorException {
-		this.refreshCredentials();
-		return this.getFolderFilesByFileNameFilter(folderStructure, fileNameFilter, pageSize <= GOOGLEAPI.MAX_PAGE_SIZE ? pageSize : GOOGLEAPI.MAX_PAGE_SIZE, pageToken);
+		int limitedPageSize = Math.min(Optional.ofNullable(pageSize).orElse(GOOGLEAPI.DEFAULT_PAGE_SIZE), GOOGLEAPI.MAX_PAGE_SIZE);
+		
+		return this.instrument("getFolderFilesByFileNameFilter", () -> {
+			this.refreshCredentials();
+			return this.doGetFolderFilesByFileNameFilter(folderStructure, fileNameFilter, limitedPageSize, pageToken);
+		});
 	}
 	
 	/**
@@ -221,4 +653,202 @@ public interface GoogleDriveService extends GoogleService {
 	 */
 	DriveFileList doGetFolderFilesByFileNameFilter(List<String> folderHierarchy, String fileNameFilter, Integer pageSize, String pageToken) throws GoogleApiGeneralErrorException;
 	
+	/**
+	 * Refresh credentials before listing the requested fields of the files of a given folder tree by fileName
+	 * filter.
+	 * 
+	 * @param folderStructure
+	 * @param fileNameFilter
+	 * @param pageSize
+	 * @param pageToken
+	 * @param fields
+	 * @return {@link DriveFileList}
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default DriveFileList getFolderFilesByFileNameFilter(List<String> folderStructure, String fileNameFilter, Integer pageSize, String pageToken, 
+			Set<DriveFileField> fields) throws GoogleApiGeneralErrorException {
+		int limitedPageSize = Math.min(Optional.ofNullable(pageSize).orElse(GOOGLEAPI.DEFAULT_PAGE_SIZE), GOOGLEAPI.MAX_PAGE_SIZE);
+		
+		return this.instrument("getFolderFilesByFileNameFilter", () -> {
+			this.refreshCredentials();
+			return this.doGetFolderFilesByFileNameFilter(folderStructure, fileNameFilter, limitedPageSize, pageToken, fields);
+		});
+	}
+	
+	/**
+	 * List the requested fields of the files of a given folder tree by fileName filter. Only the requested
+	 * fields are transferred and set on the returned files.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileNameFilter
+	 * @param pageSize
+	 * @param pageToken
+	 * @param fields
+	 * @return {@link DriveFileList}
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	DriveFileList doGetFolderFilesByFileNameFilter(List<String> folderHierarchy, String fileNameFilter, Integer pageSize, String pageToken, 
+			Set<DriveFileField> fields) throws GoogleApiGeneralErrorException;
+	
+	/**
+	 * Refresh credentials before streaming every file of a given folder tree.
+	 * 
+	 * @param folderHierarchy
+	 * @return {@link Stream<DriveFile>} files of the folder
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default Stream<DriveFile> streamFolderFiles(List<String> folderHierarchy) throws GoogleApiGeneralErrorException {
+		return this.instrument("streamFolderFiles", () -> {
+			this.refreshCredentials();
+			return this.doStreamFolderFiles(folderHierarchy, null);
+		});
+	}
+	
+	/**
+	 * Refresh credentials before streaming every file of a given folder tree whose name contains a filter.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileNameFilter
+	 * @return {@link Stream<DriveFile>} files of the folder
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default Stream<DriveFile> streamFolderFiles(List<String> folderHierarchy, String fileNameFilter) throws GoogleApiGeneralErrorException {
+		return this.instrument("streamFolderFiles", () -> {
+			this.refreshCredentials();
+			return this.doStreamFolderFiles(folderHierarchy, fileNameFilter);
+		});
+	}
+	
+	/**
+	 * Stream every file of a given folder tree, optionally only those whose name contains a filter. The folder
+	 * is resolved once and the first page is fetched before returning; following pages are fetched lazily with
+	 * the largest page size, the next page being prefetched while the current one is consumed. Failures
+	 * fetching a page are thrown as {@link java.io.UncheckedIOException} during the iteration. Close the
+	 * stream to stop prefetching when not consuming it to the end.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileNameFilter name filter, null for every file
+	 * @return {@link Stream<DriveFile>} files of the folder
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	Stream<DriveFile> doStreamFolderFiles(List<String> folderHierarchy, String fileNameFilter) throws GoogleApiGeneralErrorException;
+	
+	/**
+	 * Refresh credentials before streaming the requested fields of every file of a given folder tree whose
+	 * name contains a filter.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileNameFilter
+	 * @param fields
+	 * @return {@link Stream<DriveFile>} files of the folder
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default Stream<DriveFile> streamFolderFiles(List<String> folderHierarchy, String fileNameFilter, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException {
+		return this.instrument("streamFolderFiles", () -> {
+			this.refreshCredentials();
+			return this.doStreamFolderFiles(folderHierarchy, fileNameFilter, fields);
+		});
+	}
+	
+	/**
+	 * Stream the requested fields of every file of a given folder tree, optionally only those whose name
+	 * contains a filter, as {@link #doStreamFolderFiles(List, String)} does. Only the requested fields are
+	 * transferred and set on the returned files.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileNameFilter name filter, null for every file
+	 * @param fields
+	 * @return {@link Stream<DriveFile>} files of the folder
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	Stream<DriveFile> doStreamFolderFiles(List<String> folderHierarchy, String fileNameFilter, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException;
+	
+	/**
+	 * Refresh credentials before walking every file and folder below a given folder tree.
+	 * 
+	 * @param folderHierarchy
+	 * @return {@link Stream<DriveTreeEntry>} files and folders below the folder
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default Stream<DriveTreeEntry> walkTree(List<String> folderHierarchy) throws GoogleApiGeneralErrorException {
+		return this.instrument("walkTree", () -> {
+			this.refreshCredentials();
+			return this.doWalkTree(folderHierarchy);
+		});
+	}
+	
+	/**
+	 * Walk every file and folder below a given folder tree, at any depth, each entry carrying its path
+	 * relative to the folder. Subfolders are listed level by level, many of them per query and many queries
+	 * concurrently, entries being streamed as soon as they are listed, so their order is not defined. Failures
+	 * listing a folder are thrown as {@link java.io.UncheckedIOException} during the iteration. Close the
+	 * stream to stop the walk when not consuming it to the end.
+	 * 
+	 * @param folderHierarchy
+	 * @return {@link Stream<DriveTreeEntry>} files and folders below the folder
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	Stream<DriveTreeEntry> doWalkTree(List<String> folderHierarchy) throws GoogleApiGeneralErrorException;
+	
+	/**
+	 * Refresh credentials before synchronizing a local directory into a given folder tree.
+	 * 
+	 * @param localDirectory
+	 * @param folderHierarchy
+	 * @param deleteOrphans
+	 * @param dryRun
+	 * @return {@link DriveSyncReport}
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default DriveSyncReport syncDirectory(Path localDirectory, List<String> folderHierarchy, boolean deleteOrphans, boolean dryRun) 
+			throws GoogleApiGeneralErrorException {
+		return this.instrument("syncDirectory", () -> {
+			this.refreshCredentials();
+			return this.doSyncDirectory(localDirectory, folderHierarchy, deleteOrphans, dryRun);
+		});
+	}
+	
+	/**
+	 * Synchronize a local directory tree into a given folder tree, transferring only new and changed files.
+	 * Local files are compared with the remote files at the same relative path by size, modification time and
+	 * md5 checksum; new files are uploaded, changed files are updated in place and missing folders created.
+	 * Remote files and folders missing locally are deleted when deleteOrphans is set. A dry run only reports
+	 * the planned actions. Failures of single files are listed in the report without stopping the others.
+	 * 
+	 * @param localDirectory
+	 * @param folderHierarchy
+	 * @param deleteOrphans whether remote files and folders missing locally are deleted
+	 * @param dryRun whether the actions are only planned and reported
+	 * @return {@link DriveSyncReport}
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	DriveSyncReport doSyncDirectory(Path localDirectory, List<String> folderHierarchy, boolean deleteOrphans, boolean dryRun) 
+			throws GoogleApiGeneralErrorException;
+	
+	/**
+	 * Refresh credentials before resolving the folder ids of many folder trees at once.
+	 * 
+	 * @param folderHierarchies
+	 * @return folder id by folder hierarchy
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	default Map<List<String>, String> getFolderIds(Collection<List<String>> folderHierarchies) throws GoogleApiGeneralErrorException {
+		return this.instrument("getFolderIds", () -> {
+			this.refreshCredentials();
+			return this.doGetFolderIds(folderHierarchies);
+		});
+	}
+	
+	/**
+	 * Resolve the folder ids of many folder trees at once, looking up each distinct folder only once. If
+	 * any of the folders do not exist they'll be created.
+	 * 
+	 * @param folderHierarchies
+	 * @return folder id by folder hierarchy
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	Map<List<String>, String> doGetFolderIds(Collection<List<String>> folderHierarchies) throws GoogleApiGeneralErrorException;
+	
 }
@@ -55,16 +55,23 @@ public interface GoogleService {
 	}
 
 	/**
-	 * Verify if access token has expired.
+	 * Verify if access token has expired. A missing access token is considered expired, while a token without
+	 * expiration time never expires.
 	 * 
 	 * @return true if acess token has expired false otherwise
 	 * @throws GoogleApiSecurityException
 	 */
 	default boolean isAccessTokenExpired() throws GoogleApiSecurityException {
+		AccessToken accessToken = this.getCredentials().getAccessToken();
+		
+		if (accessToken == null) {
+			return true;
+		}
+		
 		Date now = Calendar.getInstance().getTime();
-		Date expiration = this.getCredentials().getAccessToken().getExpirationTime();
+		Date expiration = accessToken.getExpirationTime();
 		
-		return expiration == null || expiration.after(now);
+		return expiration != null && !expiration.after(now);
 	}
 
 }
\ No newline at end of file
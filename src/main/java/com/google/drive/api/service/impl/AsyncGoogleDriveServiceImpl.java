@@ -0,0 +1,362 @@
+package com.google.drive.api.service.impl;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.domain.DriveBatchResult;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.domain.DriveFileField;
+import com.google.drive.api.domain.DriveFileList;
+import com.google.drive.api.domain.DriveSyncReport;
+import com.google.drive.api.service.AsyncGoogleDriveService;
+import com.google.drive.api.service.GoogleDriveService;
+
+/**
+ * Implementation of {@link AsyncGoogleDriveService} running the blocking {@link GoogleDriveService} calls on
+ * an executor, one virtual thread per call by default, so in-flight calls do not hold platform threads.
+ * A call is interrupted when its future is cancelled or times out, which on a virtual thread also aborts a
+ * blocked socket read.
+ * 
+ * @author leonardo.ramos
+ *
+ */
+public class AsyncGoogleDriveServiceImpl implements AsyncGoogleDriveService {
+	
+	private final GoogleDriveService googleDriveService;
+	private final ExecutorService executor;
+	private final Duration timeout;
+	
+	/**
+	 * Constructor running calls on virtual threads, without timeout.
+	 * 
+	 * @param googleDriveService
+	 */
+	public AsyncGoogleDriveServiceImpl(GoogleDriveService googleDriveService) {
+		this(googleDriveService, Executors.newVirtualThreadPerTaskExecutor(), Duration.ZERO);
+	}
+	
+	/**
+	 * Constructor with the executor running calls and the timeout of every call, zero meaning no timeout.
+	 * 
+	 * @param googleDriveService
+	 * @param executor
+	 * @param timeout
+	 */
+	public AsyncGoogleDriveServiceImpl(GoogleDriveService googleDriveService, ExecutorService executor, Duration timeout) {
+		if (timeout.isNegative()) {
+			throw new IllegalArgumentException("Invalid async call timeout");
+		}
+		
+		this.googleDriveService = googleDriveService;
+		this.executor = executor;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AsyncGoogleDriveService withTimeout(Duration timeout) {
+		return new AsyncGoogleDriveServiceImpl(this.googleDriveService, this.executor, timeout);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Void> deleteFile(String fileId) {
+		return this.run(() -> this.googleDriveService.deleteFile(fileId));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<List<DriveBatchResult<Void>>> deleteFiles(Collection<String> fileIds) {
+		return this.supply(() -> this.googleDriveService.deleteFiles(fileIds));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<List<DriveBatchResult<DriveFile>>> getFilesMetadata(Collection<String> fileIds) {
+		return this.supply(() -> this.googleDriveService.getFilesMetadata(fileIds));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<List<DriveBatchResult<DriveFile>>> getFilesMetadata(Collection<String> fileIds, Set<DriveFileField> fields) {
+		return this.supply(() -> this.googleDriveService.getFilesMetadata(fileIds, fields));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Optional<DriveFile>> getFileByNameAndParentFolder(List<String> folderHierarchy, String fileName) {
+		return this.supply(() -> this.googleDriveService.getFileByNameAndParentFolder(folderHierarchy, fileName));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Optional<DriveFile>> getFileByNameAndParentFolder(List<String> folderHierarchy, String fileName, 
+			Set<DriveFileField> fields) {
+		return this.supply(() -> this.googleDriveService.getFileByNameAndParentFolder(folderHierarchy, fileName, fields));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<byte[]> downloadFile(String fileId) {
+		return this.supply(() -> this.googleDriveService.downloadFile(fileId));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Void> downloadFile(String fileId, OutputStream outputStream) {
+		return this.run(() -> this.googleDriveService.downloadFile(fileId, outputStream));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Void> downloadFile(String fileId, WritableByteChannel channel) {
+		return this.run(() -> this.googleDriveService.downloadFile(fileId, channel));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Path> downloadFile(String fileId, Path target) {
+		return this.supply(() -> this.googleDriveService.downloadFile(fileId, target));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Path> downloadFileInRanges(String fileId, Path target) {
+		return this.supply(() -> this.googleDriveService.downloadFileInRanges(fileId, target));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, java.io.File file) {
+		return this.supply(() -> this.googleDriveService.uploadFileToFolder(folderHierarchy, file));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, java.io.File file, boolean isPublic) {
+		return this.supply(() -> this.googleDriveService.uploadFileToFolder(folderHierarchy, file, isPublic));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, Path file, String mimeType, boolean isPublic) {
+		return this.supply(() -> this.googleDriveService.uploadFileToFolder(folderHierarchy, file, mimeType, isPublic));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, String fileName, InputStream content, long length,
+			String mimeType, boolean isPublic) {
+		return this.supply(() -> this.googleDriveService.uploadFileToFolder(folderHierarchy, fileName, content, length, mimeType, isPublic));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, String fileName, byte[] content, String mimeType,
+			boolean isPublic) {
+		return this.supply(() -> this.googleDriveService.uploadFileToFolder(folderHierarchy, fileName, content, mimeType, isPublic));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFile> uploadFileToFolder(List<String> folderHierarchy, String fileName, ByteBuffer content, String mimeType,
+			boolean isPublic) {
+		return this.supply(() -> this.googleDriveService.uploadFileToFolder(folderHierarchy, fileName, content, mimeType, isPublic));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Void> setPublicPermission(File file) {
+		return this.run(() -> this.googleDriveService.setPublicPermission(file));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<List<DriveBatchResult<String>>> setPublicPermissions(Collection<String> fileIds) {
+		return this.supply(() -> this.googleDriveService.setPublicPermissions(fileIds));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFileList> getFolderFiles(List<String> folderHierarchy) {
+		return this.supply(() -> this.googleDriveService.getFolderFiles(folderHierarchy));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFileList> getFolderFiles(List<String> folderHierarchy, Integer pageSize, String pageToken) {
+		return this.supply(() -> this.googleDriveService.getFolderFiles(folderHierarchy, pageSize, pageToken));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFileList> getFolderFiles(List<String> folderHierarchy, Integer pageSize, String pageToken, 
+			Set<DriveFileField> fields) {
+		return this.supply(() -> this.googleDriveService.getFolderFiles(folderHierarchy, pageSize, pageToken, fields));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFileList> getFolderFilesByFileNameFilter(List<String> folderHierarchy, String fileNameFilter) {
+		return this.supply(() -> this.googleDriveService.getFolderFilesByFileNameFilter(folderHierarchy, fileNameFilter));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFileList> getFolderFilesByFileNameFilter(List<String> folderHierarchy, String fileNameFilter, 
+			Integer pageSize, String pageToken) {
+		return this.supply(() -> this.googleDriveService.getFolderFilesByFileNameFilter(folderHierarchy, fileNameFilter, pageSize, pageToken));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveFileList> getFolderFilesByFileNameFilter(List<String> folderHierarchy, String fileNameFilter, 
+			Integer pageSize, String pageToken, Set<DriveFileField> fields) {
+		return this.supply(() -> this.googleDriveService.getFolderFilesByFileNameFilter(folderHierarchy, fileNameFilter, pageSize, pageToken, 
+				fields));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<DriveSyncReport> syncDirectory(Path localDirectory, List<String> folderHierarchy, boolean deleteOrphans, 
+			boolean dryRun) {
+		return this.supply(() -> this.googleDriveService.syncDirectory(localDirectory, folderHierarchy, deleteOrphans, dryRun));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Map<List<String>, String>> getFolderIds(Collection<List<String>> folderHierarchies) {
+		return this.supply(() -> this.googleDriveService.getFolderIds(folderHierarchies));
+	}
+	
+	private CompletableFuture<Void> run(VoidCall call) {
+		return this.supply(() -> {
+			call.execute();
+			return null;
+		});
+	}
+	
+	/**
+	 * Submit a call to the executor, interrupting it when the returned future is cancelled or times out.
+	 * 
+	 * @param call
+	 * @return {@link CompletableFuture} of the call result
+	 */
+	private <T> CompletableFuture<T> supply(Call<T> call) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		
+		Future<?> task = this.executor.submit(() -> {
+			try {
+				result.complete(call.execute());
+				
+			} catch (Exception e) {
+				result.completeExceptionally(e);
+			}
+		});
+		
+		result.whenComplete((value, error) -> {
+			if (result.isCancelled() || error instanceof TimeoutException) {
+				task.cancel(true);
+			}
+		});
+		
+		if (!this.timeout.isZero()) {
+			result.orTimeout(this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Blocking Google Drive call with a result.
+	 * 
+	 * @param <T> result type
+	 */
+	@FunctionalInterface
+	private interface Call<T> {
+		
+		T execute() throws Exception;
+	}
+	
+	/**
+	 * Blocking Google Drive call without result.
+	 */
+	@FunctionalInterface
+	private interface VoidCall {
+		
+		void execute() throws Exception;
+	}
+
+}
@@ -1,18 +1,50 @@
 package com.google.drive.api.service.impl;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.apache.tika.Tika;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.googleapis.media.MediaHttpUploader;
+import com.google.api.client.http.AbstractInputStreamContent;
 import com.google.api.client.http.FileContent;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.api.client.http.InputStreamContent;
+import com.google.api.client.util.DateTime;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.model.File;
 import com.google.api.services.drive.model.FileList;
@@ -20,11 +52,34 @@ import com.google.api.services.drive.model.Permission;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
 import com.google.drive.api.DriveApiConstants.MSGERROR;
+import com.google.drive.api.cache.DownloadCache;
+import com.google.drive.api.cache.FolderIdCache;
+import com.google.drive.api.cache.FolderIdCache.CachedAncestor;
+import com.google.drive.api.auth.CredentialManager;
+import com.google.drive.api.batch.BatchExecutor;
+import com.google.drive.api.domain.DriveBatchResult;
 import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.domain.DriveFile.DriveFileBuilder;
+import com.google.drive.api.domain.DriveFileField;
+import com.google.drive.api.download.RangedDownloader;
 import com.google.drive.api.domain.DriveFileList;
+import com.google.drive.api.domain.DriveSyncReport;
+import com.google.drive.api.domain.DriveTreeEntry;
 import com.google.drive.api.exception.GoogleApiException;
+import com.google.drive.api.index.MetadataIndex;
+import com.google.drive.api.metrics.DriveMetrics;
+import com.google.drive.api.metrics.DriveTracing;
 import com.google.drive.api.exception.GoogleApiGeneralErrorException;
+import com.google.drive.api.exception.GoogleApiSecurityException;
 import com.google.drive.api.service.GoogleDriveService;
+import com.google.drive.api.sync.DirectorySynchronizer;
+import com.google.drive.api.upload.ResumableUploader;
+import com.google.drive.api.util.ByteBufferInputStream;
+import com.google.drive.api.util.ContentTypeDetector;
+import com.google.drive.api.util.PrefetchingPageIterator;
+import com.google.drive.api.util.PrefetchingPageIterator.Page;
+import com.google.drive.api.util.SingleFlight;
+import com.google.drive.api.walk.TreeWalker;
 
 /**
  * Implementacion of interface {@link GoogleDriveService} with basic methods related to Google Drive files
@@ -37,7 +92,20 @@ import com.google.drive.api.service.GoogleDriveService;
 public class GoogleDriveServiceImpl implements GoogleDriveService {
 	
 	private GoogleCredentials credentials;
+	private CredentialManager credentialManager;
 	private Drive driveService;
+	private FolderIdCache folderIdCache = new FolderIdCache();
+	private RangedDownloader rangedDownloader = new RangedDownloader();
+	private ResumableUploader resumableUploader = new ResumableUploader();
+	private ContentTypeDetector contentTypeDetector = new ContentTypeDetector();
+	private BatchExecutor batchExecutor = new BatchExecutor();
+	private TreeWalker treeWalker = new TreeWalker();
+	private DirectorySynchronizer directorySynchronizer = new DirectorySynchronizer();
+	private DownloadCache downloadCache = new DownloadCache();
+	private MetadataIndex metadataIndex;
+	private DriveMetrics driveMetrics = new DriveMetrics();
+	private DriveTracing driveTracing = new DriveTracing();
+	private final SingleFlight<FolderKey, List<ResolvedFolder>> folderFlights = new SingleFlight<>();
 	
 	/**
 	 * {@inheritDoc}
@@ -47,6 +115,50 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 		return this.credentials;
 	}
 
+	/**
+	 * Make sure a valid access token is in place. When a {@link CredentialManager} is set the token is kept
+	 * fresh in the background, so this is a volatile read unless the token is missing or expired.
+	 */
+	@Override
+	public void refreshCredentials() throws GoogleApiSecurityException {
+		try {
+			this.recordPhase(DriveMetrics.CREDENTIALS_PHASE, () -> {
+				if (this.credentialManager == null) {
+					GoogleDriveService.super.refreshCredentials();
+					
+				} else {
+					this.credentialManager.getAccessToken();
+				}
+				
+				return null;
+			});
+			
+		} catch (IOException e) {
+			throw new GoogleApiSecurityException(MSGERROR.GOOGLE_OAUTH2_ERROR, e);
+		}
+	}
+	
+	/**
+	 * Time the operation and the requests it sends through the {@link DriveMetrics} and observe it through the
+	 * {@link DriveTracing}, when enabled.
+	 */
+	@Override
+	public <T> T instrument(String operation, Supplier<T> call) {
+		return this.driveMetrics.recordOperation(operation, () -> this.driveTracing.observeOperation(operation, call));
+	}
+	
+	/**
+	 * Run a phase of an operation, timed and observed when enabled.
+	 * 
+	 * @param phase
+	 * @param call
+	 * @return call result
+	 * @throws IOException
+	 */
+	private <T> T recordPhase(String phase, DriveMetrics.Call<T> call) throws IOException {
+		return this.driveMetrics.recordPhase(phase, () -> this.driveTracing.observePhase(phase, call));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -54,25 +166,82 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 	public void doDeleteFile(String fileId) throws GoogleApiException {
 		try {
 			this.driveService.files().delete(fileId).execute();
+			this.forgetInIndex(fileId);
 
 		} catch (Exception e) {
 			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
 		}
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<DriveBatchResult<Void>> doDeleteFiles(Collection<String> fileIds) throws GoogleApiGeneralErrorException {
+		try {
+			List<DriveBatchResult<Void>> results = this.batchExecutor.execute(this.driveService, new ArrayList<>(fileIds), 
+					fileId -> this.driveService.files().delete(fileId), response -> null);
+			
+			results.stream()
+					.filter(DriveBatchResult::isSuccessful)
+					.forEach(result -> this.forgetInIndex(result.getFileId()));
+			
+			return results;
+
+		} catch (IOException e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<DriveBatchResult<DriveFile>> doGetFilesMetadata(Collection<String> fileIds) throws GoogleApiGeneralErrorException {
+		return this.doGetFilesMetadata(fileIds, DriveFileField.DEFAULT);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<DriveBatchResult<DriveFile>> doGetFilesMetadata(Collection<String> fileIds, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException {
+		try {
+			String fieldMask = DriveFileField.fileFieldMask(fields);
+			
+			return this.batchExecutor.execute(this.driveService, new ArrayList<>(fileIds), 
+					fileId -> this.driveService.files().get(fileId).setFields(fieldMask), file -> this.buildDriveFile(file, fields));
+
+		} catch (IOException e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
+		}
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public Optional<DriveFile> doGetFileByNameAndParentFolder(List<String> folderHierarchy, String fileName) throws GoogleApiGeneralErrorException {
+		return this.doGetFileByNameAndParentFolder(folderHierarchy, fileName, DriveFileField.DEFAULT);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Optional<DriveFile> doGetFileByNameAndParentFolder(List<String> folderHierarchy, String fileName, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException {
 		try {
-			String folderId = this.getFolderIdByName(folderHierarchy);
+			if (this.isIndexAnswering(null)) {
+				return this.metadataIndex.findFile(this.getFolderIdByName(folderHierarchy), fileName).map(file -> this.buildDriveFile(file, fields));
+			}
 			
-			FileList result = this.driveService.files().list()
+			FileList result = this.executeInFolder(folderHierarchy, folderId -> this.driveService.files().list()
 					.setQ(String.format(GOOGLEAPI.FILE_QUERY_IN_FOLDER, fileName, folderId))
 					.setSpaces(GOOGLEAPI.DRIVE_SPACES)
-					.setFields(GOOGLEAPI.FILE_FIELDS)
-					.execute();
+					.setFields(DriveFileField.listFieldMask(fields))
+					.execute());
 			
 			if (this.isEmptyResult(result)) {
 				return Optional.empty();
@@ -80,7 +249,7 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 			
 			File file = result.getFiles().getFirst();
 			
-			return Optional.of(this.buildDriveFile(file));
+			return Optional.of(this.buildDriveFile(file, fields));
 		
 		} catch (IOException e) {
 			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
@@ -93,6 +262,13 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 	@Override
 	public byte[] doDownloadFile(String fileId) throws GoogleApiException {
 		try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+			Optional<ByteBuffer> cachedContent = this.readCached(fileId);
+			
+			if (cachedContent.isPresent()) {
+				byte[] content = new byte[cachedContent.get().remaining()];
+				cachedContent.get().get(content);
+				return content;
+			}
 			
 			this.driveService.files().get(fileId).executeMediaAndDownloadTo(outputStream);
 			
@@ -103,40 +279,259 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 		} 
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void doDownloadFile(String fileId, OutputStream outputStream) throws GoogleApiException {
+		try {
+			Optional<ByteBuffer> cachedContent = this.readCached(fileId);
+			
+			if (cachedContent.isPresent()) {
+				this.writeFully(cachedContent.get(), Channels.newChannel(outputStream));
+				return;
+			}
+			
+			this.driveService.files().get(fileId).executeMediaAndDownloadTo(outputStream);
+			
+		} catch (Exception e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void doDownloadFile(String fileId, WritableByteChannel channel) throws GoogleApiException {
+		try {
+			Optional<ByteBuffer> cachedContent = this.readCached(fileId);
+			
+			if (cachedContent.isPresent()) {
+				this.writeFully(cachedContent.get(), channel);
+				return;
+			}
+			
+			this.driveService.files().get(fileId).executeMediaAndDownloadTo(Channels.newOutputStream(channel));
+			
+		} catch (Exception e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Path doDownloadFile(String fileId, Path target) throws GoogleApiException {
+		return this.downloadReplacing(target, channel -> {
+			Optional<ByteBuffer> cachedContent = this.readCached(fileId);
+			
+			if (cachedContent.isPresent()) {
+				this.writeFully(cachedContent.get(), channel);
+				return;
+			}
+			
+			this.driveService.files().get(fileId).executeMediaAndDownloadTo(Channels.newOutputStream(channel));
+		});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Path doDownloadFileInRanges(String fileId, Path target) throws GoogleApiException {
+		return this.downloadReplacing(target, channel -> this.rangedDownloader.download(this.driveService, fileId, channel));
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public DriveFile doUploadFileToFolder(List<String> folderHierarchy, java.io.File file, boolean isPublic) throws GoogleApiGeneralErrorException {
+		return this.doUploadFileToFolder(folderHierarchy, file.toPath(), null, isPublic);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DriveFile doUploadFileToFolder(List<String> folderHierarchy, Path file, String mimeType, boolean isPublic) throws GoogleApiGeneralErrorException {
 		try {
-			String folderId = this.getFolderIdByName(folderHierarchy);
+			String fileType = mimeType != null ? mimeType : this.contentTypeDetector.detect(file);
+			FileContent mediaContent = new FileContent(fileType, file.toFile());
+			long length = Files.size(file);
 			
-			File fileMetadata = new File();
-			fileMetadata.setName(file.getName());
-			fileMetadata.setParents(Collections.singletonList(folderId));
+			File uploadedFile = this.executeInFolder(folderHierarchy, folderId -> {
+				File fileMetadata = this.buildFileMetadata(file.getFileName().toString(), folderId);
+				
+				if (this.resumableUploader.isResumable(length)) {
+					return this.resumableUploader.upload(this.driveService, fileMetadata, fileType, file, this.uploadedFileFields());
+				}
+				
+				return this.createFile(fileMetadata, mediaContent, length);
+			});
+			
+			return this.completeUpload(uploadedFile, isPublic);
 
-			String fileType = new Tika().detect(file);
-			FileContent mediaContent = new FileContent(fileType, file);
+		} catch (Exception e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DriveFile doUploadFileToFolder(List<String> folderHierarchy, String fileName, InputStream content, long length, String mimeType, 
+			boolean isPublic) throws GoogleApiGeneralErrorException {
+		try {
+			InputStream markableContent = content.markSupported() ? content : new BufferedInputStream(content);
+			String fileType = mimeType != null ? mimeType : this.contentTypeDetector.detect(markableContent, fileName);
 			
-			File uploadedFile = this.driveService.files().create(fileMetadata, mediaContent)
-					.setFields(GOOGLEAPI.FILE_FIELDS)
-					.execute();
+			InputStreamContent mediaContent = new InputStreamContent(fileType, markableContent);
+			mediaContent.setLength(length);
+			
+			// only a content held in memory is marked, a buffered stream would otherwise keep every byte read
+			boolean resendable = this.isResendable(markableContent);
 			
-			if (uploadedFile == null) {
-				throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_UPLOAD_ERROR);
+			if (resendable) {
+				markableContent.mark(Integer.MAX_VALUE);
 			}
+			
+			File uploadedFile = this.executeInFolder(folderHierarchy, resendable, folderId -> {
+				if (resendable) {
+					markableContent.reset();
+				}
 				
-			if (isPublic) {
-				this.doSetPublicPermission(uploadedFile);
-			}
+				return this.createFile(this.buildFileMetadata(fileName, folderId), mediaContent, length);
+			});
+			
+			return this.completeUpload(uploadedFile, isPublic);
 			
-			return this.buildDriveFile(uploadedFile);
-
 		} catch (Exception e) {
 			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
 		}
 	}
 	
+	/**
+	 * Check whether an upload content is held in memory, as when uploaded from a byte array or a buffer, so
+	 * that it may be read again from its mark once consumed.
+	 * 
+	 * @param content
+	 * @return whether the content may be sent again
+	 */
+	private boolean isResendable(InputStream content) {
+		return content instanceof ByteArrayInputStream || content instanceof ByteBufferInputStream;
+	}
+	
+	/**
+	 * Build the metadata of a file to be created in a folder.
+	 * 
+	 * @param fileName
+	 * @param folderId
+	 * @return {@link File}
+	 */
+	private File buildFileMetadata(String fileName, String folderId) {
+		File fileMetadata = new File();
+		fileMetadata.setName(fileName);
+		fileMetadata.setParents(Collections.singletonList(folderId));
+		
+		return fileMetadata;
+	}
+	
+	/**
+	 * Create a file with its media content, sent in a single multipart request when its length is known and
+	 * below the resumable threshold, or in chunks of a resumable session otherwise. Unlike files uploaded with
+	 * {@link ResumableUploader}, such sessions only live as long as the request.
+	 * 
+	 * @param fileMetadata
+	 * @param mediaContent
+	 * @param length content length, negative if unknown
+	 * @return created {@link File}
+	 * @throws IOException
+	 */
+	private File createFile(File fileMetadata, AbstractInputStreamContent mediaContent, long length) throws IOException {
+		Drive.Files.Create create = this.driveService.files().create(fileMetadata, mediaContent);
+		this.configureMediaUpload(create.getMediaHttpUploader(), length);
+		
+		return create.setFields(this.uploadedFileFields()).execute();
+	}
+	
+	/**
+	 * Upload a local file as a new file, or as the new content of an existing file when a file id is given.
+	 * New files above the resumable threshold go through {@link ResumableUploader}, while updates are sent in
+	 * a single request or in chunks of a request scoped resumable session.
+	 * 
+	 * @param source
+	 * @param fileId id of the file to update, null to create a new file
+	 * @param fileMetadata
+	 * @return uploaded {@link File}
+	 * @throws IOException
+	 */
+	private File transferFile(Path source, String fileId, File fileMetadata) throws IOException {
+		String fileType = this.contentTypeDetector.detect(source);
+		FileContent mediaContent = new FileContent(fileType, source.toFile());
+		long length = Files.size(source);
+		
+		if (fileId == null) {
+			if (this.resumableUploader.isResumable(length)) {
+				return this.resumableUploader.upload(this.driveService, fileMetadata, fileType, source, this.uploadedFileFields());
+			}
+			
+			return this.createFile(fileMetadata, mediaContent, length);
+		}
+		
+		Drive.Files.Update update = this.driveService.files().update(fileId, fileMetadata, mediaContent);
+		this.configureMediaUpload(update.getMediaHttpUploader(), length);
+		
+		return update.setFields(this.uploadedFileFields()).execute();
+	}
+	
+	/**
+	 * Return the fields answered for an uploaded file: every indexed field when the metadata index is enabled,
+	 * since the uploaded file replaces its indexed entry.
+	 * 
+	 * @return fields of the uploaded file
+	 */
+	private String uploadedFileFields() {
+		return this.metadataIndex != null ? GOOGLEAPI.INDEX_FILE_FIELDS : GOOGLEAPI.FILE_FIELDS;
+	}
+	
+	/**
+	 * Send media content in a single multipart request when its length is known and below the resumable
+	 * threshold, or in chunks otherwise.
+	 * 
+	 * @param mediaHttpUploader
+	 * @param length content length, negative if unknown
+	 */
+	private void configureMediaUpload(MediaHttpUploader mediaHttpUploader, long length) {
+		if (mediaHttpUploader != null) {
+			mediaHttpUploader.setDirectUploadEnabled(length >= 0 && !this.resumableUploader.isResumable(length));
+			mediaHttpUploader.setChunkSize(this.resumableUploader.getChunkSize());
+		}
+	}
+	
+	/**
+	 * Share an uploaded file if requested and build its {@link DriveFile}.
+	 * 
+	 * @param uploadedFile
+	 * @param isPublic
+	 * @return {@link DriveFile}
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	private DriveFile completeUpload(File uploadedFile, boolean isPublic) throws GoogleApiGeneralErrorException {
+		if (uploadedFile == null) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_UPLOAD_ERROR);
+		}
+			
+		if (isPublic) {
+			this.doSetPublicPermission(uploadedFile);
+		}
+		
+		return this.buildDriveFile(this.recordInIndex(uploadedFile));
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -155,28 +550,59 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 		}
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<DriveBatchResult<String>> doSetPublicPermissions(Collection<String> fileIds) throws GoogleApiGeneralErrorException {
+		try {
+			return this.batchExecutor.execute(this.driveService, new ArrayList<>(fileIds), 
+					fileId -> this.driveService.permissions().create(fileId, new Permission()
+							.setType(GOOGLEAPI.ANYONE_PERMISSION_TYPE)
+							.setRole(GOOGLEAPI.READER_PERMISSION_TOLE))
+						.setFields(GOOGLEAPI.ID_FIELD_BASE), 
+					Permission::getId);
+
+		} catch (IOException e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
+		}
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public DriveFileList doGetFolderFiles(List<String> folderHierarchy, Integer pageSize, String pageToken) throws GoogleApiGeneralErrorException {
+		return this.doGetFolderFiles(folderHierarchy, pageSize, pageToken, DriveFileField.DEFAULT);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DriveFileList doGetFolderFiles(List<String> folderHierarchy, Integer pageSize, String pageToken, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException {
 		List<DriveFile> driveFiles = new ArrayList<>();
 		
 		try {
-			String folderId = this.getFolderIdByName(folderHierarchy);
-
-			FileList result = this.driveService.files().list()
+			if (this.isIndexAnswering(pageToken)) {
+				return this.listIndexedFolderFiles(folderHierarchy, null, pageSize, pageToken, fields);
+			}
+			
+			String currentPageToken = pageToken;
+			
+			FileList result = this.executeInFolder(folderHierarchy, folderId -> this.driveService.files().list()
 				      .setQ(String.format(GOOGLEAPI.FILES_QUERY_IN_FOLDER, folderId))
 				      .setSpaces(GOOGLEAPI.DRIVE_SPACES)
-				      .setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)
+				      .setFields(DriveFileField.listFieldMask(fields))
 				      .setPageSize(pageSize)
-				      .setPageToken(pageToken)
-				      .execute();
+				      .setPageToken(currentPageToken)
+				      .execute());
 			
 			if (!this.isEmptyResult(result)) {
 				pageToken = result.getNextPageToken();
 				
-				result.getFiles().forEach(file -> driveFiles.add(this.buildDriveFile(file)));
+				result.getFiles().forEach(file -> driveFiles.add(this.buildDriveFile(file, fields)));
 			}
 			
 		} catch (Exception e) {
@@ -194,23 +620,36 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 	 */
 	@Override
 	public DriveFileList doGetFolderFilesByFileNameFilter(List<String> folderHierarchy, String fileNameFilter, Integer pageSize, String pageToken) throws GoogleApiGeneralErrorException {
+		return this.doGetFolderFilesByFileNameFilter(folderHierarchy, fileNameFilter, pageSize, pageToken, DriveFileField.DEFAULT);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DriveFileList doGetFolderFilesByFileNameFilter(List<String> folderHierarchy, String fileNameFilter, Integer pageSize, String pageToken, 
+			Set<DriveFileField> fields) throws GoogleApiGeneralErrorException {
 		List<DriveFile> driveFiles = new ArrayList<>();
 		
 		try {
-			String folderId = this.getFolderIdByName(folderHierarchy);
-
-			FileList result = this.driveService.files().list()
+			if (this.isIndexAnswering(pageToken)) {
+				return this.listIndexedFolderFiles(folderHierarchy, fileNameFilter, pageSize, pageToken, fields);
+			}
+			
+			String currentPageToken = pageToken;
+			
+			FileList result = this.executeInFolder(folderHierarchy, folderId -> this.driveService.files().list()
 				      .setQ(String.format(GOOGLEAPI.FILES_QUERY_IN_FOLDER_FILENAME_FILTER, folderId, fileNameFilter))
 				      .setSpaces(GOOGLEAPI.DRIVE_SPACES)
-				      .setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)
+				      .setFields(DriveFileField.listFieldMask(fields))
 				      .setPageSize(pageSize)
-				      .setPageToken(pageToken)
-				      .execute();
+				      .setPageToken(currentPageToken)
+				      .execute());
 			
 			if (!this.isEmptyResult(result)) {
 				pageToken = result.getNextPageToken();
 				
-				result.getFiles().forEach(file -> driveFiles.add(this.buildDriveFile(file)));
+				result.getFiles().forEach(file -> driveFiles.add(this.buildDriveFile(file, fields)));
 			}
 			
 		} catch (Exception e) {
@@ -224,72 +663,560 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 	}
 	
 	/**
-	 * Build an instance of {@link DriveFile} for given Google Drive file data.
-	 * 
-	 * @param file
-	 * @return {@link DriveFile}
+	 * {@inheritDoc}
 	 */
-	private DriveFile buildDriveFile(File file) {
-		Calendar uploadDate = Calendar.getInstance();
-		uploadDate.setTimeInMillis(file.getCreatedTime().getValue());
-		
-		return DriveFile.builder()
-				.fileId(file.getId())
-				.fileName(file.getName())
-				.uploadDate(uploadDate)
-				.build();
+	@Override
+	public Stream<DriveFile> doStreamFolderFiles(List<String> folderHierarchy, String fileNameFilter) throws GoogleApiGeneralErrorException {
+		return this.doStreamFolderFiles(folderHierarchy, fileNameFilter, DriveFileField.DEFAULT);
 	}
 	
 	/**
-	 * Get a folder id for the last folder in a folder tree. If given folder hierarchy do not exist 
-	 * (any of the folders) they'll be created.
-	 * 
-	 * @param folderHierarchy
-	 * @return folder id
-	 * @throws IOException
+	 * {@inheritDoc}
 	 */
-	private String getFolderIdByName(List<String> folderHierarchy) throws IOException {
-		String parentFolderId = null;
-		
-		for (String folderName : folderHierarchy) {
-			
-			StringBuilder query = new StringBuilder(String.format(GOOGLEAPI.FOLDER_QUERY_NAME, folderName));
-			
-			if (parentFolderId != null) {
-				query.append(String.format(GOOGLEAPI.FOLDER_QUERY_PARENT, parentFolderId));
-			}
+	@Override
+	public Stream<DriveFile> doStreamFolderFiles(List<String> folderHierarchy, String fileNameFilter, Set<DriveFileField> fields) 
+			throws GoogleApiGeneralErrorException {
+		try {
+			String[] resolvedFolderId = new String[1];
 			
-			FileList result = this.driveService.files().list()
-						.setQ(query.toString())
-						.setSpaces(GOOGLEAPI.DRIVE_SPACES)
-						.setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)
-						.setPageToken(null)
-						.execute();
+			Page<DriveFile> firstPage = this.executeInFolder(folderHierarchy, folderId -> {
+				resolvedFolderId[0] = folderId;
+				return this.listFolderPage(folderId, fileNameFilter, null, fields);
+			});
 			
-			if (this.isEmptyResult(result)) {
-				parentFolderId = this.createFolder(folderName, parentFolderId);
+			return new PrefetchingPageIterator<>(firstPage, 
+					pageToken -> this.listFolderPage(resolvedFolderId[0], fileNameFilter, pageToken, fields))
+					.stream();
 			
-			} else {
-				File folder = result.getFiles().getFirst();
-				parentFolderId = folder.getId();
-			}
+		} catch (IOException e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
 		}
-		
-		return parentFolderId;
 	}
-
+	
 	/**
-	 * Create a new folder in a specific directory (parentFolderId) with a given name and return its folder id.
-	 * 
-	 * @param folderName
-	 * @param parentFolderId
-	 * @return folder id
-	 * @throws IOException
+	 * {@inheritDoc}
 	 */
-	protected String createFolder(String folderName, String parentFolderId) throws IOException {
-		File fileMetadata = new File();
-		fileMetadata.setName(folderName);
-		fileMetadata.setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE);
+	@Override
+	public Stream<DriveTreeEntry> doWalkTree(List<String> folderHierarchy) throws GoogleApiGeneralErrorException {
+		try {
+			return this.treeWalker.walk(this.driveService, this.getFolderIdByName(folderHierarchy), this::buildDriveFile);
+			
+		} catch (IOException e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DriveSyncReport doSyncDirectory(Path localDirectory, List<String> folderHierarchy, boolean deleteOrphans, boolean dryRun) 
+			throws GoogleApiGeneralErrorException {
+		try {
+			// a dry run must not create the remote folder, which is planned with its whole tree when missing
+			String remoteFolderId = dryRun ? this.findFolderIdByName(folderHierarchy) : this.getFolderIdByName(folderHierarchy);
+			
+			return this.directorySynchronizer.synchronize(this.driveService, localDirectory, remoteFolderId, deleteOrphans, dryRun, 
+					(source, fileId, fileMetadata) -> this.recordInIndex(this.transferFile(source, fileId, fileMetadata)));
+			
+		} catch (IOException e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<List<String>, String> doGetFolderIds(Collection<List<String>> folderHierarchies) throws GoogleApiGeneralErrorException {
+		Map<List<String>, String> folderIds = new LinkedHashMap<>();
+		FolderIdCache resolvedFolders = this.folderIdCache.isEnabled() 
+				? this.folderIdCache 
+				: new FolderIdCache(Integer.MAX_VALUE, Duration.ofSeconds(GOOGLEAPI.DEFAULT_FOLDER_CACHE_TTL_SECONDS));
+		
+		try {
+			for (List<String> folderHierarchy : folderHierarchies) {
+				folderIds.put(List.copyOf(folderHierarchy), this.getFolderIdByName(folderHierarchy, resolvedFolders));
+			}
+			
+		} catch (IOException e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
+		}
+		
+		return folderIds;
+	}
+	
+	/**
+	 * List a page of the files of a folder with the largest page size, optionally only those whose name
+	 * contains a filter.
+	 * 
+	 * @param folderId
+	 * @param fileNameFilter
+	 * @param pageToken
+	 * @param fields
+	 * @return {@link Page} of files
+	 * @throws IOException
+	 */
+	private Page<DriveFile> listFolderPage(String folderId, String fileNameFilter, String pageToken, Set<DriveFileField> fields) throws IOException {
+		String query = fileNameFilter == null 
+				? String.format(GOOGLEAPI.FILES_QUERY_IN_FOLDER, folderId) 
+				: String.format(GOOGLEAPI.FILES_QUERY_IN_FOLDER_FILENAME_FILTER, folderId, fileNameFilter);
+		
+		FileList result = this.driveService.files().list()
+			      .setQ(query)
+			      .setSpaces(GOOGLEAPI.DRIVE_SPACES)
+			      .setFields(DriveFileField.listFieldMask(fields))
+			      .setPageSize(GOOGLEAPI.STREAM_PAGE_SIZE)
+			      .setPageToken(pageToken)
+			      .execute();
+		
+		if (result == null) {
+			return new Page<>(List.of(), null);
+		}
+		
+		// Google Drive may answer empty pages that still carry a next page token
+		List<DriveFile> driveFiles = this.isEmptyResult(result) 
+				? List.of() 
+				: result.getFiles().stream().map(file -> this.buildDriveFile(file, fields)).toList();
+		
+		return new Page<>(driveFiles, result.getNextPageToken());
+	}
+	
+	/**
+	 * Verify if the metadata index, when enabled, may answer a lookup: either it is fresh enough, or the lookup
+	 * asks for the next page of a listing the index answered.
+	 * 
+	 * @param pageToken
+	 * @return true if the index answers false otherwise
+	 */
+	private boolean isIndexAnswering(String pageToken) {
+		if (this.metadataIndex == null) {
+			return false;
+		}
+		
+		return this.metadataIndex.isIndexPageToken(pageToken) || (pageToken == null && this.metadataIndex.isFresh());
+	}
+	
+	/**
+	 * List a page of the files of a folder from the metadata index, optionally only those whose name contains
+	 * a filter.
+	 * 
+	 * @param folderHierarchy
+	 * @param fileNameFilter
+	 * @param pageSize
+	 * @param pageToken
+	 * @param fields
+	 * @return {@link DriveFileList}
+	 * @throws IOException
+	 */
+	private DriveFileList listIndexedFolderFiles(List<String> folderHierarchy, String fileNameFilter, Integer pageSize, String pageToken, 
+			Set<DriveFileField> fields) throws IOException {
+		Page<File> page = this.metadataIndex.listFiles(this.getFolderIdByName(folderHierarchy), fileNameFilter, pageSize, pageToken);
+		
+		return DriveFileList.builder()
+				.driveFiles(page.items().stream().map(file -> this.buildDriveFile(file, fields)).collect(Collectors.toCollection(ArrayList::new)))
+				.pageToken(page.nextPageToken())
+				.build();
+	}
+	
+	/**
+	 * Read the content of a file from the download cache, downloading it into the cache on a miss. The file
+	 * metadata is fetched first so that a changed file is never served from a stale copy. Nothing is returned
+	 * when the cache is disabled or the file is not cacheable, such as Google Workspace documents without a
+	 * size or files larger than the cache.
+	 * 
+	 * @param fileId
+	 * @return {@link Optional<ByteBuffer>} cached content
+	 * @throws IOException
+	 */
+	private Optional<ByteBuffer> readCached(String fileId) throws IOException {
+		if (!this.downloadCache.isEnabled()) {
+			return Optional.empty();
+		}
+		
+		File file = this.driveService.files().get(fileId)
+				.setFields(GOOGLEAPI.CACHE_FILE_FIELDS)
+				.execute();
+		
+		if (file.getSize() == null || !this.downloadCache.isCacheable(file.getSize())
+				|| (file.getMd5Checksum() == null && file.getVersion() == null)) {
+			return Optional.empty();
+		}
+		
+		String version = file.getMd5Checksum() != null ? file.getMd5Checksum() : GOOGLEAPI.CACHE_VERSION_PREFIX + file.getVersion();
+		
+		return Optional.of(this.downloadCache.read(fileId, version, 
+				outputStream -> this.driveService.files().get(fileId).executeMediaAndDownloadTo(outputStream)));
+	}
+	
+	private void writeFully(ByteBuffer content, WritableByteChannel channel) throws IOException {
+		while (content.hasRemaining()) {
+			channel.write(content);
+		}
+	}
+	
+	/**
+	 * Record a file written through this service in the metadata index, if enabled.
+	 * 
+	 * @param file
+	 * @return file
+	 */
+	private File recordInIndex(File file) {
+		if (this.metadataIndex != null) {
+			this.metadataIndex.record(file);
+		}
+		
+		return file;
+	}
+	
+	private void forgetInIndex(String fileId) {
+		if (this.metadataIndex != null) {
+			this.metadataIndex.forget(fileId);
+		}
+	}
+	
+	/**
+	 * Build an instance of {@link DriveFile} for given Google Drive file data, with the default fields.
+	 * 
+	 * @param file
+	 * @return {@link DriveFile}
+	 */
+	private DriveFile buildDriveFile(File file) {
+		return this.buildDriveFile(file, DriveFileField.DEFAULT);
+	}
+	
+	/**
+	 * Build an instance of {@link DriveFile} for given Google Drive file data, with the requested fields only.
+	 * 
+	 * @param file
+	 * @param fields
+	 * @return {@link DriveFile}
+	 */
+	private DriveFile buildDriveFile(File file, Set<DriveFileField> fields) {
+		DriveFileBuilder driveFileBuilder = DriveFile.builder().fileId(file.getId());
+		
+		if (fields.contains(DriveFileField.NAME)) {
+			driveFileBuilder.fileName(file.getName());
+		}
+		
+		if (fields.contains(DriveFileField.PARENTS)) {
+			driveFileBuilder.parentIds(file.getParents());
+		}
+		
+		if (fields.contains(DriveFileField.MIME_TYPE)) {
+			driveFileBuilder.mimeType(file.getMimeType());
+		}
+		
+		if (fields.contains(DriveFileField.SIZE)) {
+			driveFileBuilder.size(file.getSize());
+		}
+		
+		if (fields.contains(DriveFileField.MD5_CHECKSUM)) {
+			driveFileBuilder.md5Checksum(file.getMd5Checksum());
+		}
+		
+		if (fields.contains(DriveFileField.CREATED_TIME)) {
+			driveFileBuilder.uploadDate(this.toCalendar(file.getCreatedTime()));
+		}
+		
+		if (fields.contains(DriveFileField.MODIFIED_TIME)) {
+			driveFileBuilder.modifiedDate(this.toCalendar(file.getModifiedTime()));
+		}
+		
+		return driveFileBuilder.build();
+	}
+	
+	/**
+	 * Convert a Google Drive time to a {@link Calendar}, null when absent.
+	 * 
+	 * @param dateTime
+	 * @return {@link Calendar}
+	 */
+	private Calendar toCalendar(DateTime dateTime) {
+		if (dateTime == null) {
+			return null;
+		}
+		
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTimeInMillis(dateTime.getValue());
+		
+		return calendar;
+	}
+	
+	/**
+	 * Get a folder id for the last folder in a folder tree. If given folder hierarchy do not exist 
+	 * (any of the folders) they'll be created.
+	 * 
+	 * @param folderHierarchy
+	 * @return folder id
+	 * @throws IOException
+	 */
+	private String getFolderIdByName(List<String> folderHierarchy) throws IOException {
+		return this.recordPhase(DriveMetrics.FOLDER_RESOLUTION_PHASE, () -> {
+			this.driveTracing.tag(DriveTracing.FOLDER_DEPTH, folderHierarchy.size());
+			
+			return this.getFolderIdByName(folderHierarchy, this.folderIdCache);
+		});
+	}
+	
+	/**
+	 * Find the folder id for the last folder in a folder tree without creating any missing folder, resuming
+	 * from the deepest ancestor found in the cache.
+	 * 
+	 * @param folderHierarchy
+	 * @return folder id, or null when any of the folders does not exist
+	 * @throws IOException
+	 */
+	private String findFolderIdByName(List<String> folderHierarchy) throws IOException {
+		return this.recordPhase(DriveMetrics.FOLDER_RESOLUTION_PHASE, () -> {
+			this.driveTracing.tag(DriveTracing.FOLDER_DEPTH, folderHierarchy.size());
+			
+			Optional<CachedAncestor> cachedAncestor = this.folderIdCache.getDeepestAncestor(folderHierarchy);
+			String folderId = cachedAncestor.map(CachedAncestor::folderId).orElse(null);
+			
+			for (int depth = cachedAncestor.map(CachedAncestor::depth).orElse(0); depth < folderHierarchy.size(); depth++) {
+				folderId = this.findFolderId(folderHierarchy.get(depth), folderId);
+				
+				if (folderId == null) {
+					return null;
+				}
+			}
+			
+			return folderId;
+		});
+	}
+	
+	/**
+	 * Get a folder id for the last folder in a folder tree, resuming from the deepest ancestor found in the
+	 * given cache. If given folder hierarchy do not exist (any of the folders) they'll be created. Folders are
+	 * looked up again in the cache once their lookup is single flighted, since a flight that ended in the
+	 * meantime may have resolved them already, and listing them again could create duplicates.
+	 * 
+	 * @param folderHierarchy
+	 * @param resolvedFolders
+	 * @return folder id
+	 * @throws IOException
+	 */
+	private String getFolderIdByName(List<String> folderHierarchy, FolderIdCache resolvedFolders) throws IOException {
+		Optional<CachedAncestor> cachedAncestor = resolvedFolders.getDeepestAncestor(folderHierarchy);
+		
+		String parentFolderId = cachedAncestor.map(CachedAncestor::folderId).orElse(null);
+		int depth = cachedAncestor.map(CachedAncestor::depth).orElse(0);
+		
+		while (depth < folderHierarchy.size()) {
+			List<String> parentHierarchy = folderHierarchy.subList(0, depth);
+			List<String> pendingFolderNames = folderHierarchy.subList(depth, folderHierarchy.size());
+			String folderParentId = parentFolderId;
+			
+			List<ResolvedFolder> resolvedChain = this.folderFlights.execute(new FolderKey(folderParentId, pendingFolderNames.getFirst()), () -> {
+				List<ResolvedFolder> cachedChain = this.getCachedChain(resolvedFolders, folderHierarchy, parentHierarchy.size());
+				
+				if (!cachedChain.isEmpty()) {
+					return cachedChain;
+				}
+				
+				List<ResolvedFolder> chain = this.getOrCreateFolders(pendingFolderNames, folderParentId);
+				this.cacheResolvedChain(resolvedFolders, parentHierarchy, chain);
+				
+				return chain;
+			});
+			
+			for (ResolvedFolder resolvedFolder : resolvedChain) {
+				if (depth == folderHierarchy.size() || !resolvedFolder.folderName().equals(folderHierarchy.get(depth))) {
+					break;
+				}
+				
+				parentFolderId = resolvedFolder.folderId();
+				depth++;
+			}
+			
+			this.cacheResolvedChain(resolvedFolders, parentHierarchy, resolvedChain.subList(0, depth - parentHierarchy.size()));
+		}
+		
+		return parentFolderId;
+	}
+	
+	/**
+	 * Return the chain of nested folders of a folder hierarchy found in the cache below a parent depth,
+	 * stopping at the first folder not cached.
+	 * 
+	 * @param resolvedFolders
+	 * @param folderHierarchy
+	 * @param parentDepth
+	 * @return cached folders, starting by the folder below the parent depth
+	 */
+	private List<ResolvedFolder> getCachedChain(FolderIdCache resolvedFolders, List<String> folderHierarchy, int parentDepth) {
+		List<ResolvedFolder> cachedChain = new ArrayList<>();
+		
+		for (int depth = parentDepth + 1; depth <= folderHierarchy.size(); depth++) {
+			Optional<String> folderId = resolvedFolders.peek(folderHierarchy.subList(0, depth));
+			
+			if (folderId.isEmpty()) {
+				break;
+			}
+			
+			cachedChain.add(new ResolvedFolder(folderHierarchy.get(depth - 1), folderId.get()));
+		}
+		
+		return cachedChain;
+	}
+	
+	/**
+	 * Cache every folder of a resolved chain of nested folders under a parent folder hierarchy.
+	 * 
+	 * @param resolvedFolders
+	 * @param parentHierarchy
+	 * @param resolvedChain
+	 */
+	private void cacheResolvedChain(FolderIdCache resolvedFolders, List<String> parentHierarchy, List<ResolvedFolder> resolvedChain) {
+		List<String> resolvedHierarchy = new ArrayList<>(parentHierarchy);
+		
+		for (ResolvedFolder resolvedFolder : resolvedChain) {
+			resolvedHierarchy.add(resolvedFolder.folderName());
+			resolvedFolders.put(List.copyOf(resolvedHierarchy), resolvedFolder.folderId());
+		}
+	}
+	
+	/**
+	 * Get the id of the first of a chain of nested folders in a specific directory (parentFolderId). When it
+	 * does not exist none of its nested folders may exist either, so the whole chain is created at once and
+	 * the ids of every created folder are returned.
+	 * 
+	 * @param folderNames
+	 * @param parentFolderId
+	 * @return resolved folders, starting by the first folder name
+	 * @throws IOException
+	 */
+	private List<ResolvedFolder> getOrCreateFolders(List<String> folderNames, String parentFolderId) throws IOException {
+		String folderName = folderNames.getFirst();
+		String folderId = this.findFolderId(folderName, parentFolderId);
+		
+		if (folderId != null) {
+			return List.of(new ResolvedFolder(folderName, folderId));
+		}
+		
+		if (folderNames.size() == 1) {
+			return List.of(new ResolvedFolder(folderName, this.createFolder(folderName, parentFolderId)));
+		}
+		
+		List<String> folderIds = this.createFolders(folderNames, parentFolderId);
+		List<ResolvedFolder> resolvedChain = new ArrayList<>();
+		
+		for (int i = 0; i < folderNames.size(); i++) {
+			resolvedChain.add(new ResolvedFolder(folderNames.get(i), folderIds.get(i)));
+		}
+		
+		return resolvedChain;
+	}
+	
+	/**
+	 * Get the id of a folder in a specific directory (parentFolderId).
+	 * 
+	 * @param folderName
+	 * @param parentFolderId
+	 * @return folder id, or null when it does not exist
+	 * @throws IOException
+	 */
+	private String findFolderId(String folderName, String parentFolderId) throws IOException {
+		StringBuilder query = new StringBuilder(String.format(GOOGLEAPI.FOLDER_QUERY_NAME, folderName));
+		
+		if (parentFolderId != null) {
+			query.append(String.format(GOOGLEAPI.FOLDER_QUERY_PARENT, parentFolderId));
+		}
+		
+		FileList result = this.driveService.files().list()
+					.setQ(query.toString())
+					.setSpaces(GOOGLEAPI.DRIVE_SPACES)
+					.setFields(GOOGLEAPI.FOLDER_ID_QUERY_FIELDS)
+					.setPageToken(null)
+					.execute();
+		
+		return this.isEmptyResult(result) ? null : result.getFiles().getFirst().getId();
+	}
+	
+	/**
+	 * Execute an operation against the folder id of a folder hierarchy. If Google Drive answers that a
+	 * folder was not found, the cached hierarchy is invalidated and the operation is retried once with a
+	 * freshly resolved folder id.
+	 * 
+	 * @param folderHierarchy
+	 * @param operation
+	 * @return operation result
+	 * @throws IOException
+	 */
+	private <T> T executeInFolder(List<String> folderHierarchy, FolderOperation<T> operation) throws IOException {
+		return this.executeInFolder(folderHierarchy, true, operation);
+	}
+	
+	/**
+	 * Execute an operation against the folder id of a folder hierarchy. If Google Drive answers that a
+	 * folder was not found, either while resolving the hierarchy from a stale cached ancestor or while
+	 * executing the operation, the cached hierarchy is invalidated from its top level folder and the
+	 * hierarchy is resolved again. The operation is then retried once if it was not executed yet or when it
+	 * may be repeated, such as an upload whose content can be sent again.
+	 * 
+	 * @param folderHierarchy
+	 * @param repeatable whether the operation may be executed again
+	 * @param operation
+	 * @return operation result
+	 * @throws IOException
+	 */
+	private <T> T executeInFolder(List<String> folderHierarchy, boolean repeatable, FolderOperation<T> operation) throws IOException {
+		String folderId;
+		
+		try {
+			folderId = this.getFolderIdByName(folderHierarchy);
+			
+		} catch (GoogleJsonResponseException e) {
+			if (e.getStatusCode() != HttpStatusCodes.STATUS_CODE_NOT_FOUND) {
+				throw e;
+			}
+			
+			this.invalidateFolderHierarchy(folderHierarchy);
+			
+			return operation.execute(this.getFolderIdByName(folderHierarchy));
+		}
+		
+		try {
+			return operation.execute(folderId);
+			
+		} catch (GoogleJsonResponseException e) {
+			if (e.getStatusCode() != HttpStatusCodes.STATUS_CODE_NOT_FOUND) {
+				throw e;
+			}
+			
+			this.invalidateFolderHierarchy(folderHierarchy);
+			
+			if (!repeatable) {
+				throw e;
+			}
+			
+			return operation.execute(this.getFolderIdByName(folderHierarchy));
+		}
+	}
+	
+	/**
+	 * Invalidate the cached folders of a folder hierarchy from its top level folder, since any of its cached
+	 * ancestors may be the one deleted.
+	 * 
+	 * @param folderHierarchy
+	 */
+	private void invalidateFolderHierarchy(List<String> folderHierarchy) {
+		this.folderIdCache.invalidate(folderHierarchy.subList(0, Math.min(1, folderHierarchy.size())));
+	}
+
+	/**
+	 * Create a new folder in a specific directory (parentFolderId) with a given name and return its folder id.
+	 * 
+	 * @param folderName
+	 * @param parentFolderId
+	 * @return folder id
+	 * @throws IOException
+	 */
+	protected String createFolder(String folderName, String parentFolderId) throws IOException {
+		File fileMetadata = new File();
+		fileMetadata.setName(folderName);
+		fileMetadata.setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE);
 		
 		if (parentFolderId != null && !"".equals(parentFolderId)) {
 			fileMetadata.setParents(Collections.singletonList(parentFolderId));
@@ -302,6 +1229,164 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 		return folder != null ? folder.getId() : null;
 	}
 	
+	/**
+	 * Create a chain of nested folders in a specific directory (parentFolderId) and return their folder ids.
+	 * Folder ids are generated beforehand so every folder can reference its parent, and the folders are then
+	 * created through batch requests. As Google Drive does not guarantee the execution order of batched calls,
+	 * folders that failed within the batch are created again one by one, in order, with the same folder id.
+	 * 
+	 * @param folderNames
+	 * @param parentFolderId
+	 * @return folder ids, in the same order as folderNames
+	 * @throws IOException
+	 */
+	protected List<String> createFolders(List<String> folderNames, String parentFolderId) throws IOException {
+		List<String> folderIds = this.driveService.files().generateIds()
+				.setCount(folderNames.size())
+				.setSpace(GOOGLEAPI.DRIVE_SPACES)
+				.setType(GOOGLEAPI.GENERATE_IDS_TYPE)
+				.setFields(GOOGLEAPI.GENERATED_IDS_FIELDS)
+				.execute()
+				.getIds();
+		
+		List<File> folders = new ArrayList<>();
+		
+		for (int i = 0; i < folderNames.size(); i++) {
+			File fileMetadata = new File();
+			fileMetadata.setId(folderIds.get(i));
+			fileMetadata.setName(folderNames.get(i));
+			fileMetadata.setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE);
+			
+			String folderParentId = i == 0 ? parentFolderId : folderIds.get(i - 1);
+			
+			if (folderParentId != null && !"".equals(folderParentId)) {
+				fileMetadata.setParents(Collections.singletonList(folderParentId));
+			}
+			
+			folders.add(fileMetadata);
+		}
+		
+		SortedSet<Integer> failedFolders = new TreeSet<>();
+		
+		for (int batchStart = 0; batchStart < folders.size(); batchStart += GOOGLEAPI.MAX_BATCH_SIZE) {
+			// the batch request itself goes through the request initializer of the client, as its calls do
+			BatchRequest batch = this.driveService.batch(this.driveService.getRequestFactory().getInitializer());
+			
+			for (int i = batchStart; i < Math.min(batchStart + GOOGLEAPI.MAX_BATCH_SIZE, folders.size()); i++) {
+				int folderIndex = i;
+				
+				this.driveService.files().create(folders.get(i))
+						.setFields(GOOGLEAPI.ID_FIELD_BASE)
+						.queue(batch, new JsonBatchCallback<File>() {
+							
+							@Override
+							public void onSuccess(File folder, HttpHeaders responseHeaders) {
+								// folder id was generated beforehand
+							}
+							
+							@Override
+							public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+								failedFolders.add(folderIndex);
+							}
+						});
+			}
+			
+			batch.execute();
+		}
+		
+		for (Integer folderIndex : failedFolders) {
+			this.createFolder(folders.get(folderIndex));
+		}
+		
+		return folderIds;
+	}
+	
+	/**
+	 * Create a folder with a pre generated folder id, considering it created if Google Drive answers that
+	 * the folder id is already in use.
+	 * 
+	 * @param folder
+	 * @throws IOException
+	 */
+	private void createFolder(File folder) throws IOException {
+		try {
+			this.driveService.files().create(folder)
+				    .setFields(GOOGLEAPI.ID_FIELD_BASE)
+				    .execute();
+			
+		} catch (GoogleJsonResponseException e) {
+			if (e.getStatusCode() != HttpStatusCodes.STATUS_CODE_CONFLICT) {
+				throw e;
+			}
+		}
+	}
+	
+	/**
+	 * Execute a download into a temporary file next to a target path, moving it over the target once the
+	 * download succeeds.
+	 * 
+	 * @param target
+	 * @param download
+	 * @return target path
+	 * @throws GoogleApiGeneralErrorException
+	 */
+	private Path downloadReplacing(Path target, ChannelDownload download) throws GoogleApiGeneralErrorException {
+		Path targetDirectory = Optional.ofNullable(target.toAbsolutePath().getParent()).orElse(Path.of(""));
+		Path temporaryFile = null;
+		
+		try {
+			temporaryFile = Files.createTempFile(targetDirectory, target.getFileName().toString(), GOOGLEAPI.DOWNLOAD_TEMP_FILE_SUFFIX);
+			
+			try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				download.execute(channel);
+			}
+			
+			this.moveReplacing(temporaryFile, target);
+			
+			return target;
+			
+		} catch (IOException e) {
+			throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_GENERAL_ERROR, e);
+			
+		} finally {
+			this.deleteQuietly(temporaryFile);
+		}
+	}
+	
+	/**
+	 * Move a file over a target path, atomically when supported by the file system.
+	 * 
+	 * @param source
+	 * @param target
+	 * @throws IOException
+	 */
+	private void moveReplacing(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * Delete a file if it still exists, ignoring any failure.
+	 * 
+	 * @param path
+	 */
+	private void deleteQuietly(Path path) {
+		if (path == null) {
+			return;
+		}
+		
+		try {
+			Files.deleteIfExists(path);
+			
+		} catch (IOException e) {
+			// temporary file left behind
+		}
+	}
+	
 	/**
 	 * Verify if a query result is empty.
 	 * 
@@ -322,6 +1407,126 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 		this.credentials = credentials;
 	}
 
+	/**
+	 * Set the credentialManager.
+	 * 
+	 * @param credentialManager
+	 */
+	@Autowired(required = false)
+	public void setCredentialManager(CredentialManager credentialManager) {
+		this.credentialManager = credentialManager;
+	}
+
+	/**
+	 * Set the metadataIndex, answering lookups and folder listings locally while fresh.
+	 * 
+	 * @param metadataIndex
+	 */
+	@Autowired(required = false)
+	public void setMetadataIndex(MetadataIndex metadataIndex) {
+		this.metadataIndex = metadataIndex;
+	}
+
+	/**
+	 * Set the downloadCache.
+	 * 
+	 * @param downloadCache
+	 */
+	@Autowired
+	public void setDownloadCache(DownloadCache downloadCache) {
+		this.downloadCache = downloadCache;
+	}
+
+	/**
+	 * Set the driveMetrics.
+	 * 
+	 * @param driveMetrics
+	 */
+	@Autowired
+	public void setDriveMetrics(DriveMetrics driveMetrics) {
+		this.driveMetrics = driveMetrics;
+	}
+
+	/**
+	 * Set the driveTracing.
+	 * 
+	 * @param driveTracing
+	 */
+	@Autowired
+	public void setDriveTracing(DriveTracing driveTracing) {
+		this.driveTracing = driveTracing;
+	}
+
+	/**
+	 * Set the folderIdCache.
+	 * 
+	 * @param folderIdCache
+	 */
+	@Autowired
+	public void setFolderIdCache(FolderIdCache folderIdCache) {
+		this.folderIdCache = folderIdCache;
+	}
+
+	/**
+	 * Set the rangedDownloader.
+	 * 
+	 * @param rangedDownloader
+	 */
+	@Autowired
+	public void setRangedDownloader(RangedDownloader rangedDownloader) {
+		this.rangedDownloader = rangedDownloader;
+	}
+
+	/**
+	 * Set the resumableUploader.
+	 * 
+	 * @param resumableUploader
+	 */
+	@Autowired
+	public void setResumableUploader(ResumableUploader resumableUploader) {
+		this.resumableUploader = resumableUploader;
+	}
+
+	/**
+	 * Set the contentTypeDetector.
+	 * 
+	 * @param contentTypeDetector
+	 */
+	@Autowired
+	public void setContentTypeDetector(ContentTypeDetector contentTypeDetector) {
+		this.contentTypeDetector = contentTypeDetector;
+	}
+
+	/**
+	 * Set the batchExecutor.
+	 * 
+	 * @param batchExecutor
+	 */
+	@Autowired
+	public void setBatchExecutor(BatchExecutor batchExecutor) {
+		this.batchExecutor = batchExecutor;
+	}
+
+	/**
+	 * Set the treeWalker.
+	 * 
+	 * @param treeWalker
+	 */
+	@Autowired
+	public void setTreeWalker(TreeWalker treeWalker) {
+		this.treeWalker = treeWalker;
+	}
+
+	/**
+	 * Set the directorySynchronizer.
+	 * 
+	 * @param directorySynchronizer
+	 */
+	@Autowired
+	public void setDirectorySynchronizer(DirectorySynchronizer directorySynchronizer) {
+		this.directorySynchronizer = directorySynchronizer;
+	}
+
 	/**
 	 * Set the driveService.
 	 * 
@@ -332,4 +1537,42 @@ public class GoogleDriveServiceImpl implements GoogleDriveService {
 		this.driveService = driveService;
 	}
 
+	/**
+	 * Key of a folder lookup, shared by concurrent resolutions of the same folder.
+	 * 
+	 * @param parentFolderId
+	 * @param folderName
+	 */
+	private record FolderKey(String parentFolderId, String folderName) {
+	}
+	
+	/**
+	 * Folder resolved to its folder id, as part of a chain of nested folders.
+	 * 
+	 * @param folderName
+	 * @param folderId
+	 */
+	private record ResolvedFolder(String folderName, String folderId) {
+	}
+	
+	/**
+	 * Download written into a file channel.
+	 */
+	@FunctionalInterface
+	private interface ChannelDownload {
+		
+		void execute(FileChannel channel) throws IOException;
+	}
+	
+	/**
+	 * Operation executed against a resolved folder id.
+	 * 
+	 * @param <T> operation result type
+	 */
+	@FunctionalInterface
+	private interface FolderOperation<T> {
+		
+		T execute(String folderId) throws IOException;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,520 @@
+package com.google.drive.api.sync;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.DriveApiConstants.MSGERROR;
+import com.google.drive.api.domain.DriveSyncReport;
+import com.google.drive.api.walk.TreeWalker;
+
+/**
+ * Engine synchronizing a local directory tree into a Google Drive folder, transferring only what changed. The
+ * remote tree is listed once and every local file is compared with the remote file at the same relative path:
+ * files with a different size are changed, files with the same size and modification time are unchanged and
+ * the others are compared by md5 checksum. New files are uploaded, changed files are updated in place and,
+ * optionally, remote files and folders missing locally are deleted. Uploaded files carry the local
+ * modification time, so that unchanged files are recognized on the next run without reading them.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class DirectorySynchronizer {
+
+	private static final String PATH_SEPARATOR = "/";
+	private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
+	private final TreeWalker treeWalker;
+	private final int parallelism;
+
+	/**
+	 * Default constructor.
+	 */
+	public DirectorySynchronizer() {
+		this(new TreeWalker(), GOOGLEAPI.DEFAULT_SYNC_PARALLELISM);
+	}
+
+	/**
+	 * Constructor with the walker listing the remote tree and the number of files transferred concurrently.
+	 *
+	 * @param treeWalker
+	 * @param parallelism
+	 */
+	public DirectorySynchronizer(TreeWalker treeWalker, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Invalid sync settings");
+		}
+
+		this.treeWalker = treeWalker;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Synchronize a local directory into a Google Drive folder. Failures of single files or folders do not stop
+	 * the synchronization and are listed in the report. A dry run may be given no remote folder, when it does
+	 * not exist yet, in which case the whole local tree is planned as created folders and uploaded files.
+	 *
+	 * @param driveService
+	 * @param localDirectory
+	 * @param remoteFolderId id of the remote folder, null in a dry run when it does not exist
+	 * @param deleteOrphans whether remote files and folders missing locally are deleted
+	 * @param dryRun whether the actions are only planned and reported
+	 * @param fileTransfer upload of the content of new and changed files
+	 * @return {@link DriveSyncReport}
+	 * @throws IOException if either tree could not be listed
+	 */
+	public DriveSyncReport synchronize(Drive driveService, Path localDirectory, String remoteFolderId, boolean deleteOrphans, boolean dryRun,
+			FileTransfer fileTransfer) throws IOException {
+		Map<String, File> remoteEntries = remoteFolderId == null && dryRun ? new HashMap<>() : this.listRemoteTree(driveService, remoteFolderId);
+		LocalTree localTree = this.listLocalTree(localDirectory);
+
+		Map<String, String> failures = new ConcurrentHashMap<>();
+		List<String> createdFolders = this.createFolders(driveService, localTree.folders(), remoteFolderId, remoteEntries, dryRun, failures);
+
+		Queue<String> uploadedFiles = new ConcurrentLinkedQueue<>();
+		Queue<String> updatedFiles = new ConcurrentLinkedQueue<>();
+		AtomicInteger unchangedFiles = new AtomicInteger();
+		AtomicLong transferredBytes = new AtomicLong();
+
+		List<String> localFiles = new ArrayList<>(localTree.files().keySet());
+
+		this.runAll(localFiles, relativePath -> {
+			Path localFile = localTree.files().get(relativePath);
+			File remoteFile = remoteEntries.get(relativePath);
+
+			if (remoteFile != null && this.isFolder(remoteFile)) {
+				failures.put(relativePath, MSGERROR.DRIVE_SYNC_CONFLICT_ERROR);
+				return;
+			}
+
+			if (remoteFile != null && !this.isChanged(localFile, remoteFile)) {
+				unchangedFiles.incrementAndGet();
+				return;
+			}
+
+			if (!dryRun) {
+				DateTime modifiedTime = new DateTime(Files.getLastModifiedTime(localFile).toMillis());
+
+				if (remoteFile == null) {
+					String parentId = this.parentId(relativePath, remoteFolderId, remoteEntries);
+
+					if (parentId == null) {
+						failures.put(relativePath, MSGERROR.DRIVE_SYNC_MISSING_FOLDER_ERROR);
+						return;
+					}
+
+					fileTransfer.transfer(localFile, null, new File()
+							.setName(localFile.getFileName().toString())
+							.setParents(List.of(parentId))
+							.setModifiedTime(modifiedTime));
+
+				} else {
+					fileTransfer.transfer(localFile, remoteFile.getId(), new File().setModifiedTime(modifiedTime));
+				}
+
+				transferredBytes.addAndGet(Files.size(localFile));
+			}
+
+			(remoteFile == null ? uploadedFiles : updatedFiles).add(relativePath);
+
+		}, failures);
+
+		List<String> deletedFiles = new ArrayList<>();
+
+		if (deleteOrphans) {
+			deletedFiles.addAll(this.deleteOrphans(driveService, localTree, remoteEntries, dryRun, failures));
+		}
+
+		return DriveSyncReport.builder()
+				.dryRun(dryRun)
+				.createdFolders(createdFolders)
+				.uploadedFiles(uploadedFiles.stream().sorted().toList())
+				.updatedFiles(updatedFiles.stream().sorted().toList())
+				.deletedFiles(deletedFiles.stream().sorted().toList())
+				.unchangedFiles(unchangedFiles.get())
+				.transferredBytes(transferredBytes.get())
+				.failures(new TreeMap<>(failures))
+				.build();
+	}
+
+	/**
+	 * List every file and folder below the remote folder by relative path.
+	 *
+	 * @param driveService
+	 * @param remoteFolderId
+	 * @return remote files and folders by relative path
+	 * @throws IOException
+	 */
+	private Map<String, File> listRemoteTree(Drive driveService, String remoteFolderId) throws IOException {
+		Map<String, File> remoteEntries = new HashMap<>();
+
+		try (Stream<RemoteEntry> entries = this.treeWalker.walk(driveService, remoteFolderId, GOOGLEAPI.SYNC_QUERY_FIELDS,
+				(file, path) -> new RemoteEntry(String.join(PATH_SEPARATOR, path), file))) {
+			// Drive allows many files with the same name in a folder, the first one listed is synchronized
+			entries.forEach(entry -> remoteEntries.putIfAbsent(entry.relativePath(), entry.file()));
+
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		return remoteEntries;
+	}
+
+	/**
+	 * List every regular file and directory below the local directory by relative path.
+	 *
+	 * @param localDirectory
+	 * @return {@link LocalTree}
+	 * @throws IOException
+	 */
+	private LocalTree listLocalTree(Path localDirectory) throws IOException {
+		Map<String, Path> files = new TreeMap<>();
+		List<String> folders = new ArrayList<>();
+
+		try (Stream<Path> paths = Files.walk(localDirectory)) {
+			for (Path path : (Iterable<Path>) paths::iterator) {
+				if (path.equals(localDirectory)) {
+					continue;
+				}
+
+				String relativePath = this.relativePath(localDirectory, path);
+
+				if (Files.isDirectory(path)) {
+					folders.add(relativePath);
+
+				} else if (Files.isRegularFile(path)) {
+					files.put(relativePath, path);
+				}
+			}
+		}
+
+		folders.sort(Comparator.comparingInt((String folder) -> folder.split(PATH_SEPARATOR).length).thenComparing(Comparator.naturalOrder()));
+
+		return new LocalTree(files, new LinkedHashSet<>(folders));
+	}
+
+	/**
+	 * Create the remote folders missing for local directories, parents first, registering them as remote
+	 * entries.
+	 *
+	 * @param driveService
+	 * @param localFolders relative paths sorted by depth
+	 * @param remoteFolderId
+	 * @param remoteEntries
+	 * @param dryRun
+	 * @param failures
+	 * @return relative paths of the created folders
+	 * @throws InterruptedIOException
+	 */
+	private List<String> createFolders(Drive driveService, Set<String> localFolders, String remoteFolderId, Map<String, File> remoteEntries,
+			boolean dryRun, Map<String, String> failures) throws InterruptedIOException {
+		List<String> createdFolders = new ArrayList<>();
+
+		for (String relativePath : localFolders) {
+			File remoteFolder = remoteEntries.get(relativePath);
+
+			if (remoteFolder != null) {
+				if (!this.isFolder(remoteFolder)) {
+					failures.put(relativePath, MSGERROR.DRIVE_SYNC_CONFLICT_ERROR);
+				}
+
+				continue;
+			}
+
+			if (!dryRun) {
+				String parentId = this.parentId(relativePath, remoteFolderId, remoteEntries);
+
+				if (parentId == null) {
+					failures.put(relativePath, MSGERROR.DRIVE_SYNC_MISSING_FOLDER_ERROR);
+					continue;
+				}
+
+				try {
+					File folder = driveService.files().create(new File()
+							.setName(relativePath.substring(relativePath.lastIndexOf(PATH_SEPARATOR) + 1))
+							.setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE)
+							.setParents(List.of(parentId)))
+							.setFields(GOOGLEAPI.SYNC_FILE_FIELDS)
+							.execute();
+
+					remoteEntries.put(relativePath, folder);
+
+				} catch (InterruptedIOException e) {
+					throw e;
+
+				} catch (IOException e) {
+					failures.put(relativePath, String.valueOf(e.getMessage()));
+					continue;
+				}
+			}
+
+			createdFolders.add(relativePath);
+		}
+
+		return createdFolders;
+	}
+
+	/**
+	 * Delete the remote files and folders missing locally. Folders are deleted with their content, which is not
+	 * reported on its own.
+	 *
+	 * @param driveService
+	 * @param localTree
+	 * @param remoteEntries
+	 * @param dryRun
+	 * @param failures
+	 * @return relative paths of the deleted files and folders
+	 * @throws InterruptedIOException
+	 */
+	private List<String> deleteOrphans(Drive driveService, LocalTree localTree, Map<String, File> remoteEntries, boolean dryRun,
+			Map<String, String> failures) throws InterruptedIOException {
+		List<String> orphans = remoteEntries.keySet().stream()
+				.filter(relativePath -> this.isOrphan(relativePath, localTree))
+				.filter(relativePath -> !this.hasOrphanAncestor(relativePath, localTree))
+				.sorted()
+				.toList();
+
+		Queue<String> deletedFiles = new ConcurrentLinkedQueue<>();
+
+		this.runAll(orphans, relativePath -> {
+			if (!dryRun) {
+				driveService.files().delete(remoteEntries.get(relativePath).getId()).execute();
+			}
+
+			deletedFiles.add(relativePath);
+
+		}, failures);
+
+		return new ArrayList<>(deletedFiles);
+	}
+
+	private boolean isOrphan(String relativePath, LocalTree localTree) {
+		return !localTree.files().containsKey(relativePath) && !localTree.folders().contains(relativePath);
+	}
+
+	private boolean hasOrphanAncestor(String relativePath, LocalTree localTree) {
+		for (int separator = relativePath.lastIndexOf(PATH_SEPARATOR); separator > 0; separator = relativePath.lastIndexOf(PATH_SEPARATOR, separator - 1)) {
+			if (this.isOrphan(relativePath.substring(0, separator), localTree)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Verify if a local file differs from the remote file at the same path: by size, then, unless both share
+	 * the same modification time, by md5 checksum.
+	 *
+	 * @param localFile
+	 * @param remoteFile
+	 * @return true if changed false otherwise
+	 * @throws IOException
+	 */
+	private boolean isChanged(Path localFile, File remoteFile) throws IOException {
+		if (remoteFile.getSize() == null || remoteFile.getSize() != Files.size(localFile)) {
+			return true;
+		}
+
+		if (remoteFile.getModifiedTime() != null && remoteFile.getModifiedTime().getValue() == Files.getLastModifiedTime(localFile).toMillis()) {
+			return false;
+		}
+
+		return remoteFile.getMd5Checksum() == null || !remoteFile.getMd5Checksum().equalsIgnoreCase(this.md5Checksum(localFile));
+	}
+
+	private String md5Checksum(Path localFile) throws IOException {
+		MessageDigest digest = this.md5Digest();
+
+		try (InputStream inputStream = new DigestInputStream(Files.newInputStream(localFile), digest)) {
+			byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+
+			while (inputStream.read(buffer) >= 0) {
+				// the digest is updated while reading
+			}
+		}
+
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private MessageDigest md5Digest() {
+		try {
+			return MessageDigest.getInstance(GOOGLEAPI.MD5_ALGORITHM);
+
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Return the remote folder id of the parent of a relative path, null if that folder is missing.
+	 */
+	private String parentId(String relativePath, String remoteFolderId, Map<String, File> remoteEntries) {
+		int separator = relativePath.lastIndexOf(PATH_SEPARATOR);
+
+		if (separator < 0) {
+			return remoteFolderId;
+		}
+
+		File parent = remoteEntries.get(relativePath.substring(0, separator));
+		return parent != null && this.isFolder(parent) ? parent.getId() : null;
+	}
+
+	private String relativePath(Path localDirectory, Path path) {
+		Path relativePath = localDirectory.relativize(path);
+
+		return Stream.iterate(0, i -> i < relativePath.getNameCount(), i -> i + 1)
+				.map(i -> relativePath.getName(i).toString())
+				.collect(Collectors.joining(PATH_SEPARATOR));
+	}
+
+	private boolean isFolder(File file) {
+		return GOOGLEAPI.FOLDER_MIME_TYPE.equals(file.getMimeType());
+	}
+
+	/**
+	 * Run an action for every relative path with up to parallelism workers, each one taking the next pending
+	 * path until none is left. Action failures are recorded by path without stopping the other actions.
+	 *
+	 * @param relativePaths
+	 * @param action
+	 * @param failures
+	 * @throws InterruptedIOException
+	 */
+	private void runAll(List<String> relativePaths, SyncAction action, Map<String, String> failures) throws InterruptedIOException {
+		AtomicInteger nextPath = new AtomicInteger();
+		List<Future<Void>> workers = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < Math.min(this.parallelism, relativePaths.size()); i++) {
+				workers.add(executor.submit(() -> {
+					for (int path = nextPath.getAndIncrement(); path < relativePaths.size(); path = nextPath.getAndIncrement()) {
+						try {
+							action.run(relativePaths.get(path));
+
+						} catch (InterruptedIOException e) {
+							throw e;
+
+						} catch (IOException e) {
+							failures.put(relativePaths.get(path), String.valueOf(e.getMessage()));
+						}
+					}
+
+					return null;
+				}));
+			}
+
+			for (Future<Void> worker : workers) {
+				this.await(worker, executor);
+			}
+		}
+	}
+
+	/**
+	 * Wait for a sync worker, cancelling the remaining workers if it was interrupted or failed unexpectedly.
+	 *
+	 * @param worker
+	 * @param executor
+	 * @throws InterruptedIOException
+	 */
+	private void await(Future<Void> worker, ExecutorService executor) throws InterruptedIOException {
+		try {
+			worker.get();
+
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+
+		} catch (ExecutionException e) {
+			executor.shutdownNow();
+
+			if (e.getCause() instanceof InterruptedIOException interruptedException) {
+				throw interruptedException;
+			}
+
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Upload of the content of a local file, either as a new Google Drive file or as the new content of an
+	 * existing one.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	@FunctionalInterface
+	public interface FileTransfer {
+
+		/**
+		 * Upload a local file.
+		 *
+		 * @param source
+		 * @param fileId id of the file to update, null to create a new file
+		 * @param fileMetadata metadata of the created file, or metadata changes of the updated file
+		 * @return uploaded {@link File}
+		 * @throws IOException
+		 */
+		File transfer(Path source, String fileId, File fileMetadata) throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface SyncAction {
+
+		void run(String relativePath) throws IOException;
+	}
+
+	/**
+	 * Remote file or folder with its path relative to the synchronized folder.
+	 *
+	 * @param relativePath
+	 * @param file
+	 */
+	private record RemoteEntry(String relativePath, File file) {
+	}
+
+	/**
+	 * Regular files and directories of the local tree by relative path, directories sorted by depth.
+	 *
+	 * @param files
+	 * @param folders
+	 */
+	private record LocalTree(Map<String, Path> files, Set<String> folders) {
+	}
+
+}
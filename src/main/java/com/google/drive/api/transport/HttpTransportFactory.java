@@ -0,0 +1,75 @@
+package com.google.drive.api.transport;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+
+import com.google.api.client.googleapis.GoogleUtils;
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import com.google.api.client.util.SslUtils;
+import com.google.drive.api.config.DriveTransportProperties;
+
+/**
+ * Factory of the {@link HttpTransport} sending the Google Drive requests, trusting the certificates of the
+ * Google trust store whatever the HTTP client.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public final class HttpTransportFactory {
+
+	private HttpTransportFactory() {
+
+	}
+
+	/**
+	 * Build the {@link HttpTransport} of a transport type, applying the connection pool settings to the
+	 * pooled ones.
+	 *
+	 * @param properties
+	 * @return {@link HttpTransport}
+	 * @throws GeneralSecurityException
+	 * @throws IOException
+	 */
+	public static HttpTransport create(DriveTransportProperties properties) throws GeneralSecurityException, IOException {
+		if (properties.getMaxConnections() < 1 || properties.getMaxConnectionsPerRoute() < 1 || properties.getIdleTimeout().isNegative()) {
+			throw new IllegalArgumentException("Invalid transport settings");
+		}
+
+		return switch (properties.getType()) {
+			case NET_HTTP -> GoogleNetHttpTransport.newTrustedTransport();
+			case APACHE -> newApacheTransport(properties, trustedSslContext());
+			case JDK -> new JdkHttpTransport(trustedSslContext(), properties.getMaxConnections(), properties.getMaxConnectionsPerRoute(),
+					properties.getConnectTimeout());
+		};
+	}
+
+	/**
+	 * Build an {@link ApacheHttpTransport} with a connection pool bounded by the properties, evicting idle
+	 * and expired connections in the background.
+	 *
+	 * @param properties
+	 * @param sslContext
+	 * @return {@link ApacheHttpTransport}
+	 */
+	private static ApacheHttpTransport newApacheTransport(DriveTransportProperties properties, SSLContext sslContext) {
+		return new ApacheHttpTransport(ApacheHttpTransport.newDefaultHttpClientBuilder()
+				.setSSLSocketFactory(new SSLConnectionSocketFactory(sslContext))
+				.setMaxConnTotal(properties.getMaxConnections())
+				.setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+				.evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+				.evictExpiredConnections()
+				.build());
+	}
+
+	private static SSLContext trustedSslContext() throws GeneralSecurityException, IOException {
+		return SslUtils.initSslContext(SslUtils.getTlsSslContext(), GoogleUtils.getCertificateTrustStore(), SslUtils.getPkixTrustManagerFactory());
+	}
+
+}
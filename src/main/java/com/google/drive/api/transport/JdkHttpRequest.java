@@ -0,0 +1,127 @@
+package com.google.drive.api.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.util.StreamingContent;
+
+/**
+ * Request of a {@link JdkHttpTransport}. The request body is written to memory before being sent, Google
+ * Drive uploads being sent in bounded chunks past the resumable threshold.
+ *
+ * @author leonardo.ramos
+ *
+ */
+final class JdkHttpRequest extends LowLevelHttpRequest {
+
+	private static final String CONTENT_TYPE_HEADER = "Content-Type";
+	private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+
+	/**
+	 * Headers set by the {@link java.net.http.HttpClient} itself, which rejects them.
+	 */
+	private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+	private final JdkHttpTransport transport;
+	private final String method;
+	private final URI uri;
+	private final List<String[]> headers = new ArrayList<>();
+	private Duration readTimeout;
+
+	JdkHttpRequest(JdkHttpTransport transport, String method, URI uri) {
+		this.transport = transport;
+		this.method = method;
+		this.uri = uri;
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+			this.headers.add(new String[] { name, value });
+		}
+	}
+
+	/**
+	 * Keep the read timeout, bounding the wait for the response headers. The connect timeout is set on the
+	 * {@link java.net.http.HttpClient}.
+	 */
+	@Override
+	public void setTimeout(int connectTimeout, int readTimeout) {
+		this.readTimeout = readTimeout > 0 ? Duration.ofMillis(readTimeout) : null;
+	}
+
+	@Override
+	public LowLevelHttpResponse execute() throws IOException {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(this.uri).method(this.method, this.bodyPublisher());
+
+		for (String[] header : this.headers) {
+			builder.header(header[0], header[1]);
+		}
+
+		if (this.getContentType() != null) {
+			builder.header(CONTENT_TYPE_HEADER, this.getContentType());
+		}
+
+		if (this.getContentEncoding() != null) {
+			builder.header(CONTENT_ENCODING_HEADER, this.getContentEncoding());
+		}
+
+		if (this.readTimeout != null) {
+			builder.timeout(this.readTimeout);
+		}
+
+		JdkHttpTransport.Lease lease = this.transport.acquire(this.uri);
+
+		try {
+			HttpResponse<InputStream> response = this.transport.getHttpClient().send(builder.build(), BodyHandlers.ofInputStream());
+			return new JdkHttpResponse(response, lease);
+
+		} catch (InterruptedException e) {
+			lease.release();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+
+		} catch (IOException | RuntimeException e) {
+			lease.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Write the request content to memory. {@link LowLevelHttpRequest} only hands the content over as a
+	 * {@link StreamingContent}, deprecated without any replacement accessor, hence the suppressed warning.
+	 *
+	 * @return {@link BodyPublisher} of the request content
+	 * @throws IOException
+	 */
+	@SuppressWarnings("deprecation")
+	private BodyPublisher bodyPublisher() throws IOException {
+		StreamingContent content = this.getStreamingContent();
+
+		if (content == null) {
+			return BodyPublishers.noBody();
+		}
+
+		long contentLength = this.getContentLength();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(contentLength > 0 && contentLength <= Integer.MAX_VALUE ? (int) contentLength : 32);
+		content.writeTo(outputStream);
+
+		return BodyPublishers.ofByteArray(outputStream.toByteArray());
+	}
+
+}
@@ -0,0 +1,151 @@
+package com.google.drive.api.transport;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.api.client.http.LowLevelHttpResponse;
+
+/**
+ * Response of a {@link JdkHttpTransport}, releasing the slot of its request once its body is fully read or
+ * closed.
+ *
+ * @author leonardo.ramos
+ *
+ */
+final class JdkHttpResponse extends LowLevelHttpResponse {
+
+	private static final String CONTENT_TYPE_HEADER = "content-type";
+	private static final String CONTENT_ENCODING_HEADER = "content-encoding";
+	private static final String CONTENT_LENGTH_HEADER = "content-length";
+
+	private final HttpResponse<InputStream> response;
+	private final List<String> headerNames = new ArrayList<>();
+	private final List<String> headerValues = new ArrayList<>();
+	private final InputStream content;
+
+	JdkHttpResponse(HttpResponse<InputStream> response, JdkHttpTransport.Lease lease) {
+		this.response = response;
+		this.content = new LeasedInputStream(response.body(), lease);
+
+		for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+			// HTTP/2 pseudo headers such as :status
+			if (header.getKey().startsWith(":")) {
+				continue;
+			}
+
+			for (String value : header.getValue()) {
+				this.headerNames.add(header.getKey());
+				this.headerValues.add(value);
+			}
+		}
+	}
+
+	@Override
+	public InputStream getContent() {
+		return this.content;
+	}
+
+	@Override
+	public String getContentEncoding() {
+		return this.response.headers().firstValue(CONTENT_ENCODING_HEADER).orElse(null);
+	}
+
+	@Override
+	public long getContentLength() {
+		return this.response.headers().firstValueAsLong(CONTENT_LENGTH_HEADER).orElse(-1);
+	}
+
+	@Override
+	public String getContentType() {
+		return this.response.headers().firstValue(CONTENT_TYPE_HEADER).orElse(null);
+	}
+
+	@Override
+	public String getStatusLine() {
+		return (this.response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2 " : "HTTP/1.1 ") + this.response.statusCode();
+	}
+
+	@Override
+	public int getStatusCode() {
+		return this.response.statusCode();
+	}
+
+	/**
+	 * Return null, the {@link java.net.http.HttpClient} not exposing reason phrases.
+	 */
+	@Override
+	public String getReasonPhrase() {
+		return null;
+	}
+
+	@Override
+	public int getHeaderCount() {
+		return this.headerNames.size();
+	}
+
+	@Override
+	public String getHeaderName(int index) {
+		return this.headerNames.get(index);
+	}
+
+	@Override
+	public String getHeaderValue(int index) {
+		return this.headerValues.get(index);
+	}
+
+	@Override
+	public void disconnect() throws IOException {
+		this.content.close();
+	}
+
+	/**
+	 * Response body releasing the slot of its request at its end.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	private static final class LeasedInputStream extends FilterInputStream {
+
+		private final JdkHttpTransport.Lease lease;
+
+		private LeasedInputStream(InputStream inputStream, JdkHttpTransport.Lease lease) {
+			super(inputStream);
+			this.lease = lease;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return this.released(super.read());
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			return this.released(super.read(buffer, offset, length));
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+
+			} finally {
+				this.lease.release();
+			}
+		}
+
+		private int released(int result) {
+			if (result < 0) {
+				this.lease.release();
+			}
+
+			return result;
+		}
+	}
+
+}
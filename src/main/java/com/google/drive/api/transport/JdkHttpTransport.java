@@ -0,0 +1,164 @@
+package com.google.drive.api.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.net.ssl.SSLContext;
+
+import com.google.api.client.http.HttpMethods;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+
+/**
+ * {@link HttpTransport} backed by a {@link HttpClient}, which multiplexes concurrent requests over HTTP/2
+ * connections when the server supports it and keeps HTTP/1.1 connections alive otherwise. Its responses
+ * are handled on virtual threads. As the {@link HttpClient} does not bound its connections, the requests
+ * in flight, whose response body is still open, are bounded in total and per route (scheme, host and
+ * port) instead. The idle timeout of pooled connections is not configurable per {@link HttpClient}, only
+ * JVM wide through the {@code jdk.httpclient.keepalive.timeout} system property, left to the application.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class JdkHttpTransport extends HttpTransport {
+
+	private static final Set<String> SUPPORTED_METHODS = Set.of(HttpMethods.DELETE, HttpMethods.GET, HttpMethods.HEAD, HttpMethods.OPTIONS,
+			HttpMethods.PATCH, HttpMethods.POST, HttpMethods.PUT);
+
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final HttpClient httpClient;
+	private final Semaphore connections;
+	private final int maxConnectionsPerRoute;
+	private final Map<String, Semaphore> routeConnections = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor with the SSL context, which may be null for the JDK default one, the maximum number of
+	 * requests in flight in total and per route, and the connect timeout.
+	 *
+	 * @param sslContext
+	 * @param maxConnections
+	 * @param maxConnectionsPerRoute
+	 * @param connectTimeout
+	 */
+	public JdkHttpTransport(SSLContext sslContext, int maxConnections, int maxConnectionsPerRoute, Duration connectTimeout) {
+		if (maxConnections < 1 || maxConnectionsPerRoute < 1 || connectTimeout.isNegative()) {
+			throw new IllegalArgumentException("Invalid transport settings");
+		}
+
+		HttpClient.Builder builder = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.executor(this.executor);
+
+		if (sslContext != null) {
+			builder.sslContext(sslContext);
+		}
+
+		if (!connectTimeout.isZero()) {
+			builder.connectTimeout(connectTimeout);
+		}
+
+		this.httpClient = builder.build();
+		this.connections = new Semaphore(maxConnections, true);
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean supportsMethod(String method) {
+		return SUPPORTED_METHODS.contains(method);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected LowLevelHttpRequest buildRequest(String method, String url) {
+		return new JdkHttpRequest(this, method, URI.create(url));
+	}
+
+	/**
+	 * Close the {@link HttpClient}, aborting the requests in flight.
+	 */
+	@Override
+	public void shutdown() {
+		this.httpClient.shutdownNow();
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Return the {@link HttpClient}.
+	 *
+	 * @return {@link HttpClient}
+	 */
+	public HttpClient getHttpClient() {
+		return this.httpClient;
+	}
+
+	/**
+	 * Wait until a request may be sent to the route of an uri.
+	 *
+	 * @param uri
+	 * @return {@link Lease} to release once the response body is closed
+	 * @throws InterruptedIOException
+	 */
+	Lease acquire(URI uri) throws InterruptedIOException {
+		Semaphore route = this.routeConnections.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(),
+				key -> new Semaphore(this.maxConnectionsPerRoute, true));
+
+		try {
+			this.connections.acquire();
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+
+		try {
+			route.acquire();
+
+		} catch (InterruptedException e) {
+			this.connections.release();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+
+		return new Lease(route);
+	}
+
+	/**
+	 * Slot of a request in flight, released once.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	final class Lease {
+
+		private final Semaphore route;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Lease(Semaphore route) {
+			this.route = route;
+		}
+
+		void release() {
+			if (this.released.compareAndSet(false, true)) {
+				this.route.release();
+				JdkHttpTransport.this.connections.release();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.google.drive.api.transport;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+
+/**
+ * Request initializer setting the connect and read timeouts of every Google Drive request, after the
+ * delegate initializer.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class TimeoutRequestInitializer implements HttpRequestInitializer {
+
+	private final HttpRequestInitializer delegate;
+	private final int connectTimeoutMillis;
+	private final int readTimeoutMillis;
+
+	/**
+	 * Constructor with the delegate initializer, which may be null, and the connect and read timeouts, zero
+	 * for none.
+	 *
+	 * @param delegate
+	 * @param connectTimeout
+	 * @param readTimeout
+	 */
+	public TimeoutRequestInitializer(HttpRequestInitializer delegate, Duration connectTimeout, Duration readTimeout) {
+		if (connectTimeout.isNegative() || readTimeout.isNegative()) {
+			throw new IllegalArgumentException("Invalid transport settings");
+		}
+
+		this.delegate = delegate;
+		this.connectTimeoutMillis = (int) Math.min(Integer.MAX_VALUE, connectTimeout.toMillis());
+		this.readTimeoutMillis = (int) Math.min(Integer.MAX_VALUE, readTimeout.toMillis());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void initialize(HttpRequest request) throws IOException {
+		if (this.delegate != null) {
+			this.delegate.initialize(request);
+		}
+
+		request.setConnectTimeout(this.connectTimeoutMillis);
+		request.setReadTimeout(this.readTimeoutMillis);
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.google.drive.api.transport;
+
+/**
+ * HTTP client sending the Google Drive requests.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public enum TransportType {
+
+	/**
+	 * {@link java.net.HttpURLConnection}, relying on the JDK keep-alive cache (a few idle connections per
+	 * host, sized by the {@code http.maxConnections} system property) to reuse connections.
+	 */
+	NET_HTTP,
+
+	/**
+	 * Apache HttpClient with a connection pool bounded in total and per route, evicting idle connections.
+	 */
+	APACHE,
+
+	/**
+	 * {@link java.net.http.HttpClient}, multiplexing concurrent requests over HTTP/2 connections when the
+	 * server supports it and pooling HTTP/1.1 connections otherwise.
+	 */
+	JDK
+}
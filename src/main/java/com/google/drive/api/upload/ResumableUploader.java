@@ -0,0 +1,368 @@
+package com.google.drive.api.upload;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import com.google.api.client.http.ByteArrayContent;
+import com.google.api.client.http.EmptyContent;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.DriveApiConstants.MSGERROR;
+import com.google.drive.api.exception.GoogleApiGeneralErrorException;
+import com.google.drive.api.upload.UploadJournal.UploadSession;
+
+/**
+ * Chunked uploader implementing the Google Drive resumable upload protocol. The upload session uri and the
+ * offset confirmed after every chunk are saved in an {@link UploadJournal}, so a failed upload resumes from
+ * the last acknowledged byte, whether retried right away or after a process restart.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class ResumableUploader {
+
+	private static final int CHUNK_GRANULARITY = 256 * 1024;
+	private static final int STATUS_CODE_RESUME_INCOMPLETE = 308;
+	private static final String UPLOAD_TYPE_PARAM = "uploadType";
+	private static final String FIELDS_PARAM = "fields";
+	private static final String RESUMABLE_UPLOAD_TYPE = "resumable";
+	private static final String UPLOAD_CONTENT_TYPE_HEADER = "X-Upload-Content-Type";
+	private static final String UPLOAD_CONTENT_LENGTH_HEADER = "X-Upload-Content-Length";
+
+	private final long resumableThreshold;
+	private final int chunkSize;
+	private final int maxRetries;
+	private final UploadJournal uploadJournal;
+
+	/**
+	 * Default constructor.
+	 */
+	public ResumableUploader() {
+		this(GOOGLEAPI.DEFAULT_UPLOAD_RESUMABLE_THRESHOLD, GOOGLEAPI.DEFAULT_UPLOAD_CHUNK_SIZE, GOOGLEAPI.DEFAULT_UPLOAD_MAX_RETRIES, new UploadJournal());
+	}
+
+	/**
+	 * Constructor with the file size from which uploads are resumable, the chunk size (rounded to a multiple
+	 * of 256 KiB as required by Google Drive), retries per upload and the upload journal.
+	 *
+	 * @param resumableThreshold
+	 * @param chunkSize
+	 * @param maxRetries
+	 * @param uploadJournal
+	 */
+	public ResumableUploader(long resumableThreshold, int chunkSize, int maxRetries, UploadJournal uploadJournal) {
+		if (chunkSize < 1 || maxRetries < 0) {
+			throw new IllegalArgumentException("Invalid resumable upload settings");
+		}
+
+		this.resumableThreshold = resumableThreshold;
+		this.chunkSize = Math.max(CHUNK_GRANULARITY, chunkSize / CHUNK_GRANULARITY * CHUNK_GRANULARITY);
+		this.maxRetries = maxRetries;
+		this.uploadJournal = uploadJournal;
+	}
+
+	/**
+	 * Verify if a file of given size should be uploaded through a resumable session, smaller files being
+	 * uploaded in a single request.
+	 *
+	 * @param size
+	 * @return true if resumable false otherwise
+	 */
+	public boolean isResumable(long size) {
+		return size > this.resumableThreshold;
+	}
+
+	/**
+	 * Return the chunk size, in bytes.
+	 *
+	 * @return chunk size
+	 */
+	public int getChunkSize() {
+		return this.chunkSize;
+	}
+
+	/**
+	 * Upload a local file as a new Google Drive file, resuming a previous session of the same upload when
+	 * one is found in the journal. Fails with a {@link GoogleApiGeneralErrorException}, without retrying, when
+	 * Google Drive starts a session without answering its uri.
+	 *
+	 * @param driveService
+	 * @param fileMetadata
+	 * @param mimeType
+	 * @param source
+	 * @param fields
+	 * @return uploaded {@link File}
+	 * @throws IOException
+	 */
+	public File upload(Drive driveService, File fileMetadata, String mimeType, Path source, String fields) throws IOException {
+		long size = Files.size(source);
+		String uploadKey = this.uploadKey(fileMetadata, source, size);
+
+		try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+			for (int attempt = 0; ; attempt++) {
+				try {
+					Optional<File> uploadedFile = this.resume(driveService, uploadKey, size, mimeType, channel);
+
+					if (uploadedFile.isEmpty()) {
+						UploadSession uploadSession = this.startSession(driveService, fileMetadata, mimeType, size, fields);
+						this.uploadJournal.save(uploadKey, uploadSession);
+
+						uploadedFile = this.uploadChunks(driveService, uploadKey, uploadSession, size, mimeType, channel);
+					}
+
+					this.uploadJournal.remove(uploadKey);
+
+					return uploadedFile.orElseThrow(() -> new IOException(MSGERROR.DRIVE_UPLOAD_ERROR));
+
+				} catch (IOException e) {
+					if (attempt >= this.maxRetries || !this.isRetryable(e)) {
+						throw e;
+					}
+
+					this.sleep(GOOGLEAPI.DEFAULT_UPLOAD_RETRY_DELAY_MILLIS * (attempt + 1));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resume the journaled session of an upload, if any, from the offset currently confirmed by Google Drive.
+	 * Expired sessions, no longer known by Google Drive, are dropped from the journal.
+	 *
+	 * @param driveService
+	 * @param uploadKey
+	 * @param size
+	 * @param mimeType
+	 * @param channel
+	 * @return uploaded file, empty if there was no session to resume
+	 * @throws IOException
+	 */
+	private Optional<File> resume(Drive driveService, String uploadKey, long size, String mimeType, FileChannel channel) throws IOException {
+		Optional<UploadSession> journaledSession = this.uploadJournal.find(uploadKey);
+
+		if (journaledSession.isEmpty()) {
+			return Optional.empty();
+		}
+
+		UploadSession uploadSession = journaledSession.get();
+		HttpResponse response = this.put(driveService, uploadSession.sessionUri(), new EmptyContent(), "bytes */" + size);
+
+		try {
+			if (response.isSuccessStatusCode()) {
+				return Optional.of(response.parseAs(File.class));
+			}
+
+			if (response.getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_FOUND || response.getStatusCode() == GOOGLEAPI.GONE_STATUS_CODE) {
+				this.uploadJournal.remove(uploadKey);
+				return Optional.empty();
+			}
+
+			if (response.getStatusCode() != STATUS_CODE_RESUME_INCOMPLETE) {
+				throw new HttpResponseException(response);
+			}
+
+			uploadSession = uploadSession.withConfirmedOffset(this.confirmedOffset(response));
+
+		} finally {
+			response.disconnect();
+		}
+
+		this.uploadJournal.save(uploadKey, uploadSession);
+
+		return this.uploadChunks(driveService, uploadKey, uploadSession, size, mimeType, channel);
+	}
+
+	/**
+	 * Start a new resumable upload session with the file metadata.
+	 *
+	 * @param driveService
+	 * @param fileMetadata
+	 * @param mimeType
+	 * @param size
+	 * @param fields
+	 * @return {@link UploadSession}
+	 * @throws IOException
+	 */
+	private UploadSession startSession(Drive driveService, File fileMetadata, String mimeType, long size, String fields) throws IOException {
+		GenericUrl url = new GenericUrl(driveService.getRootUrl() + GOOGLEAPI.UPLOAD_PATH + driveService.getServicePath() + GOOGLEAPI.UPLOAD_FILES_RESOURCE);
+		url.set(UPLOAD_TYPE_PARAM, RESUMABLE_UPLOAD_TYPE);
+		url.set(FIELDS_PARAM, fields);
+
+		HttpRequest request = driveService.getRequestFactory()
+				.buildPostRequest(url, new JsonHttpContent(driveService.getJsonFactory(), fileMetadata));
+		request.getHeaders().set(UPLOAD_CONTENT_TYPE_HEADER, mimeType);
+		request.getHeaders().set(UPLOAD_CONTENT_LENGTH_HEADER, size);
+
+		HttpResponse response = request.execute();
+
+		try {
+			String sessionUri = response.getHeaders().getLocation();
+
+			if (sessionUri == null) {
+				throw new GoogleApiGeneralErrorException(MSGERROR.DRIVE_UPLOAD_SESSION_ERROR);
+			}
+
+			return new UploadSession(sessionUri, 0, Instant.now());
+
+		} finally {
+			response.disconnect();
+		}
+	}
+
+	/**
+	 * Upload the chunks of a file from the session confirmed offset, saving the offset confirmed after each
+	 * chunk.
+	 *
+	 * @param driveService
+	 * @param uploadKey
+	 * @param uploadSession
+	 * @param size
+	 * @param mimeType
+	 * @param channel
+	 * @return uploaded file
+	 * @throws IOException
+	 */
+	private Optional<File> uploadChunks(Drive driveService, String uploadKey, UploadSession uploadSession, long size, String mimeType,
+			FileChannel channel) throws IOException {
+
+		while (true) {
+			long offset = uploadSession.confirmedOffset();
+			byte[] chunk = this.readChunk(channel, offset, (int) Math.min(this.chunkSize, size - offset));
+			String contentRange = chunk.length == 0
+					? "bytes */" + size
+					: "bytes " + offset + "-" + (offset + chunk.length - 1) + "/" + size;
+
+			HttpResponse response = this.put(driveService, uploadSession.sessionUri(), new ByteArrayContent(mimeType, chunk), contentRange);
+
+			try {
+				if (response.isSuccessStatusCode()) {
+					return Optional.of(response.parseAs(File.class));
+				}
+
+				if (response.getStatusCode() != STATUS_CODE_RESUME_INCOMPLETE) {
+					throw new HttpResponseException(response);
+				}
+
+				uploadSession = uploadSession.withConfirmedOffset(this.confirmedOffset(response));
+
+			} finally {
+				response.disconnect();
+			}
+
+			this.uploadJournal.save(uploadKey, uploadSession);
+		}
+	}
+
+	private HttpResponse put(Drive driveService, String sessionUri, HttpContent content, String contentRange) throws IOException {
+		HttpRequest request = driveService.getRequestFactory().buildPutRequest(new GenericUrl(sessionUri), content);
+		request.getHeaders().setContentRange(contentRange);
+		request.setParser(driveService.getObjectParser());
+		request.setThrowExceptionOnExecuteError(false);
+		request.setFollowRedirects(false);
+
+		return request.execute();
+	}
+
+	/**
+	 * Return the number of bytes confirmed by an incomplete upload response, from its {@code Range} header.
+	 *
+	 * @param response
+	 * @return confirmed offset
+	 */
+	private long confirmedOffset(HttpResponse response) {
+		String range = response.getHeaders().getRange();
+
+		if (range == null) {
+			return 0;
+		}
+
+		return Long.parseLong(range.substring(range.indexOf('-') + 1)) + 1;
+	}
+
+	private byte[] readChunk(FileChannel channel, long offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+
+		while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) >= 0) {
+			// keep reading until the chunk is full or the file ends
+		}
+
+		return buffer.array();
+	}
+
+	/**
+	 * Build the key identifying an upload in the journal, from its destination, the parent folders and name
+	 * of the file, and the source file path, size and last modification time. Uploads of the same source to
+	 * different destinations thus never share a session, and a changed source never resumes a previous one.
+	 *
+	 * @param fileMetadata
+	 * @param source
+	 * @param size
+	 * @return upload key
+	 * @throws IOException
+	 */
+	private String uploadKey(File fileMetadata, Path source, long size) throws IOException {
+		List<String> parentFolderIds = Optional.ofNullable(fileMetadata.getParents()).orElse(List.of());
+
+		String uploadIdentity = String.join("\n", String.join(",", parentFolderIds), String.valueOf(fileMetadata.getName()),
+				source.toAbsolutePath().toString(), Long.toString(size), Files.getLastModifiedTime(source).toString());
+
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance(GOOGLEAPI.SHA256_ALGORITHM)
+					.digest(uploadIdentity.getBytes(StandardCharsets.UTF_8)));
+
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Verify if a failed upload may succeed when retried: any I/O failure, except for client errors other
+	 * than rate limiting.
+	 *
+	 * @param e
+	 * @return true if retryable false otherwise
+	 */
+	private boolean isRetryable(IOException e) {
+		if (e instanceof InterruptedIOException) {
+			return false;
+		}
+
+		if (e instanceof HttpResponseException responseException) {
+			int statusCode = responseException.getStatusCode();
+			return statusCode == GOOGLEAPI.TOO_MANY_REQUESTS_STATUS_CODE || statusCode >= HttpStatusCodes.STATUS_CODE_SERVER_ERROR;
+		}
+
+		return true;
+	}
+
+	private void sleep(long millis) throws InterruptedIOException {
+		try {
+			Thread.sleep(millis);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+	}
+
+}
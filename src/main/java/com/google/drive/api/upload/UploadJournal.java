@@ -0,0 +1,170 @@
+package com.google.drive.api.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Properties;
+
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+
+/**
+ * Journal of resumable upload sessions persisted on disk, one file per upload, holding the session uri and
+ * the last offset confirmed by Google Drive so an interrupted upload may resume after a retry or a process
+ * restart. Sessions older than the Google Drive session lifetime are discarded.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class UploadJournal {
+
+	private static final String SESSION_URI = "sessionUri";
+	private static final String CONFIRMED_OFFSET = "confirmedOffset";
+	private static final String CREATED_AT = "createdAt";
+	private static final String JOURNAL_FILE_SUFFIX = ".properties";
+
+	private final Path directory;
+	private final Duration sessionTtl;
+
+	/**
+	 * Default constructor, keeping the journal under the temporary directory.
+	 */
+	public UploadJournal() {
+		this(Path.of(System.getProperty("java.io.tmpdir"), GOOGLEAPI.DEFAULT_UPLOAD_JOURNAL_DIRECTORY));
+	}
+
+	/**
+	 * Constructor with the journal directory.
+	 *
+	 * @param directory
+	 */
+	public UploadJournal(Path directory) {
+		this(directory, Duration.ofDays(GOOGLEAPI.UPLOAD_SESSION_TTL_DAYS));
+	}
+
+	/**
+	 * Constructor with the journal directory and the upload session lifetime.
+	 *
+	 * @param directory
+	 * @param sessionTtl
+	 */
+	public UploadJournal(Path directory, Duration sessionTtl) {
+		this.directory = directory;
+		this.sessionTtl = sessionTtl;
+	}
+
+	/**
+	 * Return the upload session saved for an upload key, if present and not expired.
+	 *
+	 * @param uploadKey
+	 * @return {@link Optional<UploadSession>} upload session
+	 */
+	public Optional<UploadSession> find(String uploadKey) {
+		Path journalFile = this.journalFile(uploadKey);
+
+		if (!Files.exists(journalFile)) {
+			return Optional.empty();
+		}
+
+		Properties properties = new Properties();
+
+		try (InputStream inputStream = Files.newInputStream(journalFile)) {
+			properties.load(inputStream);
+
+			UploadSession uploadSession = new UploadSession(properties.getProperty(SESSION_URI),
+					Long.parseLong(properties.getProperty(CONFIRMED_OFFSET)),
+					Instant.ofEpochMilli(Long.parseLong(properties.getProperty(CREATED_AT))));
+
+			if (uploadSession.createdAt().plus(this.sessionTtl).isBefore(Instant.now())) {
+				this.remove(uploadKey);
+				return Optional.empty();
+			}
+
+			return Optional.of(uploadSession);
+
+		} catch (IOException | RuntimeException e) {
+			this.remove(uploadKey);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Save the upload session of an upload key, replacing any previous one.
+	 *
+	 * @param uploadKey
+	 * @param uploadSession
+	 * @throws IOException
+	 */
+	public void save(String uploadKey, UploadSession uploadSession) throws IOException {
+		Files.createDirectories(this.directory);
+
+		Properties properties = new Properties();
+		properties.setProperty(SESSION_URI, uploadSession.sessionUri());
+		properties.setProperty(CONFIRMED_OFFSET, Long.toString(uploadSession.confirmedOffset()));
+		properties.setProperty(CREATED_AT, Long.toString(uploadSession.createdAt().toEpochMilli()));
+
+		Path temporaryFile = Files.createTempFile(this.directory, uploadKey, null);
+
+		try {
+			try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+				properties.store(outputStream, null);
+			}
+
+			try {
+				Files.move(temporaryFile, this.journalFile(uploadKey), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile, this.journalFile(uploadKey), StandardCopyOption.REPLACE_EXISTING);
+			}
+
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	/**
+	 * Remove the upload session of an upload key.
+	 *
+	 * @param uploadKey
+	 */
+	public void remove(String uploadKey) {
+		try {
+			Files.deleteIfExists(this.journalFile(uploadKey));
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Path journalFile(String uploadKey) {
+		return this.directory.resolve(uploadKey + JOURNAL_FILE_SUFFIX);
+	}
+
+	/**
+	 * Resumable upload session.
+	 *
+	 * @param sessionUri
+	 * @param confirmedOffset number of bytes confirmed by Google Drive
+	 * @param createdAt
+	 */
+	public record UploadSession(String sessionUri, long confirmedOffset, Instant createdAt) {
+
+		/**
+		 * Return a copy of this session with a new confirmed offset.
+		 *
+		 * @param confirmedOffset
+		 * @return {@link UploadSession}
+		 */
+		public UploadSession withConfirmedOffset(long confirmedOffset) {
+			return new UploadSession(this.sessionUri, confirmedOffset, this.createdAt);
+		}
+	}
+
+}
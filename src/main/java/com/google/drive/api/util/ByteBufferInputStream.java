@@ -0,0 +1,78 @@
+package com.google.drive.api.util;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Input stream reading the remaining bytes of a {@link ByteBuffer}, heap or direct, without copying them
+ * into an intermediate array. Reading advances the buffer position.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class ByteBufferInputStream extends InputStream {
+
+	private final ByteBuffer buffer;
+	private int mark = -1;
+
+	/**
+	 * Constructor with the buffer to be read.
+	 *
+	 * @param buffer
+	 */
+	public ByteBufferInputStream(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	@Override
+	public int read() {
+		return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) {
+		if (len == 0) {
+			return 0;
+		}
+
+		if (!this.buffer.hasRemaining()) {
+			return -1;
+		}
+
+		int length = Math.min(len, this.buffer.remaining());
+		this.buffer.get(b, off, length);
+
+		return length;
+	}
+
+	@Override
+	public long skip(long n) {
+		int length = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+		this.buffer.position(this.buffer.position() + length);
+
+		return length;
+	}
+
+	@Override
+	public int available() {
+		return this.buffer.remaining();
+	}
+
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+
+	@Override
+	public synchronized void mark(int readLimit) {
+		this.mark = this.buffer.position();
+	}
+
+	@Override
+	public synchronized void reset() {
+		if (this.mark >= 0) {
+			this.buffer.position(this.mark);
+		}
+	}
+
+}
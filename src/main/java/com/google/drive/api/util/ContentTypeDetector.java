@@ -0,0 +1,162 @@
+package com.google.drive.api.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.tika.Tika;
+
+/**
+ * Thread safe content type detector sharing a single {@link Tika} instance. Files with an unambiguous
+ * extension are resolved from their name alone, skipping any read, while other files are sniffed from a
+ * prefix of their content. Results are cached per extension and per extension and content prefix.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class ContentTypeDetector {
+
+	private static final int SNIFF_LENGTH = 8 * 1024;
+	private static final int CACHE_KEY_PREFIX_LENGTH = 16;
+	private static final int MAX_CACHE_SIZE = 4096;
+	private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+	/**
+	 * Extensions whose content type never depends on the file content.
+	 */
+	private static final Set<String> UNAMBIGUOUS_EXTENSIONS = Set.of("pdf", "png", "jpg", "jpeg", "gif", "webp", "bmp", "tif", "tiff",
+			"svg", "ico", "mp3", "mp4", "m4a", "wav", "ogg", "webm", "avi", "mov", "csv", "tsv", "txt", "json", "html", "htm", "css", "js",
+			"md", "gz", "tar", "7z", "rar", "docx", "xlsx", "pptx", "doc", "xls", "ppt", "odt", "ods", "odp", "rtf", "epub");
+
+	private final Tika tika = new Tika();
+	private final Map<String, String> extensionContentTypes = new ConcurrentHashMap<>();
+	private final Map<String, String> prefixContentTypes = new ConcurrentHashMap<>();
+
+	/**
+	 * Detect the content type of a file.
+	 *
+	 * @param file
+	 * @return content type
+	 * @throws IOException
+	 */
+	public String detect(Path file) throws IOException {
+		String fileName = String.valueOf(file.getFileName());
+		String extension = this.extension(fileName);
+
+		if (UNAMBIGUOUS_EXTENSIONS.contains(extension)) {
+			return this.detectByExtension(extension);
+		}
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer prefix = ByteBuffer.allocate((int) Math.min(SNIFF_LENGTH, channel.size()));
+
+			while (prefix.hasRemaining() && channel.read(prefix) >= 0) {
+				// keep reading until the prefix is full or the file ends
+			}
+
+			return this.detectByPrefix(prefix.array(), fileName, extension);
+		}
+	}
+
+	/**
+	 * Detect the content type of a stream, peeking at its first bytes. The stream must support mark and
+	 * reset, and is left at its current position.
+	 *
+	 * @param content
+	 * @param fileName
+	 * @return content type
+	 * @throws IOException
+	 */
+	public String detect(InputStream content, String fileName) throws IOException {
+		String extension = this.extension(fileName);
+
+		if (UNAMBIGUOUS_EXTENSIONS.contains(extension)) {
+			return this.detectByExtension(extension);
+		}
+
+		content.mark(SNIFF_LENGTH);
+
+		try {
+			return this.detectByPrefix(content.readNBytes(SNIFF_LENGTH), fileName, extension);
+
+		} finally {
+			content.reset();
+		}
+	}
+
+	/**
+	 * Return the number of cached detection results.
+	 *
+	 * @return cache size
+	 */
+	public int cacheSize() {
+		return this.extensionContentTypes.size() + this.prefixContentTypes.size();
+	}
+
+	private String detectByExtension(String extension) {
+		return this.cached(this.extensionContentTypes, extension, () -> this.tika.detect("file." + extension));
+	}
+
+	/**
+	 * Detect a content type from a content prefix and the file name. Only binary signature results are cached,
+	 * as text, xml or unknown results may depend on bytes beyond the cache key prefix.
+	 */
+	private String detectByPrefix(byte[] prefix, String fileName, String extension) {
+		String cacheKey = extension + ":" + HexFormat.of().formatHex(Arrays.copyOf(prefix, Math.min(prefix.length, CACHE_KEY_PREFIX_LENGTH)));
+		String contentType = this.prefixContentTypes.get(cacheKey);
+
+		if (contentType != null) {
+			return contentType;
+		}
+
+		contentType = this.tika.detect(prefix, fileName);
+
+		if (contentType == null) {
+			return DEFAULT_CONTENT_TYPE;
+		}
+
+		if (prefix.length >= CACHE_KEY_PREFIX_LENGTH && !this.isGeneric(contentType) && this.prefixContentTypes.size() < MAX_CACHE_SIZE) {
+			this.prefixContentTypes.put(cacheKey, contentType);
+		}
+
+		return contentType;
+	}
+
+	private String cached(Map<String, String> cache, String key, Supplier<String> detection) {
+		String contentType = cache.get(key);
+
+		if (contentType == null) {
+			contentType = detection.get();
+
+			if (cache.size() < MAX_CACHE_SIZE) {
+				cache.put(key, contentType);
+			}
+		}
+
+		return contentType;
+	}
+
+	private boolean isGeneric(String contentType) {
+		return DEFAULT_CONTENT_TYPE.equals(contentType) || contentType.startsWith("text/") || contentType.endsWith("xml");
+	}
+
+	private String extension(String fileName) {
+		if (fileName == null) {
+			return "";
+		}
+
+		int separator = fileName.lastIndexOf('.');
+		return separator < 0 ? "" : fileName.substring(separator + 1).toLowerCase(Locale.ROOT);
+	}
+
+}
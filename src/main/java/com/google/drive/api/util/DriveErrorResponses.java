@@ -0,0 +1,63 @@
+package com.google.drive.api.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+
+/**
+ * Classification of Google Drive error responses.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public final class DriveErrorResponses {
+
+	private static final int ERROR_PEEK_LENGTH = 8 * 1024;
+
+	private DriveErrorResponses() {
+
+	}
+
+	/**
+	 * Verify if a response is a rate limit response: {@code 429}, or {@code 403} with a rate limit reason. The
+	 * reason is peeked from the start of the error body, which is left unread for the error parsing.
+	 *
+	 * @param response
+	 * @return true if rate limited false otherwise
+	 */
+	public static boolean isRateLimited(HttpResponse response) {
+		if (response.getStatusCode() == GOOGLEAPI.TOO_MANY_REQUESTS_STATUS_CODE) {
+			return true;
+		}
+
+		if (response.getStatusCode() != HttpStatusCodes.STATUS_CODE_FORBIDDEN) {
+			return false;
+		}
+
+		try {
+			InputStream content = response.getContent();
+
+			if (content == null || !content.markSupported()) {
+				return false;
+			}
+
+			content.mark(ERROR_PEEK_LENGTH);
+
+			try {
+				String error = new String(content.readNBytes(ERROR_PEEK_LENGTH), StandardCharsets.UTF_8);
+				return GOOGLEAPI.RATE_LIMIT_REASONS.stream().anyMatch(reason -> error.contains("\"" + reason + "\""));
+
+			} finally {
+				content.reset();
+			}
+
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+}
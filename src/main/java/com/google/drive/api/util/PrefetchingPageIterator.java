@@ -0,0 +1,161 @@
+package com.google.drive.api.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy iterator over the items of a paginated listing. While the caller works through a page, the next page
+ * is fetched in the background on a virtual thread, so at most the current page and the next one are held in
+ * memory. Failures fetching a page are thrown as {@link UncheckedIOException} when the iteration reaches it.
+ *
+ * @author leonardo.ramos
+ *
+ * @param <T> item type
+ */
+public class PrefetchingPageIterator<T> implements Iterator<T>, AutoCloseable {
+
+	private final PageFetcher<T> pageFetcher;
+	private Iterator<T> currentPage;
+	private CompletableFuture<Page<T>> nextPage;
+	private volatile boolean closed;
+
+	/**
+	 * Constructor with the first page, already fetched, and the fetcher of the following pages.
+	 *
+	 * @param firstPage
+	 * @param pageFetcher
+	 */
+	public PrefetchingPageIterator(Page<T> firstPage, PageFetcher<T> pageFetcher) {
+		this.pageFetcher = pageFetcher;
+		this.currentPage = firstPage.items().iterator();
+		this.nextPage = this.prefetch(firstPage.nextPageToken());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasNext() {
+		while (!this.currentPage.hasNext()) {
+			if (this.nextPage == null || this.closed) {
+				return false;
+			}
+
+			Page<T> page = this.await(this.nextPage);
+			this.currentPage = page.items().iterator();
+			this.nextPage = this.prefetch(page.nextPageToken());
+		}
+
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public T next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		return this.currentPage.next();
+	}
+
+	/**
+	 * Return a sequential stream over the remaining items, stopping the prefetch when closed.
+	 *
+	 * @return {@link Stream}
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(this::close);
+	}
+
+	/**
+	 * Stop fetching pages. A page fetch already in flight completes and is discarded.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		this.currentPage = Collections.emptyIterator();
+	}
+
+	private CompletableFuture<Page<T>> prefetch(String pageToken) {
+		if (pageToken == null || pageToken.isEmpty() || this.closed) {
+			return null;
+		}
+
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return this.pageFetcher.fetch(pageToken);
+
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		}, task -> Thread.ofVirtual().name("google-drive-page-prefetch").start(task));
+	}
+
+	private Page<T> await(CompletableFuture<Page<T>> page) {
+		try {
+			return page.get();
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedIOException(new InterruptedIOException(e.getMessage()));
+
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw new UncheckedIOException(ioException);
+			}
+
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Page of a listing.
+	 *
+	 * @param <T> item type
+	 * @param items
+	 * @param nextPageToken token of the next page, null on the last page
+	 */
+	public record Page<T>(List<T> items, String nextPageToken) {
+	}
+
+	/**
+	 * Fetcher of a page for a page token.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 * @param <T> item type
+	 */
+	@FunctionalInterface
+	public interface PageFetcher<T> {
+
+		/**
+		 * Fetch the page of a page token.
+		 *
+		 * @param pageToken
+		 * @return {@link Page}
+		 * @throws IOException
+		 */
+		Page<T> fetch(String pageToken) throws IOException;
+	}
+
+}
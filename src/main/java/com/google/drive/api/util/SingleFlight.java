@@ -0,0 +1,104 @@
+package com.google.drive.api.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesce concurrent executions of the same keyed call: the first caller runs the call while every
+ * concurrent caller with the same key waits for and shares its result (or its failure).
+ *
+ * @author leonardo.ramos
+ *
+ * @param <K> call key type
+ * @param <V> call result type
+ */
+public class SingleFlight<K, V> {
+
+	private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Execute a call unless another call with the same key is already in flight, in which case its result is
+	 * returned instead.
+	 *
+	 * @param key
+	 * @param call
+	 * @return call result
+	 * @throws IOException
+	 */
+	public V execute(K key, Call<V> call) throws IOException {
+		CompletableFuture<V> flight = new CompletableFuture<>();
+		CompletableFuture<V> leaderFlight = this.inFlight.putIfAbsent(key, flight);
+
+		if (leaderFlight != null) {
+			return this.await(leaderFlight);
+		}
+
+		try {
+			V result = call.execute();
+			flight.complete(result);
+			return result;
+
+		} catch (IOException | RuntimeException | Error e) {
+			flight.completeExceptionally(e);
+			throw e;
+
+		} finally {
+			this.inFlight.remove(key, flight);
+		}
+	}
+
+	/**
+	 * Return the number of calls currently in flight.
+	 *
+	 * @return number of calls in flight
+	 */
+	public int size() {
+		return this.inFlight.size();
+	}
+
+	/**
+	 * Wait for the result of a call executed by another caller, rethrowing its failure.
+	 *
+	 * @param leaderFlight
+	 * @return call result
+	 * @throws IOException
+	 */
+	private V await(CompletableFuture<V> leaderFlight) throws IOException {
+		try {
+			return leaderFlight.get();
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+
+			if (cause instanceof IOException ioException) {
+				throw ioException;
+			}
+
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+
+			throw (Error) cause;
+		}
+	}
+
+	/**
+	 * Call executed by the single flight.
+	 *
+	 * @param <V> call result type
+	 */
+	@FunctionalInterface
+	public interface Call<V> {
+
+		V execute() throws IOException;
+	}
+
+}
@@ -0,0 +1,402 @@
+package com.google.drive.api.walk;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.domain.DriveTreeEntry;
+
+/**
+ * Walker listing every file and folder below a Google Drive folder, level by level. The folders of a level
+ * are grouped so that a single query lists the children of many parents through OR-ed
+ * {@code 'id' in parents} clauses, and up to parallelism queries run concurrently on virtual threads.
+ * Entries are streamed to the caller as soon as they are listed, through a bounded queue that pauses the
+ * walk when the caller falls behind.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class TreeWalker {
+
+	private static final int QUEUE_CAPACITY = 10000;
+	private static final Duration ABANDONED_WALK_TIMEOUT = Duration.ofMinutes(1);
+	private static final Duration WALKER_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+	private final int parallelism;
+	private final int parentsPerQuery;
+	private final int queueCapacity;
+
+	/**
+	 * Default constructor.
+	 */
+	public TreeWalker() {
+		this(GOOGLEAPI.DEFAULT_TREE_WALK_PARALLELISM, GOOGLEAPI.DEFAULT_TREE_WALK_PARENTS_PER_QUERY);
+	}
+
+	/**
+	 * Constructor with the number of queries run concurrently and the number of parent folders per query.
+	 *
+	 * @param parallelism
+	 * @param parentsPerQuery
+	 */
+	public TreeWalker(int parallelism, int parentsPerQuery) {
+		this(parallelism, parentsPerQuery, QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Constructor with the number of queries run concurrently, the number of parent folders per query and the
+	 * number of listed entries held for the caller before the walk pauses.
+	 *
+	 * @param parallelism
+	 * @param parentsPerQuery
+	 * @param queueCapacity
+	 */
+	public TreeWalker(int parallelism, int parentsPerQuery, int queueCapacity) {
+		if (parallelism < 1 || parentsPerQuery < 1 || queueCapacity < 1) {
+			throw new IllegalArgumentException("Invalid tree walk settings");
+		}
+
+		this.parallelism = parallelism;
+		this.parentsPerQuery = parentsPerQuery;
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Walk the tree below a folder. The walk runs in the background while the returned stream is consumed;
+	 * closing the stream stops it. Listing failures are thrown as {@link UncheckedIOException} during the
+	 * iteration, and runtime failures, such as those of the file mapper, as they were thrown.
+	 *
+	 * @param driveService
+	 * @param rootFolderId
+	 * @param fileMapper conversion of Google Drive file data into a {@link DriveFile}
+	 * @return {@link Stream<DriveTreeEntry>} files and folders below the root folder
+	 */
+	public Stream<DriveTreeEntry> walk(Drive driveService, String rootFolderId, Function<File, DriveFile> fileMapper) {
+		return this.walk(driveService, rootFolderId, GOOGLEAPI.TREE_QUERY_FIELDS, (file, path) -> DriveTreeEntry.builder()
+				.driveFile(fileMapper.apply(file))
+				.path(path)
+				.folder(this.isFolder(file))
+				.build());
+	}
+
+	/**
+	 * Walk the tree below a folder, requesting given file fields, which must include the id, name, parents
+	 * and mimeType of the files, and mapping every file with its path relative to the root folder.
+	 *
+	 * @param driveService
+	 * @param rootFolderId
+	 * @param fields
+	 * @param entryMapper
+	 * @return {@link Stream} of mapped files and folders below the root folder
+	 */
+	public <T> Stream<T> walk(Drive driveService, String rootFolderId, String fields, EntryMapper<T> entryMapper) {
+		BlockingQueue<WalkItem<T>> walkItems = new LinkedBlockingQueue<>(this.queueCapacity);
+
+		Thread walker = Thread.ofVirtual().name("google-drive-tree-walk").start(() -> {
+			try {
+				Set<String> visitedFolders = ConcurrentHashMap.newKeySet();
+				visitedFolders.add(rootFolderId);
+
+				List<Folder> level = List.of(new Folder(rootFolderId, List.of()));
+
+				while (!level.isEmpty()) {
+					level = this.walkLevel(driveService, level, fields, visitedFolders, entryMapper, walkItems);
+				}
+
+				this.finish(walkItems, new WalkItem<>(null, null, true));
+
+			} catch (IOException | RuntimeException e) {
+				this.finish(walkItems, new WalkItem<>(null, e, false));
+
+			} catch (InterruptedException e) {
+				// the caller closed the stream
+			}
+		});
+
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new WalkIterator<>(walkItems, walker), Spliterator.NONNULL), false)
+				.onClose(walker::interrupt);
+	}
+
+	/**
+	 * Queue the item ending the walk once the caller has room for it. A stream left unclosed is never drained,
+	 * so the walker gives up after a while instead of waiting forever; the caller then finds the walker gone.
+	 *
+	 * @param walkItems
+	 * @param lastItem
+	 */
+	private <T> void finish(BlockingQueue<WalkItem<T>> walkItems, WalkItem<T> lastItem) {
+		try {
+			walkItems.offer(lastItem, ABANDONED_WALK_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+		} catch (InterruptedException e) {
+			// the caller closed the stream
+		}
+	}
+
+	/**
+	 * List the children of every folder of a level, returning the folders of the next level.
+	 */
+	private <T> List<Folder> walkLevel(Drive driveService, List<Folder> level, String fields, Set<String> visitedFolders,
+			EntryMapper<T> entryMapper, BlockingQueue<WalkItem<T>> walkItems) throws IOException, InterruptedException {
+		List<List<Folder>> groups = new ArrayList<>();
+
+		for (int groupStart = 0; groupStart < level.size(); groupStart += this.parentsPerQuery) {
+			groups.add(level.subList(groupStart, Math.min(groupStart + this.parentsPerQuery, level.size())));
+		}
+
+		Queue<Folder> nextLevel = new ConcurrentLinkedQueue<>();
+		AtomicInteger nextGroup = new AtomicInteger();
+		List<Future<Void>> workers = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < Math.min(this.parallelism, groups.size()); i++) {
+				workers.add(executor.submit(() -> {
+					for (int group = nextGroup.getAndIncrement(); group < groups.size(); group = nextGroup.getAndIncrement()) {
+						this.listChildren(driveService, groups.get(group), fields, visitedFolders, entryMapper, walkItems, nextLevel);
+					}
+
+					return null;
+				}));
+			}
+
+			for (Future<Void> worker : workers) {
+				this.await(worker, executor);
+			}
+		}
+
+		return new ArrayList<>(nextLevel);
+	}
+
+	/**
+	 * List the children of a group of folders with a single paginated query.
+	 */
+	private <T> void listChildren(Drive driveService, List<Folder> parents, String fields, Set<String> visitedFolders,
+			EntryMapper<T> entryMapper, BlockingQueue<WalkItem<T>> walkItems, Queue<Folder> nextLevel) throws IOException, InterruptedException {
+		Map<String, Folder> parentsById = parents.stream().collect(Collectors.toMap(Folder::folderId, Function.identity()));
+
+		String query = String.format(GOOGLEAPI.TREE_QUERY, parents.stream()
+				.map(parent -> String.format(GOOGLEAPI.PARENT_QUERY_CLAUSE, parent.folderId()))
+				.collect(Collectors.joining(GOOGLEAPI.OR_QUERY_SEPARATOR)));
+
+		String pageToken = null;
+
+		do {
+			FileList result = driveService.files().list()
+					.setQ(query)
+					.setSpaces(GOOGLEAPI.DRIVE_SPACES)
+					.setFields(fields)
+					.setPageSize(GOOGLEAPI.STREAM_PAGE_SIZE)
+					.setPageToken(pageToken)
+					.execute();
+
+			for (File file : Optional.ofNullable(result.getFiles()).orElse(List.of())) {
+				Optional<Folder> parent = Optional.ofNullable(file.getParents()).orElse(List.of()).stream()
+						.map(parentsById::get)
+						.filter(Objects::nonNull)
+						.findFirst();
+
+				if (parent.isEmpty()) {
+					continue;
+				}
+
+				List<String> path = new ArrayList<>(parent.get().path());
+				path.add(file.getName());
+
+				walkItems.put(new WalkItem<>(entryMapper.map(file, List.copyOf(path)), null, false));
+
+				if (this.isFolder(file) && visitedFolders.add(file.getId())) {
+					nextLevel.add(new Folder(file.getId(), List.copyOf(path)));
+				}
+			}
+
+			pageToken = result.getNextPageToken();
+
+		} while (pageToken != null && !pageToken.isEmpty());
+	}
+
+	private boolean isFolder(File file) {
+		return GOOGLEAPI.FOLDER_MIME_TYPE.equals(file.getMimeType());
+	}
+
+	/**
+	 * Wait for a level worker, cancelling the remaining workers if it failed.
+	 *
+	 * @param worker
+	 * @param executor
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	private void await(Future<Void> worker, ExecutorService executor) throws IOException, InterruptedException {
+		try {
+			worker.get();
+
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			throw e;
+
+		} catch (ExecutionException e) {
+			executor.shutdownNow();
+
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+
+			if (e.getCause() instanceof InterruptedException interruptedException) {
+				throw interruptedException;
+			}
+
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * Folder to be listed, with its path relative to the walked folder.
+	 *
+	 * @param folderId
+	 * @param path
+	 */
+	private record Folder(String folderId, List<String> path) {
+	}
+
+	/**
+	 * Conversion of a listed file, along with its path relative to the walked folder, into a walk entry.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 * @param <T> entry type
+	 */
+	@FunctionalInterface
+	public interface EntryMapper<T> {
+
+		/**
+		 * Map a listed file.
+		 *
+		 * @param file
+		 * @param path names from the walked folder down to the file
+		 * @return entry
+		 */
+		T map(File file, List<String> path);
+	}
+
+	/**
+	 * Entry listed by the walk, the failure that stopped it or the end of the walk.
+	 *
+	 * @param entry
+	 * @param failure
+	 * @param last
+	 */
+	private record WalkItem<T>(T entry, Exception failure, boolean last) {
+	}
+
+	/**
+	 * Iterator taking the walk items from the queue filled by the walk.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	private static final class WalkIterator<T> implements Iterator<T> {
+
+		private final BlockingQueue<WalkItem<T>> walkItems;
+		private final Thread walker;
+		private WalkItem<T> nextItem;
+
+		private WalkIterator(BlockingQueue<WalkItem<T>> walkItems, Thread walker) {
+			this.walkItems = walkItems;
+			this.walker = walker;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.nextItem == null) {
+				try {
+					this.nextItem = this.takeItem();
+
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new UncheckedIOException(new InterruptedIOException(e.getMessage()));
+				}
+			}
+
+			if (this.nextItem.failure() instanceof IOException ioException) {
+				throw new UncheckedIOException(ioException);
+			}
+
+			if (this.nextItem.failure() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+
+			return !this.nextItem.last();
+		}
+
+		/**
+		 * Take the next walk item, failing instead of waiting forever if the walker stopped without queueing
+		 * the item ending the walk.
+		 *
+		 * @return {@link WalkItem}
+		 * @throws InterruptedException
+		 */
+		private WalkItem<T> takeItem() throws InterruptedException {
+			WalkItem<T> walkItem;
+
+			do {
+				boolean walking = this.walker.isAlive();
+				walkItem = this.walkItems.poll(WALKER_CHECK_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+				if (walkItem == null && !walking) {
+					throw new UncheckedIOException(new IOException("Tree walk stopped before its end"));
+				}
+
+			} while (walkItem == null);
+
+			return walkItem;
+		}
+
+		@Override
+		public T next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			T entry = this.nextItem.entry();
+			this.nextItem = null;
+
+			return entry;
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.google.drive.api.auth;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.drive.api.emulator.DriveEmulator;
+
+class CredentialManagerTest {
+
+	@Test
+	void getAccessToken_whenTokenValid() throws IOException {
+		CountingCredentials credentials = new CountingCredentials(this.token("current", Duration.ofHours(1)), Duration.ofHours(1));
+
+		try (CredentialManager credentialManager = new CredentialManager(credentials)) {
+			Assertions.assertEquals("current", credentialManager.getAccessToken());
+			Assertions.assertEquals("current", credentialManager.getAccessToken());
+			Assertions.assertEquals(0, credentials.getRefreshCount());
+		}
+	}
+
+	@Test
+	void getAccessToken_whenNoToken() throws IOException {
+		CountingCredentials credentials = new CountingCredentials(null, Duration.ofHours(1));
+
+		try (CredentialManager credentialManager = new CredentialManager(credentials)) {
+			Assertions.assertEquals("token-1", credentialManager.getAccessToken());
+			Assertions.assertEquals("token-1", credentialManager.getAccessToken());
+			Assertions.assertEquals(1, credentials.getRefreshCount());
+		}
+	}
+
+	@Test
+	void forceRefresh_whenConcurrentCallsForSameToken() throws Exception {
+		CountingCredentials credentials = new CountingCredentials(this.token("stale", Duration.ofHours(1)), Duration.ofHours(1));
+		credentials.setRefreshDelay(Duration.ofMillis(100));
+		CountDownLatch startGate = new CountDownLatch(1);
+		List<Future<AccessToken>> refreshes = new ArrayList<>();
+
+		try (CredentialManager credentialManager = new CredentialManager(credentials);
+				ExecutorService executor = Executors.newFixedThreadPool(16)) {
+			for (int i = 0; i < 16; i++) {
+				refreshes.add(executor.submit(() -> {
+					startGate.await();
+					return credentialManager.forceRefresh("stale");
+				}));
+			}
+
+			startGate.countDown();
+
+			for (Future<AccessToken> refresh : refreshes) {
+				Assertions.assertEquals("token-1", refresh.get().getTokenValue());
+			}
+		}
+
+		Assertions.assertEquals(1, credentials.getRefreshCount());
+	}
+
+	@Test
+	void getAccessToken_whenRefreshedInBackground() throws Exception {
+		CountingCredentials credentials = new CountingCredentials(this.token("current", Duration.ofMillis(1500)), Duration.ofHours(1));
+
+		try (CredentialManager credentialManager = new CredentialManager(credentials, Duration.ofSeconds(1), Duration.ZERO)) {
+			for (int i = 0; i < 100 && credentials.getRefreshCount() == 0; i++) {
+				Thread.sleep(20);
+			}
+
+			Assertions.assertEquals(1, credentials.getRefreshCount());
+			Assertions.assertEquals("token-1", credentialManager.getAccessToken());
+		}
+	}
+
+	@Test
+	void handleResponse_whenUnauthorized() throws Exception {
+		CountingCredentials credentials = new CountingCredentials(this.token("revoked", Duration.ofHours(1)), Duration.ofHours(1));
+
+		try (DriveEmulator driveEmulator = DriveEmulator.start();
+				CredentialManager credentialManager = new CredentialManager(credentials)) {
+			driveEmulator.setAccessToken("token-1");
+			String fileId = driveEmulator.addFile(new File().setName("file"), new byte[] { 1 }).getId();
+
+			File file = driveEmulator.newDriveService(credentialManager).files().get(fileId).execute();
+
+			Assertions.assertEquals("file", file.getName());
+			Assertions.assertEquals(1, driveEmulator.getRequestCount("unauthorized"));
+			Assertions.assertEquals(1, credentials.getRefreshCount());
+		}
+	}
+
+	private AccessToken token(String value, Duration lifetime) {
+		return new AccessToken(value, new Date(System.currentTimeMillis() + lifetime.toMillis()));
+	}
+
+	/**
+	 * Credentials answering a new token on every refresh, counting refreshes.
+	 */
+	private static final class CountingCredentials extends GoogleCredentials {
+
+		private static final long serialVersionUID = 1L;
+
+		private final AtomicInteger refreshCount = new AtomicInteger();
+		private final Duration tokenLifetime;
+		private volatile Duration refreshDelay = Duration.ZERO;
+
+		private CountingCredentials(AccessToken accessToken, Duration tokenLifetime) {
+			super(GoogleCredentials.newBuilder().setAccessToken(accessToken));
+			this.tokenLifetime = tokenLifetime;
+		}
+
+		@Override
+		public AccessToken refreshAccessToken() throws IOException {
+			try {
+				Thread.sleep(this.refreshDelay);
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			return new AccessToken("token-" + this.refreshCount.incrementAndGet(),
+					new Date(System.currentTimeMillis() + this.tokenLifetime.toMillis()));
+		}
+
+		private int getRefreshCount() {
+			return this.refreshCount.get();
+		}
+
+		private void setRefreshDelay(Duration refreshDelay) {
+			this.refreshDelay = refreshDelay;
+		}
+	}
+
+}
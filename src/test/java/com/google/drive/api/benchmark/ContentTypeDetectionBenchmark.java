@@ -0,0 +1,76 @@
+package com.google.drive.api.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tika.Tika;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.drive.api.util.ContentTypeDetector;
+
+/**
+ * Per upload content type detection cost of a new {@link Tika} instance, as uploads used to do, compared to
+ * the shared {@link ContentTypeDetector}, for a file with an unambiguous extension and for one that must be
+ * sniffed.
+ *
+ * @author leonardo.ramos
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ContentTypeDetectionBenchmark {
+
+	private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+	@Param({ "report.pdf", "image" })
+	private String fileName;
+
+	private ContentTypeDetector contentTypeDetector;
+	private Path directory;
+	private Path file;
+
+	@Setup
+	public void setUp() throws Exception {
+		byte[] content = new byte[64 * 1024];
+		new Random(42).nextBytes(content);
+		System.arraycopy(PNG_SIGNATURE, 0, content, 0, PNG_SIGNATURE.length);
+
+		this.directory = Files.createTempDirectory("content-type-detection");
+		this.file = Files.write(this.directory.resolve(this.fileName), content);
+		this.contentTypeDetector = new ContentTypeDetector();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		Files.deleteIfExists(this.file);
+		Files.deleteIfExists(this.directory);
+	}
+
+	@Benchmark
+	public String newTikaPerUpload() throws Exception {
+		return new Tika().detect(this.file);
+	}
+
+	@Benchmark
+	public String sharedDetector() throws Exception {
+		return this.contentTypeDetector.detect(this.file);
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.google.drive.api.benchmark;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.drive.model.FileList;
+import com.google.drive.api.cache.FolderIdCache;
+import com.google.drive.api.domain.DriveFileField;
+import com.google.drive.api.domain.DriveFileList;
+import com.google.drive.api.service.impl.GoogleDriveServiceImpl;
+
+/**
+ * Cost of listing a page of folder files through {@link GoogleDriveServiceImpl#doGetFolderFiles}, from
+ * building the request to mapping every file to a {@link com.google.drive.api.domain.DriveFile} and building
+ * the {@link DriveFileList}, over an in-process transport, with all fields and with ids and names only. Parsing
+ * the page JSON alone is the baseline, so the difference is the cost of the request and the mapping.
+ *
+ * @author leonardo.ramos
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FolderListingBenchmark {
+
+	private static final List<String> FOLDER_HIERARCHY = List.of("tenants", "acme", "reports");
+
+	@Param({ "100", "1000" })
+	private int pageSize;
+
+	private GoogleDriveServiceImpl googleDriveService;
+	private String filePage;
+
+	@Setup
+	public void setUp() throws Exception {
+		MockDriveTransport transport = new MockDriveTransport(this.pageSize, new byte[0]);
+		this.filePage = transport.getFilePage();
+
+		FolderIdCache folderIdCache = new FolderIdCache();
+		folderIdCache.put(FOLDER_HIERARCHY, "folder");
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setFolderIdCache(folderIdCache);
+		this.googleDriveService.setDriveService(transport.newDriveService());
+	}
+
+	@Benchmark
+	public FileList parsePage() throws Exception {
+		return GsonFactory.getDefaultInstance().fromString(this.filePage, FileList.class);
+	}
+
+	@Benchmark
+	public DriveFileList allFields() {
+		return this.googleDriveService.doGetFolderFiles(FOLDER_HIERARCHY, this.pageSize, null, EnumSet.allOf(DriveFileField.class));
+	}
+
+	@Benchmark
+	public DriveFileList idsAndNames() {
+		return this.googleDriveService.doGetFolderFiles(FOLDER_HIERARCHY, this.pageSize, null, EnumSet.of(DriveFileField.ID, DriveFileField.NAME));
+	}
+
+}
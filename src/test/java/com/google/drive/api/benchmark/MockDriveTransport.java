@@ -0,0 +1,113 @@
+package com.google.drive.api.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+
+/**
+ * In-process transport answering Google Drive requests from canned responses, without sockets or a server
+ * thread, so that benchmarks measure the request building, parsing and mapping done by the library. Folder
+ * lookups always find their folder, file listings answer a page of files, uploads answer the created file
+ * and downloads answer the content.
+ *
+ * @author leonardo.ramos
+ *
+ */
+class MockDriveTransport extends MockHttpTransport {
+
+	private static final String UPLOAD_PATH_PREFIX = "/upload/";
+	private static final String FOLDER_QUERY_PREFIX = "mimeType='" + GOOGLEAPI.FOLDER_MIME_TYPE + "'";
+
+	private final String folderPage;
+	private final String filePage;
+	private final String uploadedFile;
+	private final byte[] content;
+
+	/**
+	 * Constructor with the number of files of a listed page and the content of downloaded files.
+	 *
+	 * @param pageSize
+	 * @param content
+	 * @throws IOException
+	 */
+	MockDriveTransport(int pageSize, byte[] content) throws IOException {
+		GsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+		List<File> files = new ArrayList<>();
+
+		for (int i = 0; i < pageSize; i++) {
+			files.add(file("file-" + i, "report-" + i + ".pdf"));
+		}
+
+		this.folderPage = jsonFactory.toString(new FileList().setFiles(List.of(new File().setId("folder"))));
+		this.filePage = jsonFactory.toString(new FileList().setFiles(files).setNextPageToken("next-page"));
+		this.uploadedFile = jsonFactory.toString(file("uploaded", "report.pdf"));
+		this.content = content;
+	}
+
+	/**
+	 * Return a {@link Drive} client sending its requests through this transport.
+	 *
+	 * @return {@link Drive}
+	 */
+	Drive newDriveService() {
+		return new Drive.Builder(this, GsonFactory.getDefaultInstance(), null)
+				.setApplicationName("benchmark")
+				.build();
+	}
+
+	/**
+	 * Return the JSON of the page of files answered to listings.
+	 *
+	 * @return page JSON
+	 */
+	String getFilePage() {
+		return this.filePage;
+	}
+
+	@Override
+	public LowLevelHttpRequest buildRequest(String method, String url) throws IOException {
+		GenericUrl requestUrl = new GenericUrl(url);
+		MockLowLevelHttpResponse response = new MockLowLevelHttpResponse();
+
+		if ("media".equals(requestUrl.getFirst("alt"))) {
+			response.setContentType("application/octet-stream").setContent(this.content);
+
+		} else if (requestUrl.getRawPath().startsWith(UPLOAD_PATH_PREFIX)) {
+			response.setContentType(Json.MEDIA_TYPE).setContent(this.uploadedFile);
+
+		} else if (String.valueOf(requestUrl.getFirst("q")).startsWith(FOLDER_QUERY_PREFIX)) {
+			response.setContentType(Json.MEDIA_TYPE).setContent(this.folderPage);
+
+		} else {
+			response.setContentType(Json.MEDIA_TYPE).setContent(this.filePage);
+		}
+
+		return new MockLowLevelHttpRequest(url).setResponse(response);
+	}
+
+	private static File file(String id, String name) {
+		return new File()
+				.setId(id)
+				.setName(name)
+				.setParents(List.of("folder"))
+				.setMimeType("application/pdf")
+				.setSize(64L * 1024)
+				.setMd5Checksum("9e107d9d372bb6826bd81d3542a419d6")
+				.setCreatedTime(new DateTime(1_700_000_000_000L))
+				.setModifiedTime(new DateTime(1_700_000_000_000L));
+	}
+
+}
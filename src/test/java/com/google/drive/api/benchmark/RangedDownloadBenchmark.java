@@ -0,0 +1,87 @@
+package com.google.drive.api.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.download.RangedDownloader;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.service.impl.GoogleDriveServiceImpl;
+
+/**
+ * Download time of a file through a single stream compared to concurrent byte ranges, against a local
+ * emulator capping the throughput of every response as a single Google Drive connection would.
+ *
+ * @author leonardo.ramos
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RangedDownloadBenchmark {
+
+	private static final int FILE_SIZE = 16 * 1024 * 1024;
+	private static final long CHUNK_SIZE = 1024 * 1024;
+	private static final long CONNECTION_BANDWIDTH = 32 * 1024 * 1024;
+
+	@Param({ "1", "2", "4", "8" })
+	private int parallelism;
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+	private Path target;
+	private String fileId;
+
+	@Setup
+	public void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+		this.driveEmulator.setLatency(Duration.ofMillis(10));
+		this.driveEmulator.setBandwidth(CONNECTION_BANDWIDTH);
+
+		byte[] content = new byte[FILE_SIZE];
+		new Random(42).nextBytes(content);
+		this.fileId = this.driveEmulator.addFile(new File().setName("large.bin"), content).getId();
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+		this.googleDriveService.setRangedDownloader(new RangedDownloader(CHUNK_SIZE, this.parallelism, 0));
+
+		this.target = Files.createTempFile("ranged-download", ".bin");
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		this.driveEmulator.close();
+		Files.deleteIfExists(this.target);
+	}
+
+	@Benchmark
+	public Path singleStream() throws Exception {
+		return this.googleDriveService.doDownloadFile(this.fileId, this.target);
+	}
+
+	@Benchmark
+	public Path ranges() throws Exception {
+		return this.googleDriveService.doDownloadFileInRanges(this.fileId, this.target);
+	}
+
+}
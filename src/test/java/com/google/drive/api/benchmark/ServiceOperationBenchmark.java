@@ -0,0 +1,82 @@
+package com.google.drive.api.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.drive.api.cache.FolderIdCache;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.service.impl.GoogleDriveServiceImpl;
+
+/**
+ * Client side cost of whole service operations over an in-process transport: resolving an uncached folder
+ * hierarchy (a folder query built and sent per level), uploading a small file whose content type is detected
+ * from its content, and downloading one.
+ *
+ * @author leonardo.ramos
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ServiceOperationBenchmark {
+
+	private static final List<String> FOLDER_HIERARCHY = List.of("tenants", "acme", "reports", "2024");
+	private static final int FILE_SIZE = 64 * 1024;
+
+	private GoogleDriveServiceImpl googleDriveService;
+	private GoogleDriveServiceImpl uncachedGoogleDriveService;
+	private byte[] content;
+
+	@Setup
+	public void setUp() throws Exception {
+		this.content = new byte[FILE_SIZE];
+		new Random(42).nextBytes(this.content);
+
+		MockDriveTransport transport = new MockDriveTransport(1, this.content);
+
+		FolderIdCache folderIdCache = new FolderIdCache();
+		folderIdCache.put(FOLDER_HIERARCHY, "folder");
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setFolderIdCache(folderIdCache);
+		this.googleDriveService.setDriveService(transport.newDriveService());
+
+		this.uncachedGoogleDriveService = new GoogleDriveServiceImpl();
+		this.uncachedGoogleDriveService.setFolderIdCache(new FolderIdCache(0, Duration.ZERO));
+		this.uncachedGoogleDriveService.setDriveService(transport.newDriveService());
+	}
+
+	@Benchmark
+	public Map<List<String>, String> resolveFolderHierarchy() {
+		return this.uncachedGoogleDriveService.doGetFolderIds(List.of(FOLDER_HIERARCHY));
+	}
+
+	@Benchmark
+	public DriveFile uploadFileToFolder() {
+		return this.googleDriveService.doUploadFileToFolder(FOLDER_HIERARCHY, "report", new ByteArrayInputStream(this.content), FILE_SIZE, null, false);
+	}
+
+	@Benchmark
+	public byte[] downloadFile() {
+		return this.googleDriveService.doDownloadFile("file-0");
+	}
+
+}
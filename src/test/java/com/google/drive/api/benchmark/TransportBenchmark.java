@@ -0,0 +1,92 @@
+package com.google.drive.api.benchmark;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.config.DriveTransportProperties;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.transport.HttpTransportFactory;
+import com.google.drive.api.transport.TimeoutRequestInitializer;
+import com.google.drive.api.transport.TransportType;
+
+/**
+ * Requests per second sent by concurrent callers through each transport, for metadata reads and small
+ * downloads, against a local emulator answering after a short delay.
+ *
+ * @author leonardo.ramos
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Threads(16)
+@Fork(1)
+public class TransportBenchmark {
+
+	private static final int FILE_SIZE = 64 * 1024;
+
+	@Param({ "NET_HTTP", "APACHE", "JDK" })
+	private TransportType transportType;
+
+	private DriveEmulator driveEmulator;
+	private HttpTransport httpTransport;
+	private Drive driveService;
+	private String fileId;
+
+	@Setup
+	public void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+		this.driveEmulator.setLatency(Duration.ofMillis(2));
+
+		byte[] content = new byte[FILE_SIZE];
+		new Random(42).nextBytes(content);
+		this.fileId = this.driveEmulator.addFile(new File().setName("small.bin"), content).getId();
+
+		DriveTransportProperties transportProperties = new DriveTransportProperties();
+		transportProperties.setType(this.transportType);
+
+		this.httpTransport = HttpTransportFactory.create(transportProperties);
+		this.driveService = this.driveEmulator.newDriveService(this.httpTransport,
+				new TimeoutRequestInitializer(null, transportProperties.getConnectTimeout(), transportProperties.getReadTimeout()));
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		this.httpTransport.shutdown();
+		this.driveEmulator.close();
+	}
+
+	@Benchmark
+	public File getMetadata() throws Exception {
+		return this.driveService.files().get(this.fileId).setFields("id, name").execute();
+	}
+
+	@Benchmark
+	public byte[] download() throws Exception {
+		try (InputStream content = this.driveService.files().get(this.fileId).executeMediaAsInputStream()) {
+			return content.readAllBytes();
+		}
+	}
+
+}
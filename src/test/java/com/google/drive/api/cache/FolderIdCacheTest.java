@@ -0,0 +1,92 @@
+package com.google.drive.api.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FolderIdCacheTest {
+
+	@Test
+	void get_whenCached() {
+		FolderIdCache folderIdCache = new FolderIdCache(10, Duration.ofMinutes(1));
+		folderIdCache.put(List.of("parentFolder", "childFolder"), "childFolderId");
+
+		Assertions.assertEquals("childFolderId", folderIdCache.get(List.of("parentFolder", "childFolder")).orElse(null));
+		Assertions.assertTrue(folderIdCache.get(List.of("parentFolder")).isEmpty());
+	}
+
+	@Test
+	void getDeepestAncestor_whenPrefixCached() {
+		FolderIdCache folderIdCache = new FolderIdCache(10, Duration.ofMinutes(1));
+		folderIdCache.put(List.of("tenants"), "tenantsId");
+		folderIdCache.put(List.of("tenants", "acme"), "acmeId");
+		folderIdCache.put(List.of("tenants", "acme", "2026", "10"), "octoberId");
+
+		FolderIdCache.CachedAncestor ancestor = folderIdCache.getDeepestAncestor(List.of("tenants", "acme", "2026", "11")).orElseThrow();
+
+		Assertions.assertEquals(2, ancestor.depth());
+		Assertions.assertEquals("acmeId", ancestor.folderId());
+		Assertions.assertTrue(folderIdCache.getDeepestAncestor(List.of("other", "acme")).isEmpty());
+	}
+
+	@Test
+	void peek_whenCached() {
+		FolderIdCache folderIdCache = new FolderIdCache(10, Duration.ofMinutes(1));
+		folderIdCache.put(List.of("parentFolder", "childFolder"), "childFolderId");
+
+		Assertions.assertEquals("childFolderId", folderIdCache.peek(List.of("parentFolder", "childFolder")).orElse(null));
+		Assertions.assertTrue(folderIdCache.peek(List.of("parentFolder")).isEmpty());
+		Assertions.assertEquals(0, folderIdCache.getHits());
+		Assertions.assertEquals(0, folderIdCache.getMisses());
+	}
+
+	@Test
+	void get_whenExpired() throws InterruptedException {
+		FolderIdCache folderIdCache = new FolderIdCache(10, Duration.ofMillis(1));
+		folderIdCache.put(List.of("parentFolder"), "parentFolderId");
+
+		Thread.sleep(5);
+
+		Assertions.assertTrue(folderIdCache.get(List.of("parentFolder")).isEmpty());
+		Assertions.assertEquals(0, folderIdCache.size());
+	}
+
+	@Test
+	void put_whenMaxSizeReachedEvictLeastRecentlyUsed() {
+		FolderIdCache folderIdCache = new FolderIdCache(2, Duration.ofMinutes(1));
+		folderIdCache.put(List.of("first"), "firstId");
+		folderIdCache.put(List.of("second"), "secondId");
+		folderIdCache.get(List.of("first"));
+		folderIdCache.put(List.of("third"), "thirdId");
+
+		Assertions.assertEquals(2, folderIdCache.size());
+		Assertions.assertTrue(folderIdCache.get(List.of("first")).isPresent());
+		Assertions.assertTrue(folderIdCache.get(List.of("second")).isEmpty());
+		Assertions.assertTrue(folderIdCache.get(List.of("third")).isPresent());
+	}
+
+	@Test
+	void invalidate_whenNestedHierarchiesCached() {
+		FolderIdCache folderIdCache = new FolderIdCache(10, Duration.ofMinutes(1));
+		folderIdCache.put(List.of("parentFolder"), "parentFolderId");
+		folderIdCache.put(List.of("parentFolder", "childFolder"), "childFolderId");
+		folderIdCache.put(List.of("otherFolder"), "otherFolderId");
+
+		folderIdCache.invalidate(List.of("parentFolder"));
+
+		Assertions.assertTrue(folderIdCache.get(List.of("parentFolder")).isEmpty());
+		Assertions.assertTrue(folderIdCache.get(List.of("parentFolder", "childFolder")).isEmpty());
+		Assertions.assertTrue(folderIdCache.get(List.of("otherFolder")).isPresent());
+	}
+
+	@Test
+	void put_whenDisabled() {
+		FolderIdCache folderIdCache = new FolderIdCache(0, Duration.ofMinutes(1));
+		folderIdCache.put(List.of("parentFolder"), "parentFolderId");
+
+		Assertions.assertTrue(folderIdCache.get(List.of("parentFolder")).isEmpty());
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.google.drive.api.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.services.drive.Drive;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.drive.api.auth.CredentialManager;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.metrics.DriveMetrics;
+import com.google.drive.api.metrics.DriveTracing;
+import com.google.drive.api.ratelimit.AdaptiveRateLimiter;
+import com.google.drive.api.retry.RetryPolicy;
+
+/**
+ * Configuration class to run the Google service {@code Spring} {@code beans} against an in-process
+ * {@link DriveEmulator} for integration testing purposes. The {@link Drive} bean is built as in
+ * {@link GoogleServiceAutoConfig}, with its transport, rate limiter, retries and metrics, but pointed at the
+ * emulator root url and authorized by a static access token the emulator accepts.
+ *
+ * @author leonardo.ramos
+ *
+ */
+@Profile("emulator")
+@TestConfiguration
+public class EmulatedGoogleServiceAutoConfig {
+
+	private static final String ACCESS_TOKEN = "emulator-token";
+	private static final String APPLICATION_NAME = "drive-emulator";
+
+	/**
+	 * Return a started {@link DriveEmulator} bean, closed along with the context.
+	 *
+	 * @return {@link DriveEmulator}
+	 * @throws IOException
+	 */
+	@Bean(destroyMethod = "close")
+	public DriveEmulator driveEmulator() throws IOException {
+		DriveEmulator driveEmulator = DriveEmulator.start();
+		driveEmulator.setAccessToken(ACCESS_TOKEN);
+
+		return driveEmulator;
+	}
+
+	/**
+	 * Return a {@link GoogleCredentials} bean holding a static access token, valid for a day.
+	 *
+	 * @return {@link GoogleCredentials}
+	 */
+	@Bean
+	public GoogleCredentials credentials() {
+		return GoogleCredentials.create(new AccessToken(ACCESS_TOKEN, new Date(System.currentTimeMillis() + Duration.ofDays(1).toMillis())));
+	}
+
+	/**
+	 * Return a {@link Drive} bean sending its requests to the {@link DriveEmulator}.
+	 *
+	 * @param driveEmulator
+	 * @param httpTransport
+	 * @param transportProperties
+	 * @param credentialManager
+	 * @param rateLimiter
+	 * @param retryPolicy
+	 * @param driveMetrics
+	 * @param driveTracing
+	 * @return {@link Drive}
+	 */
+	@Bean
+	public Drive driveService(DriveEmulator driveEmulator, HttpTransport httpTransport, DriveTransportProperties transportProperties,
+			CredentialManager credentialManager, AdaptiveRateLimiter rateLimiter, RetryPolicy retryPolicy, DriveMetrics driveMetrics,
+			DriveTracing driveTracing) {
+		return new GoogleServiceAutoConfig().driveService(httpTransport, transportProperties, credentialManager, rateLimiter, retryPolicy,
+				driveMetrics, driveTracing, APPLICATION_NAME, driveEmulator.getRootUrl());
+	}
+
+}
@@ -0,0 +1,1294 @@
+package com.google.drive.api.emulator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.ChangeList;
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
+import com.google.api.services.drive.model.GeneratedIds;
+import com.google.api.services.drive.model.Permission;
+import com.google.api.services.drive.model.StartPageToken;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process HTTP server emulating the subset of the Google Drive v3 API used by this library, keeping
+ * an in-memory file tree. Intended for integration and concurrency tests, point a {@link Drive} client
+ * to {@link #getRootUrl()} or use {@link #newDriveService()}.
+ *
+ * @author leonardo.ramos
+ *
+ */
+public class DriveEmulator implements AutoCloseable {
+
+	private static final String FILES_PATH = "/drive/v3/files";
+	private static final String DOWNLOAD_FILES_PATH = "/download/drive/v3/files";
+	private static final String GENERATE_IDS_PATH = "/drive/v3/files/generateIds";
+	private static final String UPLOAD_PATH = "/upload/drive/v3/files";
+	private static final String BATCH_PATH = "/batch/drive/v3";
+	private static final String CHANGES_PATH = "/drive/v3/changes";
+	private static final String START_PAGE_TOKEN_PATH = "/drive/v3/changes/startPageToken";
+	private static final String ROOT_FOLDER_ID = "root";
+	private static final int DEFAULT_PAGE_SIZE = 100;
+	private static final int MAX_PAGE_SIZE = 1000;
+	private static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
+	private static final Duration TIMEOUT_FAULT_DELAY = Duration.ofSeconds(1);
+
+	private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+	private final Map<String, StoredFile> files = new ConcurrentHashMap<>();
+	private final List<String> changeLog = new CopyOnWriteArrayList<>();
+	private final Map<String, UploadSession> uploadSessions = new ConcurrentHashMap<>();
+	private final Map<String, List<Permission>> permissions = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+	private final AtomicInteger concurrentBatches = new AtomicInteger();
+	private final AtomicInteger maxConcurrentBatches = new AtomicInteger();
+	private final AtomicInteger concurrentRequests = new AtomicInteger();
+	private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+	private final AtomicLong idSequence = new AtomicLong();
+	private final AtomicLong bytesSent = new AtomicLong();
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final HttpServer server;
+	private final Map<String, AtomicInteger> pendingFailures = new ConcurrentHashMap<>();
+	private final Map<String, Deque<Fault>> pendingFaults = new ConcurrentHashMap<>();
+	private final ThreadLocal<Boolean> delayedResponse = new ThreadLocal<>();
+	private volatile Duration latency = Duration.ZERO;
+	private volatile long bandwidth;
+	private volatile String accessToken;
+	private volatile int rateLimit;
+	private long rateWindowStart;
+	private int rateWindowRequests;
+
+	private DriveEmulator(HttpServer server) {
+		this.server = server;
+		this.server.createContext("/", this::handle);
+		this.server.setExecutor(this.executor);
+	}
+
+	/**
+	 * Start a new emulator listening on an ephemeral local port.
+	 *
+	 * @return {@link DriveEmulator}
+	 * @throws IOException
+	 */
+	public static DriveEmulator start() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+		DriveEmulator driveEmulator = new DriveEmulator(server);
+		server.start();
+
+		return driveEmulator;
+	}
+
+	/**
+	 * Return the root url to be used by {@link Drive} clients.
+	 *
+	 * @return root url
+	 */
+	public String getRootUrl() {
+		return "http://" + this.server.getAddress().getHostString() + ":" + this.server.getAddress().getPort() + "/";
+	}
+
+	/**
+	 * Build a new {@link Drive} client pointing to this emulator.
+	 *
+	 * @return {@link Drive}
+	 */
+	public Drive newDriveService() {
+		return this.newDriveService(null);
+	}
+
+	/**
+	 * Build a new {@link Drive} client pointing to this emulator, initializing its requests with a request
+	 * initializer.
+	 *
+	 * @param requestInitializer
+	 * @return {@link Drive}
+	 */
+	public Drive newDriveService(HttpRequestInitializer requestInitializer) {
+		return this.newDriveService(new NetHttpTransport(), requestInitializer);
+	}
+
+	/**
+	 * Build a new {@link Drive} client pointing to this emulator, sending its requests through a transport
+	 * and initializing them with a request initializer.
+	 *
+	 * @param httpTransport
+	 * @param requestInitializer
+	 * @return {@link Drive}
+	 */
+	public Drive newDriveService(HttpTransport httpTransport, HttpRequestInitializer requestInitializer) {
+		return new Drive.Builder(httpTransport, this.jsonFactory, requestInitializer)
+				.setRootUrl(this.getRootUrl())
+				.setApplicationName("drive-emulator")
+				.build();
+	}
+
+	/**
+	 * Require every request to carry a bearer access token, answering {@code 401} to requests with any other
+	 * token. A null access token accepts every request.
+	 *
+	 * @param accessToken
+	 */
+	public void setAccessToken(String accessToken) {
+		this.accessToken = accessToken;
+	}
+
+	/**
+	 * Set a fixed latency added to every request.
+	 *
+	 * @param latency
+	 */
+	public void setLatency(Duration latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * Limit the rate (in bytes per second) at which each response body is sent, emulating the throughput cap
+	 * of a single connection. A value lower than one removes the limit.
+	 *
+	 * @param bandwidth
+	 */
+	public void setBandwidth(long bandwidth) {
+		this.bandwidth = bandwidth;
+	}
+
+	/**
+	 * Limit the number of requests accepted per second, answering the requests beyond the quota of the
+	 * current second with a {@code 403} {@code userRateLimitExceeded} error as Google Drive does. A value lower
+	 * than one removes the limit.
+	 *
+	 * @param requestsPerSecond
+	 */
+	public void setRateLimit(int requestsPerSecond) {
+		this.rateLimit = requestsPerSecond;
+	}
+
+	/**
+	 * Answer the next requests for an operation ({@code files.download}, {@code files.upload.chunk} or
+	 * {@code batch}) with a {@code 503} error.
+	 *
+	 * @param operation
+	 * @param times
+	 */
+	public void failNext(String operation, int times) {
+		this.pendingFailures.computeIfAbsent(operation, key -> new AtomicInteger()).addAndGet(times);
+	}
+
+	/**
+	 * Answer the next requests for an operation (any operation counted by {@link #getRequestCount(String)})
+	 * with a sequence of faults, one per request. Calls inside a batch request get their own faults.
+	 *
+	 * @param operation
+	 * @param faults
+	 */
+	public void injectFaults(String operation, Fault... faults) {
+		this.pendingFaults.computeIfAbsent(operation, key -> new ConcurrentLinkedDeque<>()).addAll(List.of(faults));
+	}
+
+	/**
+	 * Return how many requests were received for an operation, such as {@code files.list}, {@code files.get},
+	 * {@code files.create}, {@code files.upload} (multipart uploads and resumable session starts), {@code files.update},
+	 * {@code files.upload.chunk}, {@code files.download}, {@code files.delete}, {@code files.generateIds},
+	 * {@code permissions.create}, {@code changes.list}, {@code batch}, {@code unauthorized} (requests rejected for their access
+	 * token), {@code rateLimited} (requests rejected for the rate limit) or {@code responses.gzip} (gzip encoded responses). Calls sent inside a batch are counted by their own operation as well.
+	 *
+	 * @param operation
+	 * @return request count
+	 */
+	public int getRequestCount(String operation) {
+		return Optional.ofNullable(this.requestCounts.get(operation)).map(AtomicInteger::get).orElse(0);
+	}
+
+	/**
+	 * Return the number of response body bytes sent, after compression.
+	 *
+	 * @return bytes sent
+	 */
+	public long getBytesSent() {
+		return this.bytesSent.get();
+	}
+
+	/**
+	 * Return the highest number of batch requests handled at the same time.
+	 *
+	 * @return max concurrent batch requests
+	 */
+	public int getMaxConcurrentBatches() {
+		return this.maxConcurrentBatches.get();
+	}
+
+	/**
+	 * Return the highest number of requests handled at the same time.
+	 *
+	 * @return max concurrent requests
+	 */
+	public int getMaxConcurrentRequests() {
+		return this.maxConcurrentRequests.get();
+	}
+
+	/**
+	 * Return the permissions created for a stored file.
+	 *
+	 * @param fileId
+	 * @return file permissions
+	 */
+	public List<Permission> getPermissions(String fileId) {
+		return List.copyOf(this.permissions.getOrDefault(fileId, List.of()));
+	}
+
+	/**
+	 * Store a file directly, without going through the HTTP api.
+	 *
+	 * @param metadata
+	 * @param content
+	 * @return stored file metadata
+	 */
+	public File addFile(File metadata, byte[] content) {
+		File file = metadata.clone()
+				.setId(Optional.ofNullable(metadata.getId()).orElseGet(this::newId))
+				.setParents(new ArrayList<>(Optional.ofNullable(metadata.getParents()).orElse(List.of(ROOT_FOLDER_ID))))
+				.setCreatedTime(new DateTime(System.currentTimeMillis()))
+				.setSize((long) content.length)
+				.setMd5Checksum(this.md5Checksum(content));
+
+		this.files.put(file.getId(), new StoredFile(file, content));
+		this.changeLog.add(file.getId());
+
+		return file.clone();
+	}
+
+	/**
+	 * Return the metadata of the stored files matching a filter.
+	 *
+	 * @param filter
+	 * @return matching files
+	 */
+	public List<File> findFiles(Predicate<File> filter) {
+		return this.files.values().stream()
+				.map(StoredFile::metadata)
+				.filter(filter)
+				.toList();
+	}
+
+	/**
+	 * Return the content of a stored file.
+	 *
+	 * @param fileId
+	 * @return file content
+	 */
+	public Optional<byte[]> getContent(String fileId) {
+		return Optional.ofNullable(this.files.get(fileId)).map(StoredFile::content);
+	}
+
+	/**
+	 * Stop the emulator.
+	 */
+	@Override
+	public void close() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			Map<String, String> headers = new HashMap<>();
+			exchange.getRequestHeaders().forEach((name, values) -> headers.put(name.toLowerCase(Locale.ROOT), values.getFirst()));
+
+			EmulatorRequest request = new EmulatorRequest(exchange.getRequestMethod(), exchange.getRequestURI(), headers,
+					this.decode(exchange.getRequestBody(), headers));
+
+			this.maxConcurrentRequests.accumulateAndGet(this.concurrentRequests.incrementAndGet(), Math::max);
+
+			EmulatorResponse response;
+
+			try {
+				if (!this.isAuthorized(request)) {
+					response = this.error(401, "authError", "Invalid Credentials");
+
+				} else if (this.isRateLimited()) {
+					response = this.error(403, "userRateLimitExceeded", "User Rate Limit Exceeded");
+
+				} else {
+					response = this.dispatch(request);
+				}
+
+			} finally {
+				this.concurrentRequests.decrementAndGet();
+			}
+
+			if (Boolean.TRUE.equals(this.delayedResponse.get())) {
+				this.delayedResponse.remove();
+				this.sleep(TIMEOUT_FAULT_DELAY);
+			}
+
+			byte[] body = response.body();
+			response.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+
+			if (body.length > 0 && JSON_CONTENT_TYPE.equals(response.headers().get("Content-Type")) && this.acceptsGzip(request)) {
+				body = this.gzip(body);
+				exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+				this.count("responses.gzip");
+			}
+
+			this.bytesSent.addAndGet(body.length);
+			exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+
+			try (OutputStream outputStream = exchange.getResponseBody()) {
+				this.write(outputStream, body);
+			}
+		}
+	}
+
+	/**
+	 * Write a response body, in slices paced by the configured bandwidth if any.
+	 */
+	private void write(OutputStream outputStream, byte[] body) throws IOException {
+		long bytesPerSecond = this.bandwidth;
+
+		if (bytesPerSecond < 1) {
+			outputStream.write(body);
+			return;
+		}
+
+		int sliceSize = (int) Math.max(1, Math.min(64 * 1024, bytesPerSecond / 100));
+		long start = System.nanoTime();
+
+		for (int offset = 0; offset < body.length; offset += sliceSize) {
+			int length = Math.min(sliceSize, body.length - offset);
+			outputStream.write(body, offset, length);
+
+			long expectedNanos = (offset + length) * 1_000_000_000L / bytesPerSecond;
+			this.sleep(Duration.ofNanos(expectedNanos - (System.nanoTime() - start)));
+		}
+	}
+
+	/**
+	 * Verify if a client accepts gzip encoded responses, which Google Drive only sends to user agents
+	 * containing {@code gzip}.
+	 */
+	private boolean acceptsGzip(EmulatorRequest request) {
+		return Optional.ofNullable(request.headers().get("accept-encoding")).orElse("").contains("gzip")
+				&& Optional.ofNullable(request.headers().get("user-agent")).orElse("").contains("gzip");
+	}
+
+	private byte[] gzip(byte[] body) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+			gzipOutputStream.write(body);
+		}
+
+		return outputStream.toByteArray();
+	}
+
+	private boolean isAuthorized(EmulatorRequest request) {
+		String expectedToken = this.accessToken;
+
+		if (expectedToken == null || ("Bearer " + expectedToken).equals(request.headers().get("authorization"))) {
+			return true;
+		}
+
+		this.count("unauthorized");
+		return false;
+	}
+
+	/**
+	 * Count a request against the quota of the current second.
+	 */
+	private synchronized boolean isRateLimited() {
+		int requestsPerSecond = this.rateLimit;
+
+		if (requestsPerSecond < 1) {
+			return false;
+		}
+
+		long now = System.nanoTime();
+
+		if (now - this.rateWindowStart >= 1_000_000_000L) {
+			this.rateWindowStart = now;
+			this.rateWindowRequests = 0;
+		}
+
+		if (++this.rateWindowRequests <= requestsPerSecond) {
+			return false;
+		}
+
+		this.count("rateLimited");
+		return true;
+	}
+
+	/**
+	 * Answer a request, keeping only the fields selected by its {@code fields} parameter in a JSON response.
+	 */
+	private EmulatorResponse dispatch(EmulatorRequest request) {
+		EmulatorResponse response = this.route(request);
+		String fieldMask = request.parameter("fields");
+
+		if (fieldMask == null || response.status() != 200 || !JSON_CONTENT_TYPE.equals(response.headers().get("Content-Type"))) {
+			return response;
+		}
+
+		try {
+			Object body = this.jsonFactory.fromString(new String(response.body(), StandardCharsets.UTF_8), GenericJson.class);
+
+			return this.json(200, this.selectFields(body, this.parseFieldMask(fieldMask, new int[1])));
+
+		} catch (IOException e) {
+			return this.error(500, "backendError", String.valueOf(e.getMessage()));
+		}
+	}
+
+	private EmulatorResponse route(EmulatorRequest request) {
+		try {
+			this.sleep(this.latency);
+
+			// clients send PATCH requests as POST with a method override header, HttpURLConnection lacking PATCH
+			String method = Optional.ofNullable(request.headers().get("x-http-method-override")).orElse(request.method());
+			String path = request.uri().getPath();
+
+			if (path.equals(FILES_PATH) && "GET".equals(method)) {
+				return this.listFiles(request);
+			}
+
+			if (path.equals(FILES_PATH) && "POST".equals(method)) {
+				return this.createFile(request);
+			}
+
+			if (path.equals(GENERATE_IDS_PATH) && "GET".equals(method)) {
+				return this.generateIds(request);
+			}
+
+			if (path.startsWith(FILES_PATH + "/") && path.endsWith("/permissions") && "POST".equals(method)) {
+				return this.createPermission(request, path.substring(FILES_PATH.length() + 1, path.length() - "/permissions".length()));
+			}
+
+			if (path.startsWith(FILES_PATH + "/") && "DELETE".equals(method)) {
+				return this.deleteFile(path.substring(FILES_PATH.length() + 1));
+			}
+
+			if (path.startsWith(FILES_PATH + "/") && "PATCH".equals(method)) {
+				return this.updateFile(request, path.substring(FILES_PATH.length() + 1));
+			}
+
+			if (path.startsWith(FILES_PATH + "/") && "GET".equals(method)) {
+				return this.getFile(request, path.substring(FILES_PATH.length() + 1));
+			}
+
+			if (path.startsWith(DOWNLOAD_FILES_PATH + "/") && "GET".equals(method)) {
+				return this.getFile(request, path.substring(DOWNLOAD_FILES_PATH.length() + 1));
+			}
+
+			if (path.equals(UPLOAD_PATH) && "POST".equals(method) && "resumable".equals(request.parameter("uploadType"))) {
+				return this.startUploadSession(request, null);
+			}
+
+			if (path.equals(UPLOAD_PATH) && "POST".equals(method) && "multipart".equals(request.parameter("uploadType"))) {
+				return this.uploadMultipart(request);
+			}
+
+			if (path.startsWith(UPLOAD_PATH + "/") && "PATCH".equals(method) && "resumable".equals(request.parameter("uploadType"))) {
+				return this.startUploadSession(request, path.substring(UPLOAD_PATH.length() + 1));
+			}
+
+			if (path.startsWith(UPLOAD_PATH + "/") && "PATCH".equals(method) && "multipart".equals(request.parameter("uploadType"))) {
+				return this.updateMultipart(request, path.substring(UPLOAD_PATH.length() + 1));
+			}
+
+			if (path.equals(UPLOAD_PATH) && "PUT".equals(method) && request.parameter("upload_id") != null) {
+				return this.uploadContent(request);
+			}
+
+			if (path.equals(START_PAGE_TOKEN_PATH) && "GET".equals(method)) {
+				return this.getStartPageToken();
+			}
+
+			if (path.equals(CHANGES_PATH) && "GET".equals(method)) {
+				return this.listChanges(request);
+			}
+
+			if (path.equals(BATCH_PATH) && "POST".equals(method)) {
+				return this.batch(request);
+			}
+
+			return this.error(404, "notFound", "Unsupported emulator request " + method + " " + path);
+
+		} catch (InjectedFault e) {
+			return this.error(e.getFault().getStatus(), e.getFault().getReason(), "Injected " + e.getFault());
+
+		} catch (IOException | RuntimeException e) {
+			return this.error(500, "backendError", String.valueOf(e.getMessage()));
+		}
+	}
+
+	/**
+	 * Parse a partial response field mask, such as {@code nextPageToken, files(id, name)}, into the fields
+	 * selected on an object, mapped to the fields selected on their value, null to keep it whole.
+	 */
+	private Map<String, Object> parseFieldMask(String fieldMask, int[] position) {
+		Map<String, Object> selection = new HashMap<>();
+		StringBuilder fieldName = new StringBuilder();
+
+		while (position[0] < fieldMask.length()) {
+			char character = fieldMask.charAt(position[0]++);
+
+			if (character == '(') {
+				selection.put(fieldName.toString().trim(), this.parseFieldMask(fieldMask, position));
+				fieldName.setLength(0);
+
+			} else if (character == ')') {
+				break;
+
+			} else if (character == ',') {
+				this.selectField(selection, fieldName);
+
+			} else {
+				fieldName.append(character);
+			}
+		}
+
+		this.selectField(selection, fieldName);
+
+		return selection;
+	}
+
+	private void selectField(Map<String, Object> selection, StringBuilder fieldName) {
+		if (!fieldName.isEmpty() && !fieldName.toString().isBlank()) {
+			selection.put(fieldName.toString().trim(), null);
+		}
+
+		fieldName.setLength(0);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object selectFields(Object value, Map<String, Object> selection) {
+		if (selection == null || selection.containsKey("*")) {
+			return value;
+		}
+
+		if (value instanceof List<?> values) {
+			return values.stream().map(element -> this.selectFields(element, selection)).toList();
+		}
+
+		if (!(value instanceof Map<?, ?> fields)) {
+			return value;
+		}
+
+		Map<String, Object> selectedFields = new LinkedHashMap<>();
+
+		fields.forEach((name, fieldValue) -> {
+			if (selection.containsKey(name)) {
+				selectedFields.put((String) name, this.selectFields(fieldValue, (Map<String, Object>) selection.get(name)));
+			}
+		});
+
+		return selectedFields;
+	}
+
+	private EmulatorResponse listFiles(EmulatorRequest request) throws IOException {
+		this.count("files.list");
+
+		Predicate<File> filter = this.parseQuery(request.parameter("q"));
+		List<File> result = this.findFiles(filter).stream()
+				.sorted(Comparator.comparing(File::getId))
+				.toList();
+
+		int pageSize = Math.min(MAX_PAGE_SIZE, Optional.ofNullable(request.parameter("pageSize")).map(Integer::parseInt).orElse(DEFAULT_PAGE_SIZE));
+		int firstFile = Optional.ofNullable(request.parameter("pageToken")).map(Integer::parseInt).orElse(0);
+		int lastFile = Math.min(result.size(), firstFile + pageSize);
+
+		return this.json(200, new FileList()
+				.setFiles(new ArrayList<>(result.subList(Math.min(firstFile, lastFile), lastFile)))
+				.setNextPageToken(lastFile < result.size() ? Integer.toString(lastFile) : null));
+	}
+
+	private EmulatorResponse getStartPageToken() throws IOException {
+		this.count("changes.getStartPageToken");
+
+		return this.json(200, new StartPageToken().setStartPageToken(Integer.toString(this.changeLog.size())));
+	}
+
+	/**
+	 * List the changes logged since a page token, a page token being a position in the change log. Every
+	 * change carries the current state of its file, or is a removal when the file no longer exists.
+	 */
+	private EmulatorResponse listChanges(EmulatorRequest request) throws IOException {
+		this.count("changes.list");
+
+		int logSize = this.changeLog.size();
+		int firstChange = Math.min(logSize, Integer.parseInt(request.parameter("pageToken")));
+		int pageSize = Math.min(MAX_PAGE_SIZE, Optional.ofNullable(request.parameter("pageSize")).map(Integer::parseInt).orElse(DEFAULT_PAGE_SIZE));
+		int lastChange = Math.min(logSize, firstChange + pageSize);
+
+		List<Change> changes = this.changeLog.subList(firstChange, lastChange).stream()
+				.map(fileId -> Optional.ofNullable(this.files.get(fileId))
+						.map(storedFile -> new Change().setFileId(fileId).setRemoved(false).setFile(storedFile.metadata()))
+						.orElseGet(() -> new Change().setFileId(fileId).setRemoved(true)))
+				.toList();
+
+		return this.json(200, new ChangeList()
+				.setChanges(new ArrayList<>(changes))
+				.setNextPageToken(lastChange < logSize ? Integer.toString(lastChange) : null)
+				.setNewStartPageToken(lastChange < logSize ? null : Integer.toString(logSize)));
+	}
+
+	private EmulatorResponse createFile(EmulatorRequest request) throws IOException {
+		this.count("files.create");
+
+		return this.store(this.readJson(request, File.class), new byte[0]);
+	}
+
+	private EmulatorResponse getFile(EmulatorRequest request, String fileId) throws IOException {
+		StoredFile storedFile = this.files.get(fileId);
+
+		if (storedFile == null) {
+			this.count("files.get");
+			return this.error(404, "notFound", "File not found: " + fileId + ".");
+		}
+
+		if (!"media".equals(request.parameter("alt"))) {
+			this.count("files.get");
+			return this.json(200, storedFile.metadata());
+		}
+
+		this.count("files.download");
+
+		if (this.shouldFail("files.download")) {
+			return this.error(503, "backendError", "Backend Error");
+		}
+
+		byte[] content = storedFile.content();
+		String range = request.headers().get("range");
+
+		if (range == null || content.length == 0) {
+			return new EmulatorResponse(200, Map.of("Content-Type", "application/octet-stream"), content);
+		}
+
+		String[] bytes = range.substring("bytes=".length()).split("-");
+		int firstByte = Integer.parseInt(bytes[0]);
+		int lastByte = bytes.length > 1 ? Math.min(Integer.parseInt(bytes[1]), content.length - 1) : content.length - 1;
+
+		if (firstByte >= content.length) {
+			return this.error(416, "requestedRangeNotSatisfiable", "Requested range not satisfiable");
+		}
+
+		return new EmulatorResponse(206, Map.of("Content-Type", "application/octet-stream",
+				"Content-Range", "bytes " + firstByte + "-" + lastByte + "/" + content.length),
+				Arrays.copyOfRange(content, firstByte, lastByte + 1));
+	}
+
+	private EmulatorResponse deleteFile(String fileId) {
+		this.count("files.delete");
+
+		if (!this.files.containsKey(fileId)) {
+			return this.error(404, "notFound", "File not found: " + fileId + ".");
+		}
+
+		this.removeTree(fileId);
+
+		return new EmulatorResponse(204, Map.of(), new byte[0]);
+	}
+
+	/**
+	 * Remove a file, and its descendants when it is a folder.
+	 */
+	private void removeTree(String fileId) {
+		this.files.remove(fileId);
+		this.permissions.remove(fileId);
+		this.changeLog.add(fileId);
+
+		this.findFiles(file -> file.getParents() != null && file.getParents().contains(fileId))
+				.forEach(child -> this.removeTree(child.getId()));
+	}
+
+	private EmulatorResponse createPermission(EmulatorRequest request, String fileId) throws IOException {
+		this.count("permissions.create");
+
+		if (!this.files.containsKey(fileId)) {
+			return this.error(404, "notFound", "File not found: " + fileId + ".");
+		}
+
+		Permission permission = this.readJson(request, Permission.class).setId(this.newId());
+		this.permissions.computeIfAbsent(fileId, key -> new CopyOnWriteArrayList<>()).add(permission);
+
+		return this.json(200, new Permission().setId(permission.getId()));
+	}
+
+	private EmulatorResponse generateIds(EmulatorRequest request) throws IOException {
+		this.count("files.generateIds");
+
+		int count = Optional.ofNullable(request.parameter("count")).map(Integer::parseInt).orElse(10);
+		List<String> ids = IntStream.range(0, count).mapToObj(i -> this.newId()).toList();
+
+		return this.json(200, new GeneratedIds().setIds(ids).setSpace(GOOGLEAPI.DRIVE_SPACES));
+	}
+
+	private EmulatorResponse updateFile(EmulatorRequest request, String fileId) throws IOException {
+		this.count("files.update");
+
+		return this.replace(fileId, this.readJson(request, File.class), null);
+	}
+
+	/**
+	 * Start a resumable session uploading a new file, or the new content of the file with given id.
+	 */
+	private EmulatorResponse startUploadSession(EmulatorRequest request, String updatedFileId) throws IOException {
+		this.count(updatedFileId == null ? "files.upload" : "files.update");
+
+		File metadata = this.readJson(request, File.class);
+		metadata.setMimeType(Optional.ofNullable(metadata.getMimeType()).orElse(request.headers().get("x-upload-content-type")));
+		String uploadId = Long.toString(this.idSequence.incrementAndGet());
+		this.uploadSessions.put(uploadId, new UploadSession(metadata, updatedFileId, new ByteArrayOutputStream(), new AtomicReference<>()));
+
+		return new EmulatorResponse(200, Map.of("Location", this.getRootUrl() + UPLOAD_PATH.substring(1)
+				+ "?uploadType=resumable&upload_id=" + uploadId), new byte[0]);
+	}
+
+	/**
+	 * Store a file sent as a {@code multipart/related} request: a JSON metadata part followed by the media part.
+	 */
+	private EmulatorResponse uploadMultipart(EmulatorRequest request) throws IOException {
+		this.count("files.upload");
+
+		List<byte[]> parts = this.splitMultipart(request.body(), this.parseBoundary(request.headers().get("content-type")));
+		File metadata = this.jsonFactory.fromString(new String(this.partBody(parts.get(0)), StandardCharsets.UTF_8), File.class);
+		metadata.setMimeType(Optional.ofNullable(metadata.getMimeType()).orElse(this.partContentType(parts.get(1))));
+
+		return this.store(metadata, this.partBody(parts.get(1)));
+	}
+
+	/**
+	 * Replace the content of a file with a {@code multipart/related} request, as {@link #uploadMultipart} does.
+	 */
+	private EmulatorResponse updateMultipart(EmulatorRequest request, String fileId) throws IOException {
+		this.count("files.update");
+
+		List<byte[]> parts = this.splitMultipart(request.body(), this.parseBoundary(request.headers().get("content-type")));
+		File metadata = this.jsonFactory.fromString(new String(this.partBody(parts.get(0)), StandardCharsets.UTF_8), File.class);
+
+		return this.replace(fileId, metadata, this.partBody(parts.get(1)));
+	}
+
+	/**
+	 * Receive a chunk of a resumable upload, or answer a status query (an empty chunk), following the
+	 * {@code Content-Range} offsets sent by the client.
+	 */
+	private EmulatorResponse uploadContent(EmulatorRequest request) throws IOException {
+		this.count("files.upload.chunk");
+
+		String uploadId = request.parameter("upload_id");
+		UploadSession uploadSession = this.uploadSessions.get(uploadId);
+
+		if (uploadSession == null) {
+			return this.error(404, "notFound", "Upload session not found: " + uploadId);
+		}
+
+		String contentRange = request.headers().get("content-range");
+		long totalLength = this.parseTotalLength(contentRange);
+
+		synchronized (uploadSession) {
+			if (uploadSession.uploadedFile().get() != null) {
+				return this.json(200, uploadSession.uploadedFile().get());
+			}
+
+			long firstByte = contentRange == null || contentRange.startsWith("bytes */")
+					? uploadSession.content().size()
+					: Long.parseLong(contentRange.substring("bytes ".length(), contentRange.indexOf('-')));
+
+			if (firstByte > uploadSession.content().size()) {
+				return this.error(400, "badContent", "Upload chunk starts after the last received byte");
+			}
+
+			int alreadyReceived = (int) (uploadSession.content().size() - firstByte);
+
+			if (alreadyReceived < request.body().length) {
+				uploadSession.content().write(request.body(), alreadyReceived, request.body().length - alreadyReceived);
+			}
+
+			if (this.shouldFail("files.upload.chunk")) {
+				return this.error(503, "backendError", "Backend Error");
+			}
+
+			if (totalLength < 0 || uploadSession.content().size() < totalLength) {
+				Map<String, String> headers = uploadSession.content().size() > 0
+						? Map.of("Range", "bytes=0-" + (uploadSession.content().size() - 1))
+						: Map.of();
+
+				return new EmulatorResponse(308, headers, new byte[0]);
+			}
+
+			EmulatorResponse response = uploadSession.updatedFileId() == null
+					? this.store(uploadSession.metadata(), uploadSession.content().toByteArray())
+					: this.replace(uploadSession.updatedFileId(), uploadSession.metadata(), uploadSession.content().toByteArray());
+
+			if (response.status() == 200) {
+				uploadSession.uploadedFile().set(this.jsonFactory.fromString(new String(response.body(), StandardCharsets.UTF_8), File.class));
+			}
+
+			return response;
+		}
+	}
+
+	/**
+	 * Execute every call of a {@code multipart/mixed} batch request in order, answering with a
+	 * {@code multipart/mixed} response holding one part per call.
+	 */
+	private EmulatorResponse batch(EmulatorRequest request) throws IOException {
+		this.count("batch");
+
+		if (this.shouldFail("batch")) {
+			return this.error(503, "backendError", "Backend Error");
+		}
+
+		this.maxConcurrentBatches.accumulateAndGet(this.concurrentBatches.incrementAndGet(), Math::max);
+
+		try {
+			return this.executeBatch(request);
+
+		} finally {
+			this.concurrentBatches.decrementAndGet();
+		}
+	}
+
+	private EmulatorResponse executeBatch(EmulatorRequest request) throws IOException {
+		String requestBoundary = this.parseBoundary(request.headers().get("content-type"));
+		String responseBoundary = "batch_" + this.idSequence.incrementAndGet();
+		ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+
+		for (byte[] part : this.splitMultipart(request.body(), requestBoundary)) {
+			EmulatorResponse partResponse = this.dispatch(this.parseHttpPart(part));
+
+			StringBuilder partHeader = new StringBuilder()
+					.append("--").append(responseBoundary).append("\r\n")
+					.append("Content-Type: application/http\r\n\r\n")
+					.append("HTTP/1.1 ").append(partResponse.status()).append(" OK\r\n");
+
+			partResponse.headers().forEach((name, value) -> partHeader.append(name).append(": ").append(value).append("\r\n"));
+			partHeader.append("Content-Length: ").append(partResponse.body().length).append("\r\n\r\n");
+
+			responseBody.write(partHeader.toString().getBytes(StandardCharsets.ISO_8859_1));
+			responseBody.write(partResponse.body());
+			responseBody.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+		}
+
+		responseBody.write(("--" + responseBoundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+
+		return new EmulatorResponse(200, Map.of("Content-Type", "multipart/mixed; boundary=" + responseBoundary), responseBody.toByteArray());
+	}
+
+	private EmulatorResponse store(File metadata, byte[] content) throws IOException {
+		File file = metadata.clone();
+
+		if (file.getId() != null && this.files.containsKey(file.getId())) {
+			return this.error(409, "duplicate", "A file already exists with the provided ID.");
+		}
+
+		List<String> parents = new ArrayList<>(Optional.ofNullable(metadata.getParents()).orElse(List.of(ROOT_FOLDER_ID)));
+
+		for (String parentId : parents) {
+			if (!ROOT_FOLDER_ID.equals(parentId) && !this.files.containsKey(parentId)) {
+				return this.error(404, "notFound", "File not found: " + parentId + ".");
+			}
+		}
+
+		file.setId(Optional.ofNullable(file.getId()).orElseGet(this::newId));
+		file.setParents(parents);
+		file.setCreatedTime(new DateTime(System.currentTimeMillis()));
+		file.setModifiedTime(Optional.ofNullable(metadata.getModifiedTime()).orElse(file.getCreatedTime()));
+
+		if (!GOOGLEAPI.FOLDER_MIME_TYPE.equals(file.getMimeType())) {
+			file.setSize((long) content.length);
+			file.setMd5Checksum(this.md5Checksum(content));
+		}
+
+		this.files.put(file.getId(), new StoredFile(file, content));
+		this.changeLog.add(file.getId());
+
+		return this.json(200, file);
+	}
+
+	/**
+	 * Apply the name and modification time of a metadata patch to a stored file, replacing its content when
+	 * new content is given.
+	 */
+	private EmulatorResponse replace(String fileId, File patch, byte[] content) throws IOException {
+		synchronized (this.files) {
+			StoredFile storedFile = this.files.get(fileId);
+
+			if (storedFile == null) {
+				return this.error(404, "notFound", "File not found: " + fileId + ".");
+			}
+
+			File file = storedFile.metadata().clone();
+			file.setName(Optional.ofNullable(patch.getName()).orElse(file.getName()));
+			file.setModifiedTime(Optional.ofNullable(patch.getModifiedTime()).orElseGet(() -> new DateTime(System.currentTimeMillis())));
+
+			if (content != null) {
+				file.setSize((long) content.length);
+				file.setMd5Checksum(this.md5Checksum(content));
+			}
+
+			this.files.put(fileId, new StoredFile(file, content != null ? content : storedFile.content()));
+			this.changeLog.add(fileId);
+
+			return this.json(200, file);
+		}
+	}
+
+	/**
+	 * Parse the subset of the Drive query language used by this library: clauses joined by {@code and} over
+	 * mimeType, name and parents, a parenthesized clause holding alternatives joined by {@code or}.
+	 */
+	private Predicate<File> parseQuery(String query) {
+		Predicate<File> filter = file -> true;
+
+		if (query == null || query.isBlank()) {
+			return filter;
+		}
+
+		for (String clause : query.split(" and ")) {
+			filter = filter.and(this.parseClause(clause.trim()));
+		}
+
+		return filter;
+	}
+
+	private Predicate<File> parseClause(String clause) {
+		if (clause.startsWith("(") && clause.endsWith(")")) {
+			Predicate<File> alternatives = file -> false;
+
+			for (String alternative : clause.substring(1, clause.length() - 1).split(" or ")) {
+				alternatives = alternatives.or(this.parseClause(alternative.trim()));
+			}
+
+			return alternatives;
+		}
+
+		if (clause.startsWith("mimeType!=")) {
+			String mimeType = this.unquote(clause.substring("mimeType!=".length()));
+			return file -> !mimeType.equals(file.getMimeType());
+		}
+
+		if (clause.startsWith("mimeType=")) {
+			String mimeType = this.unquote(clause.substring("mimeType=".length()));
+			return file -> mimeType.equals(file.getMimeType());
+		}
+
+		if (clause.startsWith("name contains ")) {
+			String name = this.unquote(clause.substring("name contains ".length()));
+			return file -> file.getName() != null && file.getName().contains(name);
+		}
+
+		if (clause.startsWith("name=")) {
+			String name = this.unquote(clause.substring("name=".length()));
+			return file -> name.equals(file.getName());
+		}
+
+		if (clause.endsWith(" in parents")) {
+			String parentId = this.unquote(clause.substring(0, clause.length() - " in parents".length()));
+			return file -> file.getParents() != null && file.getParents().contains(parentId);
+		}
+
+		if (clause.equals("trashed=false")) {
+			return file -> true;
+		}
+
+		throw new IllegalArgumentException("Unsupported query clause: " + clause);
+	}
+
+	private String unquote(String value) {
+		String trimmed = value.trim();
+		return trimmed.startsWith("'") && trimmed.endsWith("'") ? trimmed.substring(1, trimmed.length() - 1) : trimmed;
+	}
+
+	private long parseTotalLength(String contentRange) {
+		if (contentRange == null || contentRange.endsWith("/*")) {
+			return -1;
+		}
+
+		return Long.parseLong(contentRange.substring(contentRange.lastIndexOf('/') + 1));
+	}
+
+	private String parseBoundary(String contentType) {
+		String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+		return boundary.startsWith("\"") ? boundary.substring(1, boundary.length() - 1) : boundary;
+	}
+
+	/**
+	 * Split a multipart body into the raw bytes of each part (headers included), working over ISO-8859-1 so
+	 * binary content is kept byte for byte.
+	 */
+	private List<byte[]> splitMultipart(byte[] body, String boundary) {
+		String content = new String(body, StandardCharsets.ISO_8859_1);
+		String delimiter = "--" + boundary;
+		List<byte[]> parts = new ArrayList<>();
+
+		int start = content.indexOf(delimiter);
+
+		while (start >= 0) {
+			int partStart = content.indexOf("\r\n", start) + 2;
+			int end = content.indexOf("\r\n" + delimiter, partStart);
+
+			if (content.startsWith("--", start + delimiter.length()) || end < 0) {
+				break;
+			}
+
+			parts.add(content.substring(partStart, end).getBytes(StandardCharsets.ISO_8859_1));
+			start = end + 2;
+		}
+
+		return parts;
+	}
+
+	private String partContentType(byte[] part) {
+		String content = new String(part, StandardCharsets.ISO_8859_1);
+
+		for (String header : content.substring(0, content.indexOf("\r\n\r\n")).split("\r\n")) {
+			if (header.toLowerCase(Locale.ROOT).startsWith("content-type:")) {
+				return header.substring("content-type:".length()).trim();
+			}
+		}
+
+		return null;
+	}
+
+	private byte[] partBody(byte[] part) {
+		String content = new String(part, StandardCharsets.ISO_8859_1);
+		return content.substring(content.indexOf("\r\n\r\n") + 4).getBytes(StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Parse a batch part: its own MIME headers followed by an embedded HTTP request.
+	 */
+	private EmulatorRequest parseHttpPart(byte[] part) throws IOException {
+		String content = new String(part, StandardCharsets.ISO_8859_1);
+		int requestStart = content.indexOf("\r\n\r\n") + 4;
+		int headersEnd = content.indexOf("\r\n\r\n", requestStart);
+		headersEnd = headersEnd < 0 ? content.length() : headersEnd;
+
+		String[] lines = content.substring(requestStart, headersEnd).split("\r\n");
+		String[] requestLine = lines[0].split(" ");
+		Map<String, String> headers = new HashMap<>();
+
+		for (int i = 1; i < lines.length; i++) {
+			int separator = lines[i].indexOf(':');
+			headers.put(lines[i].substring(0, separator).trim().toLowerCase(Locale.ROOT), lines[i].substring(separator + 1).trim());
+		}
+
+		byte[] body = headersEnd + 4 <= content.length()
+				? content.substring(headersEnd + 4).getBytes(StandardCharsets.ISO_8859_1)
+				: new byte[0];
+
+		return new EmulatorRequest(requestLine[0], URI.create(requestLine[1]), headers, this.decode(new ByteArrayInputStream(body), headers));
+	}
+
+	private byte[] decode(InputStream inputStream, Map<String, String> headers) throws IOException {
+		if ("gzip".equalsIgnoreCase(headers.get("content-encoding"))) {
+			inputStream = new GZIPInputStream(inputStream);
+		}
+
+		return inputStream.readAllBytes();
+	}
+
+	private <T> T readJson(EmulatorRequest request, Class<T> type) throws IOException {
+		if (request.body().length == 0) {
+			try {
+				return type.getDeclaredConstructor().newInstance();
+
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		return this.jsonFactory.fromString(new String(request.body(), StandardCharsets.UTF_8), type);
+	}
+
+	private EmulatorResponse json(int status, Object body) throws IOException {
+		return new EmulatorResponse(status, Map.of("Content-Type", JSON_CONTENT_TYPE), this.jsonFactory.toByteArray(body));
+	}
+
+	private EmulatorResponse error(int status, String reason, String message) {
+		String body = "{\"error\":{\"code\":" + status + ",\"message\":\"" + message + "\",\"errors\":[{\"domain\":\"global\",\"reason\":\""
+				+ reason + "\",\"message\":\"" + message + "\"}]}}";
+
+		return new EmulatorResponse(status, Map.of("Content-Type", JSON_CONTENT_TYPE), body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String md5Checksum(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private String newId() {
+		return "emulated-" + this.idSequence.incrementAndGet();
+	}
+
+	private boolean shouldFail(String operation) {
+		AtomicInteger failures = this.pendingFailures.get(operation);
+		return failures != null && failures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0;
+	}
+
+	/**
+	 * Count a request for an operation, raising the next fault injected for it, if any, before the request
+	 * is processed. A timeout fault lets the request be processed and delays its response instead.
+	 */
+	private void count(String operation) {
+		this.requestCounts.computeIfAbsent(operation, key -> new AtomicInteger()).incrementAndGet();
+
+		Deque<Fault> faults = this.pendingFaults.get(operation);
+		Fault fault = faults == null ? null : faults.pollFirst();
+
+		if (fault == Fault.TIMEOUT) {
+			this.delayedResponse.set(true);
+
+		} else if (fault != null) {
+			throw new InjectedFault(fault);
+		}
+	}
+
+	private void sleep(Duration duration) {
+		if (duration.isZero() || duration.isNegative()) {
+			return;
+		}
+
+		try {
+			Thread.sleep(duration);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Fault injected in the answer to a request.
+	 *
+	 * @author leonardo.ramos
+	 *
+	 */
+	public enum Fault {
+
+		INTERNAL_ERROR(500, "backendError"),
+		BAD_GATEWAY(502, "backendError"),
+		UNAVAILABLE(503, "backendError"),
+		RATE_LIMITED(403, "userRateLimitExceeded"),
+
+		/**
+		 * Process the request, but hold its response for a second so that the client times out.
+		 */
+		TIMEOUT(200, null);
+
+		private final int status;
+		private final String reason;
+
+		Fault(int status, String reason) {
+			this.status = status;
+			this.reason = reason;
+		}
+
+		private int getStatus() {
+			return this.status;
+		}
+
+		private String getReason() {
+			return this.reason;
+		}
+	}
+
+	private static final class InjectedFault extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Fault fault;
+
+		private InjectedFault(Fault fault) {
+			super(fault.name(), null, false, false);
+			this.fault = fault;
+		}
+
+		private Fault getFault() {
+			return this.fault;
+		}
+	}
+
+	private record EmulatorRequest(String method, URI uri, Map<String, String> headers, byte[] body) {
+
+		private String parameter(String name) {
+			return this.parameters().get(name);
+		}
+
+		private Map<String, String> parameters() {
+			Map<String, String> parameters = new LinkedHashMap<>();
+
+			if (this.uri.getRawQuery() == null) {
+				return parameters;
+			}
+
+			for (String parameter : this.uri.getRawQuery().split("&")) {
+				int separator = parameter.indexOf('=');
+				String name = separator < 0 ? parameter : parameter.substring(0, separator);
+				String value = separator < 0 ? "" : parameter.substring(separator + 1);
+
+				parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+			}
+
+			return parameters;
+		}
+	}
+
+	private record EmulatorResponse(int status, Map<String, String> headers, byte[] body) {
+	}
+
+	private record StoredFile(File metadata, byte[] content) {
+	}
+
+	private record UploadSession(File metadata, String updatedFileId, ByteArrayOutputStream content, AtomicReference<File> uploadedFile) {
+	}
+
+}
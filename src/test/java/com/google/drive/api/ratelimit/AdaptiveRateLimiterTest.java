@@ -0,0 +1,70 @@
+package com.google.drive.api.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.google.drive.api.ratelimit.AdaptiveRateLimiter.Outcome;
+import com.google.drive.api.ratelimit.AdaptiveRateLimiter.Permit;
+
+class AdaptiveRateLimiterTest {
+
+	@Test
+	void release_whenRateLimitedHalveConcurrencyOncePerEvent() throws Exception {
+		AdaptiveRateLimiter rateLimiter = new AdaptiveRateLimiter(0, 1, 1, 8);
+		List<Permit> permits = new ArrayList<>();
+
+		for (int i = 0; i < 8; i++) {
+			permits.add(rateLimiter.acquire());
+		}
+
+		Assertions.assertEquals(0, rateLimiter.getAvailablePermits());
+
+		rateLimiter.release(permits.get(0), Outcome.RATE_LIMITED);
+		rateLimiter.release(permits.get(1), Outcome.RATE_LIMITED);
+
+		// both requests were sent before the decrease, a single congestion event
+		Assertions.assertEquals(4, rateLimiter.getConcurrencyLimit());
+		Assertions.assertEquals(6, rateLimiter.getInFlightRequests());
+		Assertions.assertEquals(0, rateLimiter.getAvailablePermits());
+
+		// a request sent after the decrease starts a new congestion event
+		rateLimiter.release(permits.get(2), Outcome.FAILURE);
+		rateLimiter.onRateLimited(System.nanoTime());
+
+		Assertions.assertEquals(2, rateLimiter.getConcurrencyLimit());
+	}
+
+	@Test
+	void release_whenSuccessfulIncreaseConcurrency() throws Exception {
+		AdaptiveRateLimiter rateLimiter = new AdaptiveRateLimiter(0, 1, 1, 4);
+		rateLimiter.release(rateLimiter.acquire(), Outcome.RATE_LIMITED);
+		rateLimiter.onRateLimited(System.nanoTime());
+
+		Assertions.assertEquals(1, rateLimiter.getConcurrencyLimit());
+
+		for (int i = 0; i < 20; i++) {
+			rateLimiter.release(rateLimiter.acquire(), Outcome.SUCCESS);
+		}
+
+		Assertions.assertEquals(4, rateLimiter.getConcurrencyLimit());
+		Assertions.assertEquals(4, rateLimiter.getAvailablePermits());
+	}
+
+	@Test
+	void acquire_whenTokensExhausted() throws Exception {
+		AdaptiveRateLimiter rateLimiter = new AdaptiveRateLimiter(50, 5, 1, 8);
+		long start = System.nanoTime();
+
+		for (int i = 0; i < 15; i++) {
+			rateLimiter.release(rateLimiter.acquire(), Outcome.SUCCESS);
+		}
+
+		// the burst is free, the next ten requests are paced at 50 per second
+		Assertions.assertTrue(System.nanoTime() - start >= 180_000_000L);
+		Assertions.assertTrue(rateLimiter.getAvailableTokens() < 1);
+	}
+
+}
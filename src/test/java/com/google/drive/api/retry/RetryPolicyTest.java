@@ -0,0 +1,37 @@
+package com.google.drive.api.retry;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RetryPolicyTest {
+
+	@Test
+	void backoff_whenRetriesGrow() {
+		RetryPolicy retryPolicy = new RetryPolicy(10, Duration.ofMillis(100), Duration.ofSeconds(1), 2, Duration.ofMinutes(1));
+		long maxFirstDelay = 0;
+		long maxLateDelay = 0;
+
+		for (int i = 0; i < 1000; i++) {
+			maxFirstDelay = Math.max(maxFirstDelay, retryPolicy.backoff(0).toMillis());
+			maxLateDelay = Math.max(maxLateDelay, retryPolicy.backoff(8).toMillis());
+		}
+
+		// full jitter stays under the exponential ceiling, capped by the max delay
+		Assertions.assertTrue(maxFirstDelay <= 100);
+		Assertions.assertTrue(maxLateDelay <= 1000);
+		Assertions.assertTrue(maxLateDelay > 500);
+	}
+
+	@Test
+	void isRetryableStatus_whenTransient() {
+		RetryPolicy retryPolicy = new RetryPolicy();
+
+		Assertions.assertTrue(retryPolicy.isRetryableStatus(503));
+		Assertions.assertTrue(retryPolicy.isRetryableStatus(408));
+		Assertions.assertFalse(retryPolicy.isRetryableStatus(404));
+		Assertions.assertFalse(retryPolicy.isRetryableStatus(501));
+	}
+
+}
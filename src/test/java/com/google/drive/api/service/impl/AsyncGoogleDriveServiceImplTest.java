@@ -0,0 +1,140 @@
+package com.google.drive.api.service.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.domain.DriveSyncReport;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.service.AsyncGoogleDriveService;
+
+class AsyncGoogleDriveServiceImplTest {
+
+	private DriveEmulator driveEmulator;
+	private AsyncGoogleDriveService asyncGoogleDriveService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+
+		GoogleDriveServiceImpl googleDriveService = new GoogleDriveServiceImpl() {
+
+			@Override
+			public void refreshCredentials() {
+				// the emulator does not check credentials
+			}
+		};
+		googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+
+		this.asyncGoogleDriveService = new AsyncGoogleDriveServiceImpl(googleDriveService);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.driveEmulator.close();
+	}
+
+	@Test
+	void uploadFileToFolder_whenDownloadedAfterwards() {
+		byte[] content = "async content".getBytes(StandardCharsets.UTF_8);
+
+		byte[] downloaded = this.asyncGoogleDriveService.uploadFileToFolder(List.of("async"), "file.txt", content, "text/plain", false)
+				.thenCompose(driveFile -> this.asyncGoogleDriveService.downloadFile(driveFile.getFileId()))
+				.join();
+
+		Assertions.assertArrayEquals(content, downloaded);
+	}
+
+	@Test
+	void uploadFileToFolder_whenByteBuffer() {
+		ByteBuffer content = ByteBuffer.wrap("async buffer content".getBytes(StandardCharsets.UTF_8), 6, 14);
+
+		byte[] downloaded = this.asyncGoogleDriveService.uploadFileToFolder(List.of("async"), "buffer.txt", content, "text/plain", false)
+				.thenCompose(driveFile -> this.asyncGoogleDriveService.downloadFile(driveFile.getFileId()))
+				.join();
+
+		Assertions.assertArrayEquals("buffer content".getBytes(StandardCharsets.UTF_8), downloaded);
+		Assertions.assertEquals(6, content.position());
+	}
+
+	@Test
+	void getFolderFilesByFileNameFilter_whenDefaultPageSize() {
+		this.asyncGoogleDriveService.uploadFileToFolder(List.of("async"), "report.txt", new byte[] { 1 }, "text/plain", false).join();
+		this.asyncGoogleDriveService.uploadFileToFolder(List.of("async"), "notes.txt", new byte[] { 2 }, "text/plain", false).join();
+
+		Assertions.assertEquals(2, this.asyncGoogleDriveService.getFolderFiles(List.of("async")).join().getDriveFiles().size());
+		Assertions.assertEquals(1, this.asyncGoogleDriveService.getFolderFilesByFileNameFilter(List.of("async"), "report").join()
+				.getDriveFiles().size());
+	}
+
+	@Test
+	void syncDirectory_whenNewFiles() throws Exception {
+		Path localDirectory = Files.createTempDirectory("async-sync");
+		Path localFile = Files.writeString(localDirectory.resolve("a.txt"), "alpha");
+
+		try {
+			DriveSyncReport report = this.asyncGoogleDriveService.syncDirectory(localDirectory, List.of("backup"), false, false).join();
+
+			Assertions.assertTrue(report.isSuccessful());
+			Assertions.assertEquals(List.of("a.txt"), report.getUploadedFiles());
+
+		} finally {
+			Files.delete(localFile);
+			Files.delete(localDirectory);
+		}
+	}
+
+	@Test
+	void getFileByNameAndParentFolder_whenManyCallsInFlight() {
+		this.asyncGoogleDriveService.uploadFileToFolder(List.of("async"), "file.txt", new byte[] { 1 }, "text/plain", false).join();
+		this.driveEmulator.setLatency(Duration.ofMillis(200));
+		List<CompletableFuture<Optional<DriveFile>>> calls = new ArrayList<>();
+
+		long start = System.nanoTime();
+
+		for (int i = 0; i < 100; i++) {
+			calls.add(this.asyncGoogleDriveService.getFileByNameAndParentFolder(List.of("async"), "file.txt"));
+		}
+
+		CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+
+		Assertions.assertTrue(calls.stream().allMatch(call -> call.join().isPresent()));
+		Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+	}
+
+	@Test
+	void downloadFile_whenTimeoutElapses() {
+		this.driveEmulator.setLatency(Duration.ofSeconds(2));
+
+		CompletableFuture<byte[]> download = this.asyncGoogleDriveService.withTimeout(Duration.ofMillis(100)).downloadFile("fileId");
+
+		CompletionException exception = Assertions.assertThrows(CompletionException.class, download::join);
+		Assertions.assertTrue(exception.getCause() instanceof TimeoutException);
+	}
+
+	@Test
+	void downloadFile_whenCancelled() {
+		this.driveEmulator.setLatency(Duration.ofSeconds(2));
+
+		CompletableFuture<byte[]> download = this.asyncGoogleDriveService.downloadFile("fileId");
+
+		Assertions.assertTrue(download.cancel(true));
+		Assertions.assertThrows(CancellationException.class, download::join);
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.google.drive.api.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.batch.BatchExecutor;
+import com.google.drive.api.domain.DriveBatchResult;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.emulator.DriveEmulator;
+
+class GoogleDriveServiceImplBatchTest {
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+		this.googleDriveService.setBatchExecutor(new BatchExecutor(2));
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.driveEmulator.close();
+	}
+
+	@Test
+	void doDeleteFiles_whenMoreFilesThanBatchSize() throws Exception {
+		this.driveEmulator.setLatency(Duration.ofMillis(50));
+		List<String> fileIds = this.addFiles(250);
+
+		List<DriveBatchResult<Void>> results = this.googleDriveService.doDeleteFiles(fileIds);
+
+		Assertions.assertEquals(250, results.size());
+		Assertions.assertTrue(results.stream().allMatch(DriveBatchResult::isSuccessful));
+		Assertions.assertEquals(fileIds, results.stream().map(DriveBatchResult::getFileId).toList());
+		Assertions.assertEquals(3, this.driveEmulator.getRequestCount("batch"));
+		Assertions.assertEquals(250, this.driveEmulator.getRequestCount("files.delete"));
+		Assertions.assertEquals(2, this.driveEmulator.getMaxConcurrentBatches());
+		Assertions.assertTrue(this.driveEmulator.findFiles(file -> true).isEmpty());
+	}
+
+	@Test
+	void doDeleteFiles_whenSomeFilesMissing() throws Exception {
+		List<String> fileIds = new ArrayList<>(this.addFiles(2));
+		fileIds.add(1, "missing-file");
+
+		List<DriveBatchResult<Void>> results = this.googleDriveService.doDeleteFiles(fileIds);
+
+		Assertions.assertTrue(results.get(0).isSuccessful());
+		Assertions.assertFalse(results.get(1).isSuccessful());
+		Assertions.assertEquals("missing-file", results.get(1).getFileId());
+		Assertions.assertEquals(404, (int) results.get(1).getErrorCode());
+		Assertions.assertTrue(results.get(2).isSuccessful());
+	}
+
+	@Test
+	void doDeleteFiles_whenWholeBatchFails() throws Exception {
+		List<String> fileIds = this.addFiles(150);
+		this.googleDriveService.setBatchExecutor(new BatchExecutor(1));
+		this.driveEmulator.failNext("batch", 1);
+
+		List<DriveBatchResult<Void>> results = this.googleDriveService.doDeleteFiles(fileIds);
+
+		Assertions.assertEquals(100, results.stream().filter(result -> !result.isSuccessful()).count());
+		Assertions.assertTrue(results.stream().filter(result -> !result.isSuccessful()).allMatch(result -> result.getErrorCode() == 503));
+		Assertions.assertEquals(100, this.driveEmulator.findFiles(file -> true).size());
+	}
+
+	@Test
+	void doSetPublicPermissions_whenFilesExist() throws Exception {
+		List<String> fileIds = this.addFiles(3);
+
+		List<DriveBatchResult<String>> results = this.googleDriveService.doSetPublicPermissions(fileIds);
+
+		for (DriveBatchResult<String> result : results) {
+			Assertions.assertTrue(result.isSuccessful());
+			Assertions.assertEquals(result.getResult(), this.driveEmulator.getPermissions(result.getFileId()).get(0).getId());
+			Assertions.assertEquals("anyone", this.driveEmulator.getPermissions(result.getFileId()).get(0).getType());
+		}
+
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("batch"));
+	}
+
+	@Test
+	void doGetFilesMetadata_whenFilesExist() throws Exception {
+		List<String> fileIds = new ArrayList<>(this.addFiles(2));
+		fileIds.add("missing-file");
+
+		List<DriveBatchResult<DriveFile>> results = this.googleDriveService.doGetFilesMetadata(fileIds);
+
+		Assertions.assertEquals("file-0", results.get(0).getResult().getFileName());
+		Assertions.assertEquals(fileIds.get(1), results.get(1).getResult().getFileId());
+		Assertions.assertNotNull(results.get(1).getResult().getUploadDate());
+		Assertions.assertEquals(404, (int) results.get(2).getErrorCode());
+	}
+
+	private List<String> addFiles(int count) {
+		List<String> fileIds = new ArrayList<>();
+
+		for (int i = 0; i < count; i++) {
+			fileIds.add(this.driveEmulator.addFile(new File().setName("file-" + i), new byte[] { (byte) i }).getId());
+		}
+
+		return fileIds;
+	}
+
+}
@@ -0,0 +1,143 @@
+package com.google.drive.api.service.impl;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.cache.FolderIdCache;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.emulator.DriveEmulator;
+
+class GoogleDriveServiceImplConcurrencyTest {
+
+	private static final int PARALLEL_UPLOADS = 64;
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+		this.driveEmulator.setLatency(Duration.ofMillis(20));
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.driveEmulator.close();
+	}
+
+	@Test
+	void doUploadFileToFolder_whenParallelUploadsToNewHierarchy() throws Exception {
+		List<String> folderHierarchy = List.of("tenants", "acme", "2026");
+		CountDownLatch startGate = new CountDownLatch(1);
+		List<Future<DriveFile>> uploads = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_UPLOADS)) {
+			for (int i = 0; i < PARALLEL_UPLOADS; i++) {
+				java.io.File file = this.createTempFile("upload-" + i);
+
+				uploads.add(executor.submit(() -> {
+					startGate.await();
+					return this.googleDriveService.doUploadFileToFolder(folderHierarchy, file, false);
+				}));
+			}
+
+			startGate.countDown();
+
+			for (Future<DriveFile> upload : uploads) {
+				Assertions.assertNotNull(upload.get().getFileId());
+			}
+		}
+
+		Assertions.assertEquals(folderHierarchy.size(), this.driveEmulator.getRequestCount("files.create"));
+
+		for (String folderName : folderHierarchy) {
+			Assertions.assertEquals(1, this.driveEmulator.findFiles(file -> GOOGLEAPI.FOLDER_MIME_TYPE.equals(file.getMimeType())
+					&& folderName.equals(file.getName())).size(), folderName);
+		}
+
+		String folderId = this.googleDriveService.doGetFolderIds(List.of(folderHierarchy)).get(folderHierarchy);
+
+		Assertions.assertEquals(PARALLEL_UPLOADS, this.driveEmulator.findFiles(file -> file.getParents().contains(folderId)).size());
+	}
+
+	@Test
+	void doGetFolderIds_whenDeepHierarchyMissing() throws Exception {
+		List<String> folderHierarchy = List.of("tenants", "acme", "2026", "10");
+		
+		String folderId = this.googleDriveService.doGetFolderIds(List.of(folderHierarchy)).get(folderHierarchy);
+		
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.list"));
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.generateIds"));
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("batch"));
+		Assertions.assertEquals(folderHierarchy.size(), this.driveEmulator.getRequestCount("files.create"));
+		
+		String parentFolderId = "root";
+		
+		for (String folderName : folderHierarchy) {
+			String folderParentId = parentFolderId;
+			List<com.google.api.services.drive.model.File> folders = this.driveEmulator.findFiles(file -> folderName.equals(file.getName())
+					&& file.getParents().contains(folderParentId));
+			
+			Assertions.assertEquals(1, folders.size(), folderName);
+			parentFolderId = folders.getFirst().getId();
+		}
+		
+		Assertions.assertEquals(parentFolderId, folderId);
+	}
+
+	@Test
+	void doGetFolderIds_whenResolvedAfterCacheLookup() throws Exception {
+		List<String> folderHierarchy = List.of("tenants", "acme");
+		AtomicBoolean resolvedConcurrently = new AtomicBoolean();
+		
+		// another caller's flight resolves the hierarchy right after this caller found it missing
+		this.googleDriveService.setFolderIdCache(new FolderIdCache() {
+			
+			@Override
+			public synchronized Optional<CachedAncestor> getDeepestAncestor(List<String> hierarchy) {
+				Optional<CachedAncestor> deepestAncestor = super.getDeepestAncestor(hierarchy);
+				
+				if (resolvedConcurrently.compareAndSet(false, true)) {
+					this.put(List.of("tenants"), "tenantsFolderId");
+					this.put(folderHierarchy, "acmeFolderId");
+				}
+				
+				return deepestAncestor;
+			}
+		});
+		
+		String folderId = this.googleDriveService.doGetFolderIds(List.of(folderHierarchy)).get(folderHierarchy);
+		
+		Assertions.assertEquals("acmeFolderId", folderId);
+		Assertions.assertEquals(0, this.driveEmulator.getRequestCount("files.list"));
+		Assertions.assertEquals(0, this.driveEmulator.getRequestCount("files.create"));
+	}
+
+	private java.io.File createTempFile(String fileName) throws Exception {
+		Path path = java.nio.file.Files.createTempFile(fileName, ".txt");
+		java.nio.file.Files.write(path, fileName.getBytes());
+
+		java.io.File file = path.toFile();
+		file.deleteOnExit();
+
+		return file;
+	}
+
+}
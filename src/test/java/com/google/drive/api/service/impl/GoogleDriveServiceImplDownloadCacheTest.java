@@ -0,0 +1,176 @@
+package com.google.drive.api.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.cache.DownloadCache;
+import com.google.drive.api.emulator.DriveEmulator;
+
+class GoogleDriveServiceImplDownloadCacheTest {
+
+	private static final int FILE_SIZE = 64 * 1024;
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+	private Path cacheDirectory;
+	private DownloadCache downloadCache;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+		this.cacheDirectory = Files.createTempDirectory("download-cache");
+		this.downloadCache = new DownloadCache(this.cacheDirectory, 2L * FILE_SIZE);
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+		this.googleDriveService.setDownloadCache(this.downloadCache);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		this.driveEmulator.close();
+
+		try (var paths = Files.walk(this.cacheDirectory)) {
+			paths.sorted((first, second) -> second.compareTo(first)).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Test
+	void doDownloadFile_whenContentCached() throws Exception {
+		byte[] content = this.content(1);
+		String fileId = this.driveEmulator.addFile(new File().setName("report.bin"), content).getId();
+
+		Assertions.assertArrayEquals(content, this.googleDriveService.doDownloadFile(fileId));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		this.googleDriveService.doDownloadFile(fileId, outputStream);
+		Path target = this.googleDriveService.doDownloadFile(fileId, Files.createTempFile("report", ".bin"));
+
+		Assertions.assertArrayEquals(content, outputStream.toByteArray());
+		Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+		Files.delete(target);
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.download"));
+		Assertions.assertEquals(1, this.downloadCache.count());
+	}
+
+	@Test
+	void doDownloadFile_whenContentChanged() throws Exception {
+		String fileId = this.driveEmulator.addFile(new File().setName("report.bin"), this.content(1)).getId();
+		this.googleDriveService.doDownloadFile(fileId);
+
+		byte[] changedContent = this.content(2);
+		this.driveEmulator.addFile(new File().setId(fileId).setName("report.bin"), changedContent);
+
+		Assertions.assertArrayEquals(changedContent, this.googleDriveService.doDownloadFile(fileId));
+		Assertions.assertArrayEquals(changedContent, this.googleDriveService.doDownloadFile(fileId));
+		Assertions.assertEquals(2, this.driveEmulator.getRequestCount("files.download"));
+		Assertions.assertEquals(1, this.downloadCache.count());
+		Assertions.assertEquals(FILE_SIZE, this.downloadCache.size());
+	}
+
+	@Test
+	void doDownloadFile_whenCacheFull() throws Exception {
+		String firstFileId = this.driveEmulator.addFile(new File().setName("first.bin"), this.content(1)).getId();
+		String secondFileId = this.driveEmulator.addFile(new File().setName("second.bin"), this.content(2)).getId();
+		String thirdFileId = this.driveEmulator.addFile(new File().setName("third.bin"), this.content(3)).getId();
+
+		this.googleDriveService.doDownloadFile(firstFileId);
+		this.googleDriveService.doDownloadFile(secondFileId);
+		this.googleDriveService.doDownloadFile(firstFileId);
+		this.googleDriveService.doDownloadFile(thirdFileId);
+
+		Assertions.assertEquals(3, this.driveEmulator.getRequestCount("files.download"));
+		Assertions.assertEquals(2L * FILE_SIZE, this.downloadCache.size());
+
+		// the second file was the least recently used one
+		this.googleDriveService.doDownloadFile(firstFileId);
+		this.googleDriveService.doDownloadFile(secondFileId);
+
+		Assertions.assertEquals(4, this.driveEmulator.getRequestCount("files.download"));
+		Assertions.assertTrue(this.downloadCache.size() <= 2L * FILE_SIZE);
+	}
+
+	@Test
+	void doDownloadFile_whenCacheReopened() throws Exception {
+		byte[] content = this.content(1);
+		String fileId = this.driveEmulator.addFile(new File().setName("report.bin"), content).getId();
+		this.googleDriveService.doDownloadFile(fileId);
+
+		this.googleDriveService.setDownloadCache(new DownloadCache(this.cacheDirectory, 2L * FILE_SIZE));
+
+		Assertions.assertArrayEquals(content, this.googleDriveService.doDownloadFile(fileId));
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.download"));
+	}
+
+	@Test
+	void doDownloadFile_whenCachedFileDeleted() throws Exception {
+		byte[] content = this.content(1);
+		String fileId = this.driveEmulator.addFile(new File().setName("report.bin"), content).getId();
+		this.googleDriveService.doDownloadFile(fileId);
+
+		try (var paths = Files.list(this.cacheDirectory)) {
+			for (Path path : paths.toList()) {
+				Files.delete(path);
+			}
+		}
+
+		Assertions.assertArrayEquals(content, this.googleDriveService.doDownloadFile(fileId));
+		Assertions.assertArrayEquals(content, this.googleDriveService.doDownloadFile(fileId));
+		Assertions.assertEquals(2, this.driveEmulator.getRequestCount("files.download"));
+		Assertions.assertEquals(1, this.downloadCache.count());
+		Assertions.assertEquals(FILE_SIZE, this.downloadCache.size());
+	}
+
+	@Test
+	void doDownloadFile_whenConcurrentMisses() throws Exception {
+		byte[] content = this.content(1);
+		String fileId = this.driveEmulator.addFile(new File().setName("report.bin"), content).getId();
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (int round = 1; round <= 20; round++) {
+				CountDownLatch startGate = new CountDownLatch(1);
+				List<Future<byte[]>> downloads = new ArrayList<>();
+
+				for (int i = 0; i < 8; i++) {
+					downloads.add(executor.submit(() -> {
+						startGate.await();
+						return this.googleDriveService.doDownloadFile(fileId);
+					}));
+				}
+
+				startGate.countDown();
+
+				for (Future<byte[]> download : downloads) {
+					Assertions.assertArrayEquals(content, download.get());
+				}
+
+				// misses losing the race to a finished download are served from the cache
+				Assertions.assertEquals(round, this.driveEmulator.getRequestCount("files.download"));
+				Assertions.assertArrayEquals(content, this.googleDriveService.doDownloadFile(fileId));
+
+				this.downloadCache.invalidate(fileId);
+			}
+		}
+	}
+
+	private byte[] content(long seed) {
+		byte[] content = new byte[FILE_SIZE];
+		new Random(seed).nextBytes(content);
+		return content;
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.google.drive.api.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.download.RangedDownloader;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.exception.GoogleApiGeneralErrorException;
+
+class GoogleDriveServiceImplDownloadTest {
+
+	private static final int FILE_SIZE = 4 * 1024 * 1024;
+	private static final int CHUNK_SIZE = 256 * 1024;
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+	private Path targetDirectory;
+	private byte[] content;
+	private String fileId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+		this.googleDriveService.setRangedDownloader(new RangedDownloader(CHUNK_SIZE, 4, 2));
+
+		this.targetDirectory = Files.createTempDirectory("downloads");
+		this.content = new byte[FILE_SIZE];
+		new Random(42).nextBytes(this.content);
+		this.fileId = this.driveEmulator.addFile(new File().setName("large.bin"), this.content).getId();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		this.driveEmulator.close();
+
+		try (var paths = Files.walk(this.targetDirectory)) {
+			paths.sorted((first, second) -> second.compareTo(first)).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Test
+	void doDownloadFile_whenStreamingToOutputStream() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		this.googleDriveService.doDownloadFile(this.fileId, outputStream);
+
+		Assertions.assertArrayEquals(this.content, outputStream.toByteArray());
+	}
+
+	@Test
+	void doDownloadFile_whenStreamingToChannel() throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		this.googleDriveService.doDownloadFile(this.fileId, Channels.newChannel(outputStream));
+
+		Assertions.assertArrayEquals(this.content, outputStream.toByteArray());
+	}
+
+	@Test
+	void doDownloadFile_whenTargetPathExists() throws Exception {
+		Path target = this.targetDirectory.resolve("large.bin");
+		Files.write(target, "previous content".getBytes());
+
+		Path result = this.googleDriveService.doDownloadFile(this.fileId, target);
+
+		Assertions.assertEquals(target, result);
+		Assertions.assertArrayEquals(this.content, Files.readAllBytes(target));
+
+		try (var paths = Files.list(this.targetDirectory)) {
+			Assertions.assertEquals(1, paths.count());
+		}
+	}
+
+	@Test
+	void doDownloadFile_whenFileNotFoundKeepTargetPath() throws Exception {
+		Path target = this.targetDirectory.resolve("large.bin");
+		Files.write(target, "previous content".getBytes());
+
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class, () -> this.googleDriveService.doDownloadFile("missingFileId", target));
+		Assertions.assertEquals("previous content", Files.readString(target));
+
+		try (var paths = Files.list(this.targetDirectory)) {
+			Assertions.assertEquals(1, paths.count());
+		}
+	}
+
+	@Test
+	void doDownloadFileInRanges_whenLargeFile() throws Exception {
+		Path target = this.targetDirectory.resolve("large.bin");
+
+		this.googleDriveService.doDownloadFileInRanges(this.fileId, target);
+
+		Assertions.assertArrayEquals(this.content, Files.readAllBytes(target));
+		Assertions.assertEquals(FILE_SIZE / CHUNK_SIZE, this.driveEmulator.getRequestCount("files.download"));
+	}
+
+	@Test
+	void doDownloadFileInRanges_whenRangeFailsRetryRange() throws Exception {
+		Path target = this.targetDirectory.resolve("large.bin");
+		this.driveEmulator.failNext("files.download", 2);
+
+		this.googleDriveService.doDownloadFileInRanges(this.fileId, target);
+
+		Assertions.assertArrayEquals(this.content, Files.readAllBytes(target));
+		Assertions.assertEquals(FILE_SIZE / CHUNK_SIZE + 2, this.driveEmulator.getRequestCount("files.download"));
+	}
+
+	@Test
+	void doDownloadFileInRanges_whenRangeKeepsFailingKeepTargetPath() throws Exception {
+		Path target = this.targetDirectory.resolve("large.bin");
+		Files.write(target, "previous content".getBytes());
+		this.driveEmulator.failNext("files.download", Integer.MAX_VALUE);
+
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class, () -> this.googleDriveService.doDownloadFileInRanges(this.fileId, target));
+		Assertions.assertEquals("previous content", Files.readString(target));
+
+		try (var paths = Files.list(this.targetDirectory)) {
+			Assertions.assertEquals(1, paths.count());
+		}
+	}
+
+}
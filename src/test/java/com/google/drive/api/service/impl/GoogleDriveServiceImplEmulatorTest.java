@@ -0,0 +1,56 @@
+package com.google.drive.api.service.impl;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.config.EmulatedGoogleServiceAutoConfig;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.domain.DriveFileList;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.emulator.DriveEmulator.Fault;
+
+@SpringBootTest
+@Import({ EmulatedGoogleServiceAutoConfig.class })
+@ActiveProfiles(profiles = "emulator")
+class GoogleDriveServiceImplEmulatorTest {
+
+	@Autowired
+	private DriveEmulator driveEmulator;
+
+	@Autowired
+	private GoogleDriveServiceImpl googleDriveService;
+
+	@Test
+	void uploadFileToFolder_whenEmulated() {
+		byte[] content = new byte[16 * 1024];
+		new Random(42).nextBytes(content);
+
+		DriveFile driveFile = this.googleDriveService.uploadFileToFolder(List.of("emulated", "uploads"), "report.bin", content,
+				"application/octet-stream", false);
+		DriveFileList driveFileList = this.googleDriveService.getFolderFiles(List.of("emulated", "uploads"));
+
+		Assertions.assertEquals(1, driveFileList.getDriveFiles().size());
+		Assertions.assertEquals(driveFile.getFileId(), driveFileList.getDriveFiles().get(0).getFileId());
+		Assertions.assertArrayEquals(content, this.googleDriveService.downloadFile(driveFile.getFileId()));
+		Assertions.assertArrayEquals(content, this.driveEmulator.getContent(driveFile.getFileId()).orElseThrow());
+	}
+
+	@Test
+	void downloadFile_whenTransientServerError() {
+		String fileId = this.driveEmulator.addFile(new File().setName("retried.bin"), new byte[] { 1, 2, 3 }).getId();
+		int downloads = this.driveEmulator.getRequestCount("files.download");
+		this.driveEmulator.injectFaults("files.download", Fault.UNAVAILABLE);
+
+		Assertions.assertArrayEquals(new byte[] { 1, 2, 3 }, this.googleDriveService.downloadFile(fileId));
+		Assertions.assertEquals(downloads + 2, this.driveEmulator.getRequestCount("files.download"));
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.google.drive.api.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.domain.DriveFileList;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.index.MetadataIndex;
+
+class GoogleDriveServiceImplIndexTest {
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+	private MetadataIndex metadataIndex;
+	private String folderId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+
+		this.folderId = this.driveEmulator.addFile(new File().setName("reports").setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE), new byte[0]).getId();
+
+		for (String fileName : List.of("a.pdf", "b.pdf", "notes.txt")) {
+			this.driveEmulator.addFile(new File().setName(fileName).setParents(new ArrayList<>(List.of(this.folderId))), new byte[] { 1 });
+		}
+
+		this.metadataIndex = new MetadataIndex(this.driveEmulator.newDriveService(), Duration.ofHours(1), Duration.ofMinutes(5));
+		this.metadataIndex.refresh();
+		this.googleDriveService.setMetadataIndex(this.metadataIndex);
+
+		// resolve the folder once, so that lookups only hit the folder id cache
+		this.googleDriveService.doGetFolderIds(List.of(List.of("reports")));
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.metadataIndex.close();
+		this.driveEmulator.close();
+	}
+
+	@Test
+	void doGetFileByNameAndParentFolder_whenIndexFresh() throws Exception {
+		int listRequests = this.driveEmulator.getRequestCount("files.list");
+
+		Assertions.assertEquals("b.pdf", this.googleDriveService.doGetFileByNameAndParentFolder(List.of("reports"), "b.pdf").orElseThrow().getFileName());
+		Assertions.assertTrue(this.googleDriveService.doGetFileByNameAndParentFolder(List.of("reports"), "missing.pdf").isEmpty());
+		Assertions.assertEquals(listRequests, this.driveEmulator.getRequestCount("files.list"));
+	}
+
+	@Test
+	void doGetFolderFiles_whenIndexFresh() throws Exception {
+		int listRequests = this.driveEmulator.getRequestCount("files.list");
+
+		DriveFileList firstPage = this.googleDriveService.doGetFolderFiles(List.of("reports"), 2, null);
+		DriveFileList secondPage = this.googleDriveService.doGetFolderFiles(List.of("reports"), 2, firstPage.getPageToken());
+		DriveFileList filtered = this.googleDriveService.doGetFolderFilesByFileNameFilter(List.of("reports"), ".pdf", 10, null);
+
+		Assertions.assertEquals(List.of("a.pdf", "b.pdf"), firstPage.getDriveFiles().stream().map(DriveFile::getFileName).toList());
+		Assertions.assertEquals(List.of("notes.txt"), secondPage.getDriveFiles().stream().map(DriveFile::getFileName).toList());
+		Assertions.assertNull(secondPage.getPageToken());
+		Assertions.assertEquals(2, filtered.getDriveFiles().size());
+		Assertions.assertEquals(listRequests, this.driveEmulator.getRequestCount("files.list"));
+	}
+
+	@Test
+	void refresh_whenFilesChangedRemotely() throws Exception {
+		this.driveEmulator.addFile(new File().setName("c.pdf").setParents(new ArrayList<>(List.of(this.folderId))), new byte[] { 2 });
+		String deletedFileId = this.driveEmulator.findFiles(file -> "a.pdf".equals(file.getName())).get(0).getId();
+		this.driveEmulator.newDriveService().files().delete(deletedFileId).execute();
+
+		this.metadataIndex.refresh();
+
+		Assertions.assertTrue(this.googleDriveService.doGetFileByNameAndParentFolder(List.of("reports"), "c.pdf").isPresent());
+		Assertions.assertTrue(this.googleDriveService.doGetFileByNameAndParentFolder(List.of("reports"), "a.pdf").isEmpty());
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("changes.list"));
+	}
+
+	@Test
+	void doGetFileByNameAndParentFolder_whenUploadedThroughService() throws Exception {
+		byte[] content = { 3 };
+		this.googleDriveService.doUploadFileToFolder(List.of("reports"), "uploaded.pdf", new ByteArrayInputStream(content), content.length, 
+				"application/pdf", false);
+
+		Assertions.assertTrue(this.googleDriveService.doGetFileByNameAndParentFolder(List.of("reports"), "uploaded.pdf").isPresent());
+	}
+
+	@Test
+	void listFiles_whenUploadedThroughServiceKeepIndexedFields() throws Exception {
+		byte[] content = { 3 };
+		this.googleDriveService.doUploadFileToFolder(List.of("reports"), "uploaded.pdf", new ByteArrayInputStream(content), content.length, 
+				"application/pdf", false);
+
+		File indexedFile = this.metadataIndex.listFiles(this.folderId, "uploaded", null, null).items().getFirst();
+
+		Assertions.assertEquals("application/pdf", indexedFile.getMimeType());
+		Assertions.assertEquals(content.length, indexedFile.getSize());
+		Assertions.assertNotNull(indexedFile.getMd5Checksum());
+		Assertions.assertNotNull(indexedFile.getModifiedTime());
+	}
+
+	@Test
+	void doGetFileByNameAndParentFolder_whenIndexStale() throws Exception {
+		MetadataIndex staleIndex = new MetadataIndex(this.driveEmulator.newDriveService(), Duration.ofHours(1), Duration.ZERO);
+		staleIndex.refresh();
+		this.googleDriveService.setMetadataIndex(staleIndex);
+		Thread.sleep(5);
+
+		int listRequests = this.driveEmulator.getRequestCount("files.list");
+
+		Assertions.assertTrue(this.googleDriveService.doGetFileByNameAndParentFolder(List.of("reports"), "b.pdf").isPresent());
+		Assertions.assertEquals(listRequests + 1, this.driveEmulator.getRequestCount("files.list"));
+
+		staleIndex.close();
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.google.drive.api.service.impl;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.emulator.DriveEmulator;
+
+class GoogleDriveServiceImplListingTest {
+
+	private static final int FOLDER_FILES = 2500;
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+
+		String folderId = this.driveEmulator.addFile(new File().setName("reports").setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE), new byte[0]).getId();
+
+		for (int i = 0; i < FOLDER_FILES; i++) {
+			this.driveEmulator.addFile(new File().setName((i % 2 == 0 ? "even-" : "odd-") + i).setParents(new ArrayList<>(List.of(folderId))), new byte[] { 1 });
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.driveEmulator.close();
+	}
+
+	@Test
+	void doStreamFolderFiles_whenManyPages() throws Exception {
+		try (Stream<DriveFile> driveFiles = this.googleDriveService.doStreamFolderFiles(List.of("reports"), null)) {
+			Set<String> fileIds = driveFiles.map(DriveFile::getFileId).collect(Collectors.toSet());
+
+			Assertions.assertEquals(FOLDER_FILES, fileIds.size());
+		}
+
+		// one folder lookup and three pages of 1000 files
+		Assertions.assertEquals(4, this.driveEmulator.getRequestCount("files.list"));
+	}
+
+	@Test
+	void doStreamFolderFiles_whenFileNameFilter() throws Exception {
+		try (Stream<DriveFile> driveFiles = this.googleDriveService.doStreamFolderFiles(List.of("reports"), "odd-")) {
+			List<DriveFile> oddFiles = driveFiles.toList();
+
+			Assertions.assertEquals(FOLDER_FILES / 2, oddFiles.size());
+			Assertions.assertTrue(oddFiles.stream().allMatch(driveFile -> driveFile.getFileName().startsWith("odd-")));
+		}
+	}
+
+	@Test
+	void doStreamFolderFiles_whenClosedEarly() throws Exception {
+		try (Stream<DriveFile> driveFiles = this.googleDriveService.doStreamFolderFiles(List.of("reports"), null)) {
+			Assertions.assertEquals(10, driveFiles.limit(10).count());
+		}
+
+		// the folder lookup, the first page and at most one prefetched page
+		Assertions.assertTrue(this.driveEmulator.getRequestCount("files.list") <= 3);
+	}
+
+	@Test
+	void doStreamFolderFiles_whenPageFails() throws Exception {
+		Iterator<DriveFile> driveFiles = this.googleDriveService.doStreamFolderFiles(List.of("reports"), null).iterator();
+		this.driveEmulator.close();
+
+		Assertions.assertThrows(UncheckedIOException.class, () -> {
+			while (driveFiles.hasNext()) {
+				driveFiles.next();
+			}
+		});
+	}
+
+}
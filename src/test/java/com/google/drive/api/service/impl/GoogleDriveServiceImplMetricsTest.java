@@ -0,0 +1,114 @@
+package com.google.drive.api.service.impl;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.drive.api.cache.DownloadCache;
+import com.google.drive.api.cache.FolderIdCache;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.exception.GoogleApiGeneralErrorException;
+import com.google.drive.api.metrics.DriveComponentMetrics;
+import com.google.drive.api.metrics.DriveMetrics;
+import com.google.drive.api.metrics.MeteringRequestInitializer;
+import com.google.drive.api.ratelimit.AdaptiveRateLimiter;
+import com.google.drive.api.retry.RetryPolicy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GoogleDriveServiceImplMetricsTest {
+
+	private static final int FILE_SIZE = 64 * 1024;
+
+	private DriveEmulator driveEmulator;
+	private MeterRegistry meterRegistry;
+	private FolderIdCache folderIdCache;
+	private GoogleDriveServiceImpl googleDriveService;
+	private byte[] content;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+		this.meterRegistry = new SimpleMeterRegistry();
+		this.folderIdCache = new FolderIdCache();
+
+		DriveMetrics driveMetrics = new DriveMetrics(this.meterRegistry);
+		new DriveComponentMetrics(this.folderIdCache, new DownloadCache(), new RetryPolicy(), new AdaptiveRateLimiter()).bindTo(this.meterRegistry);
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setCredentials(GoogleCredentials.create(new AccessToken("token", new Date(System.currentTimeMillis() + 3_600_000))));
+		this.googleDriveService.setFolderIdCache(this.folderIdCache);
+		this.googleDriveService.setDriveMetrics(driveMetrics);
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService(new MeteringRequestInitializer(null, driveMetrics)));
+
+		this.content = new byte[FILE_SIZE];
+		new Random(42).nextBytes(this.content);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.driveEmulator.close();
+	}
+
+	@Test
+	void uploadFileToFolder_whenMetricsEnabled() throws Exception {
+		this.googleDriveService.uploadFileToFolder(List.of("tenants", "acme"), "report.bin", this.content, "application/octet-stream", false);
+
+		Assertions.assertEquals(1, this.meterRegistry.get("google.drive.operation")
+				.tags("operation", "uploadFileToFolder", "outcome", "SUCCESS", "status", "none").timer().count());
+		Assertions.assertEquals(1, this.meterRegistry.get("google.drive.operation.phase").tag("phase", DriveMetrics.CREDENTIALS_PHASE).timer().count());
+		Assertions.assertEquals(1, this.meterRegistry.get("google.drive.operation.phase").tag("phase", DriveMetrics.FOLDER_RESOLUTION_PHASE).timer().count());
+		Assertions.assertTrue(this.meterRegistry.get("google.drive.requests").tags("api", "files.list", "status", "200").timer().count() >= 1);
+		Assertions.assertTrue(this.meterRegistry.get("google.drive.transfer").tags("api", "files.upload", "direction", "upload").summary().totalAmount()
+				>= FILE_SIZE);
+
+		// a folder lookup, the folder ids, the batch of two folder creations and its calls, and the upload
+		Assertions.assertTrue(this.meterRegistry.get("google.drive.operation.requests").tag("operation", "uploadFileToFolder").summary().max() >= 5);
+	}
+
+	@Test
+	void downloadFile_whenMetricsEnabled() throws Exception {
+		String fileId = this.driveEmulator.addFile(new File().setName("report.bin"), this.content).getId();
+
+		Assertions.assertArrayEquals(this.content, this.googleDriveService.downloadFile(fileId));
+
+		Assertions.assertEquals(1, this.meterRegistry.get("google.drive.requests").tags("api", "files.download", "outcome", "SUCCESS").timer().count());
+		Assertions.assertEquals((double) FILE_SIZE, this.meterRegistry.get("google.drive.transfer").tags("api", "files.download").summary().totalAmount());
+		Assertions.assertEquals(1.0, this.meterRegistry.get("google.drive.operation.requests").tag("operation", "downloadFile").summary().totalAmount());
+	}
+
+	@Test
+	void deleteFile_whenFileNotFound() throws Exception {
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class, () -> this.googleDriveService.deleteFile("missing"));
+
+		Assertions.assertEquals(1, this.meterRegistry.get("google.drive.operation").tags("operation", "deleteFile", "outcome", "ERROR", "status", "404",
+				"exception", "GoogleApiGeneralErrorException").timer().count());
+		Assertions.assertEquals(1, this.meterRegistry.get("google.drive.requests").tags("api", "files.delete", "outcome", "CLIENT_ERROR").timer().count());
+	}
+
+	@Test
+	void getFolderFilesByFileNameFilter_whenOperationNested() throws Exception {
+		this.googleDriveService.getFolderFilesByFileNameFilter(List.of("reports"), "report");
+
+		Assertions.assertEquals(1, this.meterRegistry.get("google.drive.operation").tag("operation", "getFolderFilesByFileNameFilter").timer().count());
+	}
+
+	@Test
+	void uploadFileToFolder_whenFolderCached() throws Exception {
+		this.googleDriveService.uploadFileToFolder(List.of("tenants", "acme"), "first.bin", this.content, "application/octet-stream", false);
+		this.googleDriveService.uploadFileToFolder(List.of("tenants", "acme"), "second.bin", this.content, "application/octet-stream", false);
+
+		Assertions.assertEquals(1.0, this.meterRegistry.get("google.drive.cache.gets").tags("cache", "folder", "result", "hit").functionCounter().count());
+		Assertions.assertEquals(2.0, this.meterRegistry.get("google.drive.cache.size").tag("cache", "folder").gauge().value());
+	}
+
+}
@@ -0,0 +1,120 @@
+package com.google.drive.api.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.domain.DriveBatchResult;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.domain.DriveFileField;
+import com.google.drive.api.emulator.DriveEmulator;
+
+class GoogleDriveServiceImplProjectionTest {
+
+	private static final int FOLDER_FILES = 200;
+	private static final byte[] CONTENT = "quarterly report".getBytes(StandardCharsets.UTF_8);
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+	private String fileId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+
+		String folderId = this.driveEmulator.addFile(new File().setName("reports").setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE), new byte[0]).getId();
+
+		for (int i = 0; i < FOLDER_FILES; i++) {
+			File file = this.driveEmulator.addFile(new File().setName("report-" + i).setMimeType("text/plain")
+					.setModifiedTime(new DateTime(1_700_000_000_000L)).setParents(new ArrayList<>(List.of(folderId))), CONTENT);
+
+			this.fileId = file.getId();
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.driveEmulator.close();
+	}
+
+	@Test
+	void doGetFolderFiles_whenOnlyIdsRequested() throws Exception {
+		List<DriveFile> driveFiles = this.googleDriveService.doGetFolderFiles(List.of("reports"), FOLDER_FILES, null, EnumSet.of(DriveFileField.ID))
+				.getDriveFiles();
+
+		Assertions.assertEquals(FOLDER_FILES, driveFiles.size());
+		Assertions.assertTrue(driveFiles.stream().allMatch(driveFile -> driveFile.getFileId() != null));
+		Assertions.assertTrue(driveFiles.stream().allMatch(driveFile -> driveFile.getFileName() == null && driveFile.getUploadDate() == null));
+	}
+
+	@Test
+	void doGetFolderFiles_whenFewerFieldsRequested() throws Exception {
+		long idsOnlyBytes = this.bytesSent(() -> this.googleDriveService.doGetFolderFiles(List.of("reports"), FOLDER_FILES, null, EnumSet.of(DriveFileField.ID)));
+		long allFieldsBytes = this.bytesSent(
+				() -> this.googleDriveService.doGetFolderFiles(List.of("reports"), FOLDER_FILES, null, EnumSet.allOf(DriveFileField.class)));
+
+		Assertions.assertTrue(idsOnlyBytes < allFieldsBytes);
+		Assertions.assertTrue(this.driveEmulator.getRequestCount("responses.gzip") > 0);
+	}
+
+	@Test
+	void doGetFileByNameAndParentFolder_whenChecksumRequested() throws Exception {
+		DriveFile driveFile = this.googleDriveService.doGetFileByNameAndParentFolder(List.of("reports"), "report-0",
+				EnumSet.of(DriveFileField.NAME, DriveFileField.MIME_TYPE, DriveFileField.SIZE, DriveFileField.MD5_CHECKSUM, DriveFileField.MODIFIED_TIME))
+				.orElseThrow();
+
+		Assertions.assertEquals("report-0", driveFile.getFileName());
+		Assertions.assertEquals("text/plain", driveFile.getMimeType());
+		Assertions.assertEquals(Long.valueOf(CONTENT.length), driveFile.getSize());
+		Assertions.assertEquals(32, driveFile.getMd5Checksum().length());
+		Assertions.assertEquals(1_700_000_000_000L, driveFile.getModifiedDate().getTimeInMillis());
+		Assertions.assertNull(driveFile.getParentIds());
+		Assertions.assertNull(driveFile.getUploadDate());
+	}
+
+	@Test
+	void doGetFilesMetadata_whenDefaultFields() throws Exception {
+		List<DriveBatchResult<DriveFile>> results = this.googleDriveService.doGetFilesMetadata(List.of(this.fileId), DriveFileField.DEFAULT);
+		DriveFile driveFile = results.get(0).getResult();
+
+		Assertions.assertEquals("report-" + (FOLDER_FILES - 1), driveFile.getFileName());
+		Assertions.assertEquals(1, driveFile.getParentIds().size());
+		Assertions.assertNotNull(driveFile.getUploadDate());
+		Assertions.assertNull(driveFile.getSize());
+		Assertions.assertNull(driveFile.getMd5Checksum());
+	}
+
+	@Test
+	void fileFieldMask_whenIdNotRequested() {
+		Assertions.assertEquals("id, name, size", DriveFileField.fileFieldMask(Set.of(DriveFileField.SIZE, DriveFileField.NAME)));
+		Assertions.assertEquals("nextPageToken, files(id)", DriveFileField.listFieldMask(Set.of()));
+	}
+
+	private long bytesSent(ThrowingRunnable request) throws Exception {
+		long bytesSent = this.driveEmulator.getBytesSent();
+		request.run();
+
+		return this.driveEmulator.getBytesSent() - bytesSent;
+	}
+
+	@FunctionalInterface
+	private interface ThrowingRunnable {
+
+		void run() throws Exception;
+
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.google.drive.api.service.impl;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.ratelimit.AdaptiveRateLimiter;
+import com.google.drive.api.ratelimit.RateLimitingRequestInitializer;
+
+class GoogleDriveServiceImplRateLimitTest {
+
+	private static final int PARALLEL_UPLOADS = 16;
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+		this.driveEmulator.setLatency(Duration.ofMillis(10));
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.driveEmulator.close();
+	}
+
+	@Test
+	void doUploadFileToFolder_whenPacedBelowQuota() throws Exception {
+		this.driveEmulator.setRateLimit(40);
+		AdaptiveRateLimiter rateLimiter = new AdaptiveRateLimiter(20, 5, 1, 4);
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService(new RateLimitingRequestInitializer(null, rateLimiter)));
+
+		List<Future<DriveFile>> uploads = this.uploadInParallel(2 * PARALLEL_UPLOADS);
+
+		for (Future<DriveFile> upload : uploads) {
+			Assertions.assertNotNull(upload.get().getFileId());
+		}
+
+		Assertions.assertEquals(0, this.driveEmulator.getRequestCount("rateLimited"));
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("batch"));
+		Assertions.assertTrue(this.driveEmulator.getMaxConcurrentRequests() <= 4);
+		Assertions.assertEquals(0, rateLimiter.getInFlightRequests());
+	}
+
+	@Test
+	void doUploadFileToFolder_whenQuotaExceeded() throws Exception {
+		this.driveEmulator.setRateLimit(10);
+		AdaptiveRateLimiter rateLimiter = new AdaptiveRateLimiter(0, 1, 1, PARALLEL_UPLOADS);
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService(new RateLimitingRequestInitializer(null, rateLimiter)));
+
+		List<Throwable> failures = new ArrayList<>();
+
+		for (Future<DriveFile> upload : this.uploadInParallel(2 * PARALLEL_UPLOADS)) {
+			try {
+				upload.get();
+
+			} catch (ExecutionException e) {
+				failures.add(e.getCause());
+			}
+		}
+
+		Assertions.assertFalse(failures.isEmpty());
+		Assertions.assertTrue(rateLimiter.getConcurrencyLimit() < PARALLEL_UPLOADS);
+		Assertions.assertEquals(0, rateLimiter.getInFlightRequests());
+
+		// the error body is left readable after the rate limit reason was peeked
+		Assertions.assertTrue(failures.stream()
+				.map(Throwable::getCause)
+				.filter(GoogleJsonResponseException.class::isInstance)
+				.map(cause -> ((GoogleJsonResponseException) cause).getDetails())
+				.anyMatch(details -> "userRateLimitExceeded".equals(details.getErrors().getFirst().getReason())));
+	}
+
+	private List<Future<DriveFile>> uploadInParallel(int uploadCount) throws Exception {
+		List<Future<DriveFile>> uploads = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_UPLOADS)) {
+			for (int i = 0; i < uploadCount; i++) {
+				java.io.File file = this.createTempFile("upload-" + i);
+				uploads.add(executor.submit(() -> this.googleDriveService.doUploadFileToFolder(List.of("reports", "2026"), file, false)));
+			}
+		}
+
+		return uploads;
+	}
+
+	private java.io.File createTempFile(String fileName) throws Exception {
+		Path path = java.nio.file.Files.createTempFile(fileName, ".txt");
+		java.nio.file.Files.write(path, fileName.getBytes());
+
+		java.io.File file = path.toFile();
+		file.deleteOnExit();
+
+		return file;
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.google.drive.api.service.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.emulator.DriveEmulator.Fault;
+import com.google.drive.api.exception.GoogleApiGeneralErrorException;
+import com.google.drive.api.retry.RetryPolicy;
+import com.google.drive.api.retry.RetryingRequestInitializer;
+
+class GoogleDriveServiceImplRetryTest {
+
+	private static final int READ_TIMEOUT_MILLIS = 300;
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+	private RetryPolicy retryPolicy;
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+		this.retryPolicy = new RetryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(50), 2, Duration.ofSeconds(5));
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService(
+				new RetryingRequestInitializer(request -> request.setReadTimeout(READ_TIMEOUT_MILLIS), this.retryPolicy)));
+
+		String folderId = this.driveEmulator.addFile(new File().setName("reports").setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE), new byte[0]).getId();
+		this.driveEmulator.addFile(new File().setName("a.pdf").setParents(new ArrayList<>(List.of(folderId))), new byte[] { 1 });
+
+		this.file = Files.createTempFile("retry", ".txt");
+		Files.writeString(this.file, "content");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		this.driveEmulator.close();
+		Files.deleteIfExists(this.file);
+	}
+
+	@Test
+	void doDownloadFile_whenTransientServerErrors() throws Exception {
+		String fileId = this.driveEmulator.addFile(new File().setName("report.bin"), new byte[] { 1, 2, 3 }).getId();
+		this.driveEmulator.injectFaults("files.download", Fault.UNAVAILABLE, Fault.BAD_GATEWAY);
+
+		Assertions.assertArrayEquals(new byte[] { 1, 2, 3 }, this.googleDriveService.doDownloadFile(fileId));
+		Assertions.assertEquals(3, this.driveEmulator.getRequestCount("files.download"));
+		Assertions.assertEquals(2, this.retryPolicy.getRetries());
+	}
+
+	@Test
+	void doDownloadFile_whenRetriesExhausted() {
+		String fileId = this.driveEmulator.addFile(new File().setName("report.bin"), new byte[] { 1, 2, 3 }).getId();
+		this.driveEmulator.injectFaults("files.download", Fault.INTERNAL_ERROR, Fault.INTERNAL_ERROR, Fault.INTERNAL_ERROR, Fault.INTERNAL_ERROR);
+
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class, () -> this.googleDriveService.doDownloadFile(fileId));
+		Assertions.assertEquals(4, this.driveEmulator.getRequestCount("files.download"));
+		Assertions.assertEquals(3, this.retryPolicy.getRetries());
+		Assertions.assertEquals(1, this.retryPolicy.getExhaustedRetries());
+	}
+
+	@Test
+	void doGetFolderFiles_whenResponseTimedOut() throws Exception {
+		this.driveEmulator.injectFaults("files.list", Fault.TIMEOUT);
+
+		Assertions.assertEquals(1, this.googleDriveService.doGetFolderFiles(List.of("reports"), 10, null).getDriveFiles().size());
+		Assertions.assertEquals(1, this.retryPolicy.getRetries());
+	}
+
+	@Test
+	void doUploadFileToFolder_whenCreateResponseTimedOut() throws Exception {
+		this.googleDriveService.doGetFolderIds(List.of(List.of("reports")));
+		this.driveEmulator.injectFaults("files.upload", Fault.TIMEOUT);
+
+		// the file was created before the response was lost, a retry would duplicate it
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class, 
+				() -> this.googleDriveService.doUploadFileToFolder(List.of("reports"), this.file, null, false));
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.upload"));
+		Assertions.assertEquals(1, this.driveEmulator.findFiles(file -> this.file.getFileName().toString().equals(file.getName())).size());
+		Assertions.assertEquals(0, this.retryPolicy.getRetries());
+	}
+
+	@Test
+	void doUploadFileToFolder_whenCreateRateLimited() throws Exception {
+		this.googleDriveService.doGetFolderIds(List.of(List.of("reports")));
+		this.driveEmulator.injectFaults("files.upload", Fault.RATE_LIMITED, Fault.UNAVAILABLE);
+
+		// rejected before being processed the first time, the second failure may have created the file
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class, 
+				() -> this.googleDriveService.doUploadFileToFolder(List.of("reports"), this.file, null, false));
+		Assertions.assertEquals(2, this.driveEmulator.getRequestCount("files.upload"));
+		Assertions.assertEquals(1, this.retryPolicy.getRetries());
+
+		this.driveEmulator.injectFaults("files.upload", Fault.RATE_LIMITED);
+
+		Assertions.assertNotNull(this.googleDriveService.doUploadFileToFolder(List.of("reports"), this.file, null, false).getFileId());
+		Assertions.assertEquals(1, this.driveEmulator.findFiles(file -> this.file.getFileName().toString().equals(file.getName())).size());
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.google.drive.api.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.domain.DriveSyncReport;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.upload.ResumableUploader;
+import com.google.drive.api.upload.UploadJournal;
+
+class GoogleDriveServiceImplSyncTest {
+
+	private static final long RESUMABLE_THRESHOLD = 256 * 1024;
+	private static final int CHUNK_SIZE = 256 * 1024;
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+	private Path localDirectory;
+	private Path journalDirectory;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+
+		this.localDirectory = Files.createTempDirectory("sync");
+		this.journalDirectory = Files.createTempDirectory("sync-journal");
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+		this.googleDriveService.setResumableUploader(new ResumableUploader(RESUMABLE_THRESHOLD, CHUNK_SIZE, 0,
+				new UploadJournal(this.journalDirectory)));
+
+		this.write("a.txt", "alpha");
+		this.write("docs/b.txt", "bravo");
+		this.write("docs/nested/c.txt", "charlie");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		this.driveEmulator.close();
+
+		for (Path directory : List.of(this.localDirectory, this.journalDirectory)) {
+			try (var paths = Files.walk(directory)) {
+				paths.sorted((first, second) -> second.compareTo(first)).forEach(path -> path.toFile().delete());
+			}
+		}
+	}
+
+	@Test
+	void doSyncDirectory_whenRemoteFolderEmpty() throws Exception {
+		DriveSyncReport report = this.googleDriveService.doSyncDirectory(this.localDirectory, List.of("backup"), false, false);
+
+		Assertions.assertTrue(report.isSuccessful());
+		Assertions.assertEquals(List.of("docs", "docs/nested"), report.getCreatedFolders());
+		Assertions.assertEquals(List.of("a.txt", "docs/b.txt", "docs/nested/c.txt"), report.getUploadedFiles());
+		Assertions.assertEquals("charlie", this.remoteContent("c.txt"));
+	}
+
+	@Test
+	void doSyncDirectory_whenNothingChanged() throws Exception {
+		this.googleDriveService.doSyncDirectory(this.localDirectory, List.of("backup"), false, false);
+		int uploads = this.driveEmulator.getRequestCount("files.upload");
+
+		DriveSyncReport report = this.googleDriveService.doSyncDirectory(this.localDirectory, List.of("backup"), false, false);
+
+		Assertions.assertEquals(3, report.getUnchangedFiles());
+		Assertions.assertTrue(report.getUploadedFiles().isEmpty());
+		Assertions.assertTrue(report.getUpdatedFiles().isEmpty());
+		Assertions.assertEquals(0L, report.getTransferredBytes());
+		Assertions.assertEquals(uploads, this.driveEmulator.getRequestCount("files.upload"));
+		Assertions.assertEquals(0, this.driveEmulator.getRequestCount("files.update"));
+	}
+
+	@Test
+	void doSyncDirectory_whenFilesChanged() throws Exception {
+		this.googleDriveService.doSyncDirectory(this.localDirectory, List.of("backup"), false, false);
+
+		this.write("a.txt", "alpha, second version");
+		// same content with a new modification time, recognized by its md5 checksum
+		Files.setLastModifiedTime(this.localDirectory.resolve("docs/b.txt"), FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+		byte[] largeContent = new byte[(int) RESUMABLE_THRESHOLD * 2 + 1000];
+		new Random(42).nextBytes(largeContent);
+		Files.write(this.localDirectory.resolve("docs/nested/c.txt"), largeContent);
+
+		DriveSyncReport report = this.googleDriveService.doSyncDirectory(this.localDirectory, List.of("backup"), false, false);
+
+		Assertions.assertTrue(report.isSuccessful());
+		Assertions.assertEquals(List.of("a.txt", "docs/nested/c.txt"), report.getUpdatedFiles());
+		Assertions.assertEquals(1, report.getUnchangedFiles());
+		Assertions.assertEquals("alpha, second version", this.remoteContent("a.txt"));
+		Assertions.assertArrayEquals(largeContent, this.driveEmulator.getContent(this.remoteFile("c.txt").getId()).orElseThrow());
+		Assertions.assertEquals(1, this.driveEmulator.findFiles(file -> "a.txt".equals(file.getName())).size());
+		// one multipart update and one resumable session update, sent in chunks
+		Assertions.assertEquals(2, this.driveEmulator.getRequestCount("files.update"));
+		Assertions.assertTrue(this.driveEmulator.getRequestCount("files.upload.chunk") >= 3);
+	}
+
+	@Test
+	void doSyncDirectory_whenDeletingOrphans() throws Exception {
+		this.googleDriveService.doSyncDirectory(this.localDirectory, List.of("backup"), false, false);
+
+		String backupId = this.remoteFile("a.txt").getParents().get(0);
+		this.driveEmulator.addFile(new File().setName("old.txt").setParents(new ArrayList<>(List.of(backupId))), new byte[] { 1 });
+		String archiveId = this.driveEmulator.addFile(new File().setName("archive").setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE)
+				.setParents(new ArrayList<>(List.of(backupId))), new byte[0]).getId();
+		this.driveEmulator.addFile(new File().setName("2020.txt").setParents(new ArrayList<>(List.of(archiveId))), new byte[] { 2 });
+
+		DriveSyncReport report = this.googleDriveService.doSyncDirectory(this.localDirectory, List.of("backup"), true, false);
+
+		Assertions.assertEquals(List.of("archive", "old.txt"), report.getDeletedFiles());
+		Assertions.assertTrue(this.driveEmulator.findFiles(file -> "old.txt".equals(file.getName()) || "2020.txt".equals(file.getName())).isEmpty());
+		Assertions.assertEquals(2, this.driveEmulator.getRequestCount("files.delete"));
+	}
+
+	@Test
+	void doSyncDirectory_whenDryRun() throws Exception {
+		DriveSyncReport report = this.googleDriveService.doSyncDirectory(this.localDirectory, List.of("backup"), true, true);
+
+		Assertions.assertTrue(report.isDryRun());
+		Assertions.assertEquals(List.of("docs", "docs/nested"), report.getCreatedFolders());
+		Assertions.assertEquals(List.of("a.txt", "docs/b.txt", "docs/nested/c.txt"), report.getUploadedFiles());
+		Assertions.assertEquals(0, this.driveEmulator.getRequestCount("files.create"));
+		Assertions.assertEquals(0, this.driveEmulator.getRequestCount("files.upload"));
+		Assertions.assertTrue(this.driveEmulator.findFiles(file -> "backup".equals(file.getName())).isEmpty());
+	}
+
+	private void write(String relativePath, String content) throws Exception {
+		Path file = this.localDirectory.resolve(relativePath);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, content);
+	}
+
+	private File remoteFile(String name) {
+		return this.driveEmulator.findFiles(file -> name.equals(file.getName())).get(0);
+	}
+
+	private String remoteContent(String name) {
+		return new String(this.driveEmulator.getContent(this.remoteFile(name).getId()).orElseThrow(), StandardCharsets.UTF_8);
+	}
+
+}
@@ -29,6 +29,7 @@ import com.google.api.services.drive.model.Permission;
 import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
 import com.google.drive.api.config.MockedGoogleServiceAutoConfig;
 import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.domain.DriveFileField;
 import com.google.drive.api.domain.DriveFileList;
 import com.google.drive.api.exception.GoogleApiGeneralErrorException;
 
@@ -77,7 +78,7 @@ class GoogleDriveServiceImplTest {
 		Mockito.when(this.files.list()).thenReturn(this.list);
 		Mockito.when(this.list.setQ(String.format(GOOGLEAPI.FILE_QUERY_IN_FOLDER, fileName, childFolderId))).thenReturn(this.list);
 		Mockito.when(this.list.setSpaces(GOOGLEAPI.DRIVE_SPACES)).thenReturn(this.list);
-		Mockito.when(this.list.setFields(GOOGLEAPI.FILE_FIELDS)).thenReturn(this.list);
+		Mockito.when(this.list.setFields(DriveFileField.listFieldMask(DriveFileField.DEFAULT))).thenReturn(this.list);
 		Mockito.when(this.list.execute()).thenReturn(expectedResult);
 		
 		Optional<DriveFile> result = this.googleDriveService.doGetFileByNameAndParentFolder(folderHierarchy, fileName);
@@ -103,7 +104,7 @@ class GoogleDriveServiceImplTest {
 		Mockito.when(this.files.list()).thenReturn(this.list);
 		Mockito.when(this.list.setQ(String.format(GOOGLEAPI.FILE_QUERY_IN_FOLDER, fileName, childFolderId))).thenReturn(this.list);
 		Mockito.when(this.list.setSpaces(GOOGLEAPI.DRIVE_SPACES)).thenReturn(this.list);
-		Mockito.when(this.list.setFields(GOOGLEAPI.FILE_FIELDS)).thenReturn(this.list);
+		Mockito.when(this.list.setFields(DriveFileField.listFieldMask(DriveFileField.DEFAULT))).thenReturn(this.list);
 		Mockito.when(this.list.execute()).thenReturn(null);
 		
 		Optional<DriveFile> result = this.googleDriveService.doGetFileByNameAndParentFolder(folderHierarchy, fileName);
@@ -127,7 +128,7 @@ class GoogleDriveServiceImplTest {
 		
 		Mockito.when(this.list.setQ(queryParent.toString())).thenReturn(this.listParent);
 		Mockito.when(this.listParent.setSpaces(GOOGLEAPI.DRIVE_SPACES)).thenReturn(this.listParent);
-		Mockito.when(this.listParent.setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)).thenReturn(this.listParent);
+		Mockito.when(this.listParent.setFields(GOOGLEAPI.FOLDER_ID_QUERY_FIELDS)).thenReturn(this.listParent);
 		Mockito.when(this.listParent.setPageToken(null)).thenReturn(this.listParent);
 		Mockito.when(this.listParent.execute()).thenReturn(expectedParentResult);
 		
@@ -136,7 +137,7 @@ class GoogleDriveServiceImplTest {
 		
 		Mockito.when(this.list.setQ(queryChild.toString())).thenReturn(this.listChild);
 		Mockito.when(this.listChild.setSpaces(GOOGLEAPI.DRIVE_SPACES)).thenReturn(this.listChild);
-		Mockito.when(this.listChild.setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)).thenReturn(this.listChild);
+		Mockito.when(this.listChild.setFields(GOOGLEAPI.FOLDER_ID_QUERY_FIELDS)).thenReturn(this.listChild);
 		Mockito.when(this.listChild.setPageToken(null)).thenReturn(this.listChild);
 		Mockito.when(this.listChild.execute()).thenReturn(null);
 
@@ -182,7 +183,7 @@ class GoogleDriveServiceImplTest {
 		Mockito.when(this.files.list()).thenReturn(this.list);
 		Mockito.when(this.list.setQ(String.format(GOOGLEAPI.FILES_QUERY_IN_FOLDER, childFolderId))).thenReturn(this.list);
 		Mockito.when(this.list.setSpaces(GOOGLEAPI.DRIVE_SPACES)).thenReturn(this.list);
-		Mockito.when(this.list.setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)).thenReturn(this.list);
+		Mockito.when(this.list.setFields(DriveFileField.listFieldMask(DriveFileField.DEFAULT))).thenReturn(this.list);
 		Mockito.when(this.list.setPageSize(pageSize)).thenReturn(this.list);
 		Mockito.when(this.list.setPageToken(null)).thenReturn(this.list);
 		Mockito.when(this.list.execute()).thenReturn(null);
@@ -222,7 +223,7 @@ class GoogleDriveServiceImplTest {
 		Mockito.when(this.files.list()).thenReturn(this.list);
 		Mockito.when(this.list.setQ(String.format(GOOGLEAPI.FILES_QUERY_IN_FOLDER, childFolderId))).thenReturn(this.list);
 		Mockito.when(this.list.setSpaces(GOOGLEAPI.DRIVE_SPACES)).thenReturn(this.list);
-		Mockito.when(this.list.setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)).thenReturn(this.list);
+		Mockito.when(this.list.setFields(DriveFileField.listFieldMask(DriveFileField.DEFAULT))).thenReturn(this.list);
 		Mockito.when(this.list.setPageSize(pageSize)).thenReturn(this.list);
 		Mockito.when(this.list.setPageToken(null)).thenReturn(this.list);
 		Mockito.when(this.list.execute()).thenReturn(expectedResult);
@@ -266,7 +267,7 @@ class GoogleDriveServiceImplTest {
 		Mockito.when(this.files.list()).thenReturn(this.list);
 		Mockito.when(this.list.setQ(String.format(GOOGLEAPI.FILES_QUERY_IN_FOLDER_FILENAME_FILTER, childFolderId, fileNameFlter))).thenReturn(this.list);
 		Mockito.when(this.list.setSpaces(GOOGLEAPI.DRIVE_SPACES)).thenReturn(this.list);
-		Mockito.when(this.list.setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)).thenReturn(this.list);
+		Mockito.when(this.list.setFields(DriveFileField.listFieldMask(DriveFileField.DEFAULT))).thenReturn(this.list);
 		Mockito.when(this.list.setPageSize(pageSize)).thenReturn(this.list);
 		Mockito.when(this.list.setPageToken(null)).thenReturn(this.list);
 		Mockito.when(this.list.execute()).thenReturn(expectedResult);
@@ -305,7 +306,7 @@ class GoogleDriveServiceImplTest {
 		Mockito.when(this.files.list()).thenReturn(this.list);
 		Mockito.when(this.list.setQ(String.format(GOOGLEAPI.FILES_QUERY_IN_FOLDER_FILENAME_FILTER, childFolderId, fileNameFlter))).thenReturn(this.list);
 		Mockito.when(this.list.setSpaces(GOOGLEAPI.DRIVE_SPACES)).thenReturn(this.list);
-		Mockito.when(this.list.setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)).thenReturn(this.list);
+		Mockito.when(this.list.setFields(DriveFileField.listFieldMask(DriveFileField.DEFAULT))).thenReturn(this.list);
 		Mockito.when(this.list.setPageSize(pageSize)).thenReturn(this.list);
 		Mockito.when(this.list.setPageToken(null)).thenReturn(this.list);
 		Mockito.when(this.list.execute()).thenReturn(null);
@@ -412,7 +413,7 @@ class GoogleDriveServiceImplTest {
 		
 		Mockito.when(this.list.setQ(queryParent.toString())).thenReturn(this.listParent);
 		Mockito.when(this.listParent.setSpaces(GOOGLEAPI.DRIVE_SPACES)).thenReturn(this.listParent);
-		Mockito.when(this.listParent.setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)).thenReturn(this.listParent);
+		Mockito.when(this.listParent.setFields(GOOGLEAPI.FOLDER_ID_QUERY_FIELDS)).thenReturn(this.listParent);
 		Mockito.when(this.listParent.setPageToken(null)).thenReturn(this.listParent);
 		Mockito.when(this.listParent.execute()).thenReturn(expectedParentResult);
 		
@@ -428,7 +429,7 @@ class GoogleDriveServiceImplTest {
 		
 		Mockito.when(this.list.setQ(queryChild.toString())).thenReturn(this.listChild);
 		Mockito.when(this.listChild.setSpaces(GOOGLEAPI.DRIVE_SPACES)).thenReturn(this.listChild);
-		Mockito.when(this.listChild.setFields(GOOGLEAPI.FOLDER_QUERY_FIELDS)).thenReturn(this.listChild);
+		Mockito.when(this.listChild.setFields(GOOGLEAPI.FOLDER_ID_QUERY_FIELDS)).thenReturn(this.listChild);
 		Mockito.when(this.listChild.setPageToken(null)).thenReturn(this.listChild);
 		Mockito.when(this.listChild.execute()).thenReturn(expectedChildResult);
 		
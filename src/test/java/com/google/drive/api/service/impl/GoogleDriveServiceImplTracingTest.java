@@ -0,0 +1,166 @@
+package com.google.drive.api.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.domain.DriveFileField;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.emulator.DriveEmulator.Fault;
+import com.google.drive.api.metrics.DriveMetrics;
+import com.google.drive.api.metrics.DriveTracing;
+import com.google.drive.api.metrics.MeteringRequestInitializer;
+import com.google.drive.api.retry.RetryPolicy;
+import com.google.drive.api.retry.RetryingRequestInitializer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+
+class GoogleDriveServiceImplTracingTest {
+
+	private static final int FILE_SIZE = 64 * 1024;
+
+	private DriveEmulator driveEmulator;
+	private Queue<Observation.Context> observations;
+	private GoogleDriveServiceImpl googleDriveService;
+	private byte[] content;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+		this.observations = new ConcurrentLinkedQueue<>();
+
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig().observationHandler(new ObservationHandler<Observation.Context>() {
+
+			@Override
+			public void onStop(Observation.Context context) {
+				GoogleDriveServiceImplTracingTest.this.observations.add(context);
+			}
+
+			@Override
+			public boolean supportsContext(Observation.Context context) {
+				return true;
+			}
+		});
+
+		DriveTracing driveTracing = new DriveTracing(observationRegistry);
+		RetryPolicy retryPolicy = new RetryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(50), 2, Duration.ofSeconds(5));
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setCredentials(GoogleCredentials.create(new AccessToken("token", new Date(System.currentTimeMillis() + 3_600_000))));
+		this.googleDriveService.setDriveTracing(driveTracing);
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService(
+				new RetryingRequestInitializer(new MeteringRequestInitializer(null, new DriveMetrics(), driveTracing), retryPolicy)));
+
+		this.content = new byte[FILE_SIZE];
+		new Random(42).nextBytes(this.content);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.driveEmulator.close();
+	}
+
+	@Test
+	void uploadFileToFolder_whenTracingEnabled() throws Exception {
+		this.googleDriveService.uploadFileToFolder(List.of("tenants", "acme"), "report.bin", this.content, "application/octet-stream", false);
+
+		Observation.Context operation = this.find("google.drive.operation", "uploadFileToFolder");
+		Observation.Context credentials = this.find("google.drive.operation.phase", DriveMetrics.CREDENTIALS_PHASE);
+		Observation.Context folderResolution = this.find("google.drive.operation.phase", DriveMetrics.FOLDER_RESOLUTION_PHASE);
+		Observation.Context folderLookup = this.find("google.drive.request", "files.list");
+		Observation.Context folderCreation = this.find("google.drive.request", "batch");
+		Observation.Context upload = this.find("google.drive.request", "files.upload");
+
+		Assertions.assertNull(operation.getParentObservation());
+		Assertions.assertSame(operation, credentials.getParentObservation().getContextView());
+		Assertions.assertSame(operation, folderResolution.getParentObservation().getContextView());
+		Assertions.assertSame(folderResolution, folderLookup.getParentObservation().getContextView());
+		Assertions.assertSame(folderResolution, folderCreation.getParentObservation().getContextView());
+		Assertions.assertSame(operation, upload.getParentObservation().getContextView());
+
+		Assertions.assertEquals("2", folderResolution.getHighCardinalityKeyValue(DriveTracing.FOLDER_DEPTH).getValue());
+		Assertions.assertEquals("2", folderCreation.getHighCardinalityKeyValue(DriveTracing.BATCH_SIZE).getValue());
+		Assertions.assertEquals("200", upload.getLowCardinalityKeyValue("status").getValue());
+		Assertions.assertTrue(Long.parseLong(upload.getHighCardinalityKeyValue(DriveTracing.REQUEST_BYTES).getValue()) >= FILE_SIZE);
+	}
+
+	@Test
+	void getFolderFiles_whenPageSizeGiven() throws Exception {
+		String folderId = this.driveEmulator.addFile(new File().setName("reports").setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE), new byte[0]).getId();
+		this.driveEmulator.addFile(new File().setName("a.pdf").setParents(new ArrayList<>(List.of(folderId))), new byte[] { 1 });
+
+		this.googleDriveService.getFolderFiles(List.of("reports"), 25, null);
+
+		Observation.Context operation = this.find("google.drive.operation", "getFolderFiles");
+
+		Assertions.assertTrue(this.observations.stream()
+				.filter(context -> "files.list".equals(context.getContextualName()))
+				.anyMatch(context -> context.getHighCardinalityKeyValue(DriveTracing.PAGE_SIZE) != null
+						&& "25".equals(context.getHighCardinalityKeyValue(DriveTracing.PAGE_SIZE).getValue())
+						&& operation == context.getParentObservation().getContextView()));
+	}
+
+	@Test
+	void getFolderFilesByFileNameFilter_whenPageSizeMissing() throws Exception {
+		String folderId = this.driveEmulator.addFile(new File().setName("reports").setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE), new byte[0]).getId();
+		this.driveEmulator.addFile(new File().setName("a.pdf").setParents(new ArrayList<>(List.of(folderId))), new byte[] { 1 });
+
+		this.googleDriveService.getFolderFilesByFileNameFilter(List.of("reports"), ".pdf", null, null);
+		this.googleDriveService.getFolderFilesByFileNameFilter(List.of("reports"), ".pdf", null, null, DriveFileField.DEFAULT);
+
+		Assertions.assertEquals(2, this.observations.stream()
+				.filter(context -> "files.list".equals(context.getContextualName()))
+				.filter(context -> context.getHighCardinalityKeyValue(DriveTracing.PAGE_SIZE) != null)
+				.filter(context -> String.valueOf(GOOGLEAPI.DEFAULT_PAGE_SIZE).equals(context.getHighCardinalityKeyValue(DriveTracing.PAGE_SIZE).getValue()))
+				.count());
+	}
+
+	@Test
+	void downloadFile_whenTransientServerError() throws Exception {
+		String fileId = this.driveEmulator.addFile(new File().setName("report.bin"), this.content).getId();
+		this.driveEmulator.injectFaults("files.download", Fault.UNAVAILABLE);
+
+		Assertions.assertArrayEquals(this.content, this.googleDriveService.downloadFile(fileId));
+
+		List<Observation.Context> downloads = this.observations.stream()
+				.filter(context -> "files.download".equals(context.getContextualName()))
+				.toList();
+
+		Assertions.assertEquals(2, downloads.size());
+		Assertions.assertEquals("0", downloads.get(0).getHighCardinalityKeyValue(DriveTracing.RETRY_ATTEMPT).getValue());
+		Assertions.assertEquals("503", downloads.get(0).getLowCardinalityKeyValue("status").getValue());
+		Assertions.assertEquals("1", downloads.get(1).getHighCardinalityKeyValue(DriveTracing.RETRY_ATTEMPT).getValue());
+		Assertions.assertEquals(String.valueOf(FILE_SIZE), downloads.get(1).getHighCardinalityKeyValue(DriveTracing.RESPONSE_BYTES).getValue());
+	}
+
+	@Test
+	void deleteFile_whenFileNotFound() {
+		Assertions.assertThrows(RuntimeException.class, () -> this.googleDriveService.deleteFile("missing"));
+
+		Assertions.assertNotNull(this.find("google.drive.operation", "deleteFile").getError());
+	}
+
+	private Observation.Context find(String name, String contextualName) {
+		return this.observations.stream()
+				.filter(context -> name.equals(context.getName()) && contextualName.equals(context.getContextualName()))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError("No observation " + name + " " + contextualName + " in " + this.observations));
+	}
+
+}
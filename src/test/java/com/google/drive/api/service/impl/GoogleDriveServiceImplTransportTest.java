@@ -0,0 +1,127 @@
+package com.google.drive.api.service.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.config.DriveTransportProperties;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.emulator.DriveEmulator.Fault;
+import com.google.drive.api.exception.GoogleApiGeneralErrorException;
+import com.google.drive.api.transport.HttpTransportFactory;
+import com.google.drive.api.transport.TimeoutRequestInitializer;
+import com.google.drive.api.transport.TransportType;
+
+class GoogleDriveServiceImplTransportTest {
+
+	private static final int PARALLEL_DOWNLOADS = 16;
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+	private DriveTransportProperties transportProperties;
+	private HttpTransport httpTransport;
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+		this.transportProperties = new DriveTransportProperties();
+		this.googleDriveService = new GoogleDriveServiceImpl();
+
+		this.file = Files.createTempFile("transport", ".bin");
+		byte[] content = new byte[256 * 1024];
+		new Random(42).nextBytes(content);
+		Files.write(this.file, content);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (this.httpTransport != null) {
+			this.httpTransport.shutdown();
+		}
+
+		this.driveEmulator.close();
+		Files.deleteIfExists(this.file);
+	}
+
+	@Test
+	void doUploadFileToFolder_whenApacheTransport() throws Exception {
+		this.useTransport(TransportType.APACHE);
+
+		this.uploadDownloadAndDelete();
+	}
+
+	@Test
+	void doUploadFileToFolder_whenJdkTransport() throws Exception {
+		this.useTransport(TransportType.JDK);
+
+		this.uploadDownloadAndDelete();
+	}
+
+	@Test
+	void doDownloadFile_whenJdkTransportConnectionsBounded() throws Exception {
+		this.driveEmulator.setLatency(Duration.ofMillis(20));
+		this.transportProperties.setMaxConnectionsPerRoute(2);
+		this.useTransport(TransportType.JDK);
+
+		byte[] content = Files.readAllBytes(this.file);
+		String fileId = this.driveEmulator.addFile(new File().setName("report.bin"), content).getId();
+		List<Future<byte[]>> downloads = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_DOWNLOADS)) {
+			for (int i = 0; i < PARALLEL_DOWNLOADS; i++) {
+				downloads.add(executor.submit(() -> this.googleDriveService.doDownloadFile(fileId)));
+			}
+
+			for (Future<byte[]> download : downloads) {
+				Assertions.assertArrayEquals(content, download.get());
+			}
+		}
+
+		Assertions.assertEquals(PARALLEL_DOWNLOADS, this.driveEmulator.getRequestCount("files.download"));
+		Assertions.assertTrue(this.driveEmulator.getMaxConcurrentRequests() <= 2);
+	}
+
+	@Test
+	void doGetFolderFiles_whenJdkTransportReadTimeoutExceeded() throws Exception {
+		this.transportProperties.setReadTimeout(Duration.ofMillis(300));
+		this.useTransport(TransportType.JDK);
+		this.driveEmulator.injectFaults("files.list", Fault.TIMEOUT);
+
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class, () -> this.googleDriveService.doGetFolderFiles(List.of("reports"), 10, null));
+	}
+
+	private void useTransport(TransportType type) throws Exception {
+		this.transportProperties.setType(type);
+		this.httpTransport = HttpTransportFactory.create(this.transportProperties);
+
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService(this.httpTransport,
+				new TimeoutRequestInitializer(null, this.transportProperties.getConnectTimeout(), this.transportProperties.getReadTimeout())));
+	}
+
+	private void uploadDownloadAndDelete() throws Exception {
+		DriveFile driveFile = this.googleDriveService.doUploadFileToFolder(List.of("tenants", "acme"), this.file.toFile(), false);
+
+		Assertions.assertArrayEquals(Files.readAllBytes(this.file), this.googleDriveService.doDownloadFile(driveFile.getFileId()));
+		Assertions.assertEquals(1, this.googleDriveService.doGetFolderFiles(List.of("tenants", "acme"), 10, null).getDriveFiles().size());
+
+		this.googleDriveService.doDeleteFile(driveFile.getFileId());
+
+		Assertions.assertTrue(this.driveEmulator.getContent(driveFile.getFileId()).isEmpty());
+	}
+
+}
@@ -0,0 +1,165 @@
+package com.google.drive.api.service.impl;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.domain.DriveTreeEntry;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.emulator.DriveEmulator.Fault;
+import com.google.drive.api.walk.TreeWalker;
+
+class GoogleDriveServiceImplTreeTest {
+
+	private static final int PROJECTS = 30;
+	private static final int PARENTS_PER_QUERY = 20;
+
+	private DriveEmulator driveEmulator;
+	private GoogleDriveServiceImpl googleDriveService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+
+		this.googleDriveService = new GoogleDriveServiceImpl();
+		this.googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+		this.googleDriveService.setTreeWalker(new TreeWalker(4, PARENTS_PER_QUERY));
+
+		String rootId = this.addFolder("projects", null);
+
+		for (int i = 0; i < PROJECTS; i++) {
+			String projectId = this.addFolder("p" + i, rootId);
+			this.addFile("build.gradle", projectId);
+			this.addFile("settings.gradle", projectId);
+
+			String docsId = this.addFolder("docs", projectId);
+			this.addFile("readme.txt", docsId);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.driveEmulator.close();
+	}
+
+	@Test
+	void doWalkTree_whenNestedFolders() throws Exception {
+		this.googleDriveService.doGetFolderIds(List.of(List.of("projects")));
+		int lookupRequests = this.driveEmulator.getRequestCount("files.list");
+
+		try (Stream<DriveTreeEntry> entries = this.googleDriveService.doWalkTree(List.of("projects"))) {
+			Map<String, DriveTreeEntry> entriesByPath = entries.collect(Collectors.toMap(DriveTreeEntry::getRelativePath, entry -> entry));
+
+			Assertions.assertEquals(PROJECTS * 5, entriesByPath.size());
+			Assertions.assertTrue(entriesByPath.get("p3").isFolder());
+			Assertions.assertTrue(entriesByPath.get("p3/docs").isFolder());
+			Assertions.assertFalse(entriesByPath.get("p3/docs/readme.txt").isFolder());
+			Assertions.assertEquals("readme.txt", entriesByPath.get("p3/docs/readme.txt").getDriveFile().getFileName());
+			Assertions.assertEquals(List.of("p29", "settings.gradle"), entriesByPath.get("p29/settings.gradle").getPath());
+		}
+
+		// the root, then two queries of up to 20 parents for each of the two following levels
+		Assertions.assertEquals(5, this.driveEmulator.getRequestCount("files.list") - lookupRequests);
+	}
+
+	@Test
+	void doWalkTree_whenClosedEarly() throws Exception {
+		try (Stream<DriveTreeEntry> entries = this.googleDriveService.doWalkTree(List.of("projects"))) {
+			Assertions.assertEquals(5, entries.limit(5).count());
+		}
+	}
+
+	@Test
+	void doWalkTree_whenListingFails() throws Exception {
+		this.googleDriveService.doGetFolderIds(List.of(List.of("projects")));
+		this.driveEmulator.close();
+
+		Iterator<DriveTreeEntry> entries = this.googleDriveService.doWalkTree(List.of("projects")).iterator();
+
+		Assertions.assertThrows(UncheckedIOException.class, () -> {
+			while (entries.hasNext()) {
+				entries.next();
+			}
+		});
+	}
+
+	@Test
+	void walk_whenListingFailsWithFullQueue() throws Exception {
+		String rootId = this.addFolder("full", null);
+		this.addFolder("nested", rootId);
+
+		for (int i = 0; i < 3; i++) {
+			this.addFile("f" + i + ".txt", rootId);
+		}
+
+		int listRequests = this.driveEmulator.getRequestCount("files.list");
+		AtomicInteger mappedEntries = new AtomicInteger();
+
+		// the root entries fill the queue, then listing the nested folder fails
+		Iterator<String> entries = new TreeWalker(1, PARENTS_PER_QUERY, 4).walk(this.driveEmulator.newDriveService(), rootId,
+				GOOGLEAPI.TREE_QUERY_FIELDS, (file, path) -> {
+					if (mappedEntries.incrementAndGet() == 4) {
+						this.driveEmulator.injectFaults("files.list", Fault.INTERNAL_ERROR);
+					}
+
+					return file.getName();
+				}).iterator();
+
+		while (this.driveEmulator.getRequestCount("files.list") < listRequests + 2) {
+			Thread.sleep(10);
+		}
+
+		Thread.sleep(100);
+
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			List<String> walked = new ArrayList<>();
+
+			Assertions.assertThrows(UncheckedIOException.class, () -> entries.forEachRemaining(walked::add));
+			Assertions.assertEquals(4, walked.size());
+		});
+	}
+
+	@Test
+	void walk_whenEntryMapperFails() throws Exception {
+		String rootId = this.driveEmulator.findFiles(file -> "projects".equals(file.getName())).getFirst().getId();
+
+		Stream<String> entries = new TreeWalker(4, PARENTS_PER_QUERY).walk(this.driveEmulator.newDriveService(), rootId,
+				GOOGLEAPI.TREE_QUERY_FIELDS, (file, path) -> {
+					throw new IllegalStateException("Unmapped file " + file.getName());
+				});
+
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			try (entries) {
+				Assertions.assertThrows(IllegalStateException.class, () -> entries.forEach(entry -> { }));
+			}
+		});
+	}
+
+	private String addFolder(String name, String parentId) {
+		File folder = new File().setName(name).setMimeType(GOOGLEAPI.FOLDER_MIME_TYPE);
+
+		if (parentId != null) {
+			folder.setParents(new ArrayList<>(List.of(parentId)));
+		}
+
+		return this.driveEmulator.addFile(folder, new byte[0]).getId();
+	}
+
+	private void addFile(String name, String parentId) {
+		this.driveEmulator.addFile(new File().setName(name).setParents(new ArrayList<>(List.of(parentId))), new byte[] { 1 });
+	}
+
+}
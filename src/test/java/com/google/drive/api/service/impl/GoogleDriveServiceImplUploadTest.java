@@ -0,0 +1,285 @@
+package com.google.drive.api.service.impl;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.drive.api.DriveApiConstants.GOOGLEAPI;
+import com.google.drive.api.cache.FolderIdCache;
+import com.google.drive.api.domain.DriveFile;
+import com.google.drive.api.emulator.DriveEmulator;
+import com.google.drive.api.exception.GoogleApiGeneralErrorException;
+import com.google.drive.api.upload.ResumableUploader;
+import com.google.drive.api.upload.UploadJournal;
+
+class GoogleDriveServiceImplUploadTest {
+
+	private static final int CHUNK_SIZE = 256 * 1024;
+	private static final int RESUMABLE_THRESHOLD = 512 * 1024;
+	private static final List<String> FOLDER_HIERARCHY = List.of("uploads");
+
+	private DriveEmulator driveEmulator;
+	private Path workDirectory;
+	private Path journalDirectory;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.driveEmulator = DriveEmulator.start();
+		this.workDirectory = Files.createTempDirectory("uploads");
+		this.journalDirectory = this.workDirectory.resolve("journal");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		this.driveEmulator.close();
+
+		try (var paths = Files.walk(this.workDirectory)) {
+			paths.sorted((first, second) -> second.compareTo(first)).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Test
+	void doUploadFileToFolder_whenSmallFileUseSingleRequest() throws Exception {
+		java.io.File file = this.createFile("small.bin", 64 * 1024);
+
+		DriveFile result = this.newGoogleDriveService(0).doUploadFileToFolder(FOLDER_HIERARCHY, file, false);
+
+		Assertions.assertArrayEquals(Files.readAllBytes(file.toPath()), this.driveEmulator.getContent(result.getFileId()).orElseThrow());
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.upload"));
+		Assertions.assertEquals(0, this.driveEmulator.getRequestCount("files.upload.chunk"));
+	}
+
+	@Test
+	void doUploadFileToFolder_whenLargeFileUploadInChunks() throws Exception {
+		java.io.File file = this.createFile("large.bin", 4 * CHUNK_SIZE);
+
+		DriveFile result = this.newGoogleDriveService(0).doUploadFileToFolder(FOLDER_HIERARCHY, file, false);
+
+		Assertions.assertArrayEquals(Files.readAllBytes(file.toPath()), this.driveEmulator.getContent(result.getFileId()).orElseThrow());
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.upload"));
+		Assertions.assertEquals(4, this.driveEmulator.getRequestCount("files.upload.chunk"));
+		Assertions.assertTrue(this.isJournalEmpty());
+	}
+
+	@Test
+	void doUploadFileToFolder_whenChunkFailsResumeSession() throws Exception {
+		java.io.File file = this.createFile("large.bin", 4 * CHUNK_SIZE);
+		this.driveEmulator.failNext("files.upload.chunk", 2);
+
+		DriveFile result = this.newGoogleDriveService(2).doUploadFileToFolder(FOLDER_HIERARCHY, file, false);
+
+		Assertions.assertArrayEquals(Files.readAllBytes(file.toPath()), this.driveEmulator.getContent(result.getFileId()).orElseThrow());
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.upload"));
+	}
+
+	@Test
+	void doUploadFileToFolder_whenRestartedResumeFromJournal() throws Exception {
+		java.io.File file = this.createFile("large.bin", 4 * CHUNK_SIZE);
+		this.driveEmulator.failNext("files.upload.chunk", 1);
+
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class,
+				() -> this.newGoogleDriveService(0).doUploadFileToFolder(FOLDER_HIERARCHY, file, false));
+		Assertions.assertFalse(this.isJournalEmpty());
+
+		DriveFile result = this.newGoogleDriveService(0).doUploadFileToFolder(FOLDER_HIERARCHY, file, false);
+
+		Assertions.assertArrayEquals(Files.readAllBytes(file.toPath()), this.driveEmulator.getContent(result.getFileId()).orElseThrow());
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.upload"));
+		// failed first chunk, status query, then only the three remaining chunks
+		Assertions.assertEquals(5, this.driveEmulator.getRequestCount("files.upload.chunk"));
+		Assertions.assertTrue(this.isJournalEmpty());
+	}
+
+	@Test
+	void doUploadFileToFolder_whenSameSourceToOtherFolderStartNewSession() throws Exception {
+		java.io.File file = this.createFile("large.bin", 4 * CHUNK_SIZE);
+		this.driveEmulator.failNext("files.upload.chunk", 1);
+
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class,
+				() -> this.newGoogleDriveService(0).doUploadFileToFolder(FOLDER_HIERARCHY, file, false));
+
+		DriveFile result = this.newGoogleDriveService(0).doUploadFileToFolder(List.of("archive"), file, false);
+		String archiveFolderId = this.driveEmulator.findFiles(folder -> "archive".equals(folder.getName())).getFirst().getId();
+
+		Assertions.assertArrayEquals(Files.readAllBytes(file.toPath()), this.driveEmulator.getContent(result.getFileId()).orElseThrow());
+		Assertions.assertEquals(List.of(archiveFolderId), this.driveEmulator.findFiles(uploaded -> result.getFileId().equals(uploaded.getId()))
+				.getFirst().getParents());
+		Assertions.assertEquals(2, this.driveEmulator.getRequestCount("files.upload"));
+		// the interrupted session of the first folder is still journaled
+		Assertions.assertFalse(this.isJournalEmpty());
+	}
+
+	@Test
+	void upload_whenSessionUriMissingFailFast() throws Exception {
+		java.io.File file = this.createFile("large.bin", 4 * CHUNK_SIZE);
+		AtomicInteger requests = new AtomicInteger();
+
+		MockHttpTransport transport = new MockHttpTransport() {
+
+			@Override
+			public LowLevelHttpRequest buildRequest(String method, String url) {
+				requests.incrementAndGet();
+				return new MockLowLevelHttpRequest().setResponse(new MockLowLevelHttpResponse().setContentType("application/json").setContent("{}"));
+			}
+		};
+		Drive driveService = new Drive.Builder(transport, GsonFactory.getDefaultInstance(), null).setApplicationName("upload-test").build();
+		ResumableUploader resumableUploader = new ResumableUploader(RESUMABLE_THRESHOLD, CHUNK_SIZE, 2, new UploadJournal(this.journalDirectory));
+
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class, () -> resumableUploader.upload(driveService, 
+				new File().setName("large.bin"), "application/octet-stream", file.toPath(), GOOGLEAPI.FILE_FIELDS));
+		Assertions.assertEquals(1, requests.get());
+		Assertions.assertTrue(this.isJournalEmpty());
+	}
+
+	@Test
+	void doUploadFileToFolder_whenByteArrayDetectMimeType() throws Exception {
+		byte[] content = this.pngContent();
+
+		DriveFile result = this.newGoogleDriveService(0).uploadFileToFolder(FOLDER_HIERARCHY, "image", content, null, false);
+
+		Assertions.assertArrayEquals(content, this.driveEmulator.getContent(result.getFileId()).orElseThrow());
+		Assertions.assertEquals("image/png", this.getMimeType(result.getFileId()));
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.upload"));
+	}
+
+	@Test
+	void doUploadFileToFolder_whenByteBufferKeepPosition() throws Exception {
+		ByteBuffer content = ByteBuffer.allocateDirect(1024);
+		content.put(this.pngContent()).flip();
+
+		DriveFile result = this.newGoogleDriveService(0).uploadFileToFolder(FOLDER_HIERARCHY, "image.png", content, "image/png", false);
+
+		Assertions.assertEquals(0, content.position());
+		Assertions.assertArrayEquals(this.pngContent(), this.driveEmulator.getContent(result.getFileId()).orElseThrow());
+	}
+
+	@Test
+	void doUploadFileToFolder_whenInputStreamUnknownLengthUploadInChunks() throws Exception {
+		byte[] content = new byte[3 * CHUNK_SIZE + 100];
+		new Random(7).nextBytes(content);
+
+		DriveFile result = this.newGoogleDriveService(0).doUploadFileToFolder(FOLDER_HIERARCHY, "stream.bin", 
+				new ByteArrayInputStream(content), -1, "application/octet-stream", false);
+
+		Assertions.assertArrayEquals(content, this.driveEmulator.getContent(result.getFileId()).orElseThrow());
+		Assertions.assertEquals(4, this.driveEmulator.getRequestCount("files.upload.chunk"));
+	}
+
+	@Test
+	void doUploadFileToFolder_whenPathWithMimeType() throws Exception {
+		java.io.File file = this.createFile("report.bin", 1024);
+
+		DriveFile result = this.newGoogleDriveService(0).doUploadFileToFolder(FOLDER_HIERARCHY, file.toPath(), "application/pdf", false);
+
+		Assertions.assertEquals("report.bin", result.getFileName());
+		Assertions.assertEquals("application/pdf", this.getMimeType(result.getFileId()));
+	}
+
+	@Test
+	void doUploadFileToFolder_whenCachedFolderDeletedRetryByteArray() throws Exception {
+		GoogleDriveServiceImpl googleDriveService = this.newGoogleDriveService(0);
+		googleDriveService.setFolderIdCache(this.deletedFolderCache());
+		byte[] content = this.pngContent();
+
+		DriveFile result = googleDriveService.uploadFileToFolder(FOLDER_HIERARCHY, "image.png", content, "image/png", false);
+
+		Assertions.assertArrayEquals(content, this.driveEmulator.getContent(result.getFileId()).orElseThrow());
+		Assertions.assertEquals(2, this.driveEmulator.getRequestCount("files.upload"));
+	}
+
+	@Test
+	void doUploadFileToFolder_whenCachedFolderDeletedDoNotResendStream() throws Exception {
+		GoogleDriveServiceImpl googleDriveService = this.newGoogleDriveService(0);
+		FolderIdCache folderIdCache = this.deletedFolderCache();
+		googleDriveService.setFolderIdCache(folderIdCache);
+		BufferedInputStream content = new BufferedInputStream(new ByteArrayInputStream(this.pngContent()));
+
+		Assertions.assertThrows(GoogleApiGeneralErrorException.class, () -> googleDriveService.doUploadFileToFolder(FOLDER_HIERARCHY, 
+				"image.png", content, -1, "image/png", false));
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.upload"));
+		Assertions.assertTrue(folderIdCache.get(FOLDER_HIERARCHY).isEmpty());
+	}
+
+	@Test
+	void doUploadFileToFolder_whenCachedTopLevelFolderDeletedResolveAgain() throws Exception {
+		GoogleDriveServiceImpl googleDriveService = this.newGoogleDriveService(0);
+		FolderIdCache folderIdCache = this.deletedFolderCache();
+		googleDriveService.setFolderIdCache(folderIdCache);
+		List<String> folderHierarchy = List.of(FOLDER_HIERARCHY.getFirst(), "2026");
+		byte[] content = this.pngContent();
+
+		DriveFile result = googleDriveService.doUploadFileToFolder(folderHierarchy, "image.png", new BufferedInputStream(
+				new ByteArrayInputStream(content)), -1, "image/png", false);
+
+		Assertions.assertArrayEquals(content, this.driveEmulator.getContent(result.getFileId()).orElseThrow());
+		Assertions.assertEquals(1, this.driveEmulator.getRequestCount("files.upload"));
+		Assertions.assertNotEquals("deletedFolderId", folderIdCache.get(FOLDER_HIERARCHY).orElseThrow());
+		Assertions.assertEquals(folderIdCache.get(folderHierarchy).orElseThrow(), this.driveEmulator.findFiles(file -> 
+				result.getFileId().equals(file.getId())).getFirst().getParents().getFirst());
+	}
+
+	private GoogleDriveServiceImpl newGoogleDriveService(int maxRetries) {
+		GoogleDriveServiceImpl googleDriveService = new GoogleDriveServiceImpl() {
+
+			@Override
+			public void refreshCredentials() {
+				// emulator requests are not authenticated
+			}
+		};
+		googleDriveService.setDriveService(this.driveEmulator.newDriveService());
+		googleDriveService.setResumableUploader(new ResumableUploader(RESUMABLE_THRESHOLD, CHUNK_SIZE, maxRetries,
+				new UploadJournal(this.journalDirectory)));
+
+		return googleDriveService;
+	}
+
+	private java.io.File createFile(String fileName, int size) throws Exception {
+		byte[] content = new byte[size];
+		new Random(size).nextBytes(content);
+
+		return Files.write(this.workDirectory.resolve(fileName), content).toFile();
+	}
+
+	private FolderIdCache deletedFolderCache() {
+		FolderIdCache folderIdCache = new FolderIdCache();
+		folderIdCache.put(FOLDER_HIERARCHY, "deletedFolderId");
+
+		return folderIdCache;
+	}
+
+	private byte[] pngContent() {
+		return new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0x0D, 'I', 'H', 'D', 'R' };
+	}
+
+	private String getMimeType(String fileId) {
+		return this.driveEmulator.findFiles(file -> fileId.equals(file.getId())).getFirst().getMimeType();
+	}
+
+	private boolean isJournalEmpty() throws Exception {
+		if (!Files.exists(this.journalDirectory)) {
+			return true;
+		}
+
+		try (var paths = Files.list(this.journalDirectory)) {
+			return paths.findAny().isEmpty();
+		}
+	}
+
+}
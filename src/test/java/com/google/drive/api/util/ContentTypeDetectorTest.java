@@ -0,0 +1,80 @@
+package com.google.drive.api.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ContentTypeDetectorTest {
+
+	private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+	private Path directory;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("content-types");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		try (var paths = Files.walk(this.directory)) {
+			paths.sorted((first, second) -> second.compareTo(first)).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Test
+	void detect_whenUnambiguousExtension() throws IOException {
+		ContentTypeDetector contentTypeDetector = new ContentTypeDetector();
+
+		Assertions.assertEquals("application/pdf", contentTypeDetector.detect(this.directory.resolve("missing.pdf")));
+		Assertions.assertEquals("application/pdf", contentTypeDetector.detect(this.directory.resolve("other.PDF")));
+		Assertions.assertEquals(1, contentTypeDetector.cacheSize());
+	}
+
+	@Test
+	void detect_whenNoExtension() throws IOException {
+		ContentTypeDetector contentTypeDetector = new ContentTypeDetector();
+		Path first = Files.write(this.directory.resolve("first"), this.pngContent((byte) 1));
+		Path second = Files.write(this.directory.resolve("second"), this.pngContent((byte) 2));
+
+		Assertions.assertEquals("image/png", contentTypeDetector.detect(first));
+		Assertions.assertEquals("image/png", contentTypeDetector.detect(second));
+		Assertions.assertEquals(1, contentTypeDetector.cacheSize());
+	}
+
+	@Test
+	void detect_whenStream() throws IOException {
+		ContentTypeDetector contentTypeDetector = new ContentTypeDetector();
+		InputStream content = new ByteArrayInputStream(this.pngContent((byte) 1));
+
+		Assertions.assertEquals("image/png", contentTypeDetector.detect(content, "image"));
+		Assertions.assertEquals(0x89, content.read());
+	}
+
+	@Test
+	void detect_whenGenericContentNotCached() throws IOException {
+		ContentTypeDetector contentTypeDetector = new ContentTypeDetector();
+		byte[] content = new byte[128];
+		Arrays.fill(content, (byte) 7);
+
+		contentTypeDetector.detect(Files.write(this.directory.resolve("blob"), content));
+
+		Assertions.assertEquals(0, contentTypeDetector.cacheSize());
+	}
+
+	private byte[] pngContent(byte fill) {
+		byte[] content = new byte[256];
+		Arrays.fill(content, 32, content.length, fill);
+		System.arraycopy(PNG_SIGNATURE, 0, content, 0, PNG_SIGNATURE.length);
+		return content;
+	}
+
+}